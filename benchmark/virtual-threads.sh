@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+#
+# Throughput of the application with the virtual-threads profile off and on at
+# a fixed heap. Both runs use the same jar, heap, endpoint and load, only the
+# active profile differs.
+#
+# Requires JDK 21+, wrk and a reachable MySQL configured for the application.
+#
+#   EMS_TOKEN=<access token> ./benchmark/virtual-threads.sh
+#
+set -euo pipefail
+
+HEAP="${HEAP:-512m}"
+CONNECTIONS="${CONNECTIONS:-400}"
+THREADS="${THREADS:-4}"
+DURATION="${DURATION:-60s}"
+WARMUP="${WARMUP:-15s}"
+PORT="${PORT:-8081}"
+ENDPOINT="${ENDPOINT:-/ems-app/permission/details?size=50}"
+: "${EMS_TOKEN:?set EMS_TOKEN to an access token of a test employee}"
+
+cd "$(dirname "$0")/.."
+./mvnw -q -DskipTests package
+JAR="$(ls target/ems2p0-*.jar | grep -v original | head -n 1)"
+
+run() {
+	local profiles="$1"
+	java -Xms"$HEAP" -Xmx"$HEAP" -Djdk.tracePinnedThreads=short \
+		-jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profiles" \
+		> "target/benchmark-${profiles:-default}.log" 2>&1 &
+	local pid=$!
+	until curl -sf "http://localhost:$PORT/ems-app/authentication/welcome-page" > /dev/null; do sleep 1; done
+	wrk -t"$THREADS" -c"$CONNECTIONS" -d"$WARMUP" -H "Authorization: Bearer $EMS_TOKEN" \
+		"http://localhost:$PORT$ENDPOINT" > /dev/null
+	echo "== profile: ${profiles:-default}, heap: $HEAP, connections: $CONNECTIONS"
+	wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency -H "Authorization: Bearer $EMS_TOKEN" \
+		"http://localhost:$PORT$ENDPOINT" | grep -E "Requests/sec|Latency|50%|99%|Socket errors"
+	echo "pinned thread reports: $(grep -c 'onPinned\|<== monitors' "target/benchmark-${profiles:-default}.log" || true)"
+	kill "$pid"
+	wait "$pid" 2> /dev/null || true
+}
+
+run ""
+run "virtual-threads"
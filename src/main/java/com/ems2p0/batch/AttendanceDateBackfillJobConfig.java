@@ -0,0 +1,128 @@
+package com.ems2p0.batch;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.ems2p0.utils.concurrent.WorkerThreads;
+
+/**
+ * EMS 2.0 - Backfill job which copies the legacy text check-in and check-out
+ * dates of the attendance records into their typed and indexed date columns.
+ * The rows still missing a typed date are partitioned by ranges of the record
+ * id and converted in chunks, so the migration runs online next to the check-in
+ * and check-out traffic.
+ *
+ * @author Mohan
+ * @category Batch module
+ * @version v1.0.0
+ * @apiNote - The job instance is identified by the migration version, once it
+ *          is completed it is never launched again. Only the typed columns
+ *          which are still empty are written and the text dates which match
+ *          neither of the known formats are left empty instead of failing the
+ *          chunk.
+ */
+@Configuration
+public class AttendanceDateBackfillJobConfig {
+
+	public static final String JOB_NAME = "attendanceDateBackfillJob";
+
+	public static final String MIGRATION = "migration";
+
+	public static final String MIGRATION_VERSION = "empattendance-typed-dates-v1";
+
+	private static final String MISSING_TYPED_DATE = "((in_date IS NULL AND indate IS NOT NULL) "
+			+ "OR (out_date IS NULL AND outdate IS NOT NULL))";
+
+	@Value("${ems.batch.attendance-date-backfill.grid-size}")
+	private int gridSize;
+
+	@Value("${ems.batch.attendance-date-backfill.chunk-size}")
+	private int chunkSize;
+
+	@Bean
+	public Job attendanceDateBackfillJob(JobRepository jobRepository, Step attendanceDateBackfillStep) {
+		return new JobBuilder(JOB_NAME, jobRepository).start(attendanceDateBackfillStep).build();
+	}
+
+	@Bean
+	public Step attendanceDateBackfillStep(JobRepository jobRepository, Step attendanceDateBackfillWorkerStep,
+			DataSource dataSource, WorkerThreads workerThreads) {
+		return new StepBuilder("attendanceDateBackfillStep", jobRepository)
+				.partitioner(attendanceDateBackfillWorkerStep.getName(),
+						new IdRangePartitioner(new NamedParameterJdbcTemplate(dataSource), "empattendance",
+								"registerid", MISSING_TYPED_DATE, Map.of()))
+				.step(attendanceDateBackfillWorkerStep).gridSize(gridSize)
+				.taskExecutor(workerThreads.taskExecutor("ems-date-backfill-", gridSize)).build();
+	}
+
+	@Bean
+	public Step attendanceDateBackfillWorkerStep(JobRepository jobRepository,
+			PlatformTransactionManager transactionManager, JdbcPagingItemReader<Integer> attendanceDateBackfillReader,
+			ItemWriter<Integer> attendanceDateBackfillWriter) {
+		return new StepBuilder("attendanceDateBackfillWorkerStep", jobRepository)
+				.<Integer, Integer>chunk(chunkSize, transactionManager).reader(attendanceDateBackfillReader)
+				.writer(attendanceDateBackfillWriter).listener(new BatchChunkListener()).build();
+	}
+
+	/**
+	 * Reader of the record ids of the partition which are missing a typed date,
+	 * pages are fetched after the last read id so the converted rows never shift a
+	 * page
+	 */
+	@Bean
+	@StepScope
+	public JdbcPagingItemReader<Integer> attendanceDateBackfillReader(DataSource dataSource,
+			@Value("#{stepExecutionContext['" + IdRangePartitioner.MIN_ID + "']}") Long minId,
+			@Value("#{stepExecutionContext['" + IdRangePartitioner.MAX_ID + "']}") Long maxId) {
+		return new JdbcPagingItemReaderBuilder<Integer>().name("attendanceDateBackfillReader").dataSource(dataSource)
+				.selectClause("SELECT registerid").fromClause("FROM empattendance")
+				.whereClause("WHERE " + MISSING_TYPED_DATE + " AND registerid BETWEEN :minId AND :maxId")
+				.parameterValues(Map.of("minId", minId, "maxId", maxId))
+				.sortKeys(Map.of("registerid", Order.ASCENDING)).pageSize(chunkSize)
+				.rowMapper((resultSet, rowNum) -> resultSet.getInt("registerid")).build();
+	}
+
+	/**
+	 * Writer to convert the text dates of the chunk in a single batched statement,
+	 * the text is matched against the formats before it is parsed so a malformed
+	 * date never fails the update in the strict sql mode
+	 */
+	@Bean
+	public ItemWriter<Integer> attendanceDateBackfillWriter(DataSource dataSource) {
+		NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+		String sql = "UPDATE empattendance SET in_date = COALESCE(in_date, " + toDate("indate") + "), "
+				+ "out_date = COALESCE(out_date, " + toDate("outdate") + ") WHERE registerid = :registerid";
+		return chunk -> jdbcTemplate.batchUpdate(sql,
+				chunk.getItems().stream().map(registerid -> new MapSqlParameterSource("registerid", registerid))
+						.toArray(SqlParameterSource[]::new));
+	}
+
+	/**
+	 * Conversion of a text date column written either as yyyy-MM-dd or as
+	 * dd-MM-yyyy
+	 */
+	private static String toDate(String column) {
+		return "CASE WHEN " + column + " REGEXP '^[0-9]{4}-[0-9]{2}-[0-9]{2}$' THEN STR_TO_DATE(" + column
+				+ ", '%Y-%m-%d') WHEN " + column + " REGEXP '^[0-9]{2}-[0-9]{2}-[0-9]{4}$' THEN STR_TO_DATE(" + column
+				+ ", '%d-%m-%Y') END";
+	}
+}
@@ -0,0 +1,185 @@
+package com.ems2p0.batch;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ems2p0.components.NotificationComponent;
+import com.ems2p0.dao.service.EmsDaoService;
+import com.ems2p0.enums.Ems2p0Status;
+import com.ems2p0.utils.Ems2p0Constants;
+import com.ems2p0.utils.concurrent.WorkerThreads;
+
+/**
+ * EMS 2.0 - Auto approve job which approves the permissions and the work from
+ * home requests of the day which are still pending. The pending rows are
+ * partitioned by ranges of their id, read by keyset pages and approved in
+ * chunks through the bulk status update of the dao layer, the decision
+ * notifications of a chunk are sent once it is committed.
+ *
+ * @author Mohan
+ * @category Batch module
+ * @version v1.0.0
+ * @apiNote - The job instance is identified by the approval date and only the
+ *          rows which are still pending are approved, so a restarted or a
+ *          repeated run never approves a request twice or overrides a decision
+ *          taken meanwhile.
+ */
+@Configuration
+public class AutoApproveJobConfig {
+
+	public static final String JOB_NAME = "autoApproveJob";
+
+	public static final String APPROVE_DATE = "approveDate";
+
+	private static final String PENDING_PERMISSION = "permission_status = " + Ems2p0Status.PENDING.ordinal()
+			+ " AND date = :approveDate";
+
+	private static final String PENDING_WFH = "wfh_status = " + Ems2p0Status.PENDING.ordinal()
+			+ " AND start_date = :approveDate";
+
+	@Value("${ems.batch.auto-approve.grid-size}")
+	private int gridSize;
+
+	@Value("${ems.batch.auto-approve.chunk-size}")
+	private int chunkSize;
+
+	@Bean
+	public Job autoApproveJob(JobRepository jobRepository, Step autoApprovePermissionStep,
+			Step autoApproveWfhStep) {
+		return new JobBuilder(JOB_NAME, jobRepository).start(autoApprovePermissionStep).next(autoApproveWfhStep)
+				.build();
+	}
+
+	@Bean
+	@StepScope
+	public IdRangePartitioner autoApprovePermissionPartitioner(DataSource dataSource,
+			@Value("#{jobParameters['" + APPROVE_DATE + "']}") String approveDate) {
+		return new IdRangePartitioner(new NamedParameterJdbcTemplate(dataSource), "emp_permission_details", "id",
+				PENDING_PERMISSION, Map.of(APPROVE_DATE, LocalDate.parse(approveDate)));
+	}
+
+	@Bean
+	@StepScope
+	public IdRangePartitioner autoApproveWfhPartitioner(DataSource dataSource,
+			@Value("#{jobParameters['" + APPROVE_DATE + "']}") String approveDate) {
+		return new IdRangePartitioner(new NamedParameterJdbcTemplate(dataSource), "emp_wfh_details", "id",
+				PENDING_WFH, Map.of(APPROVE_DATE, LocalDate.parse(approveDate)));
+	}
+
+	@Bean
+	public Step autoApprovePermissionStep(JobRepository jobRepository, Step autoApprovePermissionWorkerStep,
+			IdRangePartitioner autoApprovePermissionPartitioner, WorkerThreads workerThreads) {
+		return new StepBuilder("autoApprovePermissionStep", jobRepository)
+				.partitioner(autoApprovePermissionWorkerStep.getName(), autoApprovePermissionPartitioner)
+				.step(autoApprovePermissionWorkerStep).gridSize(gridSize)
+				.taskExecutor(workerThreads.taskExecutor("ems-auto-approve-", gridSize)).build();
+	}
+
+	@Bean
+	public Step autoApproveWfhStep(JobRepository jobRepository, Step autoApproveWfhWorkerStep,
+			IdRangePartitioner autoApproveWfhPartitioner, WorkerThreads workerThreads) {
+		return new StepBuilder("autoApproveWfhStep", jobRepository)
+				.partitioner(autoApproveWfhWorkerStep.getName(), autoApproveWfhPartitioner)
+				.step(autoApproveWfhWorkerStep).gridSize(gridSize)
+				.taskExecutor(workerThreads.taskExecutor("ems-auto-approve-", gridSize)).build();
+	}
+
+	@Bean
+	public Step autoApprovePermissionWorkerStep(JobRepository jobRepository,
+			PlatformTransactionManager transactionManager, JdbcPagingItemReader<Integer> autoApprovePermissionReader,
+			EmsDaoService daoService, NotificationComponent notificationComponent) {
+		ItemWriter<Integer> writer = this.approvingWriter(daoService::autoApprovePermissions,
+				approved -> notificationComponent.sendApprovalAndRejectionNotifications(approved,
+						Ems2p0Constants.AUTO_APPROVER, "approved"));
+		return new StepBuilder("autoApprovePermissionWorkerStep", jobRepository)
+				.<Integer, Integer>chunk(chunkSize, transactionManager).reader(autoApprovePermissionReader)
+				.writer(writer).listener(new BatchChunkListener()).build();
+	}
+
+	@Bean
+	public Step autoApproveWfhWorkerStep(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+			JdbcPagingItemReader<Integer> autoApproveWfhReader, EmsDaoService daoService,
+			NotificationComponent notificationComponent) {
+		ItemWriter<Integer> writer = this.approvingWriter(daoService::autoApproveWfh,
+				approved -> notificationComponent.sendApprovalAndRejectionWfhNotifications(approved,
+						Ems2p0Constants.AUTO_APPROVER, "approved"));
+		return new StepBuilder("autoApproveWfhWorkerStep", jobRepository)
+				.<Integer, Integer>chunk(chunkSize, transactionManager).reader(autoApproveWfhReader).writer(writer)
+				.listener(new BatchChunkListener()).build();
+	}
+
+	@Bean
+	@StepScope
+	public JdbcPagingItemReader<Integer> autoApprovePermissionReader(DataSource dataSource,
+			@Value("#{jobParameters['" + APPROVE_DATE + "']}") String approveDate,
+			@Value("#{stepExecutionContext['" + IdRangePartitioner.MIN_ID + "']}") Long minId,
+			@Value("#{stepExecutionContext['" + IdRangePartitioner.MAX_ID + "']}") Long maxId) {
+		return this.pendingReader("autoApprovePermissionReader", dataSource, "emp_permission_details",
+				PENDING_PERMISSION, approveDate, minId, maxId);
+	}
+
+	@Bean
+	@StepScope
+	public JdbcPagingItemReader<Integer> autoApproveWfhReader(DataSource dataSource,
+			@Value("#{jobParameters['" + APPROVE_DATE + "']}") String approveDate,
+			@Value("#{stepExecutionContext['" + IdRangePartitioner.MIN_ID + "']}") Long minId,
+			@Value("#{stepExecutionContext['" + IdRangePartitioner.MAX_ID + "']}") Long maxId) {
+		return this.pendingReader("autoApproveWfhReader", dataSource, "emp_wfh_details", PENDING_WFH, approveDate,
+				minId, maxId);
+	}
+
+	/**
+	 * Reader of the pending ids of the partition, pages are fetched after the last
+	 * read id so the rows approved by the previous chunks never shift a page
+	 */
+	private JdbcPagingItemReader<Integer> pendingReader(String name, DataSource dataSource, String table,
+			String pending, String approveDate, Long minId, Long maxId) {
+		return new JdbcPagingItemReaderBuilder<Integer>().name(name).dataSource(dataSource).selectClause("SELECT id")
+				.fromClause("FROM " + table).whereClause("WHERE " + pending + " AND id BETWEEN :minId AND :maxId")
+				.parameterValues(Map.of(APPROVE_DATE, LocalDate.parse(approveDate), "minId", minId, "maxId", maxId))
+				.sortKeys(Map.of("id", Order.ASCENDING)).pageSize(chunkSize)
+				.rowMapper((resultSet, rowNum) -> resultSet.getInt("id")).build();
+	}
+
+	/**
+	 * Writer to approve the chunk in bulk and to notify the approvals once the
+	 * chunk is committed
+	 */
+	private <T> ItemWriter<Integer> approvingWriter(BiFunction<List<Integer>, String, List<T>> approve,
+			Consumer<List<T>> notify) {
+		return chunk -> {
+			List<T> approved = approve.apply(List.copyOf(chunk.getItems()), Ems2p0Constants.AUTO_APPROVER);
+			if (!approved.isEmpty()) {
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+					@Override
+					public void afterCommit() {
+						notify.accept(approved);
+					}
+				});
+			}
+		};
+	}
+}
@@ -0,0 +1,8 @@
+package com.ems2p0.batch;
+
+/**
+ * EMS 2.0 - Open check-in record to be closed by the auto logout job
+ */
+public record AutoLogoutItem(Integer registerid, String name) {
+
+}
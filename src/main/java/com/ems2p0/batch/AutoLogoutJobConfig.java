@@ -0,0 +1,141 @@
+package com.ems2p0.batch;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.ems2p0.dao.service.EmsDaoService;
+import com.ems2p0.utils.concurrent.WorkerThreads;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - Auto logout job which closes the open check-ins at the end of the
+ * day. The open check-ins are partitioned by ranges of the check-in record id
+ * and each partition is read by keyset pages and closed in chunks, so a single
+ * transaction never holds more than a chunk of rows.
+ *
+ * @author Mohan
+ * @category Batch module
+ * @version v1.0.0
+ * @apiNote - The job instance is identified by the logout date, a failed run
+ *          of the day is restarted from its last committed chunk when it is
+ *          launched again with the same date.
+ */
+@Configuration
+@Slf4j
+public class AutoLogoutJobConfig {
+
+	public static final String JOB_NAME = "autoLogoutJob";
+
+	public static final String LOGOUT_DATE = "logoutDate";
+
+	public static final String LOGOUT_TIME = "logoutTime";
+
+	private static final String OPEN_CHECK_IN = "outtime IS NULL AND outdate IS NULL AND intime IS NOT NULL "
+			+ "AND indate IS NOT NULL";
+
+	@Value("${ems.batch.auto-logout.grid-size}")
+	private int gridSize;
+
+	@Value("${ems.batch.auto-logout.chunk-size}")
+	private int chunkSize;
+
+	@Bean
+	public Job autoLogoutJob(JobRepository jobRepository, Step autoLogoutPartitionStep, EmsDaoService daoService) {
+		return new JobBuilder(JOB_NAME, jobRepository).start(autoLogoutPartitionStep)
+				.listener(new JobExecutionListener() {
+					@Override
+					public void afterJob(JobExecution jobExecution) {
+						daoService.evictAttendanceSessions();
+						log.info("AutoLogoutJobConfig : afterJob() - {} {}", JOB_NAME, jobExecution.getStatus());
+					}
+				}).build();
+	}
+
+	@Bean
+	public Step autoLogoutPartitionStep(JobRepository jobRepository, Step autoLogoutWorkerStep,
+			DataSource dataSource, WorkerThreads workerThreads) {
+		return new StepBuilder("autoLogoutPartitionStep", jobRepository)
+				.partitioner(autoLogoutWorkerStep.getName(),
+						new IdRangePartitioner(new NamedParameterJdbcTemplate(dataSource), "empattendance",
+								"registerid", OPEN_CHECK_IN, Map.of()))
+				.step(autoLogoutWorkerStep).gridSize(gridSize)
+				.taskExecutor(workerThreads.taskExecutor("ems-auto-logout-", gridSize)).build();
+	}
+
+	@Bean
+	public Step autoLogoutWorkerStep(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+			JdbcPagingItemReader<AutoLogoutItem> autoLogoutReader, ItemWriter<AutoLogoutItem> autoLogoutWriter) {
+		return new StepBuilder("autoLogoutWorkerStep", jobRepository)
+				.<AutoLogoutItem, AutoLogoutItem>chunk(chunkSize, transactionManager).reader(autoLogoutReader)
+				.writer(autoLogoutWriter).listener(new BatchChunkListener()).build();
+	}
+
+	/**
+	 * Reader of the open check-ins of the partition, pages are fetched after the
+	 * last read id so the rows closed by the previous chunks never shift a page
+	 */
+	@Bean
+	@StepScope
+	public JdbcPagingItemReader<AutoLogoutItem> autoLogoutReader(DataSource dataSource,
+			@Value("#{stepExecutionContext['" + IdRangePartitioner.MIN_ID + "']}") Long minId,
+			@Value("#{stepExecutionContext['" + IdRangePartitioner.MAX_ID + "']}") Long maxId) {
+		return new JdbcPagingItemReaderBuilder<AutoLogoutItem>().name("autoLogoutReader").dataSource(dataSource)
+				.selectClause("SELECT registerid, name").fromClause("FROM empattendance")
+				.whereClause("WHERE " + OPEN_CHECK_IN + " AND registerid BETWEEN :minId AND :maxId")
+				.parameterValues(Map.of("minId", minId, "maxId", maxId))
+				.sortKeys(Map.of("registerid", Order.ASCENDING)).pageSize(chunkSize)
+				.rowMapper((resultSet, rowNum) -> new AutoLogoutItem(resultSet.getInt("registerid"),
+						resultSet.getString("name")))
+				.build();
+	}
+
+	/**
+	 * Writer to close the check-ins of the chunk and the attendance sessions which
+	 * point to them by their keys in two batched statements
+	 */
+	@Bean
+	@StepScope
+	public ItemWriter<AutoLogoutItem> autoLogoutWriter(DataSource dataSource,
+			@Value("#{jobParameters['" + LOGOUT_DATE + "']}") String logoutDate,
+			@Value("#{jobParameters['" + LOGOUT_TIME + "']}") String logoutTime) {
+		NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+		LocalDate outdate = LocalDate.parse(logoutDate);
+		LocalTime outtime = LocalTime.parse(logoutTime);
+		return chunk -> {
+			SqlParameterSource[] parameters = chunk.getItems().stream()
+					.map(item -> new MapSqlParameterSource().addValue("registerid", item.registerid())
+							.addValue("name", item.name()).addValue("outdate", outdate)
+							.addValue("outdateText", outdate.toString()).addValue("outtime", outtime))
+					.toArray(SqlParameterSource[]::new);
+			jdbcTemplate.batchUpdate("UPDATE empattendance SET outtime = :outtime, outdate = :outdateText, "
+					+ "out_date = :outdate WHERE registerid = :registerid AND " + OPEN_CHECK_IN, parameters);
+			jdbcTemplate.batchUpdate("UPDATE emp_attendance_session SET outtime = :outtime, outdate = :outdateText, "
+					+ "is_open = false WHERE user_name = :name AND registerid = :registerid AND is_open = true",
+					parameters);
+		};
+	}
+}
@@ -0,0 +1,39 @@
+package com.ems2p0.batch;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - Chunk listener of the batch jobs to log the size and the commit
+ * latency of every chunk of a partition
+ */
+@Slf4j
+public class BatchChunkListener implements ChunkListener {
+
+	private static final String CHUNK_STARTED = "chunkStartedNanos";
+
+	@Override
+	public void beforeChunk(ChunkContext context) {
+		context.setAttribute(CHUNK_STARTED, System.nanoTime());
+	}
+
+	@Override
+	public void afterChunk(ChunkContext context) {
+		StepExecution stepExecution = context.getStepContext().getStepExecution();
+		Object started = context.getAttribute(CHUNK_STARTED);
+		long elapsedMillis = started != null ? (System.nanoTime() - (long) started) / 1_000_000 : -1;
+		log.info("BatchChunkListener : afterChunk() - {} commit {} : read {}, written {} in {} ms",
+				stepExecution.getStepName(), stepExecution.getCommitCount(), stepExecution.getReadCount(),
+				stepExecution.getWriteCount(), elapsedMillis);
+	}
+
+	@Override
+	public void afterChunkError(ChunkContext context) {
+		StepExecution stepExecution = context.getStepContext().getStepExecution();
+		log.error("BatchChunkListener : afterChunkError() - {} rolled back after {} commits",
+				stepExecution.getStepName(), stepExecution.getCommitCount());
+	}
+}
@@ -0,0 +1,72 @@
+package com.ems2p0.batch;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - Partitioner of the batch jobs, the rows of a job are split into
+ * contiguous ranges of their primary key so every partition pages through its
+ * own key range.
+ *
+ * @author Mohan
+ * @category Batch module
+ * @version v1.0.0
+ * @apiNote - The ranges are computed once per job execution and stored in the
+ *          step execution context, a restarted job re-runs only the ranges
+ *          which did not complete.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class IdRangePartitioner implements Partitioner {
+
+	public static final String MIN_ID = "minId";
+
+	public static final String MAX_ID = "maxId";
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	private final String table;
+
+	private final String idColumn;
+
+	private final String whereClause;
+
+	private final Map<String, ?> parameters;
+
+	@Override
+	public Map<String, ExecutionContext> partition(int gridSize) {
+		Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(" + idColumn + ") AS minId, MAX(" + idColumn
+				+ ") AS maxId FROM " + table + " WHERE " + whereClause, parameters);
+		Number min = (Number) bounds.get("minId");
+		Number max = (Number) bounds.get("maxId");
+		Map<String, ExecutionContext> partitions = new HashMap<>();
+		if (min == null || max == null) {
+			partitions.put("partition0", this.range(1, 0));
+			log.info("IdRangePartitioner : partition() - no rows of {}", table);
+			return partitions;
+		}
+		long span = max.longValue() - min.longValue() + 1;
+		long size = Math.max(1, (span + gridSize - 1) / gridSize);
+		int index = 0;
+		for (long start = min.longValue(); start <= max.longValue(); start += size) {
+			partitions.put("partition" + index++, this.range(start, Math.min(start + size - 1, max.longValue())));
+		}
+		log.info("IdRangePartitioner : partition() - {} partitions of {} ids of {} between {} and {}",
+				partitions.size(), size, table, min, max);
+		return partitions;
+	}
+
+	private ExecutionContext range(long minId, long maxId) {
+		ExecutionContext context = new ExecutionContext();
+		context.putLong(MIN_ID, minId);
+		context.putLong(MAX_ID, maxId);
+		return context;
+	}
+}
@@ -1,14 +1,28 @@
 package com.ems2p0.client.config;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import com.ems2p0.repo.EmployeeAttendanceRepo;
+import com.ems2p0.batch.AttendanceDateBackfillJobConfig;
+import com.ems2p0.batch.AutoApproveJobConfig;
+import com.ems2p0.batch.AutoLogoutJobConfig;
 import com.ems2p0.utils.Ems2p0Utility;
+import com.ems2p0.utils.concurrent.WorkerThreads;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,19 +50,51 @@ public class Ems2p0Scheduler {
 	private final Ems2p0Utility utility;
 
 	/**
-	 * Injected attendance repository to update the auto logout
+	 * Injected job launcher and auto logout job to close the open check-ins
 	 */
-	private final EmployeeAttendanceRepo employeeAttendancerRepo;
+	private final JobLauncher jobLauncher;
+
+	private final Job autoLogoutJob;
+
+	/**
+	 * Injected auto approve job to approve the pending permissions and work from
+	 * home requests
+	 */
+	private final Job autoApproveJob;
+
+	/**
+	 * Injected backfill job to fill the typed dates of the attendance records
+	 */
+	private final Job attendanceDateBackfillJob;
+
+	/**
+	 * Injected worker thread factory to launch the backfill off the startup thread
+	 */
+	private final WorkerThreads workerThreads;
+
+	@Value("${ems.batch.attendance-date-backfill.enabled}")
+	private boolean attendanceDateBackfillEnabled;
 
 	@Scheduled(cron = "${cron.job.auto.logout.scheduler}") 
-	public void JobRunForLogout() throws Exception {
+	public void JobRunForLogout() {
 	    log.info("Ems2p0Scheduler : JobRunForLogout() - Start");
-		LocalTime currentTime = utility.getOriginalTimeZone().toLocalTime();
-		LocalDate currentDate = utility.getOriginalTimeZone().toLocalDate();
+		LocalDateTime zoneDateAndTime = utility.getOriginalTimeZone();
+		LocalTime currentTime = zoneDateAndTime.toLocalTime();
+		LocalDate currentDate = zoneDateAndTime.toLocalDate();
 		log.info("Ems2p0Scheduler : JobRunForLogout() - CurrentDate : {} ", currentDate);
 	    log.info("Ems2p0Scheduler : JobRunForLogout() - CurrentTime : {} ", currentTime);
-		employeeAttendancerRepo.saveAutoLogoutDetails(currentTime, currentDate);
-		log.info("Job run successfull for auto logout : {} ", currentTime);
+		JobParameters jobParameters = new JobParametersBuilder()
+				.addString(AutoLogoutJobConfig.LOGOUT_DATE, currentDate.toString())
+				.addString(AutoLogoutJobConfig.LOGOUT_TIME, currentTime.withNano(0).toString(), false)
+				.toJobParameters();
+		try {
+			JobExecution jobExecution = jobLauncher.run(autoLogoutJob, jobParameters);
+			log.info("Job run for auto logout : {} - {}", currentTime, jobExecution.getStatus());
+		} catch (JobInstanceAlreadyCompleteException e) {
+			log.info("Auto logout has already been completed for : {}", currentDate);
+		} catch (JobExecutionException e) {
+			log.error("Exception occurred while running the auto logout job : {}", e.toString());
+		}
 	    log.info("Ems2p0Scheduler : JobRunForLogout() - End");
 
 	}
@@ -56,10 +102,43 @@ public class Ems2p0Scheduler {
 	@Scheduled(cron = "${cron.job.auto.approve.scheduler}")
 	public void JobRunForAutoApprove() {
 		log.info("Ems2p0Scheduler : JobRunForAutoApprove() - Start");
-		employeeAttendancerRepo.saveApproveDetails();
-		log.info("Job run successfull for auto approve permission has been completed.");
+		LocalDate currentDate = utility.getOriginalTimeZone().toLocalDate();
+		JobParameters jobParameters = new JobParametersBuilder()
+				.addString(AutoApproveJobConfig.APPROVE_DATE, currentDate.toString()).toJobParameters();
+		try {
+			JobExecution jobExecution = jobLauncher.run(autoApproveJob, jobParameters);
+			log.info("Job run for auto approve : {} - {}", currentDate, jobExecution.getStatus());
+		} catch (JobInstanceAlreadyCompleteException e) {
+			log.info("Auto approve has already been completed for : {}", currentDate);
+		} catch (JobExecutionException e) {
+			log.error("Exception occurred while running the auto approve job : {}", e.toString());
+		}
 		log.info("Ems2p0Scheduler : JobRunForAutoApprove() - End");
 
 	}
 
+	/**
+	 * Method to launch the attendance date backfill once the application is ready,
+	 * the job runs on its own thread so the startup is not delayed by it
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void JobRunForAttendanceDateBackfill() {
+		if (!attendanceDateBackfillEnabled) {
+			return;
+		}
+		JobParameters jobParameters = new JobParametersBuilder()
+				.addString(AttendanceDateBackfillJobConfig.MIGRATION, AttendanceDateBackfillJobConfig.MIGRATION_VERSION)
+				.toJobParameters();
+		workerThreads.taskExecutor("ems-date-backfill-launcher-").execute(() -> {
+			try {
+				JobExecution jobExecution = jobLauncher.run(attendanceDateBackfillJob, jobParameters);
+				log.info("Job run for attendance date backfill : {}", jobExecution.getStatus());
+			} catch (JobInstanceAlreadyCompleteException e) {
+				log.info("Attendance date backfill has already been completed");
+			} catch (JobExecutionException e) {
+				log.error("Exception occurred while running the attendance date backfill job : {}", e.toString());
+			}
+		});
+	}
+
 }
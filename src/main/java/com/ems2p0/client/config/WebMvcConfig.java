@@ -0,0 +1,25 @@
+package com.ems2p0.client.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.ems2p0.components.statistics.FetchPlanStatistics;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * EMS 2.0 - Configuration file to register the interceptors of the controller
+ * layer
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+	private final FetchPlanStatistics fetchPlanStatistics;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(fetchPlanStatistics);
+	}
+}
@@ -1,22 +1,23 @@
 package com.ems2p0.components;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.stereotype.Component;
 
-import com.ems2p0.enums.SecurityRoleProperties;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
 
-import java.io.UnsupportedEncodingException;
+import com.ems2p0.components.mail.MailOutbox;
+import com.ems2p0.dto.exception.CustomExceptionDto;
+import com.ems2p0.enums.ExceptionMsg;
+import com.ems2p0.enums.MailTemplate;
 
 /**
- * EMS 2.0 - Service to trigger the email by using Spring javax email service by
- * configuring the mail smtp port , username and encoded password here we're
- * using dynamic sender email from properties files.
+ * EMS 2.0 - Service to trigger the email through the mail outbox, the mail is
+ * rendered from its precompiled template and sent by the outbox workers over
+ * the pooled SMTP transports, here we're using dynamic sender email from
+ * properties files.
  *
  * @author Mohanlal
  */
@@ -26,24 +27,13 @@ import java.io.UnsupportedEncodingException;
 @Slf4j
 public class EmailComponent {
 
-	@Value("${spring.mail.from.email}")
-	private String fromEmail;
-
-	private final JavaMailSender mailSender;
-
-	
-	public void sendEmail(String email, String employeeName, Integer otp)
-			throws UnsupportedEncodingException, MessagingException {
-		String emailBody = "<html><body>" + "<p>Dear " + employeeName + ",</p>"
-				+ "<p>Your One-time Password is - <strong>" + otp + "</strong>. Kindly use this for authentication.</p>"
-				+ "<br><br>" + "<p>Regards,<br>" + "employee Covai</p>" + "</body></html>";
-		MimeMessage message = mailSender.createMimeMessage();
-		MimeMessageHelper helper = new MimeMessageHelper(message);
-		helper.setFrom(fromEmail, SecurityRoleProperties.FROM_CONTENT.getMessage());
-		helper.setTo(email);
-		helper.setSubject(SecurityRoleProperties.MAIL_SUBJECT.getMessage());
-		helper.setText(emailBody, true);
-		mailSender.send(message);
-		log.info("Mail send successfully");
+	private final MailOutbox mailOutbox;
+
+	public void sendEmail(String email, String employeeName, Integer otp) {
+		if (!mailOutbox.enqueue(email, MailTemplate.OTP,
+				Map.of("employeeName", StringUtils.defaultString(employeeName), "otp", otp))) {
+			throw new CustomExceptionDto(ExceptionMsg.MAIL_OUTBOX_FULL.getMessage());
+		}
+		log.info("Mail queued successfully");
 	}
 }
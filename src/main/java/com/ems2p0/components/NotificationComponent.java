@@ -3,15 +3,18 @@ package com.ems2p0.components;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
 
-import org.apache.commons.lang.StringUtils;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import com.ems2p0.dao.service.EmsDaoService;
 import com.ems2p0.dto.request.RequestPermissionDto;
 import com.ems2p0.dto.request.WfhRequestDto;
 import com.ems2p0.enums.OfficialRole;
@@ -21,7 +24,8 @@ import com.ems2p0.model.UserDetails;
 import com.ems2p0.projections.EmployeeProjection;
 import com.ems2p0.pushnotification.model.Notification;
 import com.ems2p0.pushnotification.model.NotificationRequest;
-import com.ems2p0.pushnotification.repository.NotificationRepository;
+import com.ems2p0.pushnotification.service.DeviceTokenRoutingIndex;
+import com.ems2p0.pushnotification.service.NotificationAuditBuffer;
 import com.ems2p0.pushnotification.service.PushNotificationService;
 
 import lombok.RequiredArgsConstructor;
@@ -44,25 +48,32 @@ import lombok.extern.slf4j.Slf4j;
 public class NotificationComponent {
 
 	/**
-	 * Injected the EMS Data access service layer to invoke the repository
-	 * operations
+	 * Roles to notify of a new or edited request by the role of the requester
 	 */
-	private final EmsDaoService daoService;
+	private static final Map<OfficialRole, List<String>> ROLES_TO_NOTIFY_FOR_REQUEST = new EnumMap<>(
+			Map.of(OfficialRole.ROLE_EMPLOYEE, List.of("ROLE_REPORTING_MANAGER", "ROLE_ADMIN", "ROLE_MANAGER"),
+					OfficialRole.ROLE_REPORTING_MANAGER, List.of("ROLE_MANAGER", "ROLE_ADMIN"),
+					OfficialRole.ROLE_ADMIN, List.of("ROLE_MANAGER", "ROLE_ADMIN"),
+					OfficialRole.ROLE_MANAGER, List.of("ROLE_REPORTING_MANAGER", "ROLE_ADMIN", "ROLE_EMPLOYEE")));
 
 	/**
 	 * Injected push notification service to invoke and trigger the otp to employee
 	 */
 	private final PushNotificationService notificationService;
 
+	/**
+	 * Injected write-behind buffer to persist the notification audit records
+	 */
+	private final NotificationAuditBuffer notificationAuditBuffer;
+
+	/**
+	 * Injected routing index to resolve the device tokens of the recipients
+	 */
+	private final DeviceTokenRoutingIndex deviceTokenRoutingIndex;
+
 	/**
 	 * Invoking the push notification topic by configurable type
 	 */
-	
-	 @Autowired
-	    private NotificationRepository notificationRepository;
-	 
-	
-	 
 	@Value("${ems.push-notification.topic}")
 	private String pushNotificationTopic;
 
@@ -77,41 +88,15 @@ public class NotificationComponent {
 
 		// reporting mngr, mngr, admin
 
-		List<String> rolesToNotify = new ArrayList<>();
-
-		String requesterRole = employeeData.getEmployeeRoleManagement().getOfficialRole().name();
-
-		switch (requesterRole) {
-		case "ROLE_EMPLOYEE":
-			rolesToNotify.add("ROLE_REPORTING_MANAGER");
-			rolesToNotify.add("ROLE_ADMIN");
-			rolesToNotify.add("ROLE_MANAGER");
-			break;
-		case "ROLE_REPORTING_MANAGER":
-			rolesToNotify.add("ROLE_MANAGER");
-			rolesToNotify.add("ROLE_ADMIN");
-			break;
-		case "ROLE_ADMIN":
-			rolesToNotify.add("ROLE_MANAGER");
-			rolesToNotify.add("ROLE_ADMIN");
-			break;
-		case "ROLE_MANAGER":
-			rolesToNotify.add("ROLE__REPORTING_MANAGER");
-			rolesToNotify.add("ROLE_ADMIN");
-			rolesToNotify.add("ROLE_EMPLOYEE");
-			break;
-		default:
-			log.warn("Unexpected role: {}", requesterRole);
+		List<String> rolesToNotify = this.rolesToNotifyForRequest(employeeData);
+		if (rolesToNotify.isEmpty()) {
 			return;
 		}
 
-		List<String> deviceTokens = daoService
-				.fetchDeviceTokenByDept(employeeData.getEmployeeRoleManagement().getDepartmentName(), rolesToNotify);
+		List<String> deviceTokens = deviceTokenRoutingIndex
+				.resolve(employeeData.getEmployeeRoleManagement().getDepartmentName(), rolesToNotify);
 		log.info("Device tokens to notify the persons : {}", deviceTokens.size());
 
-		List<String> mngmtTokens = daoService.fetchMgmtDeviceToken();
-		log.info("Management Device tokens to notify the persons : {}", mngmtTokens.size());
-
 		String message;
 		if ("edited".equals(action)) {
 			message = new StringBuilder().append("Edited permission request from ").append(permissionDto.startTime())
@@ -124,18 +109,12 @@ public class NotificationComponent {
 //		String employeeDeviceToken = daoService.fetchDeviceTokenByEmployee(
 //				employeeData.getEmployeeRoleManagement().getDepartmentName(), employeeData.getEmpDeviceToken());
 
-		deviceTokens.addAll(mngmtTokens);
-
-		log.info("OverAlldeviceTokens:", deviceTokens);
-
-		deviceTokens.removeIf(StringUtils::isEmpty);
-
 		String title = new StringBuilder().append(employeeData.getEmpName() + " ").append("Permission Request")
 				.toString();
 		try {
 			this.notificationService.sendNotification(new NotificationRequest().setTitle(title).setMessage(message)
 					.setToken(deviceTokens).setTopic(pushNotificationTopic));
-			log.info("Notification trigger successfully ");
+			log.info("Notification queued successfully");
 		} catch (Exception e) {
 			log.error("Exception occured while sending notification from firebase : {}", e.toString());
 		}
@@ -144,6 +123,19 @@ public class NotificationComponent {
 
 	}
 
+	/**
+	 * Method to resolve the roles to notify of a new or edited request by the role
+	 * of the requester
+	 */
+	private List<String> rolesToNotifyForRequest(UserDetails employeeData) {
+		OfficialRole requesterRole = employeeData.getEmployeeRoleManagement().getOfficialRole();
+		List<String> rolesToNotify = ROLES_TO_NOTIFY_FOR_REQUEST.getOrDefault(requesterRole, List.of());
+		if (rolesToNotify.isEmpty()) {
+			log.warn("Unexpected role: {}", requesterRole);
+		}
+		return rolesToNotify;
+	}
+
 	private void saveNotification(UserDetails employeeData, List<String> rolesToNotify, String message) {
 		Notification notification = new Notification();
 		notification.setNotifyMessage(message);
@@ -153,65 +145,114 @@ public class NotificationComponent {
 		notification.setCreatedDateTime(LocalDateTime.now());
 		notification.setUpdatedDateTime(LocalDateTime.now());
 		notification.setUserDetails(employeeData);
-		notificationRepository.save(notification);
+		notificationAuditBuffer.append(notification);
 	}
 
 
-	public void sendApprovalAndRejectionNotification(EmployeePermissionDetails permissionDetails,
+	/**
+	 * Method to notify the approval or rejection of a batch of permissions, the
+	 * device tokens are resolved once per department and audience and a single
+	 * push is sent for each of them
+	 *
+	 * @param permissionDetails
+	 * @param manager
+	 * @param status
+	 */
+	public void sendApprovalAndRejectionNotifications(List<EmployeePermissionDetails> permissionDetails,
 			EmployeeProjection manager, String status) {
-		UserDetails employeeData = permissionDetails.getUserDetails();
-		OfficialRole employeeRole = employeeData.getEmployeeRoleManagement().getOfficialRole();
-		log.info("employeeRole:", employeeRole);
-		String departmentName = employeeData.getEmployeeRoleManagement().getDepartmentName();
-		log.info("departmentName:", employeeRole);
+		this.sendApprovalAndRejectionNotifications(permissionDetails, manager.getEmpName(), status);
+	}
+
+	/**
+	 * Method to notify the approval or rejection of a batch of permissions decided
+	 * by the given approver, the scheduled jobs decide as the system
+	 *
+	 * @param permissionDetails
+	 * @param decidedBy
+	 * @param status
+	 */
+	public void sendApprovalAndRejectionNotifications(List<EmployeePermissionDetails> permissionDetails,
+			String decidedBy, String status) {
 		String dynamicTitle = status.equalsIgnoreCase("approved") ? "Approved" : "Rejected";
-		String title = "Permission " + dynamicTitle;
-		String message = String.format(" Permission request from %s to %s has been %s by %s.",
-				permissionDetails.getStartTime(), permissionDetails.getEndTime(), dynamicTitle.toLowerCase(),
-				manager.getEmpName());
-		List<String> rolesToNotify = new ArrayList<>();
+		this.sendDecisionNotifications(permissionDetails, EmployeePermissionDetails::getUserDetails,
+				details -> String.format(" Permission request from %s to %s has been %s by %s.",
+						details.getStartTime(), details.getEndTime(), dynamicTitle.toLowerCase(),
+						decidedBy),
+				"Permission " + dynamicTitle,
+				count -> String.format(" %d permission requests have been %s by %s.", count,
+						dynamicTitle.toLowerCase(), decidedBy),
+				decidedBy);
+	}
+
+	/**
+	 * Method to trigger the decision notifications grouped by the audience and to
+	 * persist their audit records in a single batch
+	 */
+	private <T> void sendDecisionNotifications(List<T> requests, Function<T, UserDetails> employeeOf,
+			Function<T, String> messageOf, String title, IntFunction<String> summaryOf, String decidedBy) {
+		if (requests.isEmpty()) {
+			return;
+		}
+		Map<DecisionAudience, List<T>> audiences = requests.stream().collect(Collectors.groupingBy(request -> {
+			UserDetails employeeData = employeeOf.apply(request);
+			return new DecisionAudience(employeeData.getEmployeeRoleManagement().getDepartmentName(),
+					this.rolesToNotifyForDecision(employeeData.getEmployeeRoleManagement().getOfficialRole()));
+		}, LinkedHashMap::new, Collectors.toList()));
+		List<Notification> notifications = new ArrayList<>();
+		audiences.forEach((audience, audienceRequests) -> {
+			List<String> deviceTokens = deviceTokenRoutingIndex.resolve(audience.departmentName(),
+					audience.rolesToNotify());
+			log.info("Overall device tokens of {} : {}", audience.departmentName(), deviceTokens.size());
+			String message = audienceRequests.size() == 1 ? messageOf.apply(audienceRequests.get(0))
+					: summaryOf.apply(audienceRequests.size());
+			try {
+				this.notificationService.sendNotification(new NotificationRequest().setTitle(title)
+						.setMessage(message).setToken(deviceTokens).setTopic(pushNotificationTopic));
+				log.info("Notification queued successfully: {}", title);
+			} catch (Exception e) {
+				log.error("Exception occurred while sending notification: {}", e.toString());
+			}
+			audienceRequests.forEach(request -> notifications.add(this.decisionNotification(
+					employeeOf.apply(request), decidedBy, audience.rolesToNotify(), messageOf.apply(request))));
+		});
+		notificationAuditBuffer.appendAll(notifications);
+	}
+
+	/**
+	 * Method to resolve the roles to notify of a decision by the role of the
+	 * requester
+	 */
+	private List<String> rolesToNotifyForDecision(OfficialRole employeeRole) {
 		if (employeeRole == OfficialRole.ROLE_REPORTING_MANAGER) {
-			// If the permission was put by a reporting manager
-			rolesToNotify = Arrays.asList("ROLE_REPORTING_MANAGER", "ROLE_ADMIN");
+			// If the request was put by a reporting manager
+			return Arrays.asList("ROLE_REPORTING_MANAGER", "ROLE_ADMIN");
 		} else if (employeeRole == OfficialRole.ROLE_EMPLOYEE) {
-			// If the permission was put by an employee
-			rolesToNotify = Arrays.asList("ROLE_EMPLOYEE", "ROLE_ADMIN", "ROLE_REPORTING_MANAGER");
+			// If the request was put by an employee
+			return Arrays.asList("ROLE_EMPLOYEE", "ROLE_ADMIN", "ROLE_REPORTING_MANAGER");
 		} else if (employeeRole == OfficialRole.ROLE_ADMIN) {
-			// If the permission was put by an employee
-			rolesToNotify = Arrays.asList("ROLE_ADMIN");
+			// If the request was put by an admin
+			return Arrays.asList("ROLE_ADMIN");
 		}
-		List<String> deviceTokens = daoService.fetchDeviceTokenByDept(departmentName, rolesToNotify);
-		log.info("Device tokens fetched: {}", deviceTokens.size());
-		List<String> mngmtTokens = daoService.fetchMgmtDeviceToken();
-		log.info("Management device tokens fetched: {}", mngmtTokens.size());
-		deviceTokens.addAll(mngmtTokens);
-		log.info("Overall device tokens after filtering: {}", deviceTokens.size());
-		deviceTokens.removeIf(StringUtils::isEmpty);
-		try {
-			this.notificationService.sendNotification(new NotificationRequest().setTitle(title).setMessage(message)
-					.setToken(deviceTokens).setTopic(pushNotificationTopic));
-			log.info("Notification sent successfully: {}", title);
-		} catch (Exception e) {
-			log.error("Exception occurred while sending notification: {}", e.toString());
-		}
-		saveApproveRejectionNotification(permissionDetails,manager, rolesToNotify, message);
-		
+		return new ArrayList<>();
 	}
 
-	
-
-	private void saveApproveRejectionNotification(EmployeePermissionDetails permissionDetails,EmployeeProjection manager, List<String> rolesToNotify,
-			String message) {
+	private Notification decisionNotification(UserDetails employeeData, String decidedBy,
+			List<String> rolesToNotify, String message) {
 		Notification notification = new Notification();
 		notification.setNotifyMessage(message);
-		notification.setNotifiedBy(manager.getEmpName());
+		notification.setNotifiedBy(decidedBy);
 		notification.setReceivedBy(String.join(",", rolesToNotify));
 		notification.setNotifyTimestamp(LocalDateTime.now());
 		notification.setCreatedDateTime(LocalDateTime.now());
 		notification.setUpdatedDateTime(LocalDateTime.now());
-		notification.setUserDetails(permissionDetails.getUserDetails());
-		notificationRepository.save(notification);
-		
+		notification.setUserDetails(employeeData);
+		return notification;
+	}
+
+	/**
+	 * Department and roles which receive the same decision notification
+	 */
+	private record DecisionAudience(String departmentName, List<String> rolesToNotify) {
 	}
 
 	/**
@@ -220,39 +261,14 @@ public class NotificationComponent {
 	public void sendWfhNotificationForCreateAndEdit(UserDetails employeeData, WfhRequestDto wfhRequestDto,
 			String action) {
 		// Define roles to notify based on the requester's role
-		List<String> rolesToNotify = new ArrayList<>();
-		String requesterRole = employeeData.getEmployeeRoleManagement().getOfficialRole().name();
-		switch (requesterRole) {
-		case "ROLE_EMPLOYEE":
-			rolesToNotify.add("ROLE_REPORTING_MANAGER");
-			rolesToNotify.add("ROLE_ADMIN");
-			rolesToNotify.add("ROLE_MANAGER");
-			break;
-		case "ROLE_REPORTING_MANAGER":
-			rolesToNotify.add("ROLE_MANAGER");
-			rolesToNotify.add("ROLE_ADMIN");
-			break;
-		case "ROLE_ADMIN":
-			rolesToNotify.add("ROLE_MANAGER");
-			rolesToNotify.add("ROLE_ADMIN");
-			break;
-		case "ROLE_MANAGER":
-			rolesToNotify.add("ROLE_REPORTING_MANAGER");
-			rolesToNotify.add("ROLE_ADMIN");
-			rolesToNotify.add("ROLE_EMPLOYEE");
-			break;
-		default:
-			log.warn("Unexpected role: {}", requesterRole);
+		List<String> rolesToNotify = this.rolesToNotifyForRequest(employeeData);
+		if (rolesToNotify.isEmpty()) {
 			return;
 		}
-		// Fetch device tokens for the roles to notify
-		List<String> deviceTokens = daoService
-				.fetchDeviceTokenByDept(employeeData.getEmployeeRoleManagement().getDepartmentName(), rolesToNotify);
-		log.info("deviceTokens", deviceTokens.size());
-		List<String> mngmtTokens = daoService.fetchMgmtDeviceToken();
-		log.info("Management Device tokens to notify the persons : {}", mngmtTokens.size());
-		deviceTokens.addAll(mngmtTokens);
-		deviceTokens.removeIf(StringUtils::isEmpty);
+		// Resolve device tokens for the roles to notify
+		List<String> deviceTokens = deviceTokenRoutingIndex
+				.resolve(employeeData.getEmployeeRoleManagement().getDepartmentName(), rolesToNotify);
+		log.info("Device tokens to notify the persons : {}", deviceTokens.size());
 		// Construct notification message
 		String title = "WFH Request " + action;
 		String message = "";
@@ -266,7 +282,7 @@ public class NotificationComponent {
 		try {
 			this.notificationService.sendNotification(new NotificationRequest().setTitle(title).setMessage(message)
 					.setToken(deviceTokens).setTopic(pushNotificationTopic));
-			log.info("WFH request " + action + " notification sent successfully");
+			log.info("WFH request " + action + " notification queued successfully");
 		} catch (Exception e) {
 			log.error("Exception occurred while sending WFH request " + action + " notification: {}", e.toString());
 		}
@@ -274,53 +290,36 @@ public class NotificationComponent {
 		
 	}
 
-	public void sendApprovalAndRejectionWfhNotification(EmployeeWfhDetails employeeWfhDetails,
+	/**
+	 * Method to notify the approval or rejection of a batch of work from home
+	 * requests
+	 *
+	 * @param wfhDetails
+	 * @param manager
+	 * @param status
+	 */
+	public void sendApprovalAndRejectionWfhNotifications(List<EmployeeWfhDetails> wfhDetails,
 			EmployeeProjection manager, String status) {
-		UserDetails employeeData = employeeWfhDetails.getUserDetails();
-		OfficialRole employeeRole = employeeData.getEmployeeRoleManagement().getOfficialRole();
-		log.info("employeeRole:", employeeRole);
-		String departmentName = employeeData.getEmployeeRoleManagement().getDepartmentName();
-		log.info("departmentName:", departmentName);
-		String dynamicTitle = status.equals("approved") ? "Approved" : "Rejected";
-		String title = "WFH " + dynamicTitle;
-		String message = "WFH request from " + employeeWfhDetails.getStartDate() + " to "
-				+ employeeWfhDetails.getEndDate() + " has been " + dynamicTitle.toLowerCase() + " by "
-				+ manager.getEmpName() + ".";
-		List<String> rolesToNotify = new ArrayList<>();
-		if (employeeRole == OfficialRole.ROLE_REPORTING_MANAGER) {
-			rolesToNotify = Arrays.asList("ROLE_REPORTING_MANAGER", "ROLE_ADMIN");
-		} else if (employeeRole == OfficialRole.ROLE_EMPLOYEE) {
-			rolesToNotify = Arrays.asList("ROLE_EMPLOYEE", "ROLE_ADMIN", "ROLE_REPORTING_MANAGER");
-		} else if (employeeRole == OfficialRole.ROLE_ADMIN) {
-			rolesToNotify = Arrays.asList("ROLE_ADMIN");
-		}
-		List<String> deviceTokens = daoService
-				.fetchDeviceTokenByDept(employeeData.getEmployeeRoleManagement().getDepartmentName(), rolesToNotify);
-		List<String> mngmtTokens = daoService.fetchMgmtDeviceToken();
-		log.info("Management Device tokens to notify the persons : {}", mngmtTokens.size());
-		deviceTokens.addAll(mngmtTokens);
-		log.info("DeviceTokens:", deviceTokens);
-		deviceTokens.removeIf(StringUtils::isEmpty);
-		try {
-			this.notificationService.sendNotification(new NotificationRequest().setTitle(title).setMessage(message)
-					.setToken(deviceTokens).setTopic(pushNotificationTopic));
-			log.info("WFH approval notification sent successfully");
-		} catch (Exception e) {
-			log.error("Exception occurred while sending WFH approval notification: {}", e.toString());
-		}
-		saveApproveRejectionWFHNotification(employeeWfhDetails,manager, rolesToNotify, message);
+		this.sendApprovalAndRejectionWfhNotifications(wfhDetails, manager.getEmpName(), status);
 	}
 
-	private void saveApproveRejectionWFHNotification(EmployeeWfhDetails employeeWfhDetails, EmployeeProjection manager,
-			List<String> rolesToNotify, String message) {
-		Notification notification = new Notification();
-		notification.setNotifyMessage(message);
-		notification.setNotifiedBy(manager.getEmpName());
-		notification.setReceivedBy(String.join(",", rolesToNotify));
-		notification.setNotifyTimestamp(LocalDateTime.now());
-		notification.setCreatedDateTime(LocalDateTime.now());
-		notification.setUpdatedDateTime(LocalDateTime.now());
-		notification.setUserDetails(employeeWfhDetails.getUserDetails());
-		notificationRepository.save(notification);
+	/**
+	 * Method to notify the approval or rejection of a batch of work from home
+	 * requests decided by the given approver
+	 *
+	 * @param wfhDetails
+	 * @param decidedBy
+	 * @param status
+	 */
+	public void sendApprovalAndRejectionWfhNotifications(List<EmployeeWfhDetails> wfhDetails, String decidedBy,
+			String status) {
+		String dynamicTitle = status.equals("approved") ? "Approved" : "Rejected";
+		this.sendDecisionNotifications(wfhDetails, EmployeeWfhDetails::getUserDetails,
+				details -> "WFH request from " + details.getStartDate() + " to " + details.getEndDate()
+						+ " has been " + dynamicTitle.toLowerCase() + " by " + decidedBy + ".",
+				"WFH " + dynamicTitle,
+				count -> count + " WFH requests have been " + dynamicTitle.toLowerCase() + " by "
+						+ decidedBy + ".",
+				decidedBy);
 	}
 }
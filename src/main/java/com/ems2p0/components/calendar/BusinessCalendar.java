@@ -0,0 +1,229 @@
+package com.ems2p0.components.calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ems2p0.components.clock.EmsClock;
+import com.ems2p0.repo.CompanyHolidayRepo;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - Business day calendar of the company. The working days of a window
+ * of whole years around the current year are precomputed into a prefix sum
+ * table from the weekend days and the company holiday table, so checking a day
+ * and counting the working days of a range are two array reads whatever the
+ * length of the range. The table is rebuilt periodically to pick up the
+ * holidays maintained meanwhile and to move the window with the year.
+ *
+ * @author Mohan
+ * @category Calendar module
+ * @version v1.0.0
+ * @apiNote - Developer should be responsible to decide the working days only
+ *          by this component instead of checking the day of week. The days out
+ *          of the window fall back to the weekend days without the holidays.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BusinessCalendar {
+
+	/**
+	 * Injected holiday repository to load the company holidays of the window
+	 */
+	private final CompanyHolidayRepo companyHolidayRepo;
+
+	/**
+	 * Injected application clock to anchor the window on the current year
+	 */
+	private final EmsClock emsClock;
+
+	@Value("${ems.business-calendar.weekend-days}")
+	private Set<DayOfWeek> weekendDays;
+
+	@Value("${ems.business-calendar.years-back}")
+	private int yearsBack;
+
+	@Value("${ems.business-calendar.years-ahead}")
+	private int yearsAhead;
+
+	private volatile Table table;
+
+	private final LongAdder lookups = new LongAdder();
+
+	private final LongAdder fallbacks = new LongAdder();
+
+	private final LongAdder rebuilds = new LongAdder();
+
+	private volatile long lastRebuildMillis;
+
+	@PostConstruct
+	public void init() {
+		try {
+			this.rebuild();
+		} catch (Exception e) {
+			log.error("BusinessCalendar : init() - unable to load the holidays, serving the weekends only : {}",
+					e.toString());
+			int year = emsClock.now().getYear();
+			table = Table.of(year - yearsBack, year + yearsAhead, this.workingWeekDays(), List.of());
+		}
+	}
+
+	/**
+	 * Method to rebuild the working day table of the window from the company
+	 * holidays, the lookups keep reading the previous table until it is swapped
+	 */
+	@Scheduled(initialDelayString = "${ems.business-calendar.rebuild-interval-ms}",
+			fixedDelayString = "${ems.business-calendar.rebuild-interval-ms}")
+	public void rebuild() {
+		long start = System.currentTimeMillis();
+		int year = emsClock.now().getYear();
+		int firstYear = year - yearsBack;
+		int lastYear = year + yearsAhead;
+		List<LocalDate> holidays = companyHolidayRepo.findHolidayDatesBetween(LocalDate.of(firstYear, 1, 1),
+				LocalDate.of(lastYear, 12, 31));
+		table = Table.of(firstYear, lastYear, this.workingWeekDays(), holidays);
+		lastRebuildMillis = System.currentTimeMillis() - start;
+		rebuilds.increment();
+		log.info("BusinessCalendar : rebuild() - {} to {} with {} holidays in {} ms", firstYear, lastYear,
+				table.holidays(), lastRebuildMillis);
+	}
+
+	/**
+	 * Method to check whether the date is a working day of the company
+	 *
+	 * @param date
+	 * @return
+	 */
+	public boolean isWorkingDay(LocalDate date) {
+		lookups.increment();
+		Table current = table;
+		long epochDay = date.toEpochDay();
+		if (current.covers(epochDay)) {
+			return current.workingDays(epochDay, epochDay) == 1;
+		}
+		fallbacks.increment();
+		return current.workingWeekDays()[dayOfWeek(epochDay)];
+	}
+
+	/**
+	 * Method to count the working days between the dates, both dates are
+	 * inclusive and an end date before the start date counts no days
+	 *
+	 * @param startDate
+	 * @param endDate
+	 * @return
+	 */
+	public int businessDaysBetween(LocalDate startDate, LocalDate endDate) {
+		lookups.increment();
+		Table current = table;
+		long from = startDate.toEpochDay();
+		long to = endDate.toEpochDay();
+		if (to < from) {
+			return 0;
+		}
+		if (current.covers(from) && current.covers(to)) {
+			return current.workingDays(from, to);
+		}
+		fallbacks.increment();
+		long coveredFrom = Math.max(from, current.firstEpochDay());
+		long coveredTo = Math.min(to, current.lastEpochDay());
+		if (coveredFrom > coveredTo) {
+			return weekDaysBetween(current.workingWeekDays(), from, to);
+		}
+		return weekDaysBetween(current.workingWeekDays(), from, coveredFrom - 1)
+				+ current.workingDays(coveredFrom, coveredTo)
+				+ weekDaysBetween(current.workingWeekDays(), coveredTo + 1, to);
+	}
+
+	public BusinessCalendarStats stats() {
+		Table current = table;
+		return new BusinessCalendarStats(current.firstYear(), current.lastYear(), current.holidays(), lookups.sum(),
+				fallbacks.sum(), rebuilds.sum(), lastRebuildMillis);
+	}
+
+	/**
+	 * Working days of the week indexed by the ordinal of the day of week
+	 */
+	private boolean[] workingWeekDays() {
+		boolean[] working = new boolean[DayOfWeek.values().length];
+		for (DayOfWeek day : DayOfWeek.values()) {
+			working[day.ordinal()] = !weekendDays.contains(day);
+		}
+		return working;
+	}
+
+	/**
+	 * Ordinal of the day of week of the epoch day, the epoch day 0 is a thursday
+	 */
+	private static int dayOfWeek(long epochDay) {
+		return (int) Math.floorMod(epochDay + 3, 7L);
+	}
+
+	/**
+	 * Working days between the epoch days by the weekend days only, the whole
+	 * weeks are counted at once and at most six remaining days are checked
+	 */
+	private static int weekDaysBetween(boolean[] workingWeekDays, long from, long to) {
+		if (to < from) {
+			return 0;
+		}
+		int perWeek = 0;
+		for (boolean working : workingWeekDays) {
+			perWeek += working ? 1 : 0;
+		}
+		long days = to - from + 1;
+		long count = days / 7 * perWeek;
+		int firstDay = dayOfWeek(from);
+		for (int offset = 0; offset < days % 7; offset++) {
+			count += workingWeekDays[(firstDay + offset) % 7] ? 1 : 0;
+		}
+		return (int) count;
+	}
+
+	/**
+	 * Prefix sums of the working days of the window, the entry i is the count of
+	 * the working days before the epoch day firstEpochDay + i
+	 */
+	private record Table(int firstYear, int lastYear, long firstEpochDay, long lastEpochDay, int[] prefix,
+			boolean[] workingWeekDays, int holidays) {
+
+		static Table of(int firstYear, int lastYear, boolean[] workingWeekDays, List<LocalDate> holidayDates) {
+			long firstEpochDay = LocalDate.of(firstYear, 1, 1).toEpochDay();
+			long lastEpochDay = LocalDate.of(lastYear, 12, 31).toEpochDay();
+			int days = (int) (lastEpochDay - firstEpochDay + 1);
+			boolean[] holiday = new boolean[days];
+			int holidays = 0;
+			for (LocalDate date : holidayDates) {
+				int index = (int) (date.toEpochDay() - firstEpochDay);
+				if (index >= 0 && index < days && !holiday[index]) {
+					holiday[index] = true;
+					holidays++;
+				}
+			}
+			int[] prefix = new int[days + 1];
+			for (int index = 0; index < days; index++) {
+				boolean working = workingWeekDays[dayOfWeek(firstEpochDay + index)] && !holiday[index];
+				prefix[index + 1] = prefix[index] + (working ? 1 : 0);
+			}
+			return new Table(firstYear, lastYear, firstEpochDay, lastEpochDay, prefix, workingWeekDays, holidays);
+		}
+
+		boolean covers(long epochDay) {
+			return epochDay >= firstEpochDay && epochDay <= lastEpochDay;
+		}
+
+		int workingDays(long from, long to) {
+			return prefix[(int) (to - firstEpochDay) + 1] - prefix[(int) (from - firstEpochDay)];
+		}
+	}
+}
@@ -0,0 +1,9 @@
+package com.ems2p0.components.calendar;
+
+/**
+ * EMS 2.0 - Snapshot of the business calendar window and lookup metrics
+ */
+public record BusinessCalendarStats(int firstYear, int lastYear, int holidays, long lookups, long fallbacks,
+		long rebuilds, long lastRebuildMillis) {
+
+}
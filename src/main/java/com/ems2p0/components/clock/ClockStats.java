@@ -0,0 +1,11 @@
+package com.ems2p0.components.clock;
+
+import java.time.LocalDateTime;
+
+/**
+ * EMS 2.0 - Snapshot of the clock synchronization metrics
+ */
+public record ClockStats(String source, boolean synced, LocalDateTime lastSyncTime, long lastDriftMillis,
+		long lastRoundTripMillis, long successfulSyncs, long failedSyncs) {
+
+}
@@ -0,0 +1,116 @@
+package com.ems2p0.components.clock;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ems2p0.utils.Ems2p0Constants;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - Application clock which serves the Asia/Kolkata time from the
+ * monotonic {@link System#nanoTime()} plus the offset learned from the
+ * {@link TimeSource}. The offset is synchronized in the background, so reading
+ * the time never waits on the network. Until the first synchronization
+ * succeeds the system clock is used.
+ *
+ * @author Mohan
+ * @category Clock module
+ * @version v1.0.0
+ * @apiNote - Developer should be responsible to read the current time only by
+ *          this component instead of calling the time source directly.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmsClock {
+
+	private static final ZoneId ZONE = ZoneId.of(Ems2p0Constants.ZONE_ID);
+
+	/**
+	 * Injected time source to synchronize the clock offset
+	 */
+	private final TimeSource timeSource;
+
+	private volatile Anchor anchor;
+
+	private volatile long lastDriftMillis;
+
+	private volatile long lastRoundTripMillis;
+
+	private final AtomicLong successfulSyncs = new AtomicLong();
+
+	private final AtomicLong failedSyncs = new AtomicLong();
+
+	/**
+	 * Method to fetch the current date and time of the application zone
+	 */
+	public LocalDateTime now() {
+		return LocalDateTime.ofInstant(Instant.ofEpochMilli(this.currentEpochMillis()), ZONE);
+	}
+
+	/**
+	 * Method to fetch the current epoch milliseconds extrapolated from the last
+	 * synchronization
+	 */
+	public long currentEpochMillis() {
+		Anchor current = anchor;
+		if (current == null) {
+			return System.currentTimeMillis();
+		}
+		return current.extrapolate(System.nanoTime());
+	}
+
+	/**
+	 * Method to synchronize the clock offset with the time source in the
+	 * background
+	 */
+	@Scheduled(initialDelayString = "${ems.clock.initial-delay-ms}", fixedDelayString = "${ems.clock.sync-interval-ms}")
+	public void synchronize() {
+		try {
+			long requestNanos = System.nanoTime();
+			long referenceMillis = timeSource.fetchEpochMillis();
+			long responseNanos = System.nanoTime();
+			long roundTripNanos = responseNanos - requestNanos;
+			// the reference time is assumed to be taken in the middle of the round trip
+			long midpointNanos = requestNanos + roundTripNanos / 2;
+			Anchor previous = anchor;
+			long predictedMillis = previous == null ? System.currentTimeMillis() : previous.extrapolate(midpointNanos);
+			anchor = new Anchor(midpointNanos, referenceMillis);
+			lastDriftMillis = predictedMillis - referenceMillis;
+			lastRoundTripMillis = TimeUnit.NANOSECONDS.toMillis(roundTripNanos);
+			successfulSyncs.incrementAndGet();
+			log.info("EmsClock : synchronize() - source : {}, drift : {} ms, round trip : {} ms",
+					timeSource.describe(), lastDriftMillis, lastRoundTripMillis);
+		} catch (Exception e) {
+			failedSyncs.incrementAndGet();
+			log.warn("EmsClock : synchronize() - failed with {}, serving the {} clock", e.getLocalizedMessage(),
+					anchor == null ? "system" : "last synchronized");
+		}
+	}
+
+	/**
+	 * Method to fetch the clock synchronization metrics
+	 */
+	public ClockStats stats() {
+		Anchor current = anchor;
+		LocalDateTime lastSyncTime = current == null ? null
+				: LocalDateTime.ofInstant(Instant.ofEpochMilli(current.epochMillis()), ZONE);
+		return new ClockStats(timeSource.describe(), current != null, lastSyncTime, lastDriftMillis,
+				lastRoundTripMillis, successfulSyncs.get(), failedSyncs.get());
+	}
+
+	private record Anchor(long nanos, long epochMillis) {
+
+		long extrapolate(long nowNanos) {
+			return epochMillis + TimeUnit.NANOSECONDS.toMillis(nowNanos - nanos);
+		}
+	}
+}
@@ -0,0 +1,34 @@
+package com.ems2p0.components.clock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * EMS 2.0 - Local stand-in for the NTP time source to run the application and
+ * the clock synchronization offline. An optional skew can be configured to
+ * simulate a drifting reference.
+ *
+ * @author Mohan
+ * @category Clock module
+ * @version v1.0.0
+ * @apiNote - Developer should be responsible to enable this source only for
+ *          local or offline environments by ems.clock.source=local
+ */
+@Component
+@ConditionalOnProperty(name = "ems.clock.source", havingValue = "local")
+public class LocalTimeSource implements TimeSource {
+
+	@Value("${ems.clock.local.skew-ms:0}")
+	private long skewMillis;
+
+	@Override
+	public long fetchEpochMillis() {
+		return System.currentTimeMillis() + skewMillis;
+	}
+
+	@Override
+	public String describe() {
+		return "local";
+	}
+}
@@ -0,0 +1,48 @@
+package com.ems2p0.components.clock;
+
+import java.net.InetAddress;
+
+import org.apache.commons.net.ntp.NTPUDPClient;
+import org.apache.commons.net.ntp.TimeInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * EMS 2.0 - NTP backed time source which is queried only by the background
+ * synchronization of the {@link EmsClock}.
+ *
+ * @author Mohan
+ * @category Clock module
+ * @version v1.0.0
+ * @apiNote - Developer should be responsible to never call this source from a
+ *          request thread, use the {@link EmsClock} instead.
+ */
+@Component
+@ConditionalOnProperty(name = "ems.clock.source", havingValue = "ntp", matchIfMissing = true)
+public class NtpTimeSource implements TimeSource {
+
+	@Value("${ems.clock.ntp-server}")
+	private String ntpServer;
+
+	@Value("${client.setDefaultTimeout}")
+	private int sessionTime;
+
+	@Override
+	public long fetchEpochMillis() throws Exception {
+		NTPUDPClient client = new NTPUDPClient();
+		client.setDefaultTimeout(sessionTime);
+		try {
+			client.open();
+			TimeInfo timeInfo = client.getTime(InetAddress.getByName(ntpServer));
+			return timeInfo.getMessage().getTransmitTimeStamp().getTime();
+		} finally {
+			client.close();
+		}
+	}
+
+	@Override
+	public String describe() {
+		return "ntp:" + ntpServer;
+	}
+}
@@ -0,0 +1,24 @@
+package com.ems2p0.components.clock;
+
+/**
+ * EMS 2.0 - Reference time source used by the {@link EmsClock} to synchronize
+ * its offset in the background.
+ *
+ * @author Mohan
+ * @category Clock module
+ * @version v1.0.0
+ * @apiNote - Developer should be responsible to keep the implementations free
+ *          of caching, the clock itself takes care of it.
+ */
+public interface TimeSource {
+
+	/**
+	 * Method to fetch the current reference time in epoch milliseconds
+	 */
+	long fetchEpochMillis() throws Exception;
+
+	/**
+	 * Method to describe the time source for the clock metrics
+	 */
+	String describe();
+}
@@ -0,0 +1,54 @@
+package com.ems2p0.components.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.web.util.HtmlUtils;
+
+import com.ems2p0.enums.MailTemplate;
+
+/**
+ * EMS 2.0 - Mail template split once into its literal parts and the variables
+ * between them, rendering only appends the parts and the escaped values.
+ *
+ * @author Mohan
+ * @category Mail module
+ * @version v1.0.0
+ * @apiNote - Variables are written as {{name}} and every variable of the
+ *          template must be present in the model.
+ */
+public record CompiledMailTemplate(MailTemplate template, List<String> literals, List<String> variables,
+		int length) {
+
+	private static final Pattern VARIABLE = Pattern.compile("\\{\\{\\s*(\\w+)\\s*}}");
+
+	public static CompiledMailTemplate compile(MailTemplate template, String source) {
+		List<String> literals = new ArrayList<>();
+		List<String> variables = new ArrayList<>();
+		Matcher matcher = VARIABLE.matcher(source);
+		int from = 0;
+		while (matcher.find()) {
+			literals.add(source.substring(from, matcher.start()));
+			variables.add(matcher.group(1));
+			from = matcher.end();
+		}
+		literals.add(source.substring(from));
+		return new CompiledMailTemplate(template, List.copyOf(literals), List.copyOf(variables), source.length());
+	}
+
+	public String render(Map<String, ?> model) {
+		StringBuilder html = new StringBuilder(length + 64);
+		for (int index = 0; index < variables.size(); index++) {
+			String variable = variables.get(index);
+			if (!model.containsKey(variable)) {
+				throw new IllegalArgumentException(
+						"Missing variable " + variable + " of the mail template " + template.name());
+			}
+			html.append(literals.get(index)).append(HtmlUtils.htmlEscape(String.valueOf(model.get(variable))));
+		}
+		return html.append(literals.get(variables.size())).toString();
+	}
+}
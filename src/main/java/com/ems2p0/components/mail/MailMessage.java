@@ -0,0 +1,10 @@
+package com.ems2p0.components.mail;
+
+import com.ems2p0.enums.MailTemplate;
+
+/**
+ * EMS 2.0 - Rendered mail waiting in the outbox
+ */
+public record MailMessage(String to, MailTemplate template, String html) {
+
+}
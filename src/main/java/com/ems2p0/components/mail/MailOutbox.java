@@ -0,0 +1,271 @@
+package com.ems2p0.components.mail;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import com.ems2p0.components.mail.SmtpTransportPool.PooledTransport;
+import com.ems2p0.enums.MailTemplate;
+import com.ems2p0.enums.SecurityRoleProperties;
+import com.ems2p0.utils.concurrent.WorkerThreads;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - Bounded in-process outbox for the mails. The request threads only
+ * render the precompiled template and enqueue, the worker threads send the
+ * mails through the pooled SMTP transports. A transient failure is scheduled
+ * with back off on a delay queue served by its own retry thread, so a failing
+ * mail never holds the workers of the other mails. The outbox and the pending
+ * retries are drained before shutdown.
+ *
+ * @author Mohan
+ * @category Mail module
+ * @version v1.0.0
+ * @apiNote - The outbox is kept in memory on purpose, the OTP mails hold the
+ *          plain code which must never be persisted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MailOutbox {
+
+	/**
+	 * Injected mail sender to build the mime messages of the session
+	 */
+	private final JavaMailSenderImpl mailSender;
+
+	/**
+	 * Injected pool of the SMTP transports to deliver the mails
+	 */
+	private final SmtpTransportPool transportPool;
+
+	/**
+	 * Injected registry of the compiled mail templates
+	 */
+	private final MailTemplateRegistry templateRegistry;
+
+	/**
+	 * Injected worker thread factory to run the senders on virtual threads when
+	 * they are enabled
+	 */
+	private final WorkerThreads workerThreads;
+
+	@Value("${spring.mail.from.email}")
+	private String fromEmail;
+
+	@Value("${ems.mail.outbox.capacity}")
+	private int capacity;
+
+	@Value("${ems.mail.outbox.workers}")
+	private int workerCount;
+
+	@Value("${ems.mail.outbox.max-attempts}")
+	private int maxAttempts;
+
+	@Value("${ems.mail.outbox.backoff-ms}")
+	private long backoffMillis;
+
+	private BlockingQueue<MailMessage> queue;
+
+	private final DelayQueue<PendingMail> retryQueue = new DelayQueue<>();
+
+	private ExecutorService workers;
+
+	private ExecutorService retryWorker;
+
+	private volatile boolean running;
+
+	private final LongAdder enqueued = new LongAdder();
+
+	private final LongAdder dropped = new LongAdder();
+
+	private final LongAdder sent = new LongAdder();
+
+	private final LongAdder failed = new LongAdder();
+
+	private final LongAdder retried = new LongAdder();
+
+	private final LongAdder sendCount = new LongAdder();
+
+	private final LongAdder sendNanos = new LongAdder();
+
+	@PostConstruct
+	public void start() {
+		queue = new ArrayBlockingQueue<>(capacity);
+		workers = Executors.newFixedThreadPool(workerCount, workerThreads.threadFactory("ems-mail-"));
+		running = true;
+		for (int worker = 0; worker < workerCount; worker++) {
+			workers.execute(this::drainLoop);
+		}
+		retryWorker = Executors.newSingleThreadExecutor(workerThreads.threadFactory("ems-mail-retry-"));
+		retryWorker.execute(this::retryLoop);
+		log.info("MailOutbox : start() - {} workers, capacity {}", workerCount, capacity);
+	}
+
+	/**
+	 * Method to render the template and enqueue the mail without blocking the
+	 * caller
+	 *
+	 * @return false when the outbox is full
+	 */
+	public boolean enqueue(String to, MailTemplate template, Map<String, ?> model) {
+		MailMessage message = new MailMessage(to, template, templateRegistry.render(template, model));
+		if (!queue.offer(message)) {
+			dropped.increment();
+			log.error("MailOutbox : enqueue() - outbox is full, dropping the {} mail", template);
+			return false;
+		}
+		enqueued.increment();
+		return true;
+	}
+
+	/**
+	 * Method to fetch the outbox and transport pool metrics
+	 */
+	public MailOutboxStats stats() {
+		long count = sendCount.sum();
+		double averageMillis = count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(sendNanos.sum()) / 1000.0 / count;
+		return new MailOutboxStats(queue.size(), capacity, retryQueue.size(), enqueued.sum(), dropped.sum(),
+				sent.sum(), failed.sum(), retried.sum(), transportPool.idleCount(), transportPool.connectCount(),
+				transportPool.reuseCount(), averageMillis);
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		running = false;
+		workers.shutdown();
+		retryWorker.shutdown();
+		if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+			log.warn("MailOutbox : shutdown() - {} mails were not sent", queue.size());
+			workers.shutdownNow();
+		}
+		if (!retryWorker.awaitTermination(30, TimeUnit.SECONDS)) {
+			log.warn("MailOutbox : shutdown() - {} retries were not sent", retryQueue.size());
+			retryWorker.shutdownNow();
+		}
+	}
+
+	private void drainLoop() {
+		while (running || !queue.isEmpty()) {
+			try {
+				MailMessage message = queue.poll(1, TimeUnit.SECONDS);
+				if (message != null) {
+					this.attempt(new PendingMail(message, 1, System.nanoTime()));
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				log.error("MailOutbox : drainLoop() - {}", e.toString());
+			}
+		}
+	}
+
+	/**
+	 * Method to send the due retries until the outbox is shut down, the workers
+	 * have finished and no retry is pending
+	 */
+	private void retryLoop() {
+		while (running || !workers.isTerminated() || !retryQueue.isEmpty()) {
+			try {
+				PendingMail due = retryQueue.poll(1, TimeUnit.SECONDS);
+				if (due != null) {
+					this.attempt(due);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				log.error("MailOutbox : retryLoop() - {}", e.toString());
+			}
+		}
+	}
+
+	/**
+	 * Method to send the mail once, a transient failure is scheduled for the next
+	 * attempt instead of waiting for it
+	 */
+	private void attempt(PendingMail pending) {
+		MailMessage message = pending.message();
+		long startNanos = System.nanoTime();
+		try {
+			this.send(message);
+			this.recordLatency(System.nanoTime() - startNanos);
+			sent.increment();
+		} catch (SendFailedException e) {
+			failed.increment();
+			log.error("MailOutbox : send() - {} mail rejected by the server : {}", message.template(), e.toString());
+		} catch (Exception e) {
+			this.recordLatency(System.nanoTime() - startNanos);
+			if (pending.attempt() >= maxAttempts) {
+				failed.increment();
+				log.error("MailOutbox : send() - giving up on the {} mail after {} attempts : {}", message.template(),
+						pending.attempt(), e.toString());
+				return;
+			}
+			retried.increment();
+			long delayMillis = backoffMillis << (pending.attempt() - 1);
+			retryQueue.add(new PendingMail(message, pending.attempt() + 1,
+					System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis)));
+		}
+	}
+
+	private void send(MailMessage message) throws Exception {
+		PooledTransport transport = transportPool.borrow();
+		try {
+			MimeMessage mimeMessage = mailSender.createMimeMessage();
+			MimeMessageHelper helper = new MimeMessageHelper(mimeMessage);
+			helper.setFrom(fromEmail, SecurityRoleProperties.FROM_CONTENT.getMessage());
+			helper.setTo(message.to());
+			helper.setSubject(message.template().getSubject().getMessage());
+			helper.setText(message.html(), true);
+			mimeMessage.saveChanges();
+			transport.transport().sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+			transportPool.release(transport);
+		} catch (SendFailedException e) {
+			transportPool.release(transport);
+			throw e;
+		} catch (Exception e) {
+			transportPool.invalidate(transport);
+			throw e;
+		}
+	}
+
+	private void recordLatency(long nanos) {
+		sendCount.increment();
+		sendNanos.add(nanos);
+	}
+
+	/**
+	 * Mail waiting for its attempt, the OTP mails are kept only in memory
+	 */
+	private record PendingMail(MailMessage message, int attempt, long dueAtNanos) implements Delayed {
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(dueAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return Long.compare(this.getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+		}
+	}
+}
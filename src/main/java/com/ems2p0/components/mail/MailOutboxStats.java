@@ -0,0 +1,10 @@
+package com.ems2p0.components.mail;
+
+/**
+ * EMS 2.0 - Snapshot of the mail outbox and the SMTP transport pool metrics
+ */
+public record MailOutboxStats(int queueDepth, int capacity, int retryDepth, long enqueued, long dropped, long sent,
+		long failed, long retried, int idleTransports, long transportConnects, long transportReuses,
+		double averageSendLatencyMillis) {
+
+}
@@ -0,0 +1,47 @@
+package com.ems2p0.components.mail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import com.ems2p0.enums.MailTemplate;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - Registry of the mail templates which are loaded from the classpath
+ * and compiled once at startup.
+ *
+ * @author Mohan
+ * @category Mail module
+ * @version v1.0.0
+ * @apiNote - A template which can not be loaded fails the startup instead of
+ *          the first mail.
+ */
+@Component
+@Slf4j
+public class MailTemplateRegistry {
+
+	private final Map<MailTemplate, CompiledMailTemplate> templates = new EnumMap<>(MailTemplate.class);
+
+	@PostConstruct
+	public void init() throws IOException {
+		for (MailTemplate template : MailTemplate.values()) {
+			String source = new ClassPathResource(template.getLocation()).getContentAsString(StandardCharsets.UTF_8);
+			templates.put(template, CompiledMailTemplate.compile(template, source));
+		}
+		log.info("MailTemplateRegistry : init() - {} templates compiled", templates.size());
+	}
+
+	/**
+	 * Method to render the template with the model
+	 */
+	public String render(MailTemplate template, Map<String, ?> model) {
+		return templates.get(template).render(model);
+	}
+}
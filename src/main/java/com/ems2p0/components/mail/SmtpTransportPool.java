@@ -0,0 +1,133 @@
+package com.ems2p0.components.mail;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - Pool of connected and authenticated SMTP transports built from the
+ * spring.mail configuration, a transport is reused for the following mails
+ * until it stays idle longer than the server would keep it open.
+ *
+ * @author Mohan
+ * @category Mail module
+ * @version v1.0.0
+ * @apiNote - Developer should be responsible to give back every borrowed
+ *          transport either by release or by invalidate when it failed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SmtpTransportPool {
+
+	/**
+	 * Injected mail sender which holds the mail session and the server details
+	 */
+	private final JavaMailSenderImpl mailSender;
+
+	@Value("${ems.mail.transport.pool-size}")
+	private int poolSize;
+
+	@Value("${ems.mail.transport.max-idle-ms}")
+	private long maxIdleMillis;
+
+	private final Deque<PooledTransport> idle = new ConcurrentLinkedDeque<>();
+
+	private Semaphore permits;
+
+	private final LongAdder connects = new LongAdder();
+
+	private final LongAdder reuses = new LongAdder();
+
+	@PostConstruct
+	public void init() {
+		permits = new Semaphore(poolSize);
+	}
+
+	/**
+	 * Method to borrow a connected transport, the most recently used idle
+	 * transport is reused and a new one is connected when none is usable
+	 */
+	public PooledTransport borrow() throws MessagingException, InterruptedException {
+		permits.acquire();
+		try {
+			PooledTransport pooled;
+			while ((pooled = idle.pollFirst()) != null) {
+				if (System.currentTimeMillis() - pooled.lastUsedMillis() < maxIdleMillis
+						&& pooled.transport().isConnected()) {
+					reuses.increment();
+					return pooled;
+				}
+				this.close(pooled);
+			}
+			Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+			transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(),
+					mailSender.getPassword());
+			connects.increment();
+			return new PooledTransport(transport, System.currentTimeMillis());
+		} catch (MessagingException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Method to give back a transport which can be reused
+	 */
+	public void release(PooledTransport pooled) {
+		idle.offerFirst(new PooledTransport(pooled.transport(), System.currentTimeMillis()));
+		permits.release();
+	}
+
+	/**
+	 * Method to give back a transport which failed, it is closed and never reused
+	 */
+	public void invalidate(PooledTransport pooled) {
+		this.close(pooled);
+		permits.release();
+	}
+
+	public int idleCount() {
+		return idle.size();
+	}
+
+	public long connectCount() {
+		return connects.sum();
+	}
+
+	public long reuseCount() {
+		return reuses.sum();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		PooledTransport pooled;
+		while ((pooled = idle.pollFirst()) != null) {
+			this.close(pooled);
+		}
+	}
+
+	private void close(PooledTransport pooled) {
+		try {
+			pooled.transport().close();
+		} catch (MessagingException e) {
+			log.debug("SmtpTransportPool : close() - {}", e.toString());
+		}
+	}
+
+	public record PooledTransport(Transport transport, long lastUsedMillis) {
+
+	}
+}
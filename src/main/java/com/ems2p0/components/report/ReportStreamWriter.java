@@ -0,0 +1,117 @@
+package com.ems2p0.components.report;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ems2p0.enums.ReportFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - Writer of the streamed report exports. The rows are serialized one
+ * by one as CSV or as newline delimited JSON and flushed to the client every
+ * few rows, so the memory used by an export does not grow with the size of the
+ * report.
+ *
+ * @author Mohan
+ * @category Report module
+ * @version v1.0.0
+ * @apiNote - The CSV columns are the JSON properties of the row, so both
+ *          formats always carry the same fields as the report APIs.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReportStreamWriter {
+
+	private static final String CSV_SEPARATOR = ",";
+
+	private static final String LINE_SEPARATOR = "\n";
+
+	/**
+	 * Injected object mapper of the application to serialize the rows alike the
+	 * report APIs
+	 */
+	private final ObjectMapper objectMapper;
+
+	@Value("${ems.report-export.flush-rows}")
+	private int flushRows;
+
+	/**
+	 * Method to write the rows to the output stream in the requested format
+	 *
+	 * @param outputStream
+	 * @param format
+	 * @param rows
+	 * @return the number of written rows
+	 */
+	public <T> long write(OutputStream outputStream, ReportFormat format, Stream<T> rows) {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+		long count = 0;
+		try {
+			for (Iterator<T> iterator = rows.iterator(); iterator.hasNext();) {
+				JsonNode row = objectMapper.valueToTree(iterator.next());
+				if (format == ReportFormat.CSV) {
+					if (count == 0) {
+						this.writeCsvHeader(writer, row);
+					}
+					this.writeCsvRow(writer, row);
+				} else {
+					writer.write(objectMapper.writeValueAsString(row));
+				}
+				writer.write(LINE_SEPARATOR);
+				if (++count % flushRows == 0) {
+					writer.flush();
+				}
+			}
+			writer.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		log.info("ReportStreamWriter : write() - {} rows exported as {}", count, format);
+		return count;
+	}
+
+	private void writeCsvHeader(Writer writer, JsonNode row) throws IOException {
+		StringBuilder header = new StringBuilder();
+		for (Iterator<String> names = row.fieldNames(); names.hasNext();) {
+			header.append(this.escapeCsv(names.next())).append(names.hasNext() ? CSV_SEPARATOR : "");
+		}
+		writer.write(header.append(LINE_SEPARATOR).toString());
+	}
+
+	private void writeCsvRow(Writer writer, JsonNode row) throws IOException {
+		StringBuilder line = new StringBuilder();
+		for (Iterator<Map.Entry<String, JsonNode>> fields = row.fields(); fields.hasNext();) {
+			JsonNode value = fields.next().getValue();
+			line.append(value.isNull() ? "" : this.escapeCsv(value.isValueNode() ? value.asText() : value.toString()))
+					.append(fields.hasNext() ? CSV_SEPARATOR : "");
+		}
+		writer.write(line.toString());
+	}
+
+	/**
+	 * Values with a separator, a quote or a line break are quoted and their quotes
+	 * are doubled
+	 */
+	private String escapeCsv(String value) {
+		if (value.contains(CSV_SEPARATOR) || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+			return "\"" + value.replace("\"", "\"\"") + "\"";
+		}
+		return value;
+	}
+}
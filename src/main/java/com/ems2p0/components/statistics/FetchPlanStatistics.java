@@ -0,0 +1,107 @@
+package com.ems2p0.components.statistics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * EMS 2.0 - Interceptor which measures the SQL statements, loaded entities and
+ * fetched collections of every controller endpoint from the hibernate
+ * statistics, to verify the fetch plan of each use case.
+ *
+ * @author Mohan
+ * @version v1.0.0
+ * @category Statistics component
+ * @apiNote - Measures only when
+ *          spring.jpa.properties.hibernate.generate_statistics is enabled. The
+ *          hibernate counters are global, so the numbers are exact only when
+ *          the endpoints are exercised one at a time.
+ */
+@Component
+public class FetchPlanStatistics implements HandlerInterceptor {
+
+	private static final String SNAPSHOT_ATTRIBUTE = FetchPlanStatistics.class.getName() + ".snapshot";
+
+	private final Statistics statistics;
+
+	private final Map<String, EndpointCounters> countersByEndpoint = new ConcurrentHashMap<>();
+
+	public FetchPlanStatistics(EntityManagerFactory entityManagerFactory) {
+		this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (statistics.isStatisticsEnabled()) {
+			request.setAttribute(SNAPSHOT_ATTRIBUTE, Snapshot.of(statistics));
+		}
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		if (!(request.getAttribute(SNAPSHOT_ATTRIBUTE) instanceof Snapshot before)) {
+			return;
+		}
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String endpoint = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+		Snapshot after = Snapshot.of(statistics);
+		EndpointCounters counters = countersByEndpoint.computeIfAbsent(endpoint, key -> new EndpointCounters());
+		counters.requests.increment();
+		counters.statements.add(after.statements() - before.statements());
+		counters.entitiesLoaded.add(after.entitiesLoaded() - before.entitiesLoaded());
+		counters.collectionsFetched.add(after.collectionsFetched() - before.collectionsFetched());
+	}
+
+	/**
+	 * Method to fetch the per request averages of every measured endpoint
+	 *
+	 * @return list of endpoint statistics ordered by the statements per request
+	 */
+	public List<FetchPlanStats> stats() {
+		return countersByEndpoint.entrySet().stream().map(entry -> entry.getValue().toStats(entry.getKey()))
+				.sorted(Comparator.comparingDouble(FetchPlanStats::statementsPerRequest).reversed()).toList();
+	}
+
+	public void reset() {
+		countersByEndpoint.clear();
+	}
+
+	private record Snapshot(long statements, long entitiesLoaded, long collectionsFetched) {
+
+		static Snapshot of(Statistics statistics) {
+			return new Snapshot(statistics.getPrepareStatementCount(), statistics.getEntityLoadCount(),
+					statistics.getCollectionFetchCount());
+		}
+	}
+
+	private static final class EndpointCounters {
+
+		private final LongAdder requests = new LongAdder();
+
+		private final LongAdder statements = new LongAdder();
+
+		private final LongAdder entitiesLoaded = new LongAdder();
+
+		private final LongAdder collectionsFetched = new LongAdder();
+
+		FetchPlanStats toStats(String endpoint) {
+			long count = Math.max(requests.sum(), 1);
+			return new FetchPlanStats(endpoint, requests.sum(), (double) statements.sum() / count,
+					(double) entitiesLoaded.sum() / count, (double) collectionsFetched.sum() / count);
+		}
+	}
+}
@@ -0,0 +1,9 @@
+package com.ems2p0.components.statistics;
+
+/**
+ * EMS 2.0 - Average SQL statements, loaded entities and fetched collections per
+ * request of one endpoint as measured by the hibernate statistics.
+ */
+public record FetchPlanStats(String endpoint, long requests, double statementsPerRequest,
+		double entitiesLoadedPerRequest, double collectionsFetchedPerRequest) {
+}
@@ -0,0 +1,46 @@
+package com.ems2p0.dao.ledger;
+
+import java.time.LocalTime;
+
+import com.ems2p0.enums.QuotaType;
+import com.ems2p0.projections.QuotaBalanceProjection;
+
+/**
+ * EMS 2.0 - Materialized running balance of a monthly quota, in minutes for the
+ * permission and in days for the work from home.
+ */
+public record QuotaBalance(QuotaType type, double taken, double remaining, double overdue, double total) {
+
+	public static QuotaBalance empty(QuotaType type) {
+		return new QuotaBalance(type, 0, type.getAllowance(), 0, type.getAllowance());
+	}
+
+	public static QuotaBalance of(QuotaType type, QuotaBalanceProjection projection) {
+		return new QuotaBalance(type, valueOf(projection.getTaken()), valueOf(projection.getRemaining()),
+				valueOf(projection.getOverdue()), projection.getTotal() != null ? projection.getTotal()
+						: type.getAllowance());
+	}
+
+	public boolean isOverDue() {
+		return overdue > 0;
+	}
+
+	/**
+	 * Method to check whether the balance would be over the quota once the amount
+	 * is taken, the same way the running balance is moved by the ledger
+	 */
+	public boolean isOverDueAfter(double amount) {
+		return Math.max(0, taken + amount) - total > 0;
+	}
+
+	/**
+	 * Method to present the taken minutes of the permission as time
+	 */
+	public LocalTime takenAsTime() {
+		return LocalTime.MIN.plusMinutes(Math.round(taken));
+	}
+
+	private static double valueOf(Double value) {
+		return value != null ? value : 0;
+	}
+}
@@ -0,0 +1,9 @@
+package com.ems2p0.dao.ledger;
+
+/**
+ * EMS 2.0 - Change of a monthly quota caused by one permission or work from
+ * home request, in minutes for the permission and in days for the work from
+ * home.
+ */
+public record QuotaDelta(Integer referenceId, double amount) {
+}
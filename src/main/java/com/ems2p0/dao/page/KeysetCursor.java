@@ -0,0 +1,57 @@
+package com.ems2p0.dao.page;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.ems2p0.dto.exception.CustomExceptionDto;
+import com.ems2p0.enums.ExceptionMsg;
+
+/**
+ * EMS 2.0 - Position of a history page ordered by the created date time and the
+ * id, both descending. The next page starts right after the last row of the
+ * previous page, so a page is read by an index range whatever the size of the
+ * history is.
+ *
+ * @author Mohan
+ * @category DB operations - Keyset pagination
+ * @version v1.0.0
+ * @apiNote - The cursor is handed to the clients as an opaque token, clients
+ *          should only send back the token of the previous response.
+ */
+public record KeysetCursor(LocalDateTime createdDateTime, long id) {
+
+	private static final String SEPARATOR = "|";
+
+	/**
+	 * Cursor of the first page, it is after every row which can be stored in a
+	 * datetime column
+	 */
+	public static final KeysetCursor FIRST = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+			Long.MAX_VALUE);
+
+	/**
+	 * Method to decode the token sent by the client, the first page is read when
+	 * there is no token
+	 */
+	public static KeysetCursor decode(String token) {
+		if (StringUtils.isBlank(token)) {
+			return FIRST;
+		}
+		try {
+			String cursor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			return new KeysetCursor(LocalDateTime.parse(StringUtils.substringBefore(cursor, SEPARATOR)),
+					Long.parseLong(StringUtils.substringAfter(cursor, SEPARATOR)));
+		} catch (IllegalArgumentException | DateTimeParseException e) {
+			throw new CustomExceptionDto(ExceptionMsg.INVALID_CURSOR.getMessage());
+		}
+	}
+
+	public String encode() {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((createdDateTime + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+	}
+}
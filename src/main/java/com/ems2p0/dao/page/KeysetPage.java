@@ -0,0 +1,42 @@
+package com.ems2p0.dao.page;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * EMS 2.0 - Page of a history read by {@link KeysetCursor}, the next cursor is
+ * empty on the last page.
+ *
+ * @author Mohan
+ * @category DB operations - Keyset pagination
+ * @version v1.0.0
+ * @apiNote - The DAO layer reads one row more than the page size to know
+ *          whether a next page exists, that row is never returned.
+ */
+public record KeysetPage<T>(List<T> items, KeysetCursor next) {
+
+	/**
+	 * Method to build the page out of the rows read with a limit of size + 1
+	 */
+	public static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, KeysetCursor> cursorOf) {
+		if (rows.size() <= size) {
+			return new KeysetPage<>(rows, null);
+		}
+		List<T> items = rows.subList(0, size);
+		return new KeysetPage<>(items, cursorOf.apply(items.get(size - 1)));
+	}
+
+	/**
+	 * Method to convert the rows of the page, the cursor stays as it is
+	 */
+	public <R> KeysetPage<R> map(Function<List<T>, List<R>> mapper) {
+		return new KeysetPage<>(mapper.apply(items), next);
+	}
+
+	/**
+	 * Token of the next page to hand to the client, null on the last page
+	 */
+	public String nextCursor() {
+		return next != null ? next.encode() : null;
+	}
+}
@@ -0,0 +1,53 @@
+package com.ems2p0.dao.report;
+
+import java.util.Map;
+import java.util.Optional;
+
+import com.ems2p0.dto.exception.EmployeeNotFound;
+import com.ems2p0.enums.ExceptionMsg;
+import com.ems2p0.projections.EmployeeProjection;
+
+/**
+ * EMS 2.0 - Pre-resolved lookup tables used while assembling a report. The
+ * employees and the monthly statistics of the whole result set are fetched
+ * up front by the DAO layer so the mappers can build each row in memory.
+ *
+ * @author Mohan
+ * @category DB operations - Report assembly
+ * @version v1.0.0
+ * @apiNote - Developer should be responsible to build this lookup only through
+ *          the DAO service so the number of queries per report stays fixed.
+ */
+public record ReportLookup<S>(Map<String, EmployeeProjection> employees, Map<String, S> stats) {
+
+	private static final String KEY_SEPARATOR = "|";
+
+	public static <S> ReportLookup<S> empty() {
+		return new ReportLookup<>(Map.of(), Map.of());
+	}
+
+	/**
+	 * Method to build the statistics key of an employee for the month
+	 */
+	public static String key(String userName, String month) {
+		return userName + KEY_SEPARATOR + month;
+	}
+
+	/**
+	 * Method to fetch the resolved employee by userName
+	 */
+	public EmployeeProjection employee(String userName) {
+		EmployeeProjection employee = employees.get(userName);
+		if (employee == null) {
+			throw new EmployeeNotFound(ExceptionMsg.EMPLOYEE_NOT_FOUND.getMessage());
+		}
+		return employee;
+	}
+
+	/**
+	 * Method to fetch the resolved statistics of the employee for the month
+	 */
+	public Optional<S> stats(String userName, String month) {
+		return Optional.ofNullable(stats.get(key(userName, month)));
+	}
+}
@@ -1,10 +1,17 @@
 package com.ems2p0.dao.service;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
-import com.ems2p0.dto.request.AttendanceDto;
+import com.ems2p0.dao.page.KeysetCursor;
+import com.ems2p0.dao.page.KeysetPage;
+import com.ems2p0.dao.report.ReportLookup;
 import com.ems2p0.dto.request.RequestPermissionDto;
 import com.ems2p0.dto.request.UpdatePermissionStatusRequestDto;
 import com.ems2p0.dto.request.UpdateWfhStatusRequestDto;
@@ -21,12 +28,13 @@ import com.ems2p0.model.UserDetails;
 import com.ems2p0.projections.EmployeeProjection;
 import com.ems2p0.projections.PermissionProjections;
 import com.ems2p0.projections.PermissionStatsProjection;
+import com.ems2p0.projections.TimesheetProjection;
 import com.ems2p0.projections.UserProjection;
 import com.ems2p0.projections.WfhProjection;
 import com.ems2p0.projections.WorkFromHomeProjectionStats;
 import com.ems2p0.projections.WorktypeProjections;
+import com.ems2p0.utils.cache.CacheStats;
 
-import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 
 /**
@@ -57,13 +65,18 @@ public interface EmsDaoService {
 
 	UserDetails save(UserDetails existsEmployeeData);
 
-	void updatePermissionStatus(Ems2p0Status status, UpdatePermissionStatusRequestDto request, String userName);
+	List<EmployeePermissionDetails> updatePermissionStatus(Ems2p0Status status, UpdatePermissionStatusRequestDto request,
+			String userName);
 
-	void updateWfhStatus(Ems2p0Status status, UpdateWfhStatusRequestDto request, String userName,EmployeeWfhStats employeeWfhStats);
+	List<EmployeeWfhDetails> updateWfhStatus(Ems2p0Status status, UpdateWfhStatusRequestDto request, String userName);
 
-	EmployeePermissionStats findByUserDetailsAndMonth(UserDetails existsEmployeeData, String month);
+	List<EmployeePermissionDetails> autoApprovePermissions(Collection<Integer> ids, String actor);
 
-	EmployeeWfhStats findByUserDetailsAndMonthForWfhStats(UserDetails exstsEmployeeData, String month);
+	List<EmployeeWfhDetails> autoApproveWfh(Collection<Integer> ids, String actor);
+
+	EmployeePermissionStats findByEmpIdAndMonth(Integer empId, String month);
+
+	EmployeeWfhStats findByEmpIdAndMonthForWfhStats(Integer empId, String month);
 
 	PermissionStatsProjection findOverDueAndHoursTakenByUserDetailsAndMonth(String userName, String month);
 
@@ -81,7 +94,8 @@ public interface EmsDaoService {
 
 	List<EmployeePermissionStats> findByUserDetails(UserDetails userDetails);
 
-	List<EmployeePermissionDetails> findPermissionDetByEmployee(Integer empId);
+	KeysetPage<EmployeePermissionDetails> findPermissionDetByEmployee(Integer empId, KeysetCursor cursor,
+			Integer size);
 
 	EmployeePermissionDetails fetchPermissionDetailsById(Long id);  
 
@@ -91,7 +105,8 @@ public interface EmsDaoService {
 
 	List<Integer> fetchByDepartmentNameAndOfficialRole(String departName, OfficialRole officialRole);
 
-	List<PermissionProjections> findAllByEmpIds(List<?> employeeIdsProjections);
+	KeysetPage<PermissionProjections> findAllByEmpIds(List<?> employeeIdsProjections, KeysetCursor cursor,
+			Integer size);
 	
 	EmployeePermissionDetails existsByPermissionDetails(UserDetails existEmployee, RequestPermissionDto permissionDto);
 	
@@ -99,26 +114,34 @@ public interface EmsDaoService {
 
 	MultiFactorAuthentication persistOtp(MultiFactorAuthentication multifactorAuthenticator);
 
-	MultiFactorAuthentication fetchOtp(Integer otp, UserDetails userDetails);
+	void createOtpIfAbsent(String userName);
+
+	Optional<MultiFactorAuthentication> fetchOtpForUpdate(String userName);
+
+	void deleteOtp(String userName);
 
-	MultiFactorAuthentication fetchOtpByUserDetailsAndStatus(UserDetails userDetails);
+	int purgeExpiredOtps(long nowMillis);
 
-	List<EmployeePermissionDetails> findAllEmployeesByPermissionDetails();
+	KeysetPage<EmployeePermissionDetails> findAllEmployeesByPermissionDetails(KeysetCursor cursor, Integer size);
 
 	List<WorktypeProjections> fetchWorktypes();
 
 	List<EmployeeProjection> findAllEmpNameAndId();
 
-	EmployeeAttendance save(EmployeeAttendance attendance);
+	EmployeeAttendance recordCheckIn(EmployeeAttendance attendance);
 
-	EmployeeAttendance fetchCheckIn(@Valid AttendanceDto attendanceDto, String empSerialNo);
+	EmployeeAttendance recordCheckOut(EmployeeAttendance checkOut);
 
-	EmployeeAttendance fetchCheckInByUserName(String userName); 
+	EmployeeAttendance fetchOpenCheckIn(String userName, Integer registerid);
 
-	EmployeePermissionStats updatePermissionStatistics(EmployeePermissionDetails permissionDetails);
+	EmployeeAttendance fetchCheckInByUserName(String userName);
 
-	EmployeePermissionStats updateEditPermissionStatistics(RequestPermissionDto permissionDto, long timeDifference,
-			EmployeePermissionStats employeePermissionStats);
+	void evictAttendanceSessions();
+
+	CacheStats attendanceSessionCacheStats();
+
+	List<TimesheetProjection> fetchTimesheet(LocalDate fromDate, LocalDate toDate, String departmentName,
+			String userName);
 
 	EmployeePermissionDetails findPermissionDetailsByUser(UserDetails existsEmployeeData, long id);
 
@@ -126,32 +149,39 @@ public interface EmsDaoService {
 
 	//List<EmployeeWfhDetails> fetchWorkFromHomeDetails(String employeeId);
 	
-	List<EmployeeWfhDetails> fetchWorkFromHomeDetails(Integer employeeId);
+	KeysetPage<EmployeeWfhDetails> fetchWorkFromHomeDetails(Integer employeeId, KeysetCursor cursor, Integer size);
 
-	List<WfhProjection> findAllWorkFromHomeDetailsByEmpIds(List<?> employeeIdsProjections);
+	KeysetPage<WfhProjection> findAllWorkFromHomeDetailsByEmpIds(List<?> employeeIdsProjections, KeysetCursor cursor,
+			Integer size);
 
 	WorkFromHomeProjectionStats findOverDueAndDaysTakenByUserDetailsAndMonth(String getuserName, String month);
 
-	List<EmployeeWfhDetails> findAllEmployeesByWfhDetails();
+	Map<String, EmployeeProjection> loadEmployeesByUsernames(Collection<String> userNames);
 
-	List<String> fetchDeviceTokenByDept(String department,List<String> roles);
+	EmployeeProjection loadEmployeeByEmpId(Integer empId);
 
-	String fetchDeviceTokenByEmployee(String department, String role);
+	Map<String, CacheStats> identityCacheStats();
+
+	ReportLookup<WorkFromHomeProjectionStats> prefetchWfhReportLookup(Collection<String> userNames,
+			Collection<String> months);
 
-	EmployeeWfhStats updateWfhStatistics(@Valid WfhRequestDto requestDto, long dateDifference,
-			EmployeeWfhStats employeeWfhStats);
+	ReportLookup<PermissionStatsProjection> prefetchPermissionReportLookup(Collection<String> userNames,
+			Collection<String> months);
 
-	List<String> fetchMgmtDeviceToken();
+	void exportAllEmployeesPermissionReports(
+			BiConsumer<ReportLookup<PermissionStatsProjection>, Stream<PermissionProjections>> exporter);
+
+	void exportAllEmployeesWfhReports(
+			BiConsumer<ReportLookup<WorkFromHomeProjectionStats>, Stream<WfhProjection>> exporter);
+
+	KeysetPage<EmployeeWfhDetails> findAllEmployeesByWfhDetails(KeysetCursor cursor, Integer size);
+
+	String fetchDeviceTokenByEmployee(String department, String role);
 
 	EmployeeWfhDetails findWfhDetailsById(Long id);
 
 	List<EmployeeWfhDetails> findAllEmployeeByStatus (Ems2p0Status status);
 	
-	EmployeeWfhStats updateEditPermissionStatistics(WfhRequestDto wfhRequestDto, EmployeeWfhStats employeeWfhStats);
-
-	
-	EmployeeWfhStats updateEditWfhStatistics(EmployeeWfhStats employeeWfhStats, EmployeeWfhDetails editEmployeeWfhDetails);
-	
 //	EmployeeWfhStats updateEditPermissionStatistics(WfhRequestDto wfhRequestDto, EmployeeWfhStats employeeWfhStats);
 	
 	List<EmployeeWfhDetails> saveAll(List<EmployeeWfhDetails> listOfEmpDetails);
@@ -0,0 +1,36 @@
+package com.ems2p0.dao.service;
+
+import java.util.List;
+
+import com.ems2p0.dao.ledger.QuotaBalance;
+import com.ems2p0.dao.ledger.QuotaDelta;
+import com.ems2p0.enums.LedgerReason;
+import com.ems2p0.enums.QuotaType;
+
+/**
+ * EMS 2.0 - Interface layer of the monthly quota ledger, every change of the
+ * permission and work from home quota is appended as an entry and folded into
+ * the running balance of the statistics table by a single statement
+ *
+ * @author Mohan
+ * @category DB operations
+ * @Version - v1.0.0
+ * @apiNote - Developer should never update the statistics tables directly, the
+ *          balance must only be changed through the ledger
+ */
+public interface QuotaLedgerService {
+
+	QuotaBalance apply(QuotaType type, Integer empId, String month, LedgerReason reason, String actor,
+			QuotaDelta delta);
+
+	QuotaBalance apply(QuotaType type, Integer empId, String month, LedgerReason reason, String actor,
+			List<QuotaDelta> deltas);
+
+	QuotaBalance balance(QuotaType type, Integer empId, String month);
+
+	QuotaBalance rebuild(QuotaType type, Integer empId, String month, String actor);
+
+	int rebuildAll(QuotaType type, String actor);
+
+	int reflagPendingWorkFromHome(Integer empId, String month);
+}
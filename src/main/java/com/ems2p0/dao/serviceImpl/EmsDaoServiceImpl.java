@@ -1,32 +1,53 @@
 package com.ems2p0.dao.serviceImpl;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.ObjectUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ems2p0.dao.page.KeysetCursor;
+import com.ems2p0.dao.page.KeysetPage;
+import com.ems2p0.dao.report.ReportLookup;
+import com.ems2p0.dao.ledger.QuotaDelta;
 import com.ems2p0.dao.service.EmsDaoService;
+import com.ems2p0.dao.service.QuotaLedgerService;
 import com.ems2p0.dto.exception.CustomExceptionDto;
 import com.ems2p0.dto.exception.EmployeeNotFound;
 import com.ems2p0.dto.exception.PermissionNotFound;
 import com.ems2p0.dto.exception.WfhNotFound;
-import com.ems2p0.dto.request.AttendanceDto;
 import com.ems2p0.dto.request.RequestPermissionDto;
 import com.ems2p0.dto.request.UpdatePermissionStatusRequestDto;
 import com.ems2p0.dto.request.UpdateWfhStatusRequestDto;
 import com.ems2p0.dto.request.WfhRequestDto;
 import com.ems2p0.enums.Ems2p0Status;
 import com.ems2p0.enums.ExceptionMsg;
+import com.ems2p0.enums.LedgerReason;
 import com.ems2p0.enums.OfficialRole;
-import com.ems2p0.enums.OtpStatus;
+import com.ems2p0.enums.QuotaType;
 import com.ems2p0.model.EmployeeAttendance;
+import com.ems2p0.model.EmployeeAttendanceSession;
 import com.ems2p0.model.EmployeePermissionDetails;
 import com.ems2p0.model.EmployeePermissionStats;
 import com.ems2p0.model.EmployeeWfhDetails;
@@ -36,12 +57,16 @@ import com.ems2p0.model.UserDetails;
 import com.ems2p0.projections.EmployeeProjection;
 import com.ems2p0.projections.PermissionProjections;
 import com.ems2p0.projections.PermissionStatsProjection;
+import com.ems2p0.projections.ReportKeyProjection;
+import com.ems2p0.projections.TimesheetProjection;
 import com.ems2p0.projections.UserProjection;
 import com.ems2p0.projections.WfhProjection;
 import com.ems2p0.projections.WorkFromHomeProjectionStats;
 import com.ems2p0.projections.WorktypeProjections;
+import com.ems2p0.pushnotification.service.DeviceTokenRoutingIndex;
 import com.ems2p0.repo.AuthenticationRepository;
 import com.ems2p0.repo.EmployeeAttendanceRepo;
+import com.ems2p0.repo.EmployeeAttendanceSessionRepo;
 import com.ems2p0.repo.EmployeePermissionDetailsRepo;
 import com.ems2p0.repo.EmployeePermissionStatsRepo;
 import com.ems2p0.repo.EmployeeWfhDetailsRepo;
@@ -49,8 +74,10 @@ import com.ems2p0.repo.EmployeeWfhStatsRepo;
 import com.ems2p0.repo.MultiFactorAuthenticatorRepo;
 import com.ems2p0.repo.UserDetailsRepository;
 import com.ems2p0.utils.Ems2p0Utility;
+import com.ems2p0.utils.cache.BoundedTtlCache;
+import com.ems2p0.utils.cache.CacheStats;
 
-import jakarta.validation.Valid;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -80,6 +107,8 @@ public class EmsDaoServiceImpl implements EmsDaoService {
 
 	private final EmployeeAttendanceRepo attendanceRepo;
 
+	private final EmployeeAttendanceSessionRepo attendanceSessionRepo;
+
 	private final MultiFactorAuthenticatorRepo multiFactorAuthenticatorRepo;
 
 	private final Ems2p0Utility utility;
@@ -88,15 +117,64 @@ public class EmsDaoServiceImpl implements EmsDaoService {
 
 	private final EmployeeWfhStatsRepo employeeWfhStatsRepo;
 
+	private final QuotaLedgerService quotaLedgerService;
+
+	private final DeviceTokenRoutingIndex deviceTokenRoutingIndex;
+
 	private EmsDaoService daoService;
 
+	@Value("${ems.identity-cache.size}")
+	private int identityCacheSize;
+
+	@Value("${ems.identity-cache.ttl-ms}")
+	private long identityCacheTtl;
+
+	/**
+	 * Employee identities by userName, emailId and empId
+	 */
+	private BoundedTtlCache<IdentityKey, EmployeeProjection> employeeIdentities;
+
+	/**
+	 * User identities by userName
+	 */
+	private BoundedTtlCache<String, UserProjection> userIdentities;
+
+	@Value("${ems.pagination.page-size}")
+	private int defaultPageSize;
+
+	@Value("${ems.pagination.max-page-size}")
+	private int maxPageSize;
+
+	@Value("${ems.attendance-session-cache.size}")
+	private int attendanceSessionCacheSize;
+
+	@Value("${ems.attendance-session-cache.ttl-ms}")
+	private long attendanceSessionCacheTtl;
+
+	/**
+	 * Immutable copy of the latest attendance session by userName
+	 */
+	private BoundedTtlCache<String, AttendanceSessionView> attendanceSessions;
+
+	@PostConstruct
+	public void initIdentityCache() {
+		employeeIdentities = new BoundedTtlCache<>(identityCacheSize, Duration.ofMillis(identityCacheTtl));
+		userIdentities = new BoundedTtlCache<>(identityCacheSize, Duration.ofMillis(identityCacheTtl));
+		attendanceSessions = new BoundedTtlCache<>(attendanceSessionCacheSize,
+				Duration.ofMillis(attendanceSessionCacheTtl));
+	}
+
 	/**
 	 * Method to fetch the user by userName
 	 */
 	@Override
 	public UserProjection fetchUserByUserName(String userName) {
-		return authenticationRepository.findByUserName(userName)
-				.orElseThrow(() -> new EmployeeNotFound("User not found"));
+		UserProjection user = userIdentities.get(userName,
+				key -> authenticationRepository.findByUserName(key).orElse(null));
+		if (user == null) {
+			throw new EmployeeNotFound("User not found");
+		}
+		return user;
 	}
 
 	/**
@@ -104,8 +182,13 @@ public class EmsDaoServiceImpl implements EmsDaoService {
 	 */
 	@Override
 	public EmployeeProjection loadEmployeeByUsername(String userName) {
-		return authenticationRepository.findEmployeeByUserName(userName)
-				.orElseThrow(() -> new EmployeeNotFound(ExceptionMsg.EMPLOYEE_NOT_FOUND.getMessage()));
+		EmployeeProjection employee = employeeIdentities.get(IdentityKey.userName(userName));
+		if (employee == null) {
+			employee = authenticationRepository.findEmployeeByUserName(userName)
+					.orElseThrow(() -> new EmployeeNotFound(ExceptionMsg.EMPLOYEE_NOT_FOUND.getMessage()));
+			this.cacheEmployee(employee);
+		}
+		return employee;
 	}
 
 	/**
@@ -113,8 +196,76 @@ public class EmsDaoServiceImpl implements EmsDaoService {
 	 */
 	@Override
 	public EmployeeProjection loadEmployeeByEmailId(String emailId) {
-		return authenticationRepository.findEmployeeByEmailId(emailId)
-				.orElseThrow(() -> new EmployeeNotFound(ExceptionMsg.EMPLOYEE_NOT_FOUND.getMessage()));
+		EmployeeProjection employee = employeeIdentities.get(IdentityKey.emailId(emailId));
+		if (employee == null) {
+			employee = authenticationRepository.findEmployeeByEmailId(emailId)
+					.orElseThrow(() -> new EmployeeNotFound(ExceptionMsg.EMPLOYEE_NOT_FOUND.getMessage()));
+			this.cacheEmployee(employee);
+		}
+		return employee;
+	}
+
+	/**
+	 * Method to load the employee by empId
+	 */
+	@Override
+	public EmployeeProjection loadEmployeeByEmpId(Integer empId) {
+		EmployeeProjection employee = employeeIdentities.get(IdentityKey.empId(String.valueOf(empId)));
+		if (employee == null) {
+			employee = authenticationRepository.findEmployeeByEmpId(empId)
+					.orElseThrow(() -> new EmployeeNotFound(ExceptionMsg.EMPLOYEE_NOT_FOUND.getMessage()));
+			this.cacheEmployee(employee);
+		}
+		return employee;
+	}
+
+	/**
+	 * Method to fetch the hit, miss and eviction metrics of the identity caches
+	 */
+	@Override
+	public Map<String, CacheStats> identityCacheStats() {
+		return Map.of("employees", employeeIdentities.stats(), "users", userIdentities.stats());
+	}
+
+	/**
+	 * Method to cache the employee under every identity it can be looked up by
+	 */
+	private void cacheEmployee(EmployeeProjection employee) {
+		employeeIdentities.put(IdentityKey.userName(employee.getUserName()), employee);
+		if (employee.getEmailId() != null) {
+			employeeIdentities.put(IdentityKey.emailId(employee.getEmailId()), employee);
+		}
+		employeeIdentities.put(IdentityKey.empId(employee.getEmpId()), employee);
+	}
+
+	/**
+	 * Method to drop the cached identities of the employee whenever the user
+	 * credential is saved
+	 */
+	private void invalidateIdentity(UserDetails userDetails) {
+		String userName = userDetails.getUsername();
+		String empId = String.valueOf(userDetails.getEmpId());
+		userIdentities.invalidate(userName);
+		employeeIdentities.invalidateIf((key, employee) -> Objects.equals(employee.getUserName(), userName)
+				|| Objects.equals(employee.getEmpId(), empId));
+	}
+
+	/**
+	 * Identity of the employee by the kind of the lookup
+	 */
+	private record IdentityKey(String kind, String value) {
+
+		static IdentityKey userName(String userName) {
+			return new IdentityKey("userName", userName);
+		}
+
+		static IdentityKey emailId(String emailId) {
+			return new IdentityKey("emailId", emailId);
+		}
+
+		static IdentityKey empId(String empId) {
+			return new IdentityKey("empId", empId);
+		}
 	}
 
 	/**
@@ -140,7 +291,10 @@ public class EmsDaoServiceImpl implements EmsDaoService {
 	 */
 	@Override
 	public UserDetails save(UserDetails existsEmployeeData) {
-		return userDetailsRepository.save(existsEmployeeData);
+		UserDetails saved = userDetailsRepository.save(existsEmployeeData);
+		this.invalidateIdentity(saved);
+		deviceTokenRoutingIndex.refresh(saved);
+		return saved;
 	}
 
 	/**
@@ -148,13 +302,13 @@ public class EmsDaoServiceImpl implements EmsDaoService {
 	 * month
 	 */
 	@Override
-	public EmployeePermissionStats findByUserDetailsAndMonth(UserDetails existsEmployeeData, String month) {
-		return permissionStatsRepo.findByUserDetailsAndMonth(existsEmployeeData, month).orElse(null);
+	public EmployeePermissionStats findByEmpIdAndMonth(Integer empId, String month) {
+		return permissionStatsRepo.findByUserDetailsEmpIdAndMonth(empId, month).orElse(null);
 	}
 
 	@Override
-	public EmployeeWfhStats findByUserDetailsAndMonthForWfhStats(UserDetails existsEmployeeData, String month) {
-		return employeeWfhStatsRepo.findByUserDetailsAndMonth(existsEmployeeData, month).orElse(null);
+	public EmployeeWfhStats findByEmpIdAndMonthForWfhStats(Integer empId, String month) {
+		return employeeWfhStatsRepo.findByUserDetailsEmpIdAndMonth(empId, month).orElse(null);
 	}
 
 	@Override
@@ -211,11 +365,15 @@ public class EmsDaoServiceImpl implements EmsDaoService {
 	}
 
 	/**
-	 * Method to fetch the user details by empId
+	 * Method to fetch a page of the permission details of the employee after the
+	 * cursor
 	 */
 	@Override
-	public List<EmployeePermissionDetails> findPermissionDetByEmployee(Integer empId) {
-		return permissionDetailsRepo.findPermissionDetByEmployee(empId);
+	public KeysetPage<EmployeePermissionDetails> findPermissionDetByEmployee(Integer empId, KeysetCursor cursor,
+			Integer size) {
+		int pageSize = this.pageSize(size);
+		return KeysetPage.of(permissionDetailsRepo.findPermissionDetByEmployee(empId, cursor.createdDateTime(),
+				cursor.id(), pageSize + 1), pageSize, this::permissionCursor);
 	}
 
 	/**
@@ -251,119 +409,153 @@ public class EmsDaoServiceImpl implements EmsDaoService {
 	}
 
 	/**
-	 * Method to fetch the permission project details by all employee's ids
+	 * Method to fetch a page of the permission project details by all employee's
+	 * ids after the cursor
 	 */
 	@Override
-	public List<PermissionProjections> findAllByEmpIds(List<?> employeeIdsProjections) {
-		return permissionDetailsRepo.findAllByEmpIds(employeeIdsProjections);
+	public KeysetPage<PermissionProjections> findAllByEmpIds(List<?> employeeIdsProjections, KeysetCursor cursor,
+			Integer size) {
+		if (ObjectUtils.isEmpty(employeeIdsProjections)) {
+			return new KeysetPage<>(List.of(), null);
+		}
+		int pageSize = this.pageSize(size);
+		return KeysetPage.of(permissionDetailsRepo.findAllByEmpIds(employeeIdsProjections, cursor.createdDateTime(),
+				cursor.id(), pageSize + 1), pageSize,
+				projection -> new KeysetCursor(projection.getCreatedDateTime(), projection.getId()));
 	}
 
 	/**
-	 * Method to update the employee permission details and status
+	 * Method to update the status of the permissions in bulk, the permissions are
+	 * validated with a single query, moved by a single update and the quota is
+	 * released once per employee and month
 	 */
 	@Override
-	public void updatePermissionStatus(Ems2p0Status status, UpdatePermissionStatusRequestDto request, String userName) {
+	@Transactional
+	public List<EmployeePermissionDetails> updatePermissionStatus(Ems2p0Status status,
+			UpdatePermissionStatusRequestDto request, String userName) {
 		this.loadEmployeeByUsername(userName);
-		request.ids().stream().filter(Objects::nonNull).forEach(id -> {
-			EmployeePermissionDetails editEmployeePermissionDetails = this.fetchPermissionDetailsById(id);
-			this.validatePermissionStatus(editEmployeePermissionDetails, status);
-			editEmployeePermissionDetails.setStatus(status);
-			this.save(editEmployeePermissionDetails);
-			Set<Ems2p0Status> statusToUpdateStats = EnumSet.of(Ems2p0Status.CANCELLED, Ems2p0Status.REJECTED);
-			if (statusToUpdateStats.contains(status)) {
-				this.updatePermissionStatistics(editEmployeePermissionDetails);
-			}
-		});
+		Set<Integer> ids = request.ids().stream().filter(Objects::nonNull).map(Long::intValue)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		List<EmployeePermissionDetails> permissionDetails = permissionDetailsRepo.findByIdIn(ids);
+		if (permissionDetails.size() != ids.size()) {
+			throw new PermissionNotFound("Not found");
+		}
+		permissionDetails.forEach(details -> this.validatePermissionStatus(details, status));
+		LocalDateTime modifiedDateTime = utility.getOriginalTimeZone();
+		permissionDetailsRepo.updateStatusByIdIn(ids, status, userName, modifiedDateTime);
+		permissionDetails.forEach(details -> details.setStatus(status).setModifiedBy(userName)
+				.setModifiedDateTime(modifiedDateTime));
+		if (EnumSet.of(Ems2p0Status.CANCELLED, Ems2p0Status.REJECTED).contains(status)) {
+			permissionDetails.stream()
+					.collect(Collectors.groupingBy(details -> new QuotaKey(details.getUserDetails().getEmpId(),
+							details.getMonth()), LinkedHashMap::new, Collectors.mapping(
+									details -> new QuotaDelta(details.getId(),
+											-utility.hoursToMinutes(details.getStartTime(), details.getEndTime())),
+									Collectors.toList())))
+					.forEach((key, deltas) -> quotaLedgerService.apply(QuotaType.PERMISSION, key.empId(), key.month(),
+							this.ledgerReasonOf(status), userName, deltas));
+		}
+		log.info("Updated {} permission details to {}", permissionDetails.size(), status);
+		return permissionDetails;
 	}
 
-	@Override
-	public EmployeeWfhStats updateEditWfhStatistics(EmployeeWfhStats employeeWfhStats,
-			EmployeeWfhDetails editEmployeeWfhDetails) {
-
-		double remainingWfhDays = employeeWfhStats.getRemainingWfhDays();
-
-		double overDueWfhDays = employeeWfhStats.getOverdueWfhDays();
-
-		double daysTaken = employeeWfhStats.getDaysTaken();
-
-		double noOfDays = editEmployeeWfhDetails.getNoOfDays();
-
-		double updatedOverDueWfhDays = 0.0;
-
-		double updatedDaysTaken = 0.0;
+	/**
+	 * Method to resolve the ledger reason of a released request
+	 */
+	private LedgerReason ledgerReasonOf(Ems2p0Status status) {
+		return status == Ems2p0Status.CANCELLED ? LedgerReason.CANCELLED : LedgerReason.REJECTED;
+	}
 
-		double updatedRemainingWfhDays = 0.0;
+	/**
+	 * Quota of an employee and month released by a bulk status update
+	 */
+	private record QuotaKey(Integer empId, String month) {
+	}
 
-		// Updating condition if overdue was taken
-		if (!(overDueWfhDays == 0.0) && (remainingWfhDays == 0.0)) {
-			if (!(daysTaken == 0.0)) {
-				updatedOverDueWfhDays = Math.abs(overDueWfhDays - noOfDays);
-				updatedDaysTaken = (noOfDays - daysTaken) < 0 ? (daysTaken - noOfDays) : (noOfDays - daysTaken);
-				if (updatedOverDueWfhDays == 0.0) {
-					updatedDaysTaken = (noOfDays - daysTaken) < 0 ? (daysTaken - noOfDays) : (noOfDays - daysTaken);
-					updatedRemainingWfhDays = (updatedDaysTaken == 0.0 && updatedOverDueWfhDays == 0.0) ? 4
-							: updatedRemainingWfhDays;
-					return this.saveWfhStats(employeeWfhStats, updatedOverDueWfhDays, updatedRemainingWfhDays,
-							updatedDaysTaken);
-				} else {
-					updatedRemainingWfhDays = (updatedDaysTaken == 0.0 && updatedOverDueWfhDays == 0.0) ? 4
-							: updatedRemainingWfhDays;
-					return this.saveWfhStats(employeeWfhStats, updatedOverDueWfhDays, updatedRemainingWfhDays,
-							updatedDaysTaken);
-				}
-			}
-			// Updating condition if daystaken
-		} else if ((remainingWfhDays > 0.0) && (overDueWfhDays == 0.0)
-				|| (remainingWfhDays == 0.0) && (daysTaken > 0.0)) {
-			updatedDaysTaken = Math.abs(daysTaken - noOfDays);
-			updatedRemainingWfhDays = noOfDays + remainingWfhDays;
-			return this.saveWfhStats(employeeWfhStats, updatedOverDueWfhDays, updatedRemainingWfhDays,
-					updatedDaysTaken);
+	/**
+	 * Method to update the status of the work from home requests in bulk, the
+	 * pending requests of every released month are re-flagged once
+	 */
+	@Override
+	@Transactional
+	public List<EmployeeWfhDetails> updateWfhStatus(Ems2p0Status status, UpdateWfhStatusRequestDto request,
+			String userName) {
+		this.loadEmployeeByUsername(userName);
+		Set<Integer> ids = request.ids().stream().filter(Objects::nonNull)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		if (ids.isEmpty()) {
+			return List.of();
 		}
-		return employeeWfhStats;
+		List<EmployeeWfhDetails> wfhDetails = employeeWfhDetailRepo.findByIdIn(ids);
+		if (wfhDetails.size() != ids.size()) {
+			throw new WfhNotFound("Not found");
+		}
+		wfhDetails.forEach(details -> this.validateWfhStatus(details, status));
+		LocalDateTime modifiedDateTime = utility.getOriginalTimeZone();
+		employeeWfhDetailRepo.updateStatusByIdIn(ids, status, userName, modifiedDateTime);
+		wfhDetails.forEach(details -> details.setStatus(status).setModifiedBy(userName)
+				.setModifiedDateTime(modifiedDateTime));
+		if (EnumSet.of(Ems2p0Status.CANCELLED, Ems2p0Status.REJECTED).contains(status)) {
+			Map<QuotaKey, List<QuotaDelta>> deltas = wfhDetails.stream()
+					.collect(Collectors.groupingBy(details -> new QuotaKey(details.getUserDetails().getEmpId(),
+							details.getMonth()), LinkedHashMap::new, Collectors.mapping(
+									details -> new QuotaDelta(details.getId(), -details.getNoOfDays()),
+									Collectors.toList())));
+			deltas.forEach((key, monthDeltas) -> {
+				quotaLedgerService.apply(QuotaType.WORK_FROM_HOME, key.empId(), key.month(),
+						this.ledgerReasonOf(status), userName, monthDeltas);
+				int reflagged = quotaLedgerService.reflagPendingWorkFromHome(key.empId(), key.month());
+				log.info("Re-flagged pending employee Wfh Details : {}", reflagged);
+			});
+		}
+		log.info("Updated {} work from home details to {}", wfhDetails.size(), status);
+		return wfhDetails;
 	}
 
-	private EmployeeWfhStats saveWfhStats(EmployeeWfhStats employeeWfhStats, double updatedOverDueWfhDays,
-			double updatedRemainingWfhDays, double updatedDaysTaken) {
-		employeeWfhStats.setOverdueWfhDays(updatedOverDueWfhDays);
-		employeeWfhStats.setRemainingWfhDays(updatedRemainingWfhDays);
-		employeeWfhStats.setDaysTaken(updatedDaysTaken);
-		EmployeeWfhStats returnWfhStats = this.save(employeeWfhStats);
-		return returnWfhStats;
+	/**
+	 * Method to approve the permissions of an auto approval chunk which are still
+	 * pending, the pending quota is already held by the ledger so the balances
+	 * are left untouched
+	 */
+	@Override
+	@Transactional
+	public List<EmployeePermissionDetails> autoApprovePermissions(Collection<Integer> ids, String actor) {
+		List<EmployeePermissionDetails> permissionDetails = permissionDetailsRepo.findByIdInAndStatus(ids,
+				Ems2p0Status.PENDING);
+		if (permissionDetails.isEmpty()) {
+			return List.of();
+		}
+		LocalDateTime modifiedDateTime = utility.getOriginalTimeZone();
+		permissionDetailsRepo.updateStatusByIdIn(
+				permissionDetails.stream().map(EmployeePermissionDetails::getId).toList(), Ems2p0Status.APPROVED,
+				actor, modifiedDateTime);
+		permissionDetails.forEach(details -> details.setStatus(Ems2p0Status.APPROVED).setModifiedBy(actor)
+				.setModifiedDateTime(modifiedDateTime));
+		log.info("Auto approved {} of {} permission details", permissionDetails.size(), ids.size());
+		return permissionDetails;
 	}
 
+	/**
+	 * Method to approve the work from home requests of an auto approval chunk
+	 * which are still pending
+	 */
 	@Override
-	public void updateWfhStatus(Ems2p0Status status, UpdateWfhStatusRequestDto request, String userName,
-			EmployeeWfhStats employeeWfhStats) {
-		this.loadEmployeeByUsername(userName);
-		request.ids().stream().filter(Objects::nonNull).forEach(id -> {
-			EmployeeWfhDetails editEmployeeWfhDetails = this.fetchWfhDetailsById(id);
-			this.validateWfhStatus(editEmployeeWfhDetails, status);
-			editEmployeeWfhDetails.setStatus(status);
-			this.save(editEmployeeWfhDetails);
-			Set<Ems2p0Status> statusToUpdateStats = EnumSet.of(Ems2p0Status.CANCELLED, Ems2p0Status.REJECTED);
-			if (statusToUpdateStats.contains(status)) {
-				this.updateEditWfhStatistics(employeeWfhStats, editEmployeeWfhDetails);
-				List<EmployeeWfhDetails> listOfEmpDetails = this.findAllEmployeeByStatus(Ems2p0Status.PENDING);
-				listOfEmpDetails.stream().filter(employeeWfhDetails -> ObjectUtils.isNotEmpty(employeeWfhDetails))
-						.map(empDetail -> {
-							if (ObjectUtils.isNotEmpty(empDetail.getIsOverDue())
-									&& ObjectUtils.isNotEmpty(employeeWfhStats)
-									&& ObjectUtils.isNotEmpty(employeeWfhStats.getDaysTaken())
-									&& ObjectUtils.isNotEmpty(employeeWfhStats.getTotalWfhDays())) {
-								if (employeeWfhStats.getDaysTaken() <= employeeWfhStats.getTotalWfhDays()
-										|| employeeWfhStats.getDaysTaken() == 0) {
-									empDetail.setIsOverDue(false);
-								} else {
-									empDetail.setIsOverDue(true);
-								}
-							}
-							return empDetail;
-						}).collect(Collectors.toList());
-				this.saveAll(listOfEmpDetails);
-				log.info("Saved all Pending employee Wfh Details list :{}", listOfEmpDetails.size());
-			}
-		});
+	@Transactional
+	public List<EmployeeWfhDetails> autoApproveWfh(Collection<Integer> ids, String actor) {
+		List<EmployeeWfhDetails> wfhDetails = employeeWfhDetailRepo.findByIdInAndStatus(ids, Ems2p0Status.PENDING);
+		if (wfhDetails.isEmpty()) {
+			return List.of();
+		}
+		LocalDateTime modifiedDateTime = utility.getOriginalTimeZone();
+		employeeWfhDetailRepo.updateStatusByIdIn(wfhDetails.stream().map(EmployeeWfhDetails::getId).toList(),
+				Ems2p0Status.APPROVED, actor, modifiedDateTime);
+		wfhDetails.forEach(details -> details.setStatus(Ems2p0Status.APPROVED).setModifiedBy(actor)
+				.setModifiedDateTime(modifiedDateTime));
+		log.info("Auto approved {} of {} work from home details", wfhDetails.size(), ids.size());
+		return wfhDetails;
 	}
 
 	public List<EmployeeWfhDetails> saveAll(List<EmployeeWfhDetails> listOfEmpDetails) {
@@ -417,41 +609,81 @@ public class EmsDaoServiceImpl implements EmsDaoService {
 	}
  
 	/**
-	 * Method to save the OTP by flush method
+	 * Method to save the pending OTP challenge
 	 */
 	@Override
 	public MultiFactorAuthentication persistOtp(MultiFactorAuthentication multiFactorAuthentication) {
-		return multiFactorAuthenticatorRepo.saveAndFlush(multiFactorAuthentication);
+		return multiFactorAuthenticatorRepo.save(multiFactorAuthentication);
+	}
+
+	/**
+	 * Method to create the empty OTP challenge row of the user unless it exists,
+	 * the caller should hold the transaction
+	 */
+	@Override
+	public void createOtpIfAbsent(String userName) {
+		multiFactorAuthenticatorRepo.insertIfAbsent(userName);
+	}
+
+	/**
+	 * Method to fetch and lock the pending OTP challenge of the user, the caller
+	 * should hold the transaction
+	 */
+	@Override
+	public Optional<MultiFactorAuthentication> fetchOtpForUpdate(String userName) {
+		return multiFactorAuthenticatorRepo.findByUserName(userName);
 	}
 
 	/**
-	 * Method to fetch the OTP by user details
+	 * Method to remove the pending OTP challenge of the user
 	 */
 	@Override
-	public MultiFactorAuthentication fetchOtp(Integer otp, UserDetails userDetails) {
-		return multiFactorAuthenticatorRepo.findByOtpAndOtpStatusAndUserDetails(otp, OtpStatus.ACTIVE, userDetails)
-				.orElseThrow(() -> new CustomExceptionDto("Invalid OTP....."));
+	public void deleteOtp(String userName) {
+		multiFactorAuthenticatorRepo.deleteByUserName(userName);
 	}
 
 	/**
-	 * Method to fetch the OTP by user details and status
+	 * Method to remove the OTP challenges whose code and attempt window are over
+	 * at the given time
 	 */
 	@Override
-	public MultiFactorAuthentication fetchOtpByUserDetailsAndStatus(UserDetails userDetails) {
-		return multiFactorAuthenticatorRepo.findByUserDetails(userDetails);
+	@Transactional
+	public int purgeExpiredOtps(long nowMillis) {
+		return multiFactorAuthenticatorRepo.deleteExpired(nowMillis);
 	}
 
 	/**
-	 * Method to fetch all employee permission details
+	 * Method to fetch a page of all employee permission details after the cursor
 	 */
 	@Override
-	public List<EmployeePermissionDetails> findAllEmployeesByPermissionDetails() {
-		return permissionDetailsRepo.findAllEmployeesByPermissionDetails();
+	public KeysetPage<EmployeePermissionDetails> findAllEmployeesByPermissionDetails(KeysetCursor cursor,
+			Integer size) {
+		int pageSize = this.pageSize(size);
+		return KeysetPage.of(permissionDetailsRepo.findAllEmployeesByPermissionDetails(cursor.createdDateTime(),
+				cursor.id(), pageSize + 1), pageSize, this::permissionCursor);
 	}
 
 	@Override
-	public List<EmployeeWfhDetails> findAllEmployeesByWfhDetails() {
-		return employeeWfhDetailRepo.findAllEmployeesByWfhDetails();
+	public KeysetPage<EmployeeWfhDetails> findAllEmployeesByWfhDetails(KeysetCursor cursor, Integer size) {
+		int pageSize = this.pageSize(size);
+		return KeysetPage.of(employeeWfhDetailRepo.findAllEmployeesByWfhDetails(cursor.createdDateTime(), cursor.id(),
+				pageSize + 1), pageSize, this::wfhCursor);
+	}
+
+	/**
+	 * The requested page size is bounded, the configured size is used when the
+	 * client does not ask for one
+	 */
+	private int pageSize(Integer size) {
+		return size != null ? Math.max(1, Math.min(size, maxPageSize)) : defaultPageSize;
+	}
+
+	private KeysetCursor permissionCursor(EmployeePermissionDetails permissionDetails) {
+		return new KeysetCursor(permissionDetails.getCreatedDateTime(), permissionDetails.getId());
+	}
+
+	private KeysetCursor wfhCursor(EmployeeWfhDetails wfhDetails) {
+		return new KeysetCursor(wfhDetails.getCreatedDateTime(), wfhDetails.getId());
 	}
 
 	/**
@@ -471,147 +703,169 @@ public class EmsDaoServiceImpl implements EmsDaoService {
 	}
 
 	/**
-	 * Method to fetch save the attendance details
+	 * Method to persist the check-in and to open the attendance session of the
+	 * employee
 	 */
 	@Override
-	public EmployeeAttendance save(EmployeeAttendance attendance) {
-		return attendanceRepo.save(attendance);
+	@Transactional
+	public EmployeeAttendance recordCheckIn(EmployeeAttendance attendance) {
+		EmployeeAttendance saved = attendanceRepo.save(attendance);
+		attendanceSessionRepo.upsert(this.sessionOf(saved));
+		this.evictAttendanceSession(saved.getName());
+		return saved;
 	}
 
 	/**
-	 * Method to fetch the check-in record details
+	 * Method to close the open check-in and the attendance session of the employee
+	 * by their keys
 	 */
 	@Override
-	public EmployeeAttendance fetchCheckIn(@Valid AttendanceDto attendanceDto, String empSerialNo) {
-		EmployeeAttendance fetchLastCheckinRecord = attendanceRepo.findByEmpidAndRegisterid(empSerialNo,
-				attendanceDto.last_Id());
-		return ObjectUtils.isNotEmpty(fetchLastCheckinRecord) ? fetchLastCheckinRecord : null;
+	@Transactional
+	public EmployeeAttendance recordCheckOut(EmployeeAttendance checkOut) {
+		this.evictAttendanceSession(checkOut.getName());
+		if (attendanceRepo.closeCheckIn(checkOut) == 0) {
+			throw new CustomExceptionDto(ExceptionMsg.CHECK_IN_NOT_FOUND.getMessage());
+		}
+		attendanceSessionRepo.close(checkOut.getName(), checkOut.getRegisterid(), checkOut.getOutdate(),
+				checkOut.getOuttime(), checkOut.getWorkingIn());
+		return checkOut;
 	}
 
 	/**
-	 * Method to fetch the check-in details by userName
+	 * Method to fetch the open check-in of the employee by the check-in record id
 	 */
 	@Override
-	public EmployeeAttendance fetchCheckInByUserName(String userName) {
-		return attendanceRepo.findByCheckInRecordByNames(userName);
+	public EmployeeAttendance fetchOpenCheckIn(String userName, Integer registerid) {
+		AttendanceSessionView session = this.fetchAttendanceSession(userName);
+		return session != null && session.open() && Objects.equals(session.registerid(), registerid)
+				? this.attendanceOf(session)
+				: null;
 	}
 
 	/**
-	 * Method to remove the employee permission record from the DB
-	 *
-	 * @return private Boolean removeById(Long id) { try {
-	 *         permissionDetailsRepo.deleteById(id); return true; } catch (Exception
-	 *         e) { log.error("Exception occurred while removing permission
-	 *         details"); return false; } }
+	 * Method to fetch the last check-in details by userName
 	 */
-
 	@Override
-	public EmployeePermissionStats updatePermissionStatistics(EmployeePermissionDetails permissionDetails) {
-
-		UserDetails userDetails = permissionDetails.getUserDetails();
-
-		EmployeePermissionStats permissionStats = this.findByUserDetailsAndMonth(userDetails,
-				permissionDetails.getMonth());
-
-		Long permissionTime = utility.hoursToMinutes(permissionDetails.getStartTime(), permissionDetails.getEndTime());
-
-		// If the hoursTaken is equal to 3 or less than 3
-		if ((permissionStats.getHoursTaken().getHour() == 3) || permissionStats.getHoursTaken().getHour() < 3) {
-			// minus permissionTime from hoursTaken
-			LocalTime updatedHourTaken = permissionStats.getHoursTaken().minusMinutes(permissionTime);
-			// minus hoursTaken from Total permission for remaining permissionTime
-			LocalTime updatedRemainingPermissionTime = permissionStats.getTotalPermission()
-					.minusMinutes(utility.convertTimeToMinutes(updatedHourTaken));
-			if (permissionStats.getRemainingPermission().getHour() == permissionStats.getTotalPermission().getHour()) {
-				updatedHourTaken = LocalTime.of(0, 0);
-				updatedRemainingPermissionTime = LocalTime.of(0, 0);
-			}
-			permissionStats.setHoursTaken(updatedHourTaken).setRemainingPermission(updatedRemainingPermissionTime)
-					.setOverduePermission(LocalTime.of(0, 0));
-			this.save(permissionStats);
-			return permissionStats;
-			// Else if hoursTaken is greater than 3
-		} else {
-			long positiveTimeDifference = permissionTime;
-			LocalTime updatedHoursTaken = permissionStats.getHoursTaken().minusMinutes(positiveTimeDifference);
-			LocalTime updatedRemainingTime = permissionStats.getRemainingPermission();
-			LocalTime updatedOverdueTime = permissionStats.getOverduePermission();
-
-			if (updatedHoursTaken.isAfter(LocalTime.of(3, 0))) {
-				updatedOverdueTime = updatedOverdueTime.minusMinutes(positiveTimeDifference);
-			}
+	public EmployeeAttendance fetchCheckInByUserName(String userName) {
+		AttendanceSessionView session = this.fetchAttendanceSession(userName);
+		return session != null ? this.attendanceOf(session) : null;
+	}
 
-			if (updatedHoursTaken.isBefore(LocalTime.of(3, 0))) {
-				updatedOverdueTime = LocalTime.of(0, 0);
-				updatedRemainingTime = permissionStats.getTotalPermission().minusHours(updatedHoursTaken.getHour())
-						.minusMinutes(updatedHoursTaken.getMinute());
-			}
+	/**
+	 * Method to drop every cached attendance session once the sessions are changed
+	 * in bulk
+	 */
+	@Override
+	public void evictAttendanceSessions() {
+		this.evictAttendanceSession(null);
+	}
 
-			permissionStats.setHoursTaken(updatedHoursTaken).setRemainingPermission(updatedRemainingTime)
-					.setOverduePermission(updatedOverdueTime);
-			this.save(permissionStats);
-			return permissionStats;
-		}
+	@Override
+	public CacheStats attendanceSessionCacheStats() {
+		return attendanceSessions.stats();
 	}
 
 	/**
-	 * Method to update permission stats in when edit permission api invokes from
-	 * user
-	 *
-	 * @param permissionDto
-	 * @return
+	 * Method to fetch the daily and the range totals of the attendance in a single
+	 * grouped query, the department and the user name narrow the scope when given
 	 */
 	@Override
-	public EmployeePermissionStats updateEditPermissionStatistics(RequestPermissionDto permissionDto,
-			long timeDifference, EmployeePermissionStats employeePermissionStats) {
-		LocalTime totalPermissionLimit = LocalTime.of(3, 0);
+	public List<TimesheetProjection> fetchTimesheet(LocalDate fromDate, LocalDate toDate, String departmentName,
+			String userName) {
+		return attendanceRepo.fetchTimesheet(fromDate, toDate, departmentName, userName);
+	}
 
-		// Extending permission time
-		if (timeDifference > 0) {
-			LocalTime updatedHoursTaken = employeePermissionStats.getHoursTaken().plusMinutes(timeDifference);
-			LocalTime updatedRemainingTime = employeePermissionStats.getRemainingPermission();
-			LocalTime updatedOverdueTime = employeePermissionStats.getOverduePermission();
+	/**
+	 * Method to fetch the attendance session of the employee, the session is
+	 * seeded once from the attendance history for the employees who checked in
+	 * before the sessions were recorded. The seed is inserted only when absent and
+	 * read back, so a session opened meanwhile by a check-in wins over the seed.
+	 * Only an immutable copy of the session row is cached.
+	 */
+	private AttendanceSessionView fetchAttendanceSession(String userName) {
+		return attendanceSessions.get(userName,
+				key -> attendanceSessionRepo.findById(key).map(AttendanceSessionView::of).orElseGet(() -> {
+					EmployeeAttendance lastCheckIn = attendanceRepo.findByCheckInRecordByNames(key);
+					if (lastCheckIn == null) {
+						return null;
+					}
+					EmployeeAttendanceSession session = this.sessionOf(lastCheckIn);
+					attendanceSessionRepo.insertIfAbsent(session);
+					return AttendanceSessionView.of(attendanceSessionRepo.findById(key).orElse(session));
+				}));
+	}
 
-			if (updatedHoursTaken.isAfter(totalPermissionLimit)) {
-				updatedRemainingTime = LocalTime.of(0, 0);
-				updatedOverdueTime = updatedHoursTaken.minusHours(totalPermissionLimit.getHour())
-						.minusMinutes(totalPermissionLimit.getMinute());
+	/**
+	 * Method to drop the cached session of the employee, or every session when no
+	 * userName is given, now and again once the transaction commits so a read in
+	 * between cannot cache the previous state
+	 */
+	private void evictAttendanceSession(String userName) {
+		Runnable evict = () -> {
+			if (userName != null) {
+				attendanceSessions.invalidate(userName);
 			} else {
-				updatedRemainingTime = employeePermissionStats.getTotalPermission()
-						.minusHours(updatedHoursTaken.getHour()).minusMinutes(updatedHoursTaken.getMinute());
+				attendanceSessions.clear();
 			}
-
-			employeePermissionStats.setHoursTaken(updatedHoursTaken).setRemainingPermission(updatedRemainingTime)
-					.setOverduePermission(updatedOverdueTime);
-			this.save(employeePermissionStats);
-			return employeePermissionStats;
+		};
+		evict.run();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					evict.run();
+				}
+			});
 		}
-		// Reducing permission time
-		else if (timeDifference < 0) {
-			long positiveTimeDifference = Math.abs(timeDifference);
-			LocalTime updatedHoursTaken = employeePermissionStats.getHoursTaken().minusMinutes(positiveTimeDifference);
-			LocalTime updatedRemainingTime = employeePermissionStats.getRemainingPermission();
-			LocalTime updatedOverdueTime = employeePermissionStats.getOverduePermission();
-
-			if (updatedHoursTaken.isAfter(LocalTime.of(3, 0))) {
-				updatedOverdueTime = updatedOverdueTime.minusMinutes(positiveTimeDifference);
-			}
+	}
 
-			if (updatedHoursTaken.isBefore(LocalTime.of(3, 0))) {
-				updatedOverdueTime = LocalTime.of(0, 0);
-				updatedRemainingTime = employeePermissionStats.getTotalPermission()
-						.minusHours(updatedHoursTaken.getHour()).minusMinutes(updatedHoursTaken.getMinute());
-			}
+	private EmployeeAttendanceSession sessionOf(EmployeeAttendance attendance) {
+		return new EmployeeAttendanceSession().setUserName(attendance.getName()).setEmpid(attendance.getEmpid())
+				.setRegisterid(attendance.getRegisterid()).setIndate(Objects.toString(attendance.getInDate(), null))
+				.setIntime(attendance.getIntime()).setOutdate(Objects.toString(attendance.getOutDate(), null))
+				.setOuttime(attendance.getOuttime()).setLocationIn(attendance.getLocationIn())
+				.setWorkingIn(attendance.getWorkingIn()).setPermission(attendance.getPermission())
+				.setOvertime(attendance.getOvertime()).setOpen(attendance.getOuttime() == null);
+	}
 
-			employeePermissionStats.setHoursTaken(updatedHoursTaken).setRemainingPermission(updatedRemainingTime)
-					.setOverduePermission(updatedOverdueTime);
-			this.save(employeePermissionStats);
-			return employeePermissionStats;
-		} else {
-			return employeePermissionStats;
+	/**
+	 * Method to build a detached copy of the check-in record from the session, the
+	 * mapper rewrites the work type of its source
+	 */
+	private EmployeeAttendance attendanceOf(AttendanceSessionView session) {
+		return new EmployeeAttendance().setName(session.userName()).setEmpid(session.empid())
+				.setRegisterid(session.registerid())
+				.setInDate(EmployeeAttendance.parseLegacyDate(session.indate())).setIntime(session.intime())
+				.setOutDate(EmployeeAttendance.parseLegacyDate(session.outdate())).setOuttime(session.outtime())
+				.setLocationIn(session.locationIn()).setWorkingIn(session.workingIn())
+				.setPermission(session.permission()).setOvertime(session.overtime());
+	}
+
+	/**
+	 * Immutable copy of the attendance session row which is safe to share between
+	 * the requests through the cache
+	 */
+	private record AttendanceSessionView(String userName, String empid, Integer registerid, String indate,
+			LocalTime intime, String outdate, LocalTime outtime, String locationIn, String workingIn,
+			LocalTime permission, LocalTime overtime, boolean open) {
+
+		static AttendanceSessionView of(EmployeeAttendanceSession session) {
+			return new AttendanceSessionView(session.getUserName(), session.getEmpid(), session.getRegisterid(),
+					session.getIndate(), session.getIntime(), session.getOutdate(), session.getOuttime(),
+					session.getLocationIn(), session.getWorkingIn(), session.getPermission(), session.getOvertime(),
+					session.isOpen());
 		}
 	}
 
+	/**
+	 * Method to remove the employee permission record from the DB
+	 *
+	 * @return private Boolean removeById(Long id) { try {
+	 *         permissionDetailsRepo.deleteById(id); return true; } catch (Exception
+	 *         e) { log.error("Exception occurred while removing permission
+	 *         details"); return false; } }
+	 */
+
 	/**
 	 *
 	 * Method to fetch the employee's details and permission
@@ -633,13 +887,23 @@ public class EmsDaoServiceImpl implements EmsDaoService {
 	}
 
 	@Override
-	public List<EmployeeWfhDetails> fetchWorkFromHomeDetails(Integer employeeId) {
-		return employeeWfhDetailRepo.findWorkFromHomeDetailsByEmpId(employeeId);
+	public KeysetPage<EmployeeWfhDetails> fetchWorkFromHomeDetails(Integer employeeId, KeysetCursor cursor,
+			Integer size) {
+		int pageSize = this.pageSize(size);
+		return KeysetPage.of(employeeWfhDetailRepo.findWorkFromHomeDetailsByEmpId(employeeId, cursor.createdDateTime(),
+				cursor.id(), pageSize + 1), pageSize, this::wfhCursor);
 	}
 
 	@Override
-	public List<WfhProjection> findAllWorkFromHomeDetailsByEmpIds(List<?> employeeIdsProjections) {
-		return employeeWfhDetailRepo.findAllWorkFromHomeDetailsByEmpIds(employeeIdsProjections);
+	public KeysetPage<WfhProjection> findAllWorkFromHomeDetailsByEmpIds(List<?> employeeIdsProjections,
+			KeysetCursor cursor, Integer size) {
+		if (ObjectUtils.isEmpty(employeeIdsProjections)) {
+			return new KeysetPage<>(List.of(), null);
+		}
+		int pageSize = this.pageSize(size);
+		return KeysetPage.of(employeeWfhDetailRepo.findAllWorkFromHomeDetailsByEmpIds(employeeIdsProjections,
+				cursor.createdDateTime(), cursor.id(), pageSize + 1), pageSize,
+				projection -> new KeysetCursor(projection.getCreatedDateTime(), projection.getid()));
 	}
 
 	@Override
@@ -647,102 +911,105 @@ public class EmsDaoServiceImpl implements EmsDaoService {
 		return employeeWfhDetailRepo.findOverDueAndDaysTakenByUserDetailsAndMonth(getuserName, month);
 	}
 
+	/**
+	 * Method to load the employees of the given userNames in a single query
+	 */
 	@Override
-//	public EmployeeWfhStats updateWfhStatistics(@Valid WfhRequestDto requestDto, long dateDifference,
-//			EmployeeWfhStats employeeWfhStats) {
-//		int totalWfhLimit = 4; 
-//
-//		   double updatedDaysTaken = employeeWfhStats.getDaysTaken() + dateDifference;
-//	        double updatedRemainingDays = employeeWfhStats.getRemainingWfhDays();
-//	        double updatedOverdueDays = employeeWfhStats.getOverdueWfhDays();
-//		if(dateDifference>0)
-//		{
-//		        if(updatedDaysTaken>totalWfhLimit)
-//		        {
-//		        	updatedRemainingDays = 0;
-//		            updatedOverdueDays = updatedDaysTaken - totalWfhLimit;
-//		        }
-//		        else {
-//		            updatedRemainingDays = employeeWfhStats.getTotalWfhDays() - updatedDaysTaken;
-//		        }
-//		        employeeWfhStats.setDaysTaken(updatedDaysTaken)
-//                .setRemainingWfhDays(updatedRemainingDays)
-//                .setOverdueWfhDays(updatedOverdueDays);
-//		        daoService.save(employeeWfhStats);
-////		        this.save(employeeWfhStats);
-//		        return employeeWfhStats;
-//		}
-//		else if(dateDifference<0)
-//		{
-//			long positiveDateDifference = Math.abs(dateDifference);
-//			double updatedDaysTaken = employeeWfhStats.getDaysTaken() - (long) positiveDateDifference;
-//	        double updatedRemainingDays = employeeWfhStats.getRemainingWfhDays();
-//	        double updatedOverdueDays = employeeWfhStats.getOverdueWfhDays();
-//	        if (updatedDaysTaken > totalWfhLimit) {
-//	            updatedOverdueDays -= positiveDateDifference;
-//	        }
-//	        if (updatedDaysTaken <= totalWfhLimit) {
-//	            updatedOverdueDays = 0;
-//	            updatedRemainingDays = employeeWfhStats.getTotalWfhDays()- updatedDaysTaken;
-//	        }
-//	        employeeWfhStats.setDaysTaken(updatedDaysTaken)
-//            .setRemainingWfhDays(updatedRemainingDays)
-//            .setOverdueWfhDays(updatedOverdueDays);
-//	        daoService.save(employeeWfhStats);
-////	        	this.save(employeeWfhStats);
-//	        	 return employeeWfhStats;
-//		}
-//		return employeeWfhStats;
-//	}
-
-	public EmployeeWfhStats updateWfhStatistics(@Valid WfhRequestDto requestDto, long dateDifference,
-			EmployeeWfhStats employeeWfhStats) {
-		int totalWfhLimit = 4;
-
-		double updatedDaysTaken = employeeWfhStats.getDaysTaken();
-		double updatedRemainingDays = employeeWfhStats.getRemainingWfhDays();
-		double updatedOverdueDays = employeeWfhStats.getOverdueWfhDays();
-
-		if (dateDifference > 0) {
-			updatedDaysTaken += dateDifference;
-			if (updatedDaysTaken > totalWfhLimit) {
-				updatedRemainingDays = 0;
-				updatedOverdueDays = updatedDaysTaken - totalWfhLimit;
-			} else {
-				updatedRemainingDays = totalWfhLimit - updatedDaysTaken;
-			}
-		} else if (dateDifference < 0) {
-			double positiveDateDifference = Math.abs(dateDifference);
-			updatedDaysTaken -= positiveDateDifference;
-			if (updatedDaysTaken > totalWfhLimit) {
-				updatedOverdueDays -= positiveDateDifference;
-			} else {
-				updatedOverdueDays = 0;
-				updatedRemainingDays = totalWfhLimit - updatedDaysTaken;
+	public Map<String, EmployeeProjection> loadEmployeesByUsernames(Collection<String> userNames) {
+		if (ObjectUtils.isEmpty(userNames)) {
+			return Map.of();
+		}
+		Map<String, EmployeeProjection> employees = new HashMap<>();
+		List<String> missing = userNames.stream().distinct().filter(userName -> {
+			EmployeeProjection cached = employeeIdentities.get(IdentityKey.userName(userName));
+			if (cached != null) {
+				employees.put(userName, cached);
 			}
+			return cached == null;
+		}).toList();
+		if (!missing.isEmpty()) {
+			authenticationRepository.findEmployeesByUserNames(missing).forEach(employee -> {
+				this.cacheEmployee(employee);
+				employees.putIfAbsent(employee.getUserName(), employee);
+			});
 		}
+		return employees;
+	}
 
-		employeeWfhStats.setDaysTaken(updatedDaysTaken).setRemainingWfhDays(updatedRemainingDays)
-				.setOverdueWfhDays(updatedOverdueDays);
+	/**
+	 * Method to resolve the employees and the work from home statistics of a whole
+	 * report in a fixed number of queries
+	 */
+	@Override
+	public ReportLookup<WorkFromHomeProjectionStats> prefetchWfhReportLookup(Collection<String> userNames,
+			Collection<String> months) {
+		if (ObjectUtils.isEmpty(userNames) || ObjectUtils.isEmpty(months)) {
+			return ReportLookup.empty();
+		}
+		Map<String, WorkFromHomeProjectionStats> stats = employeeWfhStatsRepo
+				.findByUserNamesAndMonths(userNames, months).stream()
+				.collect(Collectors.toMap(wfhStats -> ReportLookup.key(wfhStats.getUserName(), wfhStats.getMonth()),
+						Function.identity(), (first, second) -> first));
+		return new ReportLookup<>(this.loadEmployeesByUsernames(userNames), stats);
+	}
 
-		return daoService.save(employeeWfhStats);
+	/**
+	 * Method to resolve the employees and the permission statistics of a whole
+	 * report in a fixed number of queries
+	 */
+	@Override
+	public ReportLookup<PermissionStatsProjection> prefetchPermissionReportLookup(Collection<String> userNames,
+			Collection<String> months) {
+		if (ObjectUtils.isEmpty(userNames) || ObjectUtils.isEmpty(months)) {
+			return ReportLookup.empty();
+		}
+		Map<String, PermissionStatsProjection> stats = permissionStatsRepo.findByUserNamesAndMonths(userNames, months)
+				.stream()
+				.collect(Collectors.toMap(
+						permissionStats -> ReportLookup.key(permissionStats.getUserName(), permissionStats.getMonth()),
+						Function.identity(), (first, second) -> first));
+		return new ReportLookup<>(this.loadEmployeesByUsernames(userNames), stats);
 	}
 
+	/**
+	 * Method to export the permission report of the last two months, the lookup of
+	 * the whole report is resolved first and the rows are then streamed from an
+	 * open cursor inside a single read only transaction
+	 */
 	@Override
-	public List<String> fetchDeviceTokenByDept(String department, List<String> roles) {
-		log.info("dept: {}", department);
-		log.info("roles: {}", roles);
-		return userDetailsRepository.fetchDeviceTokenByDept(department, roles);
+	@Transactional(readOnly = true)
+	public void exportAllEmployeesPermissionReports(
+			BiConsumer<ReportLookup<PermissionStatsProjection>, Stream<PermissionProjections>> exporter) {
+		List<ReportKeyProjection> keys = permissionDetailsRepo.findAllEmployeesPermissionReportKeys();
+		ReportLookup<PermissionStatsProjection> lookup = this.prefetchPermissionReportLookup(
+				keys.stream().map(ReportKeyProjection::getUserName).collect(Collectors.toSet()),
+				keys.stream().map(ReportKeyProjection::getMonth).collect(Collectors.toSet()));
+		try (Stream<PermissionProjections> rows = permissionDetailsRepo.streamAllEmployeesPermissionReports()) {
+			exporter.accept(lookup, rows);
+		}
 	}
 
+	/**
+	 * Method to export the work from home report of the last two months, the
+	 * lookup of the whole report is resolved first and the rows are then streamed
+	 * from an open cursor inside a single read only transaction
+	 */
 	@Override
-	public String fetchDeviceTokenByEmployee(String department, String role) {
-		return userDetailsRepository.fetchDeviceTokenByEmployee(department, role);
+	@Transactional(readOnly = true)
+	public void exportAllEmployeesWfhReports(
+			BiConsumer<ReportLookup<WorkFromHomeProjectionStats>, Stream<WfhProjection>> exporter) {
+		List<ReportKeyProjection> keys = employeeWfhDetailRepo.findAllEmployeesWfhReportKeys();
+		ReportLookup<WorkFromHomeProjectionStats> lookup = this.prefetchWfhReportLookup(
+				keys.stream().map(ReportKeyProjection::getUserName).collect(Collectors.toSet()),
+				keys.stream().map(ReportKeyProjection::getMonth).collect(Collectors.toSet()));
+		try (Stream<WfhProjection> rows = employeeWfhDetailRepo.streamAllEmployeesWfhReports()) {
+			exporter.accept(lookup, rows);
+		}
 	}
 
 	@Override
-	public List<String> fetchMgmtDeviceToken() {
-		return userDetailsRepository.fetchDeviceTokenMngmt();
+	public String fetchDeviceTokenByEmployee(String department, String role) {
+		return userDetailsRepository.fetchDeviceTokenByEmployee(department, role);
 	}
 
 	@Override
@@ -755,16 +1022,6 @@ public class EmsDaoServiceImpl implements EmsDaoService {
 		return employeeWfhDetailRepo.findAllByStatus(Ems2p0Status.PENDING);
 	}
 
-	@Override
-	public EmployeeWfhStats updateEditPermissionStatistics(WfhRequestDto wfhRequestDto,
-			EmployeeWfhStats employeeWfhStats) {
-		double updatedDaysTaken = employeeWfhStats.getDaysTaken();
-
-		employeeWfhStats.setDaysTaken(updatedDaysTaken);
-		this.save(employeeWfhStats);
-		return employeeWfhStats; 
-	}
-
 	@Override
 	public void deleteAllWfhDetails(String username) {
 		employeeWfhDetailRepo.deleteAll();
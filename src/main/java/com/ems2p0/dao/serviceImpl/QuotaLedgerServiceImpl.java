@@ -0,0 +1,227 @@
+package com.ems2p0.dao.serviceImpl;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ems2p0.components.clock.EmsClock;
+import com.ems2p0.dao.ledger.QuotaBalance;
+import com.ems2p0.dao.ledger.QuotaDelta;
+import com.ems2p0.dao.service.QuotaLedgerService;
+import com.ems2p0.enums.LedgerReason;
+import com.ems2p0.enums.QuotaType;
+import com.ems2p0.model.QuotaLedgerEntry;
+import com.ems2p0.projections.QuotaBalanceProjection;
+import com.ems2p0.projections.QuotaUsageProjection;
+import com.ems2p0.repo.EmployeePermissionDetailsRepo;
+import com.ems2p0.repo.EmployeePermissionStatsRepo;
+import com.ems2p0.repo.EmployeeWfhDetailsRepo;
+import com.ems2p0.repo.EmployeeWfhStatsRepo;
+import com.ems2p0.repo.QuotaLedgerRepo;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - Service implementation of the monthly quota ledger. Entries are
+ * appended for every change and the running balance is moved by a single
+ * update statement, so concurrent approvals, rejections and cancellations never
+ * read and re-save the statistics entity.
+ *
+ * @author Mohan
+ * @category DB operations module ServiceImpl - Business layer
+ * @apiNote - The rebuild recomputes the balance from the approved and pending
+ *          requests and only corrects the months which have drifted
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuotaLedgerServiceImpl implements QuotaLedgerService {
+
+	/**
+	 * Differences below this are rounding noise of the half days and seconds
+	 */
+	private static final double TOLERANCE = 0.001;
+
+	private final QuotaLedgerRepo ledgerRepo;
+
+	private final EmployeePermissionStatsRepo permissionStatsRepo;
+
+	private final EmployeeWfhStatsRepo wfhStatsRepo;
+
+	private final EmployeePermissionDetailsRepo permissionDetailsRepo;
+
+	private final EmployeeWfhDetailsRepo wfhDetailsRepo;
+
+	private final EmsClock emsClock;
+
+	/**
+	 * Method to append a single delta of a request to the ledger
+	 */
+	@Override
+	@Transactional
+	public QuotaBalance apply(QuotaType type, Integer empId, String month, LedgerReason reason, String actor,
+			QuotaDelta delta) {
+		return this.apply(type, empId, month, reason, actor, List.of(delta));
+	}
+
+	/**
+	 * Method to append the deltas to the ledger and to move the running balance of
+	 * the month by their sum
+	 */
+	@Override
+	@Transactional
+	public QuotaBalance apply(QuotaType type, Integer empId, String month, LedgerReason reason, String actor,
+			List<QuotaDelta> deltas) {
+		LocalDateTime now = emsClock.now();
+		List<QuotaLedgerEntry> entries = deltas.stream().filter(Objects::nonNull)
+				.filter(delta -> Math.abs(delta.amount()) > TOLERANCE)
+				.map(delta -> new QuotaLedgerEntry().setEmpId(empId).setMonth(month).setQuotaType(type)
+						.setReason(reason).setAmount(delta.amount()).setReferenceId(delta.referenceId())
+						.setCreatedBy(actor).setCreatedDateTime(now))
+				.toList();
+		if (entries.isEmpty()) {
+			return this.balance(type, empId, month);
+		}
+		ledgerRepo.saveAll(entries);
+		double amount = entries.stream().mapToDouble(QuotaLedgerEntry::getAmount).sum();
+		if (this.applyDelta(type, empId, month, amount) == 0) {
+			this.insertEmptyBalance(type, empId, month);
+			this.applyDelta(type, empId, month, amount);
+		}
+		return this.balance(type, empId, month);
+	}
+
+	/**
+	 * Method to read the running balance of the month
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public QuotaBalance balance(QuotaType type, Integer empId, String month) {
+		Optional<QuotaBalanceProjection> projection = type == QuotaType.PERMISSION
+				? permissionStatsRepo.findBalance(empId, month)
+				: wfhStatsRepo.findBalance(empId, month);
+		return projection.map(balance -> QuotaBalance.of(type, balance)).orElseGet(() -> QuotaBalance.empty(type));
+	}
+
+	/**
+	 * Method to reconcile the running balance of a month against its requests
+	 */
+	@Override
+	@Transactional
+	public QuotaBalance rebuild(QuotaType type, Integer empId, String month, String actor) {
+		Optional<QuotaUsageProjection> usage = type == QuotaType.PERMISSION
+				? permissionDetailsRepo.findActiveUsage(empId, month)
+				: wfhDetailsRepo.findActiveUsage(empId, month);
+		double expected = usage.map(QuotaUsageProjection::getTaken).map(this::valueOf).orElse(0.0);
+		this.correct(type, empId, month, this.balance(type, empId, month).taken(), expected, actor);
+		return this.balance(type, empId, month);
+	}
+
+	/**
+	 * Method to reconcile every month of the quota and to return the number of
+	 * corrected balances
+	 */
+	@Override
+	@Transactional
+	public int rebuildAll(QuotaType type, String actor) {
+		List<QuotaUsageProjection> balances = type == QuotaType.PERMISSION ? permissionStatsRepo.findAllBalances()
+				: wfhStatsRepo.findAllBalances();
+		List<QuotaUsageProjection> usages = type == QuotaType.PERMISSION ? permissionDetailsRepo.findActiveUsage()
+				: wfhDetailsRepo.findActiveUsage();
+		Map<UsageKey, Double> taken = new HashMap<>();
+		balances.forEach(balance -> taken.merge(UsageKey.of(balance), this.valueOf(balance.getTaken()), Double::sum));
+		Map<UsageKey, Double> expected = new HashMap<>();
+		usages.forEach(usage -> expected.merge(UsageKey.of(usage), this.valueOf(usage.getTaken()), Double::sum));
+		Set<UsageKey> keys = new HashSet<>(taken.keySet());
+		keys.addAll(expected.keySet());
+		int corrected = 0;
+		for (UsageKey key : keys) {
+			if (key.empId() == null || key.month() == null) {
+				continue;
+			}
+			if (this.correct(type, key.empId(), key.month(), taken.getOrDefault(key, 0.0),
+					expected.getOrDefault(key, 0.0), actor)) {
+				corrected++;
+			}
+		}
+		log.info("QuotaLedgerServiceImpl.rebuildAll() - {} corrected {} of {} balances", type, corrected,
+				keys.size());
+		return corrected;
+	}
+
+	/**
+	 * Method to re-flag the pending work from home requests of the month against
+	 * the running balance
+	 */
+	@Override
+	@Transactional
+	public int reflagPendingWorkFromHome(Integer empId, String month) {
+		return wfhDetailsRepo.reflagPendingOverDue(empId, month);
+	}
+
+	private boolean correct(QuotaType type, Integer empId, String month, double taken, double expected,
+			String actor) {
+		double drift = expected - taken;
+		if (Math.abs(drift) <= TOLERANCE) {
+			return false;
+		}
+		log.warn("QuotaLedgerServiceImpl.correct() - {} of {} in {} drifted by {}", type, empId, month, drift);
+		ledgerRepo.save(new QuotaLedgerEntry().setEmpId(empId).setMonth(month).setQuotaType(type)
+				.setReason(LedgerReason.REBUILT).setAmount(drift).setCreatedBy(actor)
+				.setCreatedDateTime(emsClock.now()));
+		if (this.resetBalance(type, empId, month, expected) == 0) {
+			this.insertEmptyBalance(type, empId, month);
+			this.resetBalance(type, empId, month, expected);
+		}
+		return true;
+	}
+
+	private int applyDelta(QuotaType type, Integer empId, String month, double amount) {
+		return type == QuotaType.PERMISSION
+				? permissionStatsRepo.applyBalanceDelta(empId, month, this.toSeconds(amount),
+						this.toSeconds(type.getAllowance()))
+				: wfhStatsRepo.applyBalanceDelta(empId, month, amount, type.getAllowance());
+	}
+
+	private int resetBalance(QuotaType type, Integer empId, String month, double taken) {
+		return type == QuotaType.PERMISSION
+				? permissionStatsRepo.resetBalance(empId, month, this.toSeconds(taken),
+						this.toSeconds(type.getAllowance()))
+				: wfhStatsRepo.resetBalance(empId, month, taken, type.getAllowance());
+	}
+
+	private void insertEmptyBalance(QuotaType type, Integer empId, String month) {
+		if (type == QuotaType.PERMISSION) {
+			permissionStatsRepo.insertEmptyBalance(empId, month, this.toSeconds(type.getAllowance()));
+		} else {
+			wfhStatsRepo.insertEmptyBalance(empId, month, type.getAllowance());
+		}
+	}
+
+	/**
+	 * Permission quota is kept in minutes and persisted as time
+	 */
+	private long toSeconds(double minutes) {
+		return Math.round(minutes * 60);
+	}
+
+	private double valueOf(Double value) {
+		return value != null ? value : 0;
+	}
+
+	private record UsageKey(Integer empId, String month) {
+
+		static UsageKey of(QuotaUsageProjection usage) {
+			return new UsageKey(usage.getEmpId(), usage.getMonth());
+		}
+	}
+}
@@ -0,0 +1,12 @@
+package com.ems2p0.dto.response;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+@JsonInclude(content = Include.NON_NULL)
+public record TimesheetDto(String workDate, long sessions, double workingHours, double totalWorkingHours,
+		long overtimeMinutes, long permissionMinutes, List<String> workTypes) {
+
+}
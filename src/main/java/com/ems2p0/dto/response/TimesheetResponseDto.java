@@ -0,0 +1,8 @@
+package com.ems2p0.dto.response;
+
+import java.util.List;
+
+public record TimesheetResponseDto(String empId, String username, String month, TimesheetDto total,
+		List<TimesheetDto> days) {
+
+}
@@ -8,7 +8,17 @@ import lombok.Getter;
 public enum ExceptionMsg {
 	
 	EMPLOYEE_NOT_FOUND("Employee not found...!"),
-	PERMISSION_NOT_FOUND("Permission not found...!");
+	PERMISSION_NOT_FOUND("Permission not found...!"),
+	CHECK_IN_NOT_FOUND("CheckIn First to attempt the checkOut"),
+	INVALID_REPORT_FORMAT("Report format should be either csv or ndjson"),
+	INVALID_CURSOR("Invalid page cursor, fetch the first page again"),
+	INVALID_OTP("Invalid OTP....!"),
+	OTP_EXPIRED("OTP expired, request a new OTP...!"),
+	OTP_ATTEMPTS_EXCEEDED("Too many invalid OTP attempts, try again later...!"),
+	MAIL_OUTBOX_FULL("Unable to send the mail right now, try again later...!"),
+	REQUEST_IN_PROGRESS("Another request of the employee is in progress, try again...!"),
+	IDEMPOTENT_REQUEST_IN_PROGRESS("Request with this Idempotency-Key is still in progress...!"),
+	IDEMPOTENCY_KEY_REUSED("Idempotency-Key was already used for another request...!");
 	
 	private String message;
 
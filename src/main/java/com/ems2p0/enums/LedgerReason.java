@@ -0,0 +1,17 @@
+package com.ems2p0.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum LedgerReason {
+
+	REQUESTED("Requested"),
+	EDITED("Edited"),
+	CANCELLED("Cancelled"),
+	REJECTED("Rejected"),
+	REBUILT("Rebuilt");
+
+	private final String value;
+}
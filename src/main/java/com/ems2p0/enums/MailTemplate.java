@@ -0,0 +1,15 @@
+package com.ems2p0.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum MailTemplate {
+
+	OTP("mail/otp.html", SecurityRoleProperties.MAIL_SUBJECT);
+
+	private String location;
+
+	private SecurityRoleProperties subject;
+}
@@ -1,7 +0,0 @@
-package com.ems2p0.enums;
-
-public enum OtpStatus {
-
-    ACTIVE,
-    IN_ACTIVE
-}
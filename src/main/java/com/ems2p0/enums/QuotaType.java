@@ -0,0 +1,18 @@
+package com.ems2p0.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Monthly quotas tracked by the ledger, the allowance of the permission is in
+ * minutes and the allowance of the work from home is in days.
+ */
+@Getter
+@AllArgsConstructor
+public enum QuotaType {
+
+	PERMISSION(180),
+	WORK_FROM_HOME(4);
+
+	private final int allowance;
+}
@@ -0,0 +1,30 @@
+package com.ems2p0.enums;
+
+import com.ems2p0.dto.exception.CustomExceptionDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Formats of the streamed report exports
+ */
+@Getter
+@AllArgsConstructor
+public enum ReportFormat {
+
+	CSV("text/csv", "csv"),
+	NDJSON("application/x-ndjson", "ndjson");
+
+	private String mediaType;
+
+	private String extension;
+
+	public static ReportFormat of(String format) {
+		for (ReportFormat reportFormat : values()) {
+			if (reportFormat.name().equalsIgnoreCase(format)) {
+				return reportFormat;
+			}
+		}
+		throw new CustomExceptionDto(ExceptionMsg.INVALID_REPORT_FORMAT.getMessage());
+	}
+}
@@ -30,8 +30,8 @@ public interface AttendanceMapper {
 			@Mapping(source = "savedAtttendance.workingIn", target = "worktype")
 			@Mapping(source = "savedAtttendance.locationIn", target = "locationIn")
 			@Mapping(source = "savedAtttendance.intime", target = "intime")
-			@Mapping(source = "savedAtttendance.indate", target = "indate")
-			@Mapping(source = "savedAtttendance.outdate", target = "outdate")
+			@Mapping(source = "savedAtttendance.inDate", target = "indate")
+			@Mapping(source = "savedAtttendance.outDate", target = "outdate")
 			@Mapping(source = "savedAtttendance.outtime", target = "outtime")
 			@Mapping(source = "savedAtttendance.registerid", target = "last_Id") 
 	AttendanceResponseDto toDto(EmployeeAttendance savedAtttendance, String empSerialNo,String empName);
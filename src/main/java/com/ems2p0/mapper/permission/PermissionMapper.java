@@ -3,15 +3,16 @@ package com.ems2p0.mapper.permission;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.ObjectUtils;
-import org.mapstruct.BeforeMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 import org.mapstruct.Named;
 
+import com.ems2p0.dao.report.ReportLookup;
 import com.ems2p0.dao.service.EmsDaoService;
 import com.ems2p0.dto.request.RequestPermissionDto;
 import com.ems2p0.dto.response.PermissionDetailsResponseDto;
@@ -40,7 +41,7 @@ import jakarta.mail.internet.ParseException;
  *          convert the DTO or entity by avoiding the boiler plates in the
  *          application
  */
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = PermissionRequestValidator.class)
 public interface PermissionMapper {
 
 	        @Mapping(source = "projection.id", target = "id")
@@ -59,14 +60,31 @@ public interface PermissionMapper {
 
 	default List<PermissionDetailsResponseDto> projectionToListOfDetailsDto(List<PermissionProjections> projectionList,
 			EmsDaoService daoService) {
-		return projectionList.parallelStream().map(projections -> {
-			PermissionStatsProjection statsProjection = daoService
-					.findOverDueAndHoursTakenByUserDetailsAndMonth(projections.getuserName(), projections.getMonth());
-			String empName = daoService.loadEmployeeByUsername(projections.getuserName()).getEmpName();
-			return this.mapProjectionToDto(projections, statsProjection.gethoursTaken(), empName,
-					(ObjectUtils.isNotEmpty(statsProjection.getOverDuePermission())
-							&& !(statsProjection.getOverDuePermission().equals(LocalTime.of(0, 0)))));
-		}).toList(); 
+		if (projectionList.isEmpty()) {
+			return List.of();
+		}
+		Set<String> userNames = projectionList.stream().map(PermissionProjections::getuserName)
+				.collect(Collectors.toSet());
+		Set<String> months = projectionList.stream().map(PermissionProjections::getMonth).collect(Collectors.toSet());
+		ReportLookup<PermissionStatsProjection> lookup = daoService.prefetchPermissionReportLookup(userNames, months);
+		return projectionList.stream().map(projections -> this.projectionToDetailsDto(projections, lookup)).toList();
+	}
+
+	default PermissionDetailsResponseDto projectionToDetailsDto(PermissionProjections projections,
+			ReportLookup<PermissionStatsProjection> lookup) {
+		String empName = lookup.employee(projections.getuserName()).getEmpName();
+		return this.mapProjectionToDto(projections,
+				this.hoursTaken(lookup, projections.getuserName(), projections.getMonth()), empName,
+				this.isOverDue(lookup, projections.getuserName(), projections.getMonth()));
+	}
+
+	default LocalTime hoursTaken(ReportLookup<PermissionStatsProjection> lookup, String userName, String month) {
+		return lookup.stats(userName, month).map(PermissionStatsProjection::gethoursTaken).orElse(null);
+	}
+
+	default Boolean isOverDue(ReportLookup<PermissionStatsProjection> lookup, String userName, String month) {
+		return lookup.stats(userName, month).map(PermissionStatsProjection::getOverDuePermission)
+				.filter(ObjectUtils::isNotEmpty).map(overDue -> !overDue.equals(LocalTime.of(0, 0))).orElse(false);
 	}
 
 	        @Mapping(target = "id", source = "saveEmployeePermissionDetails.id") 
@@ -99,11 +117,17 @@ public interface PermissionMapper {
 	default List<PermissionDetailsResponseDto> toListOfDetailsDto(
 			List<EmployeePermissionDetails> employeePermissionDetailsList, EmployeeProjection employee,
 			EmsDaoService daoService) {
-		return employeePermissionDetailsList.stream().map(employeePermissionDetails -> {
-			PermissionStatsProjection statsProjection = daoService.findOverDueAndHoursTakenByUserDetailsAndMonth(
-					employee.getUserName(), employeePermissionDetails.getMonth());
-			return toPermissionDetailsDto(employeePermissionDetails, employee, statsProjection.gethoursTaken());
-		}).toList(); 
+		if (employeePermissionDetailsList.isEmpty()) {
+			return List.of();
+		}
+		Set<String> months = employeePermissionDetailsList.stream().map(EmployeePermissionDetails::getMonth)
+				.collect(Collectors.toSet());
+		ReportLookup<PermissionStatsProjection> lookup = daoService
+				.prefetchPermissionReportLookup(Set.of(employee.getUserName()), months);
+		return employeePermissionDetailsList.stream()
+				.map(employeePermissionDetails -> toPermissionDetailsDto(employeePermissionDetails, employee,
+						this.hoursTaken(lookup, employee.getUserName(), employeePermissionDetails.getMonth())))
+				.toList();
 	}
 
 	@Mapping(target = "id", source = "employeePermissionDetails.id")
@@ -122,16 +146,23 @@ public interface PermissionMapper {
 
 	default List<PermissionDetailsResponseDto> toListOfPermissionDetailsDto(
 			List<EmployeePermissionDetails> employeePermissionDetailsList, EmsDaoService daoService) {
+		if (employeePermissionDetailsList.isEmpty()) {
+			return List.of();
+		}
+		Set<String> userNames = employeePermissionDetailsList.stream()
+				.map(employeePermissionDetails -> employeePermissionDetails.getUserDetails().getUsername())
+				.collect(Collectors.toSet());
+		Set<String> months = employeePermissionDetailsList.stream().map(EmployeePermissionDetails::getMonth)
+				.collect(Collectors.toSet());
+		ReportLookup<PermissionStatsProjection> lookup = daoService.prefetchPermissionReportLookup(userNames, months);
 		return employeePermissionDetailsList.stream().map(employeePermissionDetails -> {
+			String userName = employeePermissionDetails.getUserDetails().getUsername();
 			String empSerialNo = this.getEmpSerialNo(employeePermissionDetails.getUserDetails());
-			PermissionStatsProjection statsProjection = daoService.findOverDueAndHoursTakenByUserDetailsAndMonth(
-					employeePermissionDetails.getUserDetails().getUsername(), employeePermissionDetails.getMonth());
-			String empName = daoService.loadEmployeeByUsername(employeePermissionDetails.getUserDetails().getUsername())
-					.getEmpName();
+			String empName = lookup.employee(userName).getEmpName();
 			return toPermissionDetailDto(employeePermissionDetails, empSerialNo, empName,
-					statsProjection.gethoursTaken(), (ObjectUtils.isNotEmpty(statsProjection.getOverDuePermission())
-							&& !(statsProjection.getOverDuePermission().equals(LocalTime.of(0, 0)))));
-		}).toList();  
+					this.hoursTaken(lookup, userName, employeePermissionDetails.getMonth()),
+					this.isOverDue(lookup, userName, employeePermissionDetails.getMonth()));
+		}).toList();
 	}
 
 	default String getEmpSerialNo(UserDetails userDetails) {
@@ -179,10 +210,4 @@ public interface PermissionMapper {
 	default Ems2p0Status mapPermissionStatus() {
 		return Ems2p0Status.PENDING;
 	}
-
-	@BeforeMapping
-	default void validatePermission(RequestPermissionDto permissionDto)
-			throws ParseException, java.text.ParseException { 
-		PermissionRequestValidator.request(permissionDto); 
-	}
 }
@@ -1,14 +1,15 @@
 package com.ems2p0.mapper.wfh;
 
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import org.mapstruct.BeforeMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 import org.mapstruct.Named;
 
+import com.ems2p0.dao.report.ReportLookup;
 import com.ems2p0.dao.service.EmsDaoService;
 import com.ems2p0.dto.request.WfhRequestDto;
 import com.ems2p0.dto.response.WfhDetailsResponseDto;
@@ -26,7 +27,7 @@ import com.ems2p0.utils.WorkFromHomeRequestValidator;
 import jakarta.mail.internet.ParseException;
 import jakarta.validation.Valid;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = WorkFromHomeRequestValidator.class)
 public interface WfhMapper {
 
 	@Mapping(source = "wfhDto.startDate", target = "startDate") 
@@ -88,11 +89,21 @@ public interface WfhMapper {
 
 	default List<WfhDetailsResponseDto> tolistOfDetails(List<EmployeeWfhDetails> workFromHomeDetails,
 			EmployeeProjection employee, EmsDaoService daoService) {
-		return workFromHomeDetails.stream().map(details -> {
-			WorkFromHomeProjectionStats workFromHomeProjectionStats = daoService
-					.findOverDueAndDaysTakenByUserDetailsAndMonth(employee.getUserName(), details.getMonth());
-			return toDto(details, employee, workFromHomeProjectionStats.getDaysTaken());
-		}).toList(); 
+		if (workFromHomeDetails.isEmpty()) {
+			return List.of();
+		}
+		Set<String> months = workFromHomeDetails.stream().map(EmployeeWfhDetails::getMonth)
+				.collect(Collectors.toSet());
+		ReportLookup<WorkFromHomeProjectionStats> lookup = daoService
+				.prefetchWfhReportLookup(Set.of(employee.getUserName()), months);
+		return workFromHomeDetails.stream()
+				.map(details -> toDto(details, employee,
+						this.daysTaken(lookup, employee.getUserName(), details.getMonth())))
+				.toList();
+	}
+
+	default double daysTaken(ReportLookup<WorkFromHomeProjectionStats> lookup, String userName, String month) {
+		return lookup.stats(userName, month).map(WorkFromHomeProjectionStats::getDaysTaken).orElse(0.0);
 	}
 
 	@Mappings({ @Mapping(source = "projections.id", target = "id"),
@@ -112,16 +123,25 @@ public interface WfhMapper {
 
 	default List<WfhDetailsResponseDto> projectionToListOfDetailsDto(List<WfhProjection> employeeWorkFromHomeDetails,
 			EmsDaoService daoService) {
-		return employeeWorkFromHomeDetails.stream().map(projections -> {
-			UserDetails user = daoService.loadUserByUsername(projections.getuserName());
-//			String empSerialNo = this.getEmpSerialNo(user); 
-			EmployeeProjection employeeProjection = daoService.loadEmployeeByUsername(user.getUsername());
-			WorkFromHomeProjectionStats statsProjection = daoService
-					.findOverDueAndDaysTakenByUserDetailsAndMonth(projections.getuserName(), projections.getmonth());
-			return this.mapProjectionToDto(projections, statsProjection.getDaysTaken(), 
-					employeeProjection.getEmpSerialNo(), employeeProjection.getEmpName()); 
-		}).collect(Collectors.toList());       
-	} 
+		if (employeeWorkFromHomeDetails.isEmpty()) {
+			return List.of();
+		}
+		Set<String> userNames = employeeWorkFromHomeDetails.stream().map(WfhProjection::getuserName)
+				.collect(Collectors.toSet());
+		Set<String> months = employeeWorkFromHomeDetails.stream().map(WfhProjection::getmonth)
+				.collect(Collectors.toSet());
+		ReportLookup<WorkFromHomeProjectionStats> lookup = daoService.prefetchWfhReportLookup(userNames, months);
+		return employeeWorkFromHomeDetails.stream()
+				.map(projections -> this.projectionToDetailsDto(projections, lookup)).collect(Collectors.toList());
+	}
+
+	default WfhDetailsResponseDto projectionToDetailsDto(WfhProjection projections,
+			ReportLookup<WorkFromHomeProjectionStats> lookup) {
+		EmployeeProjection employeeProjection = lookup.employee(projections.getuserName());
+		return this.mapProjectionToDto(projections,
+				this.daysTaken(lookup, projections.getuserName(), projections.getmonth()),
+				employeeProjection.getEmpSerialNo(), employeeProjection.getEmpName());
+	}
 
 	@Mapping(target = "id", source = "employeeWfhDetails.id")
 	@Mapping(target = "month", source = "employeeWfhDetails.month")
@@ -139,17 +159,22 @@ public interface WfhMapper {
 
 	default List<WfhDetailsResponseDto> toListOfWfhDetailsDto(List<EmployeeWfhDetails> employeeWfhDetailsList,
 			EmsDaoService daoService) {
-		//double overDueDaysTaken = 0;
+		if (employeeWfhDetailsList.isEmpty()) {
+			return List.of();
+		}
+		Set<String> userNames = employeeWfhDetailsList.stream()
+				.map(employeeWfhDetails -> employeeWfhDetails.getUserDetails().getUsername())
+				.collect(Collectors.toSet());
+		Set<String> months = employeeWfhDetailsList.stream().map(EmployeeWfhDetails::getMonth)
+				.collect(Collectors.toSet());
+		ReportLookup<WorkFromHomeProjectionStats> lookup = daoService.prefetchWfhReportLookup(userNames, months);
 		return employeeWfhDetailsList.stream().map(employeeWfhDetails -> {
-			String empSerialNo = this.getEmpSerialNo(employeeWfhDetails.getUserDetails()); 
-			WorkFromHomeProjectionStats WfhstatsProjection = daoService 
-					.findOverDueAndDaysTakenByUserDetailsAndMonthForWfh(
-							employeeWfhDetails.getUserDetails().getUsername(), employeeWfhDetails.getMonth());
-			String empName = daoService.loadEmployeeByUsername(employeeWfhDetails.getUserDetails().getUsername())
-					.getEmpName();
-			return toWfhDetailDto(employeeWfhDetails, empSerialNo, empName, WfhstatsProjection.getDaysTaken()
-				); 
-		}).toList();  
+			String userName = employeeWfhDetails.getUserDetails().getUsername();
+			String empSerialNo = this.getEmpSerialNo(employeeWfhDetails.getUserDetails());
+			String empName = lookup.employee(userName).getEmpName();
+			return toWfhDetailDto(employeeWfhDetails, empSerialNo, empName,
+					this.daysTaken(lookup, userName, employeeWfhDetails.getMonth()));
+		}).toList();
 	}
 
 	
@@ -182,11 +207,6 @@ public interface WfhMapper {
 									double newUpdatedNoOfDays) throws ParseException, java.text.ParseException;
 	
 	
-	@BeforeMapping
-	default void validateWfh(WfhRequestDto wfhRequestDto) throws ParseException, java.text.ParseException {
-		WorkFromHomeRequestValidator.validateDateAndYear(wfhRequestDto);
-	}
-
 //	@Mapping(source = "existingWfhDetails.id", target = "id") 
 //    @Mapping(target = "existingWfhDetails.status", constant = "PENDING") 
 //    @Mapping(source = "wfhRequestDto.startDate", target = "startDate")
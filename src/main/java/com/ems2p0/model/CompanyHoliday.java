@@ -0,0 +1,33 @@
+package com.ems2p0.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * Holiday of the company, a holiday is not a working day for the permission and
+ * work from home requests and is not counted in the requested days.
+ */
+@Entity(name = "company_holiday")
+@Data
+@Accessors(chain = true)
+@NoArgsConstructor
+public class CompanyHoliday {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Integer id;
+
+	@Column(name = "holiday_date", nullable = false, unique = true)
+	private LocalDate holidayDate;
+
+	@Column(name = "description")
+	private String description;
+}
@@ -1,6 +1,9 @@
 package com.ems2p0.model;
 
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 
@@ -9,14 +12,24 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import lombok.experimental.Accessors;
 
 @Entity(name = "empattendance")
+@Table(indexes = { @Index(name = "idx_empattendance_open", columnList = "outtime, outdate, registerid"),
+		@Index(name = "idx_empattendance_emp_in_date", columnList = "empid, in_date"),
+		@Index(name = "idx_empattendance_in_date_name", columnList = "in_date, name"),
+		@Index(name = "idx_empattendance_out_date", columnList = "out_date, outtime") })
 @Data
 @Accessors(chain = true)
 public class EmployeeAttendance {
 
+	private static final DateTimeFormatter LEGACY_DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Integer registerid;
@@ -27,18 +40,37 @@ public class EmployeeAttendance {
 	@Column(name = "name")
 	private String name;
 
+	/**
+	 * Legacy text column of the check-in date, dual written from {@link #inDate}
+	 * until every reader has moved to the typed column, it is only written by
+	 * {@link #setInDate(LocalDate)}
+	 */
 	@JsonFormat(pattern = "dd-MM-yyyy")
 	@Column(name = "indate")
+	@Setter(AccessLevel.NONE)
 	private String indate;
 
+	@JsonFormat(pattern = "dd-MM-yyyy")
+	@Column(name = "in_date")
+	private LocalDate inDate;
+
 	@JsonFormat(pattern = "HH:mm:ss")
 	@Column(name = "intime")
 	private LocalTime intime;
 
+	/**
+	 * Legacy text column of the check-out date, dual written from
+	 * {@link #outDate}, it is only written by {@link #setOutDate(LocalDate)}
+	 */
 	@JsonFormat(pattern = "dd-MM-yyyy")
 	@Column(name = "outdate")
+	@Setter(AccessLevel.NONE)
 	private String outdate;
 
+	@JsonFormat(pattern = "dd-MM-yyyy")
+	@Column(name = "out_date")
+	private LocalDate outDate;
+
 	@JsonFormat(pattern = "HH:mm:ss")
 	@Column(name = "outtime")
 	private LocalTime outtime;
@@ -64,4 +96,50 @@ public class EmployeeAttendance {
 	@Column(name = "workingIn")
 	private String workingIn;
 
+	/**
+	 * Check-in date, rows which are not backfilled yet fall back to the legacy
+	 * text column
+	 */
+	public LocalDate getInDate() {
+		return inDate != null ? inDate : parseLegacyDate(indate);
+	}
+
+	public EmployeeAttendance setInDate(LocalDate inDate) {
+		this.inDate = inDate;
+		this.indate = inDate != null ? inDate.toString() : null;
+		return this;
+	}
+
+	/**
+	 * Check-out date, rows which are not backfilled yet fall back to the legacy
+	 * text column
+	 */
+	public LocalDate getOutDate() {
+		return outDate != null ? outDate : parseLegacyDate(outdate);
+	}
+
+	public EmployeeAttendance setOutDate(LocalDate outDate) {
+		this.outDate = outDate;
+		this.outdate = outDate != null ? outDate.toString() : null;
+		return this;
+	}
+
+	/**
+	 * The legacy text columns hold ISO dates, the oldest rows the dd-MM-yyyy
+	 * format of the API
+	 */
+	public static LocalDate parseLegacyDate(String date) {
+		if (date == null || date.isBlank()) {
+			return null;
+		}
+		try {
+			return LocalDate.parse(date);
+		} catch (DateTimeParseException e) {
+			try {
+				return LocalDate.parse(date, LEGACY_DATE_FORMAT);
+			} catch (DateTimeParseException ignored) {
+				return null;
+			}
+		}
+	}
 }
@@ -0,0 +1,62 @@
+package com.ems2p0.model;
+
+import java.time.LocalTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * Latest attendance session of an employee, one row per employee which mirrors
+ * the last check-in record and whether it is still open. Check-in and check-out
+ * read this row by its key instead of sorting the attendance history.
+ */
+@Entity(name = "emp_attendance_session")
+@Table(indexes = @Index(name = "idx_attendance_session_open", columnList = "is_open"))
+@Data
+@Accessors(chain = true)
+@NoArgsConstructor
+public class EmployeeAttendanceSession {
+
+	@Id
+	@Column(name = "user_name")
+	private String userName;
+
+	@Column(name = "empid")
+	private String empid;
+
+	@Column(name = "registerid", nullable = false)
+	private Integer registerid;
+
+	@Column(name = "indate")
+	private String indate;
+
+	@Column(name = "intime")
+	private LocalTime intime;
+
+	@Column(name = "outdate")
+	private String outdate;
+
+	@Column(name = "outtime")
+	private LocalTime outtime;
+
+	@Column(name = "location_in")
+	private String locationIn;
+
+	@Column(name = "working_in")
+	private String workingIn;
+
+	@Column(name = "permission")
+	private LocalTime permission;
+
+	@Column(name = "overtime")
+	private LocalTime overtime;
+
+	@Column(name = "is_open", nullable = false)
+	private boolean open;
+}
@@ -8,15 +8,26 @@ import com.ems2p0.enums.Ems2p0Status;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import lombok.experimental.Accessors;
 
 @Entity(name = "emp_permission_details")
+@Table(indexes = { @Index(name = "idx_permission_status_date", columnList = "permission_status, date, id"),
+		@Index(name = "idx_permission_emp_created", columnList = "userCredentialEmp_id, created_date_time, id"),
+		@Index(name = "idx_permission_created", columnList = "created_date_time, id") })
+@NamedEntityGraph(name = EmployeePermissionDetails.REPORT_GRAPH, attributeNodes = @NamedAttributeNode("userDetails"))
 @NoArgsConstructor
 @Data
 @Accessors(chain = true)
 public class EmployeePermissionDetails {
 
+	/**
+	 * Fetch plan of the permission with its employee for the approvals and reports
+	 */
+	public static final String REPORT_GRAPH = "EmployeePermissionDetails.report";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Integer id;
@@ -48,7 +59,7 @@ public class EmployeePermissionDetails {
 	@Column(name = "created_by")
 	private String createdBy;
 
-	@Column(name = "created_date_time")
+	@Column(name = "created_date_time", nullable = false)
 	private LocalDateTime createdDateTime;
 
 	@Column(name = "modified_by")
@@ -57,8 +68,10 @@ public class EmployeePermissionDetails {
 	@Column(name = "modified_date_time")
 	private LocalDateTime modifiedDateTime;
 
-	@ManyToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "userCredentialEmp_id")
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
 	private UserDetails userDetails;
 
 }
@@ -14,17 +14,31 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import lombok.experimental.Accessors;
 
 @Entity(name = "emp_permission_statistics")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_emp_permission_statistics_emp_month", columnNames = {
+		"empId", "month" }))
+@NamedEntityGraph(name = EmployeePermissionStats.STATS_VIEW_GRAPH, attributeNodes = @NamedAttributeNode("userDetails"))
 @Data
 @Accessors(chain = true)
 @NoArgsConstructor
 public class EmployeePermissionStats {
 
+	/**
+	 * Fetch plan of the monthly statistics with its employee, never the history
+	 */
+	public static final String STATS_VIEW_GRAPH = "EmployeePermissionStats.statsView";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
@@ -44,13 +58,16 @@ public class EmployeePermissionStats {
 	@JsonFormat(pattern = "HH:mm")
 	private LocalTime overduePermission;
 
-	@ManyToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "empId")
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
 	private UserDetails userDetails;
 
-    //	@OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.DETACH, orphanRemoval = false)
-    @OneToMany(fetch = FetchType.EAGER, cascade = CascadeType.DETACH, orphanRemoval = false)
+    @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.DETACH, orphanRemoval = false)
     @JoinColumn(name = "empPermissionStatistics_id", referencedColumnName = "id")
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
 	private List<EmployeePermissionDetails> permissionDetails;
 
 }
@@ -8,27 +8,41 @@ import com.ems2p0.enums.Ems2p0Status;
 import com.ems2p0.enums.WorkFromHomeSessionMsg;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import lombok.experimental.Accessors;
 
 
 @Entity(name = "emp_wfh_details")
+@Table(indexes = { @Index(name = "idx_wfh_status_start_date", columnList = "wfh_status, start_date, id"),
+		@Index(name = "idx_wfh_emp_created", columnList = "userCredentialEmp_id, created_date_time, id"),
+		@Index(name = "idx_wfh_created", columnList = "created_date_time, id") })
+@NamedEntityGraph(name = EmployeeWfhDetails.REPORT_GRAPH, attributeNodes = @NamedAttributeNode("userDetails"))
 @NoArgsConstructor
 @Data
 @Accessors(chain = true)
 public class EmployeeWfhDetails {
-         
+
+    /**
+     * Fetch plan of the work from home with its employee for the approvals and
+     * reports
+     */
+    public static final String REPORT_GRAPH = "EmployeeWfhDetails.report";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -63,7 +77,7 @@ public class EmployeeWfhDetails {
     @Column(name = "created_by")
     private String createdBy;
 
-    @Column(name = "created_date_time")
+    @Column(name = "created_date_time", nullable = false)
     private LocalDateTime createdDateTime;
 
     @Column(name = "modified_by")
@@ -72,8 +86,10 @@ public class EmployeeWfhDetails {
     @Column(name = "modified_date_time")
     private LocalDateTime modifiedDateTime;
 
-    @ManyToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "userCredentialEmp_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private UserDetails userDetails;
 
 //    @Transient
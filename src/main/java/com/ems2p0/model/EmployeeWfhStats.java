@@ -11,18 +11,32 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import lombok.experimental.Accessors;
 
 
 @Entity(name = "emp_wfh_statistics")
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_emp_wfh_statistics_emp_month", columnNames = {
+		"userCredentialEmp_id", "month" }))
+@NamedEntityGraph(name = EmployeeWfhStats.STATS_VIEW_GRAPH, attributeNodes = @NamedAttributeNode("userDetails"))
 @Data
 @Accessors(chain = true)
 @NoArgsConstructor
 public class EmployeeWfhStats {
 
+	/**
+	 * Fetch plan of the monthly statistics with its employee, never the history
+	 */
+	public static final String STATS_VIEW_GRAPH = "EmployeeWfhStats.statsView";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
@@ -42,13 +56,16 @@ public class EmployeeWfhStats {
 	@Column(name = "remainingWfhDays")
 	private double remainingWfhDays;
 
-	@ManyToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "userCredentialEmp_id")
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
 	private UserDetails userDetails;
 
-    //@OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.DETACH, orphanRemoval = false)
-    @OneToMany(fetch = FetchType.EAGER, cascade = CascadeType.DETACH, orphanRemoval = false)
+    @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.DETACH, orphanRemoval = false)
     @JoinColumn(name = "empWfhStatistics_id", referencedColumnName = "id")
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
 	private List<EmployeeWfhDetails> wfhDetails;
 	
 }
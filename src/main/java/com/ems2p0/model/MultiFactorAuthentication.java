@@ -6,28 +6,37 @@ import lombok.experimental.Accessors;
 
 import java.time.LocalDateTime;
 
-import com.ems2p0.enums.OtpStatus;
-
-@Entity(name = "mfa_auth")
+/**
+ * Pending one time password challenge of the persistent OTP store, only the
+ * salted hash of the code is kept. The row is created by an upsert on the
+ * userName and removed once the code is consumed or once both the code and the
+ * attempt window are over.
+ */
+@Entity(name = "mfa_otp_challenge")
+@Table(indexes = @Index(name = "idx_mfa_otp_challenge_expires_at", columnList = "expiresAtMillis"))
 @Data
 @Accessors(chain = true)
 public class MultiFactorAuthentication {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
 
     @Column(unique = true)
-    private Integer otp;
+    private String userName;
+
+    private String otpSalt;
+
+    private String otpHash;
 
-    private OtpStatus otpStatus;
+    private Long expiresAtMillis;
+
+    private Integer attempts;
+
+    private Long windowEndsAtMillis;
 
     private LocalDateTime createdDateTime;
 
     private LocalDateTime modifiedDateTime;
 
-    @OneToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
-    @JoinColumn(name = "userCredentialEmp_id")
-    private UserDetails userDetails;
-
 }
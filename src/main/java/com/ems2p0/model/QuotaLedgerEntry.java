@@ -0,0 +1,61 @@
+package com.ems2p0.model;
+
+import java.time.LocalDateTime;
+
+import com.ems2p0.enums.LedgerReason;
+import com.ems2p0.enums.QuotaType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * Append only entry of the quota ledger, the running balance of an employee and
+ * month is the sum of the amounts of its entries.
+ */
+@Entity(name = "emp_quota_ledger")
+@Table(indexes = @Index(name = "idx_quota_ledger_emp_month", columnList = "emp_id, month, quota_type"))
+@Data
+@Accessors(chain = true)
+@NoArgsConstructor
+public class QuotaLedgerEntry {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "emp_id", nullable = false)
+	private Integer empId;
+
+	@Column(name = "month", nullable = false)
+	private String month;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "quota_type", nullable = false)
+	private QuotaType quotaType;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "reason", nullable = false)
+	private LedgerReason reason;
+
+	@Column(name = "amount", nullable = false)
+	private double amount;
+
+	@Column(name = "reference_id")
+	private Integer referenceId;
+
+	@Column(name = "created_by")
+	private String createdBy;
+
+	@Column(name = "created_date_time")
+	private LocalDateTime createdDateTime;
+}
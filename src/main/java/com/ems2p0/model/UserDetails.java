@@ -17,13 +17,17 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
-import jakarta.persistence.OneToOne;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity(name = "user_credential")
+@NamedEntityGraph(name = UserDetails.AUTH_GRAPH, attributeNodes = { @NamedAttributeNode("employeeRoleManagement") })
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
@@ -34,6 +38,11 @@ public class UserDetails implements org.springframework.security.core.userdetail
 	 */
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * Fetch plan of the user with the role and OTP only, never the statistics
+	 */
+	public static final String AUTH_GRAPH = "UserDetails.auth";
+
 	@Id
     @Column(name = "empId")
     private Integer empId;
@@ -57,18 +66,18 @@ public class UserDetails implements org.springframework.security.core.userdetail
     private Boolean isNotificationEnable;
 
 
-    //	@OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.DETACH, orphanRemoval = false)
-    @OneToMany(fetch = FetchType.EAGER, cascade = CascadeType.DETACH, orphanRemoval = false)
+    @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.DETACH, orphanRemoval = false)
     @JoinColumn(name = "userCredentialEmp_id", referencedColumnName = "empId")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<EmployeePermissionStats> permissionStats;
 
     @ManyToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
     private EmployeeRoleManagement employeeRoleManagement;
 
-    @OneToOne(fetch = FetchType.LAZY)
-    private MultiFactorAuthentication multiFactorAuthentication;
-    
     @OneToMany(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Notification> notification;
 
     @Override
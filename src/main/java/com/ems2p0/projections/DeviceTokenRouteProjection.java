@@ -0,0 +1,12 @@
+package com.ems2p0.projections;
+
+public interface DeviceTokenRouteProjection {
+
+	public Integer getEmpId();
+
+	public String getDepartmentName();
+
+	public String getOfficialRole();
+
+	public String getDeviceToken();
+}
@@ -1,5 +1,7 @@
 package com.ems2p0.projections;
 
+import java.time.LocalDateTime;
+
 public interface PermissionProjections {
 
     public Integer getId();
@@ -20,4 +22,6 @@ public interface PermissionProjections {
 
     public String getuserName();
 
+    public LocalDateTime getCreatedDateTime();
+
 }
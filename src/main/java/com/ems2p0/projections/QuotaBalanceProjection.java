@@ -0,0 +1,12 @@
+package com.ems2p0.projections;
+
+public interface QuotaBalanceProjection {
+
+	public Double getTaken();
+
+	public Double getRemaining();
+
+	public Double getOverdue();
+
+	public Double getTotal();
+}
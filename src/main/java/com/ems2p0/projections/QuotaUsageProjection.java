@@ -0,0 +1,10 @@
+package com.ems2p0.projections;
+
+public interface QuotaUsageProjection {
+
+	public Integer getEmpId();
+
+	public String getMonth();
+
+	public Double getTaken();
+}
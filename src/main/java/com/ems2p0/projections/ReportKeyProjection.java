@@ -0,0 +1,8 @@
+package com.ems2p0.projections;
+
+public interface ReportKeyProjection {
+
+	public String getUserName();
+
+	public String getMonth();
+}
@@ -0,0 +1,26 @@
+package com.ems2p0.projections;
+
+/**
+ * Aggregated attendance of an employee, either of a single day or, when the
+ * work date is empty, of the whole requested range
+ */
+public interface TimesheetProjection {
+
+	public String getUserName();
+
+	public String getEmpId();
+
+	public String getWorkDate();
+
+	public Long getSessions();
+
+	public Double getWorkingHours();
+
+	public Double getTotalWorkingHours();
+
+	public Long getOvertimeMinutes();
+
+	public Long getPermissionMinutes();
+
+	public String getWorkTypes();
+}
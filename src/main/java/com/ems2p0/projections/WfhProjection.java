@@ -29,5 +29,7 @@ public interface WfhProjection {
 	    
 	    public Boolean getisOverDue(); 
 
+	    public LocalDateTime getCreatedDateTime();
+
 	    
 }
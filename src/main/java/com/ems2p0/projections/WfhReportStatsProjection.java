@@ -0,0 +1,8 @@
+package com.ems2p0.projections;
+
+public interface WfhReportStatsProjection extends WorkFromHomeProjectionStats {
+
+	public String getUserName();
+
+	public String getMonth();
+}
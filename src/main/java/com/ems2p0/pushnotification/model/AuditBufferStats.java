@@ -0,0 +1,9 @@
+package com.ems2p0.pushnotification.model;
+
+/**
+ * EMS 2.0 - Snapshot of the notification audit write-behind buffer metrics
+ */
+public record AuditBufferStats(int bufferDepth, int capacity, long buffered, long dropped, long persisted,
+		long failed, long flushes, double averageFlushLatencyMillis, long lastFlushLatencyMillis, int lastFlushSize) {
+
+}
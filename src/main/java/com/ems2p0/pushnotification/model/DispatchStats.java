@@ -0,0 +1,10 @@
+package com.ems2p0.pushnotification.model;
+
+/**
+ * EMS 2.0 - Snapshot of the push notification dispatch queue metrics
+ */
+public record DispatchStats(int queueDepth, int capacity, int retryDepth, long enqueued, long coalesced,
+		long dropped, long resumed, long sent, long failed, long retried, long rejectedTokens,
+		double averageSendLatencyMillis, long lastSendLatencyMillis) {
+
+}
@@ -0,0 +1,11 @@
+package com.ems2p0.pushnotification.model;
+
+import java.util.List;
+
+/**
+ * EMS 2.0 - Outcome of a single FCM multicast per device token, the retry
+ * tokens failed transiently and the rejected tokens will never be delivered
+ */
+public record MulticastResult(int delivered, List<String> retryTokens, List<String> rejectedTokens) {
+
+}
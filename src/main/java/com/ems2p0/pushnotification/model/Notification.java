@@ -12,6 +12,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -22,8 +23,13 @@ import lombok.NoArgsConstructor;
 @Data
 public class Notification {
 
+	/**
+	 * Pooled ids keep the batched audit inserts free of a round trip per row, the
+	 * sequence is the one hibernate already created for the AUTO strategy
+	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+	@SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 50)
 	@Column(name = "notify_id")
 	private Long notifyId;
 	@Column(name = "notify_message")
@@ -0,0 +1,51 @@
+package com.ems2p0.pushnotification.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * Push notification accepted by the dispatch queue and not yet delivered to
+ * every device. The row is removed once the notification is delivered or given
+ * up, the rows left by a shutdown or a crash are resumed on the next start.
+ */
+@Entity(name = "push_notification_outbox")
+@NoArgsConstructor
+@Data
+@Accessors(chain = true)
+public class PendingPushNotification {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	private String title;
+
+	@Column(length = 1000)
+	private String message;
+
+	private String topic;
+
+	/**
+	 * Device tokens which are still to be delivered, separated by commas
+	 */
+	@Column(columnDefinition = "TEXT")
+	private String tokens;
+
+	/**
+	 * Number of the next delivery attempt, starting from 1
+	 */
+	private Integer attempt;
+
+	private Long nextAttemptAtMillis;
+
+	private LocalDateTime createdDateTime;
+
+}
@@ -0,0 +1,9 @@
+package com.ems2p0.pushnotification.model;
+
+/**
+ * EMS 2.0 - Snapshot of the device token routing index metrics
+ */
+public record RoutingIndexStats(int employees, int routes, long lookups, long refreshes, long rebuilds,
+		long lastRebuildMillis, int lastRebuildSize) {
+
+}
@@ -0,0 +1,11 @@
+package com.ems2p0.pushnotification.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.ems2p0.pushnotification.model.PendingPushNotification;
+
+@Repository
+public interface PendingPushNotificationRepository extends JpaRepository<PendingPushNotification, Long> {
+
+}
@@ -0,0 +1,285 @@
+package com.ems2p0.pushnotification.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ems2p0.enums.OfficialRole;
+import com.ems2p0.model.UserDetails;
+import com.ems2p0.projections.DeviceTokenRouteProjection;
+import com.ems2p0.pushnotification.model.RoutingIndexStats;
+import com.ems2p0.repo.UserDetailsRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - In memory routing index of the device tokens by the department and
+ * the official role. The index is built at startup, kept up to date whenever a
+ * user credential is saved (device token registration, logout, role and
+ * notification preference changes) and rebuilt periodically as a safety net
+ * against changes made outside of the application.
+ *
+ * @author Mohan
+ * @category Push notification module
+ * @version v1.0.0
+ * @apiNote - Developer should be responsible to resolve the recipients of a
+ *          notification through this index instead of querying the device
+ *          tokens per event.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeviceTokenRoutingIndex {
+
+	/**
+	 * Department whose employees receive the notifications of every department
+	 */
+	private static final String ALL_DEPARTMENTS = "ALL";
+
+	/**
+	 * Role which receives the notifications of every department
+	 */
+	private static final OfficialRole MANAGEMENT_ROLE = OfficialRole.ROLE_ADMIN;
+
+	/**
+	 * Injected user details repository to load the routes
+	 */
+	private final UserDetailsRepository userDetailsRepository;
+
+	private volatile Routes routes = new Routes();
+
+	/**
+	 * Serializes the rebuilds and the refreshes, a lock instead of synchronized so
+	 * a virtual thread blocked on the rebuild query does not pin its carrier
+	 */
+	private final ReentrantLock writeLock = new ReentrantLock();
+
+	private final LongAdder lookups = new LongAdder();
+
+	private final LongAdder refreshes = new LongAdder();
+
+	private final LongAdder rebuilds = new LongAdder();
+
+	private volatile long lastRebuildMillis;
+
+	private volatile int lastRebuildSize;
+
+	@PostConstruct
+	public void init() {
+		try {
+			this.rebuild();
+		} catch (Exception e) {
+			log.error("DeviceTokenRoutingIndex : init() - unable to build the index : {}", e.toString());
+		}
+	}
+
+	/**
+	 * Method to rebuild the whole index from the user credentials, refreshes
+	 * committed meanwhile wait for the rebuild and are applied on top of it
+	 */
+	@Scheduled(initialDelayString = "${ems.device-token-index.rebuild-interval-ms}",
+			fixedDelayString = "${ems.device-token-index.rebuild-interval-ms}")
+	public void rebuild() {
+		long start = System.currentTimeMillis();
+		Routes rebuilt = new Routes();
+		writeLock.lock();
+		try {
+			List<DeviceTokenRouteProjection> projections = userDetailsRepository.fetchDeviceTokenRoutes();
+			projections.forEach(
+					projection -> Route.of(projection).ifPresent(route -> rebuilt.put(projection.getEmpId(), route)));
+			routes = rebuilt;
+			lastRebuildMillis = System.currentTimeMillis() - start;
+			lastRebuildSize = rebuilt.byEmployee.size();
+			rebuilds.increment();
+		} finally {
+			writeLock.unlock();
+		}
+		log.info("DeviceTokenRoutingIndex : rebuild() - {} routes in {} ms", lastRebuildSize, lastRebuildMillis);
+	}
+
+	/**
+	 * Method to refresh the route of the saved user, the index is changed only
+	 * after the surrounding transaction commits
+	 *
+	 * @param userDetails
+	 */
+	public void refresh(UserDetails userDetails) {
+		Integer empId = userDetails.getEmpId();
+		Optional<Route> route = Route.of(userDetails);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					refresh(empId, route);
+				}
+			});
+		} else {
+			this.refresh(empId, route);
+		}
+	}
+
+	private void refresh(Integer empId, Optional<Route> route) {
+		if (empId == null) {
+			return;
+		}
+		writeLock.lock();
+		try {
+			route.ifPresentOrElse(value -> routes.put(empId, value), () -> routes.remove(empId));
+			refreshes.increment();
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Method to resolve the deduplicated device tokens of the roles in the
+	 * department and in all departments, together with the management tokens
+	 *
+	 * @param departmentName
+	 * @param rolesToNotify
+	 * @return
+	 */
+	public List<String> resolve(String departmentName, Collection<String> rolesToNotify) {
+		lookups.increment();
+		Routes current = routes;
+		Set<String> tokens = new LinkedHashSet<>();
+		for (String roleName : rolesToNotify) {
+			OfficialRole role = this.roleOf(roleName);
+			if (role != null) {
+				tokens.addAll(current.tokens(departmentName, role));
+				tokens.addAll(current.tokens(ALL_DEPARTMENTS, role));
+			}
+		}
+		tokens.addAll(current.tokens(MANAGEMENT_ROLE));
+		return new ArrayList<>(tokens);
+	}
+
+	public RoutingIndexStats stats() {
+		Routes current = routes;
+		return new RoutingIndexStats(current.byEmployee.size(), current.byDepartment.size(), lookups.sum(),
+				refreshes.sum(), rebuilds.sum(), lastRebuildMillis, lastRebuildSize);
+	}
+
+	private OfficialRole roleOf(String roleName) {
+		try {
+			return OfficialRole.valueOf(roleName);
+		} catch (IllegalArgumentException | NullPointerException e) {
+			log.warn("DeviceTokenRoutingIndex : resolve() - unknown role : {}", roleName);
+			return null;
+		}
+	}
+
+	/**
+	 * Route of a single employee, only employees who enabled the notifications
+	 * and registered a device have a route
+	 */
+	private record Route(String departmentName, OfficialRole role, String deviceToken) {
+
+		static Optional<Route> of(UserDetails userDetails) {
+			if (!Boolean.TRUE.equals(userDetails.getIsNotificationEnable())
+					|| userDetails.getEmployeeRoleManagement() == null) {
+				return Optional.empty();
+			}
+			return of(userDetails.getEmployeeRoleManagement().getDepartmentName(),
+					userDetails.getEmployeeRoleManagement().getOfficialRole(), userDetails.getEmpDeviceToken());
+		}
+
+		static Optional<Route> of(DeviceTokenRouteProjection projection) {
+			OfficialRole role;
+			try {
+				role = OfficialRole.valueOf(projection.getOfficialRole());
+			} catch (IllegalArgumentException | NullPointerException e) {
+				return Optional.empty();
+			}
+			return of(projection.getDepartmentName(), role, projection.getDeviceToken());
+		}
+
+		static Optional<Route> of(String departmentName, OfficialRole role, String deviceToken) {
+			if (departmentName == null || role == null || StringUtils.isBlank(deviceToken)) {
+				return Optional.empty();
+			}
+			return Optional.of(new Route(departmentName, role, deviceToken));
+		}
+	}
+
+	/**
+	 * Department and role of the routes
+	 */
+	private record RouteKey(String departmentName, OfficialRole role) {
+	}
+
+	/**
+	 * Routes by the employee and the device tokens by the department and role,
+	 * the tokens are kept per employee so a token shared by two credentials is
+	 * only dropped once neither of them routes to it
+	 */
+	private static final class Routes {
+
+		private final Map<Integer, Route> byEmployee = new ConcurrentHashMap<>();
+
+		private final Map<RouteKey, Map<Integer, String>> byDepartment = new ConcurrentHashMap<>();
+
+		private final Map<OfficialRole, Map<Integer, String>> byRole = new EnumMap<>(OfficialRole.class);
+
+		Routes() {
+			for (OfficialRole role : OfficialRole.values()) {
+				byRole.put(role, new ConcurrentHashMap<>());
+			}
+		}
+
+		void put(Integer empId, Route route) {
+			Route previous = byEmployee.put(empId, route);
+			if (Objects.equals(previous, route)) {
+				return;
+			}
+			if (previous != null) {
+				this.unlink(empId, previous);
+			}
+			byDepartment.computeIfAbsent(new RouteKey(route.departmentName(), route.role()),
+					key -> new ConcurrentHashMap<>()).put(empId, route.deviceToken());
+			byRole.get(route.role()).put(empId, route.deviceToken());
+		}
+
+		void remove(Integer empId) {
+			Route previous = byEmployee.remove(empId);
+			if (previous != null) {
+				this.unlink(empId, previous);
+			}
+		}
+
+		Collection<String> tokens(String departmentName, OfficialRole role) {
+			Map<Integer, String> tokens = byDepartment.get(new RouteKey(departmentName, role));
+			return tokens != null ? tokens.values() : List.of();
+		}
+
+		Collection<String> tokens(OfficialRole role) {
+			return byRole.get(role).values();
+		}
+
+		private void unlink(Integer empId, Route route) {
+			RouteKey key = new RouteKey(route.departmentName(), route.role());
+			byDepartment.computeIfPresent(key, (routeKey, tokens) -> {
+				tokens.remove(empId);
+				return tokens.isEmpty() ? null : tokens;
+			});
+			byRole.get(route.role()).remove(empId);
+		}
+	}
+}
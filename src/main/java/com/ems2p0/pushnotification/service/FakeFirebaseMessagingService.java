@@ -0,0 +1,117 @@
+package com.ems2p0.pushnotification.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.ems2p0.pushnotification.model.MulticastResult;
+import com.ems2p0.pushnotification.model.NotificationRequest;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - Offline stand-in for the firebase messaging service which only
+ * records the multicast requests handed over by the dispatch queue. Outages,
+ * transient token failures and rejected tokens can be simulated to exercise the
+ * retries without firebase.
+ *
+ * @author Mohan
+ * @category Push notification module
+ * @version v1.0.0
+ * @apiNote - Developer should be responsible to enable this service only for
+ *          local or offline environments by ems.push-notification.gateway=fake
+ */
+@Service
+@ConditionalOnProperty(name = "ems.push-notification.gateway", havingValue = "fake")
+@Slf4j
+public class FakeFirebaseMessagingService extends FirebaseMessagingService {
+
+	private final List<NotificationRequest> sentRequests = new CopyOnWriteArrayList<>();
+
+	private final AtomicInteger failingSends = new AtomicInteger();
+
+	private final Set<String> failingTokens = ConcurrentHashMap.newKeySet();
+
+	private final Set<String> rejectedTokens = ConcurrentHashMap.newKeySet();
+
+	private volatile CountDownLatch gate = new CountDownLatch(0);
+
+	/**
+	 * Method to record the multicast, every multicast is recorded even when it is
+	 * failed by a simulated outage
+	 */
+	@Override
+	public MulticastResult sendMessageToToken(NotificationRequest request) throws InterruptedException {
+		sentRequests.add(request);
+		gate.await();
+		if (failingSends.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+			throw new IllegalStateException("Simulated firebase outage");
+		}
+		int delivered = 0;
+		List<String> retryTokens = new ArrayList<>();
+		List<String> rejected = new ArrayList<>();
+		for (String token : request.getToken()) {
+			if (rejectedTokens.contains(token)) {
+				rejected.add(token);
+			} else if (failingTokens.remove(token)) {
+				retryTokens.add(token);
+			} else {
+				delivered++;
+			}
+		}
+		log.info("FakeFirebaseMessagingService : {} to {} devices", request.getTitle(), request.getToken().size());
+		return new MulticastResult(delivered, retryTokens, rejected);
+	}
+
+	/**
+	 * Method to fail the next multicasts as a whole
+	 */
+	public void failNextSends(int count) {
+		failingSends.set(count);
+	}
+
+	/**
+	 * Method to fail the tokens transiently on their next multicast only
+	 */
+	public void failTokensOnce(Collection<String> tokens) {
+		failingTokens.addAll(tokens);
+	}
+
+	/**
+	 * Method to reject the tokens on every multicast as unregistered devices
+	 */
+	public void rejectTokens(Collection<String> tokens) {
+		rejectedTokens.addAll(tokens);
+	}
+
+	/**
+	 * Method to hold the multicasts after they are recorded until release
+	 */
+	public void hold() {
+		gate = new CountDownLatch(1);
+	}
+
+	public void release() {
+		gate.countDown();
+	}
+
+	public List<NotificationRequest> getSentRequests() {
+		return List.copyOf(sentRequests);
+	}
+
+	public void clear() {
+		sentRequests.clear();
+		failingSends.set(0);
+		failingTokens.clear();
+		rejectedTokens.clear();
+		this.release();
+	}
+}
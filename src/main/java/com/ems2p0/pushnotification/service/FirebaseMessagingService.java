@@ -1,11 +1,14 @@
 package com.ems2p0.pushnotification.service;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import com.ems2p0.pushnotification.model.MulticastResult;
 import com.ems2p0.pushnotification.model.NotificationRequest;
 import com.google.firebase.messaging.AndroidConfig;
 import com.google.firebase.messaging.AndroidNotification;
@@ -14,6 +17,7 @@ import com.google.firebase.messaging.Aps;
 import com.google.firebase.messaging.FirebaseMessaging;
 import com.google.firebase.messaging.FirebaseMessagingException;
 import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.MessagingErrorCode;
 import com.google.firebase.messaging.MulticastMessage;
 import com.google.firebase.messaging.Notification;
 import com.google.firebase.messaging.SendResponse;
@@ -23,17 +27,48 @@ import com.google.gson.GsonBuilder;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
+@ConditionalOnProperty(name = "ems.push-notification.gateway", havingValue = "firebase", matchIfMissing = true)
 @Slf4j
 public class FirebaseMessagingService {
 
-	public void sendMessageToToken(NotificationRequest request)
+	/**
+	 * Method to send the notification to the device tokens by a single multicast,
+	 * the responses are in the order of the tokens
+	 *
+	 * @return outcome of the multicast per device token
+	 */
+	public MulticastResult sendMessageToToken(NotificationRequest request)
 			throws InterruptedException, ExecutionException, FirebaseMessagingException {
 //		Message message = getPreconfiguredMessageToToken(request);
 		MulticastMessage message = this.getPreconfiguredMulticastMessageToTokens(request, request.getToken());
 		Gson gson = new GsonBuilder().setPrettyPrinting().create();
 		String jsonOutput = gson.toJson(message);
-		List<SendResponse> response = sendAndGetResponse(message);
-		log.info("Sent message to token. Device token: " + request.getToken() + ", " + response + " msg " + jsonOutput);
+		List<SendResponse> responses = sendAndGetResponse(message);
+		int delivered = 0;
+		List<String> retryTokens = new ArrayList<>();
+		List<String> rejectedTokens = new ArrayList<>();
+		for (int index = 0; index < responses.size(); index++) {
+			SendResponse response = responses.get(index);
+			if (response.isSuccessful()) {
+				delivered++;
+			} else if (isPermanent(response.getException())) {
+				rejectedTokens.add(request.getToken().get(index));
+			} else {
+				retryTokens.add(request.getToken().get(index));
+			}
+		}
+		log.info("Sent message to {} devices, {} to retry, {} rejected, msg {}", delivered, retryTokens.size(),
+				rejectedTokens.size(), jsonOutput);
+		return new MulticastResult(delivered, retryTokens, rejectedTokens);
+	}
+
+	/**
+	 * Unregistered or malformed tokens fail the same way on every attempt
+	 */
+	private static boolean isPermanent(FirebaseMessagingException exception) {
+		MessagingErrorCode errorCode = exception == null ? null : exception.getMessagingErrorCode();
+		return errorCode == MessagingErrorCode.UNREGISTERED || errorCode == MessagingErrorCode.INVALID_ARGUMENT
+				|| errorCode == MessagingErrorCode.SENDER_ID_MISMATCH;
 	}
 
 	private List<SendResponse> sendAndGetResponse(MulticastMessage message)
@@ -0,0 +1,190 @@
+package com.ems2p0.pushnotification.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ems2p0.pushnotification.model.AuditBufferStats;
+import com.ems2p0.pushnotification.model.Notification;
+import com.ems2p0.pushnotification.repository.NotificationRepository;
+import com.ems2p0.utils.concurrent.WorkerThreads;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - Write-behind buffer for the notification audit records. The request
+ * threads only enqueue, a single flusher persists the buffered records in JDBC
+ * batches once the batch size is reached or the flush interval elapses. The
+ * buffer is flushed before shutdown.
+ *
+ * @author Mohan
+ * @category Push notification module
+ * @version v1.0.0
+ * @apiNote - Developer should be responsible to persist every notification
+ *          audit record through this buffer instead of saving it on the
+ *          request thread.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationAuditBuffer {
+
+	/**
+	 * Injected notification repository to persist the buffered records
+	 */
+	private final NotificationRepository notificationRepository;
+
+	/**
+	 * Injected worker thread factory to run the flusher on a virtual thread when
+	 * they are enabled
+	 */
+	private final WorkerThreads workerThreads;
+
+	@Value("${ems.notification-audit.capacity}")
+	private int capacity;
+
+	@Value("${ems.notification-audit.batch-size}")
+	private int batchSize;
+
+	private BlockingQueue<Notification> buffer;
+
+	private ExecutorService flusher;
+
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+	private final LongAdder buffered = new LongAdder();
+
+	private final LongAdder dropped = new LongAdder();
+
+	private final LongAdder persisted = new LongAdder();
+
+	private final LongAdder failed = new LongAdder();
+
+	private final LongAdder flushes = new LongAdder();
+
+	private final LongAdder flushNanos = new LongAdder();
+
+	private final AtomicLong lastFlushNanos = new AtomicLong();
+
+	private final AtomicInteger lastFlushSize = new AtomicInteger();
+
+	@PostConstruct
+	public void start() {
+		buffer = new ArrayBlockingQueue<>(capacity);
+		flusher = Executors.newSingleThreadExecutor(workerThreads.threadFactory("ems-audit-"));
+		log.info("NotificationAuditBuffer : start() - capacity {}, batch size {}", capacity, batchSize);
+	}
+
+	/**
+	 * Method to buffer the audit record without blocking the caller
+	 *
+	 * @return false when the buffer is full and the record is dropped
+	 */
+	public boolean append(Notification notification) {
+		if (!buffer.offer(notification)) {
+			dropped.increment();
+			log.error("NotificationAuditBuffer : append() - buffer is full, dropping : {}",
+					notification.getNotifyMessage());
+			return false;
+		}
+		buffered.increment();
+		if (buffer.size() >= batchSize) {
+			this.scheduleFlush();
+		}
+		return true;
+	}
+
+	/**
+	 * Method to buffer the audit records without blocking the caller
+	 */
+	public void appendAll(Collection<Notification> notifications) {
+		notifications.forEach(this::append);
+	}
+
+	/**
+	 * Method to persist the buffered records when the flush interval elapses
+	 */
+	@Scheduled(fixedDelayString = "${ems.notification-audit.flush-interval-ms}")
+	public void flushOnInterval() {
+		if (!buffer.isEmpty()) {
+			this.scheduleFlush();
+		}
+	}
+
+	/**
+	 * Method to fetch the write-behind buffer metrics
+	 */
+	public AuditBufferStats stats() {
+		long count = flushes.sum();
+		double averageMillis = count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(flushNanos.sum()) / 1000.0 / count;
+		return new AuditBufferStats(buffer.size(), capacity, buffered.sum(), dropped.sum(), persisted.sum(),
+				failed.sum(), count, averageMillis, TimeUnit.NANOSECONDS.toMillis(lastFlushNanos.get()),
+				lastFlushSize.get());
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		flusher.shutdown();
+		if (!flusher.awaitTermination(30, TimeUnit.SECONDS)) {
+			flusher.shutdownNow();
+		}
+		this.flush();
+		if (!buffer.isEmpty()) {
+			log.warn("NotificationAuditBuffer : shutdown() - {} audit records were not persisted", buffer.size());
+		}
+	}
+
+	private void scheduleFlush() {
+		if (flushScheduled.compareAndSet(false, true)) {
+			try {
+				flusher.execute(() -> {
+					flushScheduled.set(false);
+					this.flush();
+				});
+			} catch (RuntimeException e) {
+				flushScheduled.set(false);
+				log.warn("NotificationAuditBuffer : scheduleFlush() - {}", e.toString());
+			}
+		}
+	}
+
+	/**
+	 * Method to drain the buffer in batches of the configured size
+	 */
+	private void flush() {
+		List<Notification> batch = new ArrayList<>(batchSize);
+		while (buffer.drainTo(batch, batchSize) > 0) {
+			long startNanos = System.nanoTime();
+			try {
+				notificationRepository.saveAll(batch);
+				persisted.add(batch.size());
+			} catch (RuntimeException e) {
+				failed.add(batch.size());
+				log.error("NotificationAuditBuffer : flush() - {} audit records were not persisted : {}",
+						batch.size(), e.toString());
+			}
+			long nanos = System.nanoTime() - startNanos;
+			flushes.increment();
+			flushNanos.add(nanos);
+			lastFlushNanos.set(nanos);
+			lastFlushSize.set(batch.size());
+			batch.clear();
+		}
+	}
+}
@@ -0,0 +1,413 @@
+package com.ems2p0.pushnotification.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.lang3.ObjectUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.ems2p0.pushnotification.model.DispatchStats;
+import com.ems2p0.pushnotification.model.MulticastResult;
+import com.ems2p0.pushnotification.model.NotificationRequest;
+import com.ems2p0.pushnotification.model.PendingPushNotification;
+import com.ems2p0.pushnotification.repository.PendingPushNotificationRepository;
+import com.ems2p0.utils.concurrent.WorkerThreads;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - Bounded dispatch queue for the push notifications backed by the
+ * push_notification_outbox table. The request threads only record and enqueue,
+ * the worker threads coalesce the identical notifications of a drain into one
+ * multicast, split it by the FCM multicast limit and send it. The devices which
+ * failed transiently are retried with back off from a delay queue by a separate
+ * retry thread, so a failing notification never holds the ones queued behind
+ * it. The queue is drained before shutdown and the pending retries are resumed
+ * from the outbox on the next start.
+ *
+ * @author Mohan
+ * @category Push notification module
+ * @version v1.0.0
+ * @apiNote - Developer should be responsible to send every push notification
+ *          through this queue instead of calling firebase on the request
+ *          thread. The outbox is resumed by every instance which starts, run a
+ *          single instance per database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDispatcher {
+
+	/**
+	 * Maximum number of device tokens accepted by a single FCM multicast
+	 */
+	private static final int FCM_MULTICAST_LIMIT = 500;
+
+	private static final String TOKEN_SEPARATOR = ",";
+
+	/**
+	 * Injected firebase messaging service to deliver the notifications
+	 */
+	private final FirebaseMessagingService firebaseMessagingService;
+
+	/**
+	 * Injected outbox repository to keep the undelivered notifications across
+	 * restarts
+	 */
+	private final PendingPushNotificationRepository pendingPushNotificationRepository;
+
+	/**
+	 * Injected worker thread factory to run the senders on virtual threads when
+	 * they are enabled
+	 */
+	private final WorkerThreads workerThreads;
+
+	@Value("${ems.push-notification.dispatch.capacity}")
+	private int capacity;
+
+	@Value("${ems.push-notification.dispatch.workers}")
+	private int workerCount;
+
+	@Value("${ems.push-notification.dispatch.drain-size}")
+	private int drainSize;
+
+	@Value("${ems.push-notification.dispatch.max-attempts}")
+	private int maxAttempts;
+
+	@Value("${ems.push-notification.dispatch.backoff-ms}")
+	private long backoffMillis;
+
+	@Value("${ems.push-notification.dispatch.coalesce}")
+	private boolean coalesce;
+
+	private BlockingQueue<PendingSend> queue;
+
+	private final DelayQueue<PendingSend> retryQueue = new DelayQueue<>();
+
+	private ExecutorService workers;
+
+	private ExecutorService retryWorker;
+
+	private volatile boolean running;
+
+	private final LongAdder enqueued = new LongAdder();
+
+	private final LongAdder coalesced = new LongAdder();
+
+	private final LongAdder dropped = new LongAdder();
+
+	private final LongAdder resumed = new LongAdder();
+
+	private final LongAdder sent = new LongAdder();
+
+	private final LongAdder failed = new LongAdder();
+
+	private final LongAdder retried = new LongAdder();
+
+	private final LongAdder rejectedTokens = new LongAdder();
+
+	private final LongAdder sendCount = new LongAdder();
+
+	private final LongAdder sendNanos = new LongAdder();
+
+	private final AtomicLong lastSendNanos = new AtomicLong();
+
+	@PostConstruct
+	public void start() {
+		queue = new ArrayBlockingQueue<>(capacity);
+		running = true;
+		this.resumePending();
+		workers = Executors.newFixedThreadPool(workerCount, workerThreads.threadFactory("ems-push-"));
+		for (int worker = 0; worker < workerCount; worker++) {
+			workers.execute(this::drainLoop);
+		}
+		retryWorker = Executors.newSingleThreadExecutor(workerThreads.threadFactory("ems-push-retry-"));
+		retryWorker.execute(this::retryLoop);
+		log.info("NotificationDispatcher : start() - {} workers, capacity {}, {} resumed", workerCount, capacity,
+				resumed.sum());
+	}
+
+	/**
+	 * Method to record the notification in the outbox and enqueue it without
+	 * waiting for firebase
+	 *
+	 * @return false when the notification has no recipients or the queue is full
+	 */
+	public boolean dispatch(NotificationRequest request) {
+		if (ObjectUtils.isEmpty(request.getToken())) {
+			log.info("NotificationDispatcher : dispatch() - no device tokens for : {}", request.getTitle());
+			return false;
+		}
+		if (queue.remainingCapacity() == 0) {
+			return this.drop(request);
+		}
+		List<Long> outboxIds = this.persist(request, 1, System.currentTimeMillis());
+		if (!queue.offer(new PendingSend(outboxIds, request, 1, System.nanoTime()))) {
+			this.forget(outboxIds);
+			return this.drop(request);
+		}
+		enqueued.increment();
+		return true;
+	}
+
+	/**
+	 * Method to fetch the dispatch queue metrics
+	 */
+	public DispatchStats stats() {
+		long count = sendCount.sum();
+		double averageMillis = count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(sendNanos.sum()) / 1000.0 / count;
+		return new DispatchStats(queue.size(), capacity, retryQueue.size(), enqueued.sum(), coalesced.sum(),
+				dropped.sum(), resumed.sum(), sent.sum(), failed.sum(), retried.sum(), rejectedTokens.sum(),
+				averageMillis, TimeUnit.NANOSECONDS.toMillis(lastSendNanos.get()));
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		running = false;
+		workers.shutdown();
+		retryWorker.shutdown();
+		if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+			log.warn("NotificationDispatcher : shutdown() - {} notifications were not sent", queue.size());
+			workers.shutdownNow();
+		}
+		if (!retryWorker.awaitTermination(30, TimeUnit.SECONDS)) {
+			retryWorker.shutdownNow();
+		}
+		log.info("NotificationDispatcher : shutdown() - {} retries are left in the outbox", retryQueue.size());
+	}
+
+	private boolean drop(NotificationRequest request) {
+		dropped.increment();
+		log.error("NotificationDispatcher : dispatch() - queue is full, dropping : {}", request.getTitle());
+		return false;
+	}
+
+	/**
+	 * Method to schedule the notifications left in the outbox by the previous run
+	 */
+	private void resumePending() {
+		try {
+			long nowMillis = System.currentTimeMillis();
+			for (PendingPushNotification pending : pendingPushNotificationRepository.findAll()) {
+				NotificationRequest request = new NotificationRequest().setTitle(pending.getTitle())
+						.setMessage(pending.getMessage()).setTopic(pending.getTopic())
+						.setToken(Arrays.asList(pending.getTokens().split(TOKEN_SEPARATOR)));
+				long delayMillis = Math.max(0, pending.getNextAttemptAtMillis() - nowMillis);
+				retryQueue.add(new PendingSend(List.of(pending.getId()), request, pending.getAttempt(),
+						System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis)));
+				resumed.increment();
+			}
+		} catch (DataAccessException e) {
+			log.error("NotificationDispatcher : resumePending() - unable to read the outbox : {}", e.toString());
+		}
+	}
+
+	private void drainLoop() {
+		while (running || !queue.isEmpty()) {
+			try {
+				PendingSend first = queue.poll(1, TimeUnit.SECONDS);
+				if (first == null) {
+					continue;
+				}
+				List<PendingSend> batch = new ArrayList<>();
+				batch.add(first);
+				queue.drainTo(batch, drainSize - 1);
+				this.coalesce(batch).forEach(this::send);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				log.error("NotificationDispatcher : drainLoop() - {}", e.toString());
+			}
+		}
+	}
+
+	private void retryLoop() {
+		while (running) {
+			try {
+				PendingSend due = retryQueue.poll(1, TimeUnit.SECONDS);
+				if (due != null) {
+					this.send(due);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				log.error("NotificationDispatcher : retryLoop() - {}", e.toString());
+			}
+		}
+	}
+
+	/**
+	 * Method to merge the pending notifications of the same title, message and
+	 * topic into a single notification to all of their devices, the notifications
+	 * which differ are sent as they are
+	 */
+	private List<PendingSend> coalesce(List<PendingSend> batch) {
+		if (!coalesce || batch.size() == 1) {
+			return batch;
+		}
+		Map<Payload, List<PendingSend>> byPayload = batch.stream()
+				.collect(Collectors.groupingBy(pending -> Payload.of(pending.request()), LinkedHashMap::new,
+						Collectors.toList()));
+		List<PendingSend> merged = new ArrayList<>(byPayload.size());
+		byPayload.forEach((payload, sends) -> {
+			if (sends.size() == 1) {
+				merged.add(sends.get(0));
+				return;
+			}
+			coalesced.add(sends.size() - 1);
+			Set<String> tokens = new LinkedHashSet<>();
+			sends.forEach(pending -> tokens.addAll(pending.request().getToken()));
+			List<Long> outboxIds = sends.stream().flatMap(pending -> pending.outboxIds().stream()).toList();
+			merged.add(new PendingSend(outboxIds, payload.toRequest(new ArrayList<>(tokens)), 1, System.nanoTime()));
+		});
+		return merged;
+	}
+
+	/**
+	 * Method to send the notification by the FCM multicast limit and to collect
+	 * the devices which are to be retried
+	 */
+	private void send(PendingSend pending) {
+		NotificationRequest request = pending.request();
+		List<String> tokens = request.getToken().stream().distinct().toList();
+		List<String> retryTokens = new ArrayList<>();
+		for (List<String> chunk : ListUtils.partition(tokens, FCM_MULTICAST_LIMIT)) {
+			NotificationRequest chunkRequest = Payload.of(request).toRequest(chunk);
+			long startNanos = System.nanoTime();
+			try {
+				MulticastResult result = firebaseMessagingService.sendMessageToToken(chunkRequest);
+				this.recordLatency(System.nanoTime() - startNanos);
+				retryTokens.addAll(result.retryTokens());
+				rejectedTokens.add(result.rejectedTokens().size());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				retryTokens.addAll(chunk);
+			} catch (Exception e) {
+				this.recordLatency(System.nanoTime() - startNanos);
+				log.warn("NotificationDispatcher : send() - attempt {} of {} failed : {}", pending.attempt(),
+						request.getTitle(), e.toString());
+				retryTokens.addAll(chunk);
+			}
+		}
+		this.complete(pending, retryTokens);
+	}
+
+	/**
+	 * Method to settle the attempt, the devices which failed transiently are
+	 * recorded and scheduled for the next attempt after the back off
+	 */
+	private void complete(PendingSend pending, List<String> retryTokens) {
+		if (retryTokens.isEmpty()) {
+			sent.increment();
+			this.forget(pending.outboxIds());
+			return;
+		}
+		if (pending.attempt() >= maxAttempts) {
+			failed.increment();
+			log.error("NotificationDispatcher : send() - giving up on {} devices of {} after {} attempts",
+					retryTokens.size(), pending.request().getTitle(), pending.attempt());
+			this.forget(pending.outboxIds());
+			return;
+		}
+		retried.increment();
+		long delayMillis = backoffMillis << (pending.attempt() - 1);
+		NotificationRequest retryRequest = Payload.of(pending.request()).toRequest(retryTokens);
+		List<Long> outboxIds = this.persist(retryRequest, pending.attempt() + 1,
+				System.currentTimeMillis() + delayMillis);
+		this.forget(pending.outboxIds());
+		retryQueue.add(new PendingSend(outboxIds, retryRequest, pending.attempt() + 1,
+				System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis)));
+	}
+
+	/**
+	 * Method to record the notification in the outbox, the notification is still
+	 * sent from memory when the outbox can not be written
+	 */
+	private List<Long> persist(NotificationRequest request, int attempt, long nextAttemptAtMillis) {
+		try {
+			PendingPushNotification pending = pendingPushNotificationRepository.save(new PendingPushNotification()
+					.setTitle(request.getTitle()).setMessage(request.getMessage()).setTopic(request.getTopic())
+					.setTokens(String.join(TOKEN_SEPARATOR, request.getToken())).setAttempt(attempt)
+					.setNextAttemptAtMillis(nextAttemptAtMillis).setCreatedDateTime(LocalDateTime.now()));
+			return List.of(pending.getId());
+		} catch (DataAccessException e) {
+			log.error("NotificationDispatcher : persist() - unable to record {} in the outbox : {}",
+					request.getTitle(), e.toString());
+			return List.of();
+		}
+	}
+
+	private void forget(List<Long> outboxIds) {
+		if (outboxIds.isEmpty()) {
+			return;
+		}
+		try {
+			pendingPushNotificationRepository.deleteAllByIdInBatch(outboxIds);
+		} catch (DataAccessException e) {
+			log.error("NotificationDispatcher : forget() - unable to clear the outbox {} : {}", outboxIds,
+					e.toString());
+		}
+	}
+
+	private void recordLatency(long nanos) {
+		sendCount.increment();
+		sendNanos.add(nanos);
+		lastSendNanos.set(nanos);
+	}
+
+	/**
+	 * Content of a notification which decides whether two notifications are the
+	 * same for the devices
+	 */
+	private record Payload(String title, String message, String topic) {
+
+		static Payload of(NotificationRequest request) {
+			return new Payload(request.getTitle(), request.getMessage(), request.getTopic());
+		}
+
+		NotificationRequest toRequest(List<String> tokens) {
+			return new NotificationRequest().setTitle(title).setMessage(message).setTopic(topic).setToken(tokens);
+		}
+	}
+
+	/**
+	 * Notification waiting for its attempt with the outbox rows which hold it
+	 */
+	private record PendingSend(List<Long> outboxIds, NotificationRequest request, int attempt, long dueAtNanos)
+			implements Delayed {
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(dueAtNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return Long.compare(this.getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+		}
+	}
+}
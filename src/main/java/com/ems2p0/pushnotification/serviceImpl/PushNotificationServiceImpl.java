@@ -6,7 +6,7 @@ import com.ems2p0.dao.service.EmsDaoService;
 import com.ems2p0.model.UserDetails;
 import com.ems2p0.pushnotification.model.NotificationRequest;
 import com.ems2p0.pushnotification.requestdto.UserDetailsRequest;
-import com.ems2p0.pushnotification.service.FirebaseMessagingService;
+import com.ems2p0.pushnotification.service.NotificationDispatcher;
 import com.ems2p0.pushnotification.service.PushNotificationService;
 import com.ems2p0.security.multi_factor.MultifactorAuthenticator;
 
@@ -22,7 +22,7 @@ public class PushNotificationServiceImpl implements PushNotificationService {
 
 	private final MultifactorAuthenticator multifactorAuthenticator;
 
-	private final FirebaseMessagingService firebaseMessagingService;
+	private final NotificationDispatcher notificationDispatcher;
 
 	@Override
 	public boolean saveUserDeviceTokens(UserDetailsRequest request) {
@@ -40,12 +40,7 @@ public class PushNotificationServiceImpl implements PushNotificationService {
 
 	@Override
 	public void sendNotification(NotificationRequest request) {
-		try {
-			firebaseMessagingService.sendMessageToToken(request);
-		} catch (Exception e) {
-			log.error(e.getMessage());
-		}
-
+		notificationDispatcher.dispatch(request);
 	}
 
 }
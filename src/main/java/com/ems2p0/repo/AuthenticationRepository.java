@@ -6,6 +6,8 @@ import com.ems2p0.model.UserDetails;
 import com.ems2p0.projections.EmployeeProjection;
 import com.ems2p0.projections.UserProjection;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -31,4 +33,10 @@ public interface AuthenticationRepository extends JpaRepository<UserDetails, Lon
     @Query(value = "select em.empId,em.empSerialNo,em.userName,em.empName,em.userName,em.emailId from emp_mgmt em where em.emailId= :emailId", nativeQuery = true)
     Optional<EmployeeProjection> findEmployeeByEmailId(@Param("emailId") String emailId);
 
+    @Query(value = "select em.empId,em.empSerialNo,em.empName,em.userName,em.emailId from emp_mgmt em where em.empId= :empId", nativeQuery = true)
+    Optional<EmployeeProjection> findEmployeeByEmpId(@Param("empId") Integer empId);
+
+    @Query(value = "select em.empId,em.empSerialNo,em.empName,em.userName,em.emailId from emp_mgmt em where em.userName in (:userNames)", nativeQuery = true)
+    List<EmployeeProjection> findEmployeesByUserNames(@Param("userNames") Collection<String> userNames);
+
 }
@@ -0,0 +1,17 @@
+package com.ems2p0.repo;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ems2p0.model.CompanyHoliday;
+
+public interface CompanyHolidayRepo extends JpaRepository<CompanyHoliday, Integer> {
+
+	@Query("SELECT h.holidayDate FROM company_holiday h WHERE h.holidayDate BETWEEN :fromDate AND :toDate")
+	List<LocalDate> findHolidayDatesBetween(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+}
@@ -1,7 +1,6 @@
 package com.ems2p0.repo;
 
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,10 +10,9 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.data.repository.query.Param;
 
 import com.ems2p0.model.EmployeeAttendance;
+import com.ems2p0.projections.TimesheetProjection;
 import com.ems2p0.projections.WorktypeProjections;
 
-import jakarta.transaction.Transactional;
-
 @EnableJpaRepositories
 public interface EmployeeAttendanceRepo extends JpaRepository<EmployeeAttendance, Integer> {
 
@@ -23,25 +21,38 @@ public interface EmployeeAttendanceRepo extends JpaRepository<EmployeeAttendance
 
 	EmployeeAttendance findByEmpidAndRegisterid(String empId, Integer last_Id);
 
-	@Query(value = "SELECT * FROM empattendance WHERE name = :userName ORDER BY indate DESC, intime DESC LIMIT 1 ;", nativeQuery = true)
+	@Query(value = "SELECT * FROM empattendance WHERE name = :userName ORDER BY registerid DESC LIMIT 1", nativeQuery = true)
 	EmployeeAttendance findByCheckInRecordByNames(@Param("userName") String userName);
-	
-
-	 @Transactional 
-		@Modifying
-		@Query(value = "UPDATE empattendance SET outtime = :currentTime , outdate = :currentDate WHERE outtime IS NULL AND outdate IS NULL\r\n"
-				+ "AND intime IS NOT NULL AND indate IS NOT NULL;", nativeQuery=true)
-		 void saveAutoLogoutDetails(@Param("currentTime") LocalTime currentTime,@Param ("currentDate") LocalDate currentDate); 
-
-	    
-	    @Transactional
-		@Modifying
-	    @Query(value = "UPDATE emp_permission_details SET permission_status = '0' WHERE permission_status = '2' "
-	    		+ "AND date = DATE(NOW());", nativeQuery=true) 
-		void saveApproveDetails();
-
-
-	
-	
 
-} 
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(value = "UPDATE empattendance SET outdate = :#{#checkOut.outdate}, out_date = :#{#checkOut.outDate}, "
+			+ "outtime = :#{#checkOut.outtime}, workinghours = :#{#checkOut.workinghours}, "
+			+ "totalworkinghours = :#{#checkOut.totalworkinghours}, "
+			+ "locationOut = :#{#checkOut.locationOut}, workingIn = :#{#checkOut.workingIn} "
+			+ "WHERE registerid = :#{#checkOut.registerid} AND empid = :#{#checkOut.empid} AND outtime IS NULL",
+			nativeQuery = true)
+	int closeCheckIn(@Param("checkOut") EmployeeAttendance checkOut);
+
+	/**
+	 * Daily attendance of the employees in the range, each employee is followed by
+	 * the rollup of the whole range (work date is null) and the scope filters are
+	 * ignored when they are empty
+	 */
+	@Query(value = "SELECT ea.name AS userName, MAX(ea.empid) AS empId, "
+			+ "DATE_FORMAT(ea.in_date, '%Y-%m-%d') AS workDate, COUNT(*) AS sessions, "
+			+ "COALESCE(SUM(ea.workinghours), 0) AS workingHours, "
+			+ "COALESCE(SUM(ea.totalworkinghours), 0) AS totalWorkingHours, "
+			+ "COALESCE(SUM(TIME_TO_SEC(ea.overtime)), 0) DIV 60 AS overtimeMinutes, "
+			+ "COALESCE(SUM(TIME_TO_SEC(ea.permission)), 0) DIV 60 AS permissionMinutes, "
+			+ "GROUP_CONCAT(DISTINCT ea.workingIn ORDER BY ea.workingIn) AS workTypes "
+			+ "FROM empattendance ea "
+			+ "INNER JOIN user_credential uc ON uc.userName = ea.name "
+			+ "INNER JOIN emp_role_mgmt erm ON erm.id = uc.employeeRoleManagement_id "
+			+ "WHERE ea.in_date BETWEEN :fromDate AND :toDate "
+			+ "AND (COALESCE(:departmentName, '') = '' OR erm.dept_name = :departmentName) "
+			+ "AND (COALESCE(:userName, '') = '' OR ea.name = :userName) "
+			+ "GROUP BY ea.name, ea.in_date WITH ROLLUP", nativeQuery = true)
+	List<TimesheetProjection> fetchTimesheet(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate,
+			@Param("departmentName") String departmentName, @Param("userName") String userName);
+
+}
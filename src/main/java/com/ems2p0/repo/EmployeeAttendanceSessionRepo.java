@@ -0,0 +1,49 @@
+package com.ems2p0.repo;
+
+import java.time.LocalTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ems2p0.model.EmployeeAttendanceSession;
+
+public interface EmployeeAttendanceSessionRepo extends JpaRepository<EmployeeAttendanceSession, String> {
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(value = "INSERT INTO emp_attendance_session (user_name, empid, registerid, indate, intime, outdate, outtime, "
+			+ "location_in, working_in, permission, overtime, is_open) VALUES (:#{#session.userName}, "
+			+ ":#{#session.empid}, :#{#session.registerid}, :#{#session.indate}, :#{#session.intime}, "
+			+ ":#{#session.outdate}, :#{#session.outtime}, :#{#session.locationIn}, :#{#session.workingIn}, "
+			+ ":#{#session.permission}, :#{#session.overtime}, :#{#session.open}) ON DUPLICATE KEY UPDATE "
+			+ "empid = VALUES(empid), registerid = VALUES(registerid), indate = VALUES(indate), "
+			+ "intime = VALUES(intime), outdate = VALUES(outdate), outtime = VALUES(outtime), "
+			+ "location_in = VALUES(location_in), working_in = VALUES(working_in), "
+			+ "permission = VALUES(permission), overtime = VALUES(overtime), is_open = VALUES(is_open)",
+			nativeQuery = true)
+	int upsert(@Param("session") EmployeeAttendanceSession session);
+
+	/**
+	 * Seeds the session unless the employee has one, a session opened meanwhile
+	 * by a check-in is never overwritten
+	 */
+	@Transactional
+	@Modifying
+	@Query(value = "INSERT IGNORE INTO emp_attendance_session (user_name, empid, registerid, indate, intime, "
+			+ "outdate, outtime, location_in, working_in, permission, overtime, is_open) VALUES "
+			+ "(:#{#session.userName}, :#{#session.empid}, :#{#session.registerid}, :#{#session.indate}, "
+			+ ":#{#session.intime}, :#{#session.outdate}, :#{#session.outtime}, :#{#session.locationIn}, "
+			+ ":#{#session.workingIn}, :#{#session.permission}, :#{#session.overtime}, :#{#session.open})",
+			nativeQuery = true)
+	int insertIfAbsent(@Param("session") EmployeeAttendanceSession session);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(value = "UPDATE emp_attendance_session SET outdate = :outdate, outtime = :outtime, "
+			+ "working_in = :workingIn, is_open = false WHERE user_name = :userName AND registerid = :registerid "
+			+ "AND is_open = true", nativeQuery = true)
+	int close(@Param("userName") String userName, @Param("registerid") Integer registerid,
+			@Param("outdate") String outdate, @Param("outtime") LocalTime outtime,
+			@Param("workingIn") String workingIn);
+}
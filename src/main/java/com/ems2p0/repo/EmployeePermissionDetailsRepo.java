@@ -1,12 +1,21 @@
 package com.ems2p0.repo;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.data.repository.query.Param;
 
@@ -15,10 +24,20 @@ import com.ems2p0.model.EmployeePermissionDetails;
 import com.ems2p0.model.UserDetails;
 import com.ems2p0.projections.EmployeeProjection;
 import com.ems2p0.projections.PermissionProjections;
+import com.ems2p0.projections.QuotaUsageProjection;
+import com.ems2p0.projections.ReportKeyProjection;
+import com.ems2p0.utils.Ems2p0Constants;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 @EnableJpaRepositories
 public interface EmployeePermissionDetailsRepo extends JpaRepository<EmployeePermissionDetails, Long> {
 
+	@Override
+	@EntityGraph(EmployeePermissionDetails.REPORT_GRAPH)
+	Optional<EmployeePermissionDetails> findById(Long id);
+
 
 
 	@Query(value = """
@@ -41,10 +60,15 @@ public interface EmployeePermissionDetailsRepo extends JpaRepository<EmployeePer
             WHERE 
                 epd.userCredentialEmp_id = :empId
                 AND epd.created_date_time >= DATE_SUB(NOW(), INTERVAL 6 MONTH) 
+                AND (epd.created_date_time < :cursorTime
+                     OR (epd.created_date_time = :cursorTime AND epd.id < :cursorId))
             ORDER BY 
-                epd.created_date_time DESC;
+                epd.created_date_time DESC, epd.id DESC
+            LIMIT :limit
         """, nativeQuery = true)
-	List<EmployeePermissionDetails> findPermissionDetByEmployee(@Param("empId") Integer empId);
+	List<EmployeePermissionDetails> findPermissionDetByEmployee(@Param("empId") Integer empId,
+			@Param("cursorTime") LocalDateTime cursorTime, @Param("cursorId") long cursorId, @Param("limit") int limit);
+
 	@Query(value = """
 		    SELECT
 		        ep.id, 
@@ -54,6 +78,7 @@ public interface EmployeePermissionDetailsRepo extends JpaRepository<EmployeePer
 		        ep.end_time, 
 		        ep.permission_reason,
 		        ep.permission_status, 
+		        ep.created_date_time AS createdDateTime,
 		        em.empSerialNo, 
 		        em.userName
 		    FROM 
@@ -63,12 +88,16 @@ public interface EmployeePermissionDetailsRepo extends JpaRepository<EmployeePer
 		    ON
 		        ep.userCredentialEmp_id = em.empId
 		    WHERE 
-		        em.empId IN (:employeeIds)
+		        ep.userCredentialEmp_id IN (:employeeIds)
+		        AND (ep.created_date_time < :cursorTime
+		             OR (ep.created_date_time = :cursorTime AND ep.id < :cursorId))
 		    ORDER BY 
-		        ep.created_date_time DESC
+		        ep.created_date_time DESC, ep.id DESC
+		    LIMIT :limit
 		    """, nativeQuery = true)
 
-	List<PermissionProjections> findAllByEmpIds(@Param("employeeIds") List<?> employeeIds);       
+	List<PermissionProjections> findAllByEmpIds(@Param("employeeIds") List<?> employeeIds,
+			@Param("cursorTime") LocalDateTime cursorTime, @Param("cursorId") long cursorId, @Param("limit") int limit);
 
 	@Query(value = """
             SELECT
@@ -89,17 +118,125 @@ public interface EmployeePermissionDetailsRepo extends JpaRepository<EmployeePer
                  emp_permission_details epd
             WHERE 
                  epd.created_date_time >= DATE_SUB(NOW(), INTERVAL 2 MONTH)
+                 AND (epd.created_date_time < :cursorTime
+                      OR (epd.created_date_time = :cursorTime AND epd.id < :cursorId))
             ORDER BY 
-                 epd.created_date_time DESC
+                 epd.created_date_time DESC, epd.id DESC
+            LIMIT :limit
             """, nativeQuery = true)
 
-	List<EmployeePermissionDetails> findAllEmployeesByPermissionDetails();
+	List<EmployeePermissionDetails> findAllEmployeesByPermissionDetails(@Param("cursorTime") LocalDateTime cursorTime,
+			@Param("cursorId") long cursorId, @Param("limit") int limit);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Ems2p0Constants.REPORT_STREAM_FETCH_SIZE))
+	@Query(value = """
+			SELECT
+			     ep.id,
+			     ep.month,
+			     ep.date,
+			     ep.start_time,
+			     ep.end_time,
+			     ep.permission_reason,
+			     ep.permission_status,
+			     em.empSerialNo,
+			     em.userName
+			FROM
+			     emp_permission_details ep
+			INNER JOIN
+			     emp_mgmt em
+			ON
+			     ep.userCredentialEmp_id = em.empId
+			WHERE
+			     ep.created_date_time >= DATE_SUB(NOW(), INTERVAL 2 MONTH)
+			ORDER BY
+			     ep.created_date_time DESC
+			""", nativeQuery = true)
+	Stream<PermissionProjections> streamAllEmployeesPermissionReports();
+
+	@Query(value = """
+			SELECT DISTINCT
+			     em.userName AS userName,
+			     ep.month AS month
+			FROM
+			     emp_permission_details ep
+			INNER JOIN
+			     emp_mgmt em
+			ON
+			     ep.userCredentialEmp_id = em.empId
+			WHERE
+			     ep.created_date_time >= DATE_SUB(NOW(), INTERVAL 2 MONTH)
+			""", nativeQuery = true)
+	List<ReportKeyProjection> findAllEmployeesPermissionReportKeys();
 
 	@Query(value = "select em.empSerialNo, em.empName from emp_mgmt em", nativeQuery = true)
 	List<EmployeeProjection> findAllEmpNameAndId();
 
+	@EntityGraph(EmployeePermissionDetails.REPORT_GRAPH)
 	EmployeePermissionDetails findByUserDetailsAndStartTimeAndDateAndStatus(UserDetails existEmployee,
 			LocalTime localTime, LocalDate date, Ems2p0Status status);
 
+    @EntityGraph(EmployeePermissionDetails.REPORT_GRAPH)
     Optional<EmployeePermissionDetails> findByIdAndUserDetails(long id,UserDetails existsEmployeeData);
+
+	/**
+	 * Loads the permissions of a bulk status update with their employee and role
+	 * for the validation and the notifications in a single query
+	 */
+	@EntityGraph(attributePaths = { "userDetails", "userDetails.employeeRoleManagement" })
+	List<EmployeePermissionDetails> findByIdIn(Collection<Integer> ids);
+
+	/**
+	 * Locks the permissions of an auto approval chunk which are still in the
+	 * given status, the rows changed meanwhile are skipped
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@EntityGraph(attributePaths = { "userDetails", "userDetails.employeeRoleManagement" })
+	List<EmployeePermissionDetails> findByIdInAndStatus(Collection<Integer> ids, Ems2p0Status status);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+			UPDATE emp_permission_details epd
+			SET
+			     epd.status = :status,
+			     epd.modifiedBy = :modifiedBy,
+			     epd.modifiedDateTime = :modifiedDateTime
+			WHERE
+			     epd.id IN :ids
+			""")
+	int updateStatusByIdIn(@Param("ids") Collection<Integer> ids, @Param("status") Ems2p0Status status,
+			@Param("modifiedBy") String modifiedBy, @Param("modifiedDateTime") LocalDateTime modifiedDateTime);
+
+	/**
+	 * Minutes held by approved and pending requests, the source of truth a ledger
+	 * rebuild reconciles the running balance against
+	 */
+	@Query(value = """
+            SELECT
+                 epd.userCredentialEmp_id AS empId,
+                 epd.month AS month,
+                 COALESCE(SUM(TIME_TO_SEC(epd.end_time) - TIME_TO_SEC(epd.start_time)), 0) / 60 AS taken
+            FROM
+                 emp_permission_details epd
+            WHERE
+                 epd.permission_status IN (0, 2)
+            GROUP BY
+                 epd.userCredentialEmp_id, epd.month
+            """, nativeQuery = true)
+	List<QuotaUsageProjection> findActiveUsage();
+
+	@Query(value = """
+            SELECT
+                 epd.userCredentialEmp_id AS empId,
+                 epd.month AS month,
+                 COALESCE(SUM(TIME_TO_SEC(epd.end_time) - TIME_TO_SEC(epd.start_time)), 0) / 60 AS taken
+            FROM
+                 emp_permission_details epd
+            WHERE
+                 epd.permission_status IN (0, 2)
+                 AND epd.userCredentialEmp_id = :empId
+                 AND epd.month = :month
+            GROUP BY
+                 epd.userCredentialEmp_id, epd.month
+            """, nativeQuery = true)
+	Optional<QuotaUsageProjection> findActiveUsage(@Param("empId") Integer empId, @Param("month") String month);
 }
@@ -1,28 +1,135 @@
 package com.ems2p0.repo;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.data.repository.query.Param;
 
 import com.ems2p0.model.EmployeePermissionStats;
 import com.ems2p0.model.UserDetails;
+import com.ems2p0.projections.PermissionReportStatsProjection;
 import com.ems2p0.projections.PermissionStatsProjection;
+import com.ems2p0.projections.QuotaBalanceProjection;
+import com.ems2p0.projections.QuotaUsageProjection;
 import com.ems2p0.projections.WorkFromHomeProjectionStats;
 
 @EnableJpaRepositories
 public interface EmployeePermissionStatsRepo extends JpaRepository<EmployeePermissionStats, Long> {
 
-    Optional<EmployeePermissionStats> findByUserDetailsAndMonth(UserDetails existsEmployeeData, String month);
+    @EntityGraph(EmployeePermissionStats.STATS_VIEW_GRAPH)
+    Optional<EmployeePermissionStats> findByUserDetailsEmpIdAndMonth(Integer empId, String month);
 
+    @EntityGraph(EmployeePermissionStats.STATS_VIEW_GRAPH)
     List<EmployeePermissionStats> findByUserDetails(UserDetails userDetails);
 
     @Query(value = "SELECT eps.overduePermission,eps.hoursTaken FROM emp_permission_statistics eps JOIN user_credential uc ON\r\n"
             + "uc.empId = eps.empId WHERE uc.userName = :userName AND month= :month ;", nativeQuery = true) 
     PermissionStatsProjection findOverDueAndHoursTakenByUserDetailsAndMonth(@Param("userName") String userName, @Param("month") String month);
+
+    @Query(value = """
+            SELECT
+                 uc.userName,
+                 eps.month,
+                 eps.overduePermission,
+                 eps.hoursTaken
+            FROM
+                 emp_permission_statistics eps
+            INNER JOIN
+                 user_credential uc
+            ON
+                 uc.empId = eps.empId
+            WHERE
+                 uc.userName IN (:userNames)
+                 AND eps.month IN (:months)
+            """, nativeQuery = true)
+    List<PermissionReportStatsProjection> findByUserNamesAndMonths(@Param("userNames") Collection<String> userNames,
+            @Param("months") Collection<String> months);
+
+    /**
+     * Applies a delta in seconds to the running balance in a single statement,
+     * hoursTaken is assigned first and the remaining and overdue time are derived
+     * from its new value only
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE emp_permission_statistics eps
+            SET
+                 eps.hoursTaken = SEC_TO_TIME(GREATEST(0, COALESCE(TIME_TO_SEC(eps.hoursTaken), 0) + :deltaSeconds)),
+                 eps.remainingPermission = SEC_TO_TIME(GREATEST(0, COALESCE(TIME_TO_SEC(eps.totalPermission), :allowanceSeconds)
+                     - TIME_TO_SEC(eps.hoursTaken))),
+                 eps.overduePermission = SEC_TO_TIME(GREATEST(0, TIME_TO_SEC(eps.hoursTaken)
+                     - COALESCE(TIME_TO_SEC(eps.totalPermission), :allowanceSeconds)))
+            WHERE
+                 eps.empId = :empId
+                 AND eps.month = :month
+            """, nativeQuery = true)
+    int applyBalanceDelta(@Param("empId") Integer empId, @Param("month") String month,
+            @Param("deltaSeconds") long deltaSeconds, @Param("allowanceSeconds") long allowanceSeconds);
+
+    @Modifying
+    @Query(value = """
+            UPDATE emp_permission_statistics eps
+            SET
+                 eps.overduePermission = SEC_TO_TIME(GREATEST(0, :takenSeconds
+                     - COALESCE(TIME_TO_SEC(eps.totalPermission), :allowanceSeconds))),
+                 eps.remainingPermission = SEC_TO_TIME(GREATEST(0, COALESCE(TIME_TO_SEC(eps.totalPermission), :allowanceSeconds)
+                     - :takenSeconds)),
+                 eps.hoursTaken = SEC_TO_TIME(:takenSeconds)
+            WHERE
+                 eps.empId = :empId
+                 AND eps.month = :month
+            """, nativeQuery = true)
+    int resetBalance(@Param("empId") Integer empId, @Param("month") String month,
+            @Param("takenSeconds") long takenSeconds, @Param("allowanceSeconds") long allowanceSeconds);
+
+    /**
+     * Creates the empty balance of the month unless it exists, the unique key of
+     * the employee and month turns a concurrent first insert into a no-op update
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO emp_permission_statistics
+                 (month, totalPermission, hoursTaken, remainingPermission, overduePermission, empId, userCredentialEmp_id)
+            VALUES
+                 (:month, SEC_TO_TIME(:allowanceSeconds), SEC_TO_TIME(0), SEC_TO_TIME(:allowanceSeconds), SEC_TO_TIME(0),
+                 :empId, :empId)
+            ON DUPLICATE KEY UPDATE
+                 month = month
+            """, nativeQuery = true)
+    int insertEmptyBalance(@Param("empId") Integer empId, @Param("month") String month,
+            @Param("allowanceSeconds") long allowanceSeconds);
+
+    @Query(value = """
+            SELECT
+                 TIME_TO_SEC(eps.hoursTaken) / 60 AS taken,
+                 TIME_TO_SEC(eps.remainingPermission) / 60 AS remaining,
+                 TIME_TO_SEC(eps.overduePermission) / 60 AS overdue,
+                 TIME_TO_SEC(eps.totalPermission) / 60 AS total
+            FROM
+                 emp_permission_statistics eps
+            WHERE
+                 eps.empId = :empId
+                 AND eps.month = :month
+            """, nativeQuery = true)
+    Optional<QuotaBalanceProjection> findBalance(@Param("empId") Integer empId, @Param("month") String month);
+
+    @Query(value = """
+            SELECT
+                 eps.empId AS empId,
+                 eps.month AS month,
+                 COALESCE(TIME_TO_SEC(eps.hoursTaken), 0) / 60 AS taken
+            FROM
+                 emp_permission_statistics eps
+            WHERE
+                 eps.empId IS NOT NULL
+            """, nativeQuery = true)
+    List<QuotaUsageProjection> findAllBalances();
     
     
 
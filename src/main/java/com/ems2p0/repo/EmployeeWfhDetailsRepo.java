@@ -1,26 +1,74 @@
 package com.ems2p0.repo;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 import com.ems2p0.enums.Ems2p0Status;
 import com.ems2p0.model.EmployeeWfhDetails;
 import com.ems2p0.model.UserDetails;
+import com.ems2p0.projections.QuotaUsageProjection;
+import com.ems2p0.projections.ReportKeyProjection;
 import com.ems2p0.projections.WfhProjection;
 import com.ems2p0.projections.WorkFromHomeProjectionStats;
+import com.ems2p0.utils.Ems2p0Constants;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 import feign.Param;
 
 @EnableJpaRepositories
 public interface EmployeeWfhDetailsRepo extends JpaRepository<EmployeeWfhDetails, Integer> {
 
+	@Override
+	@EntityGraph(EmployeeWfhDetails.REPORT_GRAPH)
+	Optional<EmployeeWfhDetails> findById(Integer id);
+
+	@EntityGraph(EmployeeWfhDetails.REPORT_GRAPH)
 	Optional<EmployeeWfhDetails> findByIdAndUserDetails(Integer id, UserDetails existsEmployeeData);
 
+	/**
+	 * Loads the work from home requests of a bulk status update with their
+	 * employee and role for the validation and the notifications in a single query
+	 */
+	@EntityGraph(attributePaths = { "userDetails", "userDetails.employeeRoleManagement" })
+	List<EmployeeWfhDetails> findByIdIn(Collection<Integer> ids);
+
+	/**
+	 * Locks the work from home requests of an auto approval chunk which are still in the
+	 * given status, the rows changed meanwhile are skipped
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@EntityGraph(attributePaths = { "userDetails", "userDetails.employeeRoleManagement" })
+	List<EmployeeWfhDetails> findByIdInAndStatus(Collection<Integer> ids, Ems2p0Status status);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+			UPDATE emp_wfh_details ewd
+			SET
+			       ewd.status = :status,
+			       ewd.modifiedBy = :modifiedBy,
+			       ewd.modifiedDateTime = :modifiedDateTime
+			WHERE
+			       ewd.id IN :ids
+			""")
+	int updateStatusByIdIn(Collection<Integer> ids, Ems2p0Status status, String modifiedBy,
+			LocalDateTime modifiedDateTime);
+
 	@Query(value = """
 			SELECT
 			             ewfh.id,
@@ -42,10 +90,14 @@ public interface EmployeeWfhDetailsRepo extends JpaRepository<EmployeeWfhDetails
 			         WHERE
 			             ewfh.userCredentialEmp_id = :employeeId
 			             AND ewfh.created_date_time >= DATE_SUB(NOW(), INTERVAL 6 MONTH)
+			             AND (ewfh.created_date_time < :cursorTime
+			                  OR (ewfh.created_date_time = :cursorTime AND ewfh.id < :cursorId))
 			         ORDER BY
-			             ewfh.created_date_time DESC;
+			             ewfh.created_date_time DESC, ewfh.id DESC
+			         LIMIT :limit
 			""", nativeQuery = true)
-	List<EmployeeWfhDetails> findWorkFromHomeDetailsByEmpId(Integer employeeId);
+	List<EmployeeWfhDetails> findWorkFromHomeDetailsByEmpId(Integer employeeId, LocalDateTime cursorTime,
+			long cursorId, int limit);
 
 	@Query(value = """
 			SELECT
@@ -58,20 +110,25 @@ public interface EmployeeWfhDetailsRepo extends JpaRepository<EmployeeWfhDetails
 			       ewfh.no_of_days,
 			       ewfh.is_over_due,
 			       ewfh.requested_session,
+			       ewfh.created_date_time AS createdDateTime,
 			       em.empSerialNo,
 			       em.userName
 			   FROM
 			       emp_wfh_details ewfh
 			   INNER JOIN
 			       emp_mgmt em
-			   ONBY
+			   ON
 			       ewfh.userCredentialEmp_id = em.empId
 			   WHERE
-			       em.empId IN :employeeIdsProjections
-			   ORDER 
-			       ewfh.created_date_time DESC
+			       ewfh.userCredentialEmp_id IN :employeeIdsProjections
+			       AND (ewfh.created_date_time < :cursorTime
+			            OR (ewfh.created_date_time = :cursorTime AND ewfh.id < :cursorId))
+			   ORDER BY
+			       ewfh.created_date_time DESC, ewfh.id DESC
+			   LIMIT :limit
 			""", nativeQuery = true)
-	List<WfhProjection> findAllWorkFromHomeDetailsByEmpIds(List<?> employeeIdsProjections);
+	List<WfhProjection> findAllWorkFromHomeDetailsByEmpIds(List<?> employeeIdsProjections, LocalDateTime cursorTime,
+			long cursorId, int limit);
 
 	@Query(value = "SELECT ewfhs.overdueWfhDays,ewfhs.daysTaken,ewfhs.remainingWfhDays FROM emp_wfh_statistics ewfhs JOIN user_credential uc ON \r\n"
 			+ "uc.empId = ewfhs.userCredentialEmp_id WHERE uc.userName = :userName AND month= :month ;", nativeQuery = true)
@@ -97,10 +154,55 @@ public interface EmployeeWfhDetailsRepo extends JpaRepository<EmployeeWfhDetails
 			emp_wfh_details ewd
 			WHERE
 			ewd.created_date_time >= DATE_SUB(NOW(), INTERVAL 2 MONTH)
+			AND (ewd.created_date_time < :cursorTime
+			     OR (ewd.created_date_time = :cursorTime AND ewd.id < :cursorId))
 			ORDER BY
-			ewd.created_date_time DESC
+			ewd.created_date_time DESC, ewd.id DESC
+			LIMIT :limit
+			""", nativeQuery = true)
+	List<EmployeeWfhDetails> findAllEmployeesByWfhDetails(LocalDateTime cursorTime, long cursorId, int limit);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = Ems2p0Constants.REPORT_STREAM_FETCH_SIZE))
+	@Query(value = """
+			SELECT
+			       ewfh.id,
+			       ewfh.month,
+			       ewfh.start_date,
+			       ewfh.end_date,
+			       ewfh.wfh_reason,
+			       ewfh.wfh_status,
+			       ewfh.no_of_days,
+			       ewfh.is_over_due AS isOverDue,
+			       ewfh.requested_session,
+			       em.empSerialNo,
+			       em.userName
+			   FROM
+			       emp_wfh_details ewfh
+			   INNER JOIN
+			       emp_mgmt em
+			   ON
+			       ewfh.userCredentialEmp_id = em.empId
+			   WHERE
+			       ewfh.created_date_time >= DATE_SUB(NOW(), INTERVAL 2 MONTH)
+			   ORDER BY
+			       ewfh.created_date_time DESC
+			""", nativeQuery = true)
+	Stream<WfhProjection> streamAllEmployeesWfhReports();
+
+	@Query(value = """
+			SELECT DISTINCT
+			       em.userName AS userName,
+			       ewfh.month AS month
+			   FROM
+			       emp_wfh_details ewfh
+			   INNER JOIN
+			       emp_mgmt em
+			   ON
+			       ewfh.userCredentialEmp_id = em.empId
+			   WHERE
+			       ewfh.created_date_time >= DATE_SUB(NOW(), INTERVAL 2 MONTH)
 			""", nativeQuery = true)
-	List<EmployeeWfhDetails> findAllEmployeesByWfhDetails();
+	List<ReportKeyProjection> findAllEmployeesWfhReportKeys();
 
 	@Query(value = "select * from emp_wfh_details wfh where wfh.id = :id ", nativeQuery = true)
 	EmployeeWfhDetails findWfhDetailsById(Long id);
@@ -112,6 +214,7 @@ public interface EmployeeWfhDetailsRepo extends JpaRepository<EmployeeWfhDetails
 	List<EmployeeWfhDetails> findByIdAndDateRange(@Param("id") Integer id, @Param("monthStart") LocalDate monthStart,
 			@Param("monthEnd") LocalDate monthEnd);
 
+	@EntityGraph(EmployeeWfhDetails.REPORT_GRAPH)
 	List<EmployeeWfhDetails> findAllByStatus(Ems2p0Status pending);
 
 	@Query(value = "SELECT * FROM emp_wfh_details e JOIN user_credential u ON e.userCredentialEmp_id = u.empId WHERE \r\n"
@@ -119,4 +222,58 @@ public interface EmployeeWfhDetailsRepo extends JpaRepository<EmployeeWfhDetails
 			+ "AND u.empId = :empId", nativeQuery = true) 
 	EmployeeWfhDetails findByStartDateOrEndDateAndStatusNotAndUserDetails_EmpId(LocalDate startDate, LocalDate endDate,
 			 Integer empId);
+
+	/**
+	 * Days held by approved and pending requests, the source of truth a ledger
+	 * rebuild reconciles the running balance against
+	 */
+	@Query(value = """
+			SELECT
+			       ewd.userCredentialEmp_id AS empId,
+			       ewd.month AS month,
+			       COALESCE(SUM(ewd.no_of_days), 0) AS taken
+			   FROM
+			       emp_wfh_details ewd
+			   WHERE
+			       ewd.wfh_status IN (0, 2)
+			   GROUP BY
+			       ewd.userCredentialEmp_id, ewd.month
+			""", nativeQuery = true)
+	List<QuotaUsageProjection> findActiveUsage();
+
+	@Query(value = """
+			SELECT
+			       ewd.userCredentialEmp_id AS empId,
+			       ewd.month AS month,
+			       COALESCE(SUM(ewd.no_of_days), 0) AS taken
+			   FROM
+			       emp_wfh_details ewd
+			   WHERE
+			       ewd.wfh_status IN (0, 2)
+			       AND ewd.userCredentialEmp_id = :empId
+			       AND ewd.month = :month
+			   GROUP BY
+			       ewd.userCredentialEmp_id, ewd.month
+			""", nativeQuery = true)
+	Optional<QuotaUsageProjection> findActiveUsage(Integer empId, String month);
+
+	/**
+	 * Re-flags the pending requests of the month against the current balance so a
+	 * cancelled or rejected request releases the overdue flag of the others
+	 */
+	@Modifying
+	@Query(value = """
+			UPDATE emp_wfh_details ewd
+			SET
+			       ewd.is_over_due = (
+			           SELECT COALESCE(MAX(ews.daysTaken > COALESCE(ews.totalWfhDays, 4)), 0)
+			             FROM emp_wfh_statistics ews
+			            WHERE ews.userCredentialEmp_id = :empId
+			              AND ews.month = :month)
+			WHERE
+			       ewd.userCredentialEmp_id = :empId
+			       AND ewd.month = :month
+			       AND ewd.wfh_status = 2
+			""", nativeQuery = true)
+	int reflagPendingOverDue(Integer empId, String month);
 }
@@ -1,23 +1,125 @@
 package com.ems2p0.repo;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.ems2p0.model.EmployeeWfhDetails;
 import com.ems2p0.model.EmployeeWfhStats;
-import com.ems2p0.model.UserDetails;
+import com.ems2p0.projections.QuotaBalanceProjection;
+import com.ems2p0.projections.QuotaUsageProjection;
 import com.ems2p0.projections.UserProjection;
+import com.ems2p0.projections.WfhReportStatsProjection;
 import com.ems2p0.projections.WorkFromHomeProjectionStats;
 
 public interface EmployeeWfhStatsRepo extends JpaRepository<EmployeeWfhStats, Long> {
 
-	Optional<EmployeeWfhStats> findByUserDetailsAndMonth(UserDetails existsEmployeeData, String month);
+	@EntityGraph(EmployeeWfhStats.STATS_VIEW_GRAPH)
+	Optional<EmployeeWfhStats> findByUserDetailsEmpIdAndMonth(Integer empId, String month);
 
 	@Query(value = "SELECT ews.overdueWfhDays,ews.daysTaken FROM emp_wfh_statistics ews JOIN user_credential uc ON\r\n"
             + "uc.empId = ews.userCredentialEmp_id WHERE uc.userName = :userName AND month= :month ;", nativeQuery = true) 
     WorkFromHomeProjectionStats findOverDueAndDaysTakenByUserDetailsAndMonth(@Param("userName") String userName, @Param("month") String month);
 
+	@Query(value = """
+			SELECT
+			       uc.userName,
+			       ews.month,
+			       ews.overdueWfhDays,
+			       ews.remainingWfhDays,
+			       ews.daysTaken
+			   FROM
+			       emp_wfh_statistics ews
+			   INNER JOIN
+			       user_credential uc
+			   ON
+			       uc.empId = ews.userCredentialEmp_id
+			   WHERE
+			       uc.userName IN (:userNames)
+			       AND ews.month IN (:months)
+			""", nativeQuery = true)
+	List<WfhReportStatsProjection> findByUserNamesAndMonths(@Param("userNames") Collection<String> userNames,
+			@Param("months") Collection<String> months);
+
+	/**
+	 * Applies a delta in days to the running balance in a single statement,
+	 * daysTaken is assigned first and the remaining and overdue days are derived
+	 * from its new value only
+	 */
+	@Modifying
+	@Query(value = """
+			UPDATE emp_wfh_statistics ews
+			SET
+			       ews.daysTaken = GREATEST(0, ews.daysTaken + :delta),
+			       ews.remainingWfhDays = GREATEST(0, COALESCE(ews.totalWfhDays, :allowance) - ews.daysTaken),
+			       ews.overdueWfhDays = GREATEST(0, ews.daysTaken - COALESCE(ews.totalWfhDays, :allowance))
+			WHERE
+			       ews.userCredentialEmp_id = :empId
+			       AND ews.month = :month
+			""", nativeQuery = true)
+	int applyBalanceDelta(@Param("empId") Integer empId, @Param("month") String month, @Param("delta") double delta,
+			@Param("allowance") int allowance);
+
+	@Modifying
+	@Query(value = """
+			UPDATE emp_wfh_statistics ews
+			SET
+			       ews.overdueWfhDays = GREATEST(0, :taken - COALESCE(ews.totalWfhDays, :allowance)),
+			       ews.remainingWfhDays = GREATEST(0, COALESCE(ews.totalWfhDays, :allowance) - :taken),
+			       ews.daysTaken = :taken
+			WHERE
+			       ews.userCredentialEmp_id = :empId
+			       AND ews.month = :month
+			""", nativeQuery = true)
+	int resetBalance(@Param("empId") Integer empId, @Param("month") String month, @Param("taken") double taken,
+			@Param("allowance") int allowance);
+
+	/**
+	 * Creates the empty balance of the month unless it exists, the unique key of
+	 * the employee and month turns a concurrent first insert into a no-op update
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO emp_wfh_statistics
+			       (month, totalWfhDays, daysTaken, overdueWfhDays, remainingWfhDays, userCredentialEmp_id)
+			VALUES
+			       (:month, :allowance, 0, 0, :allowance, :empId)
+			ON DUPLICATE KEY UPDATE
+			       month = month
+			""", nativeQuery = true)
+	int insertEmptyBalance(@Param("empId") Integer empId, @Param("month") String month,
+			@Param("allowance") int allowance);
+
+	@Query(value = """
+			SELECT
+			       ews.daysTaken AS taken,
+			       ews.remainingWfhDays AS remaining,
+			       ews.overdueWfhDays AS overdue,
+			       ews.totalWfhDays AS total
+			   FROM
+			       emp_wfh_statistics ews
+			   WHERE
+			       ews.userCredentialEmp_id = :empId
+			       AND ews.month = :month
+			""", nativeQuery = true)
+	Optional<QuotaBalanceProjection> findBalance(@Param("empId") Integer empId, @Param("month") String month);
+
+	@Query(value = """
+			SELECT
+			       ews.userCredentialEmp_id AS empId,
+			       ews.month AS month,
+			       ews.daysTaken AS taken
+			   FROM
+			       emp_wfh_statistics ews
+			   WHERE
+			       ews.userCredentialEmp_id IS NOT NULL
+			""", nativeQuery = true)
+	List<QuotaUsageProjection> findAllBalances();
+
 }
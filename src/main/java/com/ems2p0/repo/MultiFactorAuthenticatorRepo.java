@@ -1,19 +1,44 @@
 package com.ems2p0.repo;
 
-import com.ems2p0.enums.OtpStatus;
 import com.ems2p0.model.MultiFactorAuthentication;
-import com.ems2p0.model.UserDetails;
+
+import jakarta.persistence.LockModeType;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 @EnableJpaRepositories
 public interface MultiFactorAuthenticatorRepo extends JpaRepository<MultiFactorAuthentication, Integer> {
-    Optional<MultiFactorAuthentication> findByOtpAndOtpStatus(Integer otp, OtpStatus otpStatus);
 
-    MultiFactorAuthentication findByUserDetails(UserDetails userDetails);
+	/**
+	 * Creates the empty challenge row of the user unless it exists, the row is
+	 * locked by the insert as well as by the duplicate key update so concurrent
+	 * first challenges of the user wait for each other instead of racing
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO mfa_otp_challenge (userName, attempts, createdDateTime) "
+			+ "VALUES (:userName, 0, NOW()) ON DUPLICATE KEY UPDATE userName = userName", nativeQuery = true)
+	int insertIfAbsent(@Param("userName") String userName);
+
+	/**
+	 * Locks the pending challenge of the user so concurrent attempts are counted
+	 * one after the other
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	Optional<MultiFactorAuthentication> findByUserName(String userName);
+
+	@Modifying
+	@Query("DELETE FROM mfa_otp_challenge mfa WHERE mfa.userName = :userName")
+	int deleteByUserName(@Param("userName") String userName);
 
-	Optional<MultiFactorAuthentication> findByOtpAndOtpStatusAndUserDetails(Integer otp, OtpStatus active, UserDetails userDetails);
+	@Modifying
+	@Query("DELETE FROM mfa_otp_challenge mfa WHERE COALESCE(mfa.expiresAtMillis, 0) <= :nowMillis "
+			+ "AND COALESCE(mfa.windowEndsAtMillis, 0) <= :nowMillis")
+	int deleteExpired(@Param("nowMillis") long nowMillis);
 }
@@ -0,0 +1,9 @@
+package com.ems2p0.repo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.ems2p0.model.QuotaLedgerEntry;
+
+public interface QuotaLedgerRepo extends JpaRepository<QuotaLedgerEntry, Long> {
+
+}
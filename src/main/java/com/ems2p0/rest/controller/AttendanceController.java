@@ -1,9 +1,11 @@
 package com.ems2p0.rest.controller;
 
+import java.time.YearMonth;
 import java.util.List;
 
 import jakarta.annotation.security.PermitAll;
 import jakarta.annotation.security.RolesAllowed;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -11,6 +13,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ems2p0.dto.exception.CheckInProcessingException;
@@ -18,6 +21,7 @@ import com.ems2p0.dto.exception.CheckOutProcessingException;
 import com.ems2p0.dto.request.AttendanceDto;
 import com.ems2p0.dto.response.AttendanceResponseDto;
 import com.ems2p0.dto.response.GenericResponseDto;
+import com.ems2p0.dto.response.TimesheetResponseDto;
 import com.ems2p0.projections.WorktypeProjections;
 import com.ems2p0.service.AttendanceService;
 import com.ems2p0.utils.Ems2p0Constants;
@@ -99,4 +103,25 @@ public class AttendanceController {
         return ResponseEntity.status(HttpStatus.OK).body(new GenericResponseDto<AttendanceResponseDto>(true,
                 Ems2p0Constants.SUCCESS, attendanceService.fetchEmployeeCheckInDetails()));
     }
+
+    /**
+     * Api to fetch the monthly timesheet (daily and monthly working hours,
+     * overtime, permission and work types) of the employees in the scope of the
+     * logged in user
+     *
+     * @param month      - yyyy-MM, the current month when it is not given
+     * @param department - narrows the timesheet of a manager or an admin to a
+     *                   department
+     * @return {@link - GenericResponseDto<List<TimesheetResponseDto>>}
+     * @authorization - should be authorized as employee, reporting manager,
+     *                manager or admin
+     */
+    @RolesAllowed({Ems2p0Constants.EMPLOYEE, Ems2p0Constants.REPORTING_MANAGER, Ems2p0Constants.MANAGER,
+            Ems2p0Constants.ADMIN})
+    @GetMapping("/timesheet")
+    public ResponseEntity<GenericResponseDto<List<TimesheetResponseDto>>> fetchTimesheet(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(required = false) String department) {
+        return ResponseEntity.status(HttpStatus.OK).body(attendanceService.fetchTimesheet(month, department));
+    }
 }
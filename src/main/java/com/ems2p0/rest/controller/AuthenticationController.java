@@ -1,7 +1,5 @@
 package com.ems2p0.rest.controller;
 
-import java.io.UnsupportedEncodingException;
-
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -21,7 +19,6 @@ import com.ems2p0.dto.response.RefreshTokenResponseDto;
 import com.ems2p0.service.AuthenticationService;
 import com.ems2p0.utils.Ems2p0Constants;
 
-import jakarta.mail.MessagingException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -69,13 +66,10 @@ public class AuthenticationController {
 	 *
 	 * @param emailIdRequestDto
 	 * @return
-	 * @throws MessagingException
-	 * @throws UnsupportedEncodingException
 	 */
 	@PostMapping("/multi-factor")
 	public ResponseEntity<GenericResponseDto<MFAResponseDto>> authenticateByMultiFactor(
-			@RequestBody @Valid EmailIdRequestDto emailIdRequestDto)
-			throws MessagingException, UnsupportedEncodingException {
+			@RequestBody @Valid EmailIdRequestDto emailIdRequestDto) {
 		return ResponseEntity.status(HttpStatus.OK).body(new GenericResponseDto<MFAResponseDto>(true,
 				Ems2p0Constants.SUCCESS, ems2p0Service.authenticateByMultiFactor(emailIdRequestDto)));
 	}
@@ -85,13 +79,10 @@ public class AuthenticationController {
 	 *
 	 * @param validateAuthDto
 	 * @return
-	 * @throws MessagingException
-	 * @throws UnsupportedEncodingException
 	 */
 	@PostMapping("/multi-factor/validate")
 	public ResponseEntity<GenericResponseDto<LoginResponseDto>> validateMultiFactorAuthentication(
-			@RequestBody @Valid ValidateAuthDto validateAuthDto)
-			throws MessagingException, UnsupportedEncodingException {
+			@RequestBody @Valid ValidateAuthDto validateAuthDto) {
 		return ResponseEntity.status(HttpStatus.OK).body(new GenericResponseDto<LoginResponseDto>(true,
 				Ems2p0Constants.SUCCESS, ems2p0Service.validateMultiFactorAuthentication(validateAuthDto))); 
 	}
@@ -101,12 +92,9 @@ public class AuthenticationController {
 	 *
 	 * @param accessTokenDto
 	 * @return
-	 * @throws MessagingException
-	 * @throws UnsupportedEncodingException
 	 */
 	@PostMapping("/multi-factor/refresh-token")
-	public ResponseEntity<GenericResponseDto<RefreshTokenResponseDto>> requestRefreshToken()
-			throws MessagingException, UnsupportedEncodingException {
+	public ResponseEntity<GenericResponseDto<RefreshTokenResponseDto>> requestRefreshToken() {
 		return ResponseEntity.status(HttpStatus.OK).body(new GenericResponseDto<RefreshTokenResponseDto>(true,
 				Ems2p0Constants.SUCCESS, ems2p0Service.requestRefreshToken()));
 	}
@@ -118,7 +106,7 @@ public class AuthenticationController {
 //	}
 
 	@DeleteMapping("/logout")
-	public ResponseEntity<GenericResponseDto<?>> logout() throws MessagingException, UnsupportedEncodingException {
+	public ResponseEntity<GenericResponseDto<?>> logout() {
 		ems2p0Service.logout();
 		return ResponseEntity.status(HttpStatus.OK).body(new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, null));
 	}
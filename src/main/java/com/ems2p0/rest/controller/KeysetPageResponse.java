@@ -0,0 +1,35 @@
+package com.ems2p0.rest.controller;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.ResponseEntity.BodyBuilder;
+
+import com.ems2p0.dao.page.KeysetPage;
+import com.ems2p0.dto.response.GenericResponseDto;
+import com.ems2p0.utils.Ems2p0Constants;
+
+/**
+ * EMS 2.0 - Response of the paginated history APIs, the rows of the page are
+ * sent in the usual generic response and the cursor of the next page in the
+ * {@value Ems2p0Constants#NEXT_CURSOR_HEADER} header, which is absent on the
+ * last page.
+ *
+ * @author Mohan
+ * @category Keyset pagination
+ * @version v1.0.0
+ */
+final class KeysetPageResponse {
+
+	private KeysetPageResponse() {
+	}
+
+	static <T> ResponseEntity<GenericResponseDto<List<T>>> ok(KeysetPage<T> page) {
+		BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+		if (page.next() != null) {
+			response.header(Ems2p0Constants.NEXT_CURSOR_HEADER, page.nextCursor());
+		}
+		return response.body(new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, page.items()));
+	}
+}
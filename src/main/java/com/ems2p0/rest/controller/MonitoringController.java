@@ -0,0 +1,274 @@
+package com.ems2p0.rest.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ems2p0.components.calendar.BusinessCalendar;
+import com.ems2p0.components.calendar.BusinessCalendarStats;
+import com.ems2p0.components.clock.ClockStats;
+import com.ems2p0.components.clock.EmsClock;
+import com.ems2p0.components.mail.MailOutbox;
+import com.ems2p0.components.mail.MailOutboxStats;
+import com.ems2p0.components.statistics.FetchPlanStatistics;
+import com.ems2p0.components.statistics.FetchPlanStats;
+import com.ems2p0.dao.service.EmsDaoService;
+import com.ems2p0.dto.response.GenericResponseDto;
+import com.ems2p0.pushnotification.model.AuditBufferStats;
+import com.ems2p0.pushnotification.model.DispatchStats;
+import com.ems2p0.pushnotification.model.RoutingIndexStats;
+import com.ems2p0.pushnotification.service.DeviceTokenRoutingIndex;
+import com.ems2p0.pushnotification.service.NotificationAuditBuffer;
+import com.ems2p0.pushnotification.service.NotificationDispatcher;
+import com.ems2p0.security.IdempotencyFilter;
+import com.ems2p0.security.JwtUtils;
+import com.ems2p0.security.TokenRevocationRegistry;
+import com.ems2p0.utils.Ems2p0Constants;
+import com.ems2p0.utils.cache.CacheStats;
+
+import jakarta.annotation.security.RolesAllowed;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * EMS 2.0 - Monitoring controller layer to expose the runtime metrics of the
+ * in-process subsystems to the administrators.
+ *
+ * @author Mohan
+ * @version v1.0.0
+ * @category Monitoring functionality
+ * @apiNote - Developer should be responsible to expose only read only metrics
+ *          by using this layer.
+ */
+@RestController
+@RequestMapping("/monitoring")
+@RequiredArgsConstructor
+@Validated
+public class MonitoringController {
+
+	/**
+	 * Injected application clock to expose the synchronization metrics
+	 */
+	private final EmsClock emsClock;
+
+	/**
+	 * Injected business calendar to expose the working day table metrics
+	 */
+	private final BusinessCalendar businessCalendar;
+
+	/**
+	 * Injected push notification dispatcher to expose the queue metrics
+	 */
+	private final NotificationDispatcher notificationDispatcher;
+
+	/**
+	 * Injected mail outbox to expose the queue and SMTP transport metrics
+	 */
+	private final MailOutbox mailOutbox;
+
+	/**
+	 * Injected notification audit buffer to expose the write-behind metrics
+	 */
+	private final NotificationAuditBuffer notificationAuditBuffer;
+
+	/**
+	 * Injected routing index to expose the device token routes metrics
+	 */
+	private final DeviceTokenRoutingIndex deviceTokenRoutingIndex;
+
+	/**
+	 * Injected JWT utils to expose the verified token cache metrics
+	 */
+	private final JwtUtils jwtUtils;
+
+	/**
+	 * Injected revocation registry to expose the signed out tokens metrics
+	 */
+	private final TokenRevocationRegistry revocationRegistry;
+
+	/**
+	 * Injected idempotency filter to expose the stored responses metrics
+	 */
+	private final IdempotencyFilter idempotencyFilter;
+
+	/**
+	 * Injected dao service to expose the employee identity cache metrics
+	 */
+	private final EmsDaoService daoService;
+
+	/**
+	 * Injected fetch plan statistics to expose the SQL cost of each endpoint
+	 */
+	private final FetchPlanStatistics fetchPlanStatistics;
+
+	/**
+	 * Api to fetch the drift and last synchronization metrics of the clock
+	 *
+	 * @return {@link - GenericResponseDto<ClockStats>}
+	 * @authorization - should be authorized as admin
+	 */
+	@RolesAllowed(Ems2p0Constants.ADMIN)
+	@GetMapping("/clock")
+	public ResponseEntity<GenericResponseDto<ClockStats>> fetchClockStats() {
+		return ResponseEntity.status(HttpStatus.OK)
+				.body(new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, emsClock.stats()));
+	}
+
+	/**
+	 * Api to fetch the window, holidays and lookup metrics of the business
+	 * calendar
+	 *
+	 * @return {@link - GenericResponseDto<BusinessCalendarStats>}
+	 * @authorization - should be authorized as admin
+	 */
+	@RolesAllowed(Ems2p0Constants.ADMIN)
+	@GetMapping("/business-calendar")
+	public ResponseEntity<GenericResponseDto<BusinessCalendarStats>> fetchBusinessCalendarStats() {
+		return ResponseEntity.status(HttpStatus.OK)
+				.body(new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, businessCalendar.stats()));
+	}
+
+	/**
+	 * Api to fetch the depth and send latency metrics of the push notification
+	 * queue
+	 *
+	 * @return {@link - GenericResponseDto<DispatchStats>}
+	 * @authorization - should be authorized as admin
+	 */
+	@RolesAllowed(Ems2p0Constants.ADMIN)
+	@GetMapping("/push-notifications")
+	public ResponseEntity<GenericResponseDto<DispatchStats>> fetchPushNotificationStats() {
+		return ResponseEntity.status(HttpStatus.OK)
+				.body(new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, notificationDispatcher.stats()));
+	}
+
+	/**
+	 * Api to fetch the depth, send latency and transport reuse metrics of the mail
+	 * outbox
+	 *
+	 * @return {@link - GenericResponseDto<MailOutboxStats>}
+	 * @authorization - should be authorized as admin
+	 */
+	@RolesAllowed(Ems2p0Constants.ADMIN)
+	@GetMapping("/mail-outbox")
+	public ResponseEntity<GenericResponseDto<MailOutboxStats>> fetchMailOutboxStats() {
+		return ResponseEntity.status(HttpStatus.OK)
+				.body(new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, mailOutbox.stats()));
+	}
+
+	/**
+	 * Api to fetch the depth and flush latency metrics of the notification audit
+	 * buffer
+	 *
+	 * @return {@link - GenericResponseDto<AuditBufferStats>}
+	 * @authorization - should be authorized as admin
+	 */
+	@RolesAllowed(Ems2p0Constants.ADMIN)
+	@GetMapping("/notification-audit")
+	public ResponseEntity<GenericResponseDto<AuditBufferStats>> fetchNotificationAuditStats() {
+		return ResponseEntity.status(HttpStatus.OK)
+				.body(new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, notificationAuditBuffer.stats()));
+	}
+
+	/**
+	 * Api to fetch the size and rebuild metrics of the device token routing index
+	 *
+	 * @return {@link - GenericResponseDto<RoutingIndexStats>}
+	 * @authorization - should be authorized as admin
+	 */
+	@RolesAllowed(Ems2p0Constants.ADMIN)
+	@GetMapping("/device-token-routes")
+	public ResponseEntity<GenericResponseDto<RoutingIndexStats>> fetchDeviceTokenRouteStats() {
+		return ResponseEntity.status(HttpStatus.OK)
+				.body(new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, deviceTokenRoutingIndex.stats()));
+	}
+
+	/**
+	 * Api to fetch the verified and revoked token cache metrics
+	 *
+	 * @return {@link - GenericResponseDto<Map<String, CacheStats>>}
+	 * @authorization - should be authorized as admin
+	 */
+	@RolesAllowed(Ems2p0Constants.ADMIN)
+	@GetMapping("/tokens")
+	public ResponseEntity<GenericResponseDto<Map<String, CacheStats>>> fetchTokenStats() {
+		return ResponseEntity.status(HttpStatus.OK).body(new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS,
+				Map.of("verified", jwtUtils.verifiedTokenStats(), "revoked", revocationRegistry.stats())));
+	}
+
+	/**
+	 * Api to fetch the hit, miss and eviction metrics of the stored idempotent
+	 * responses
+	 *
+	 * @return {@link - GenericResponseDto<CacheStats>}
+	 * @authorization - should be authorized as admin
+	 */
+	@RolesAllowed(Ems2p0Constants.ADMIN)
+	@GetMapping("/idempotency")
+	public ResponseEntity<GenericResponseDto<CacheStats>> fetchIdempotencyStats() {
+		return ResponseEntity.status(HttpStatus.OK)
+				.body(new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, idempotencyFilter.stats()));
+	}
+
+	/**
+	 * Api to fetch the hit, miss and eviction metrics of the employee identity
+	 * caches
+	 *
+	 * @return {@link - GenericResponseDto<Map<String, CacheStats>>}
+	 * @authorization - should be authorized as admin
+	 */
+	@RolesAllowed(Ems2p0Constants.ADMIN)
+	@GetMapping("/identity-cache")
+	public ResponseEntity<GenericResponseDto<Map<String, CacheStats>>> fetchIdentityCacheStats() {
+		return ResponseEntity.status(HttpStatus.OK)
+				.body(new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, daoService.identityCacheStats()));
+	}
+
+	/**
+	 * Api to fetch the hit, miss and eviction metrics of the attendance session
+	 * cache
+	 *
+	 * @return {@link - GenericResponseDto<CacheStats>}
+	 * @authorization - should be authorized as admin
+	 */
+	@RolesAllowed(Ems2p0Constants.ADMIN)
+	@GetMapping("/attendance-sessions")
+	public ResponseEntity<GenericResponseDto<CacheStats>> fetchAttendanceSessionStats() {
+		return ResponseEntity.status(HttpStatus.OK).body(
+				new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, daoService.attendanceSessionCacheStats()));
+	}
+
+	/**
+	 * Api to fetch the SQL statements, loaded entities and fetched collections
+	 * per request of every endpoint
+	 *
+	 * @return {@link - GenericResponseDto<List<FetchPlanStats>>}
+	 * @authorization - should be authorized as admin
+	 */
+	@RolesAllowed(Ems2p0Constants.ADMIN)
+	@GetMapping("/fetch-plan")
+	public ResponseEntity<GenericResponseDto<List<FetchPlanStats>>> fetchFetchPlanStats() {
+		return ResponseEntity.status(HttpStatus.OK)
+				.body(new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, fetchPlanStatistics.stats()));
+	}
+
+	/**
+	 * Api to reset the fetch plan statistics before a new measurement
+	 *
+	 * @return {@link - GenericResponseDto<String>}
+	 * @authorization - should be authorized as admin
+	 */
+	@RolesAllowed(Ems2p0Constants.ADMIN)
+	@DeleteMapping("/fetch-plan")
+	public ResponseEntity<GenericResponseDto<String>> resetFetchPlanStats() {
+		fetchPlanStatistics.reset();
+		return ResponseEntity.status(HttpStatus.OK)
+				.body(new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, "Fetch plan statistics reset"));
+	}
+}
@@ -2,7 +2,9 @@ package com.ems2p0.rest.controller;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.ems2p0.dto.request.RequestPermissionDto;
 import com.ems2p0.dto.request.UpdatePermissionStatusRequestDto;
@@ -20,6 +23,7 @@ import com.ems2p0.dto.response.EmployeeDetailsDto;
 import com.ems2p0.dto.response.GenericResponseDto;
 import com.ems2p0.dto.response.PermissionDetailsResponseDto;
 import com.ems2p0.dto.response.PermissionStatsResponseDto;
+import com.ems2p0.enums.ReportFormat;
 import com.ems2p0.service.PermissionService;
 import com.ems2p0.utils.Ems2p0Constants;
 
@@ -101,14 +105,18 @@ public class PermissionController {
 	/**
 	 * Api method to fetch the permission details of all employees
 	 *
+	 * @param cursor - X-Next-Cursor of the previous page, the first page when it
+	 *               is not given
+	 * @param size   - page size, the configured size when it is not given
 	 * @return {@link -GenericResponseDto<List<PermissionDetailsResponseDto>> }
 	 * @author Mohan
 	 * @Secured - Should be authorized as employee or reporting manager or manager
 	 */
 	@RolesAllowed({ Ems2p0Constants.EMPLOYEE, Ems2p0Constants.REPORTING_MANAGER, Ems2p0Constants.ADMIN })
 	@GetMapping("/details")
-	public ResponseEntity<GenericResponseDto<List<PermissionDetailsResponseDto>>> fetchPermissionDetailsByUsername() {
-		return ResponseEntity.status(HttpStatus.OK).body(permissionService.fetchPermissionDetailsByUsername());
+	public ResponseEntity<GenericResponseDto<List<PermissionDetailsResponseDto>>> fetchPermissionDetailsByUsername(
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+		return KeysetPageResponse.ok(permissionService.fetchPermissionDetailsByUsername(cursor, size));
 	}
 
 	/**
@@ -169,13 +177,17 @@ public class PermissionController {
 	 * <p>
 	 * * @author Mohan
 	 *
+	 * @param cursor - X-Next-Cursor of the previous page, the first page when it
+	 *               is not given
+	 * @param size   - page size, the configured size when it is not given
 	 * @return {@link - GenericResponseDto<List<PermissionDetailsResponseDto>>}
 	 * @Secured - Should be authorized as reporting manager, manager
 	 */
 	@RolesAllowed({ Ems2p0Constants.REPORTING_MANAGER, Ems2p0Constants.MANAGER })
 	@GetMapping("/employees")
-	public ResponseEntity<GenericResponseDto<List<PermissionDetailsResponseDto>>> fetchEmployeePermissionDetails() {
-		return ResponseEntity.status(HttpStatus.OK).body(permissionService.fetchEmployeePermissionDetails());
+	public ResponseEntity<GenericResponseDto<List<PermissionDetailsResponseDto>>> fetchEmployeePermissionDetails(
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+		return KeysetPageResponse.ok(permissionService.fetchEmployeePermissionDetails(cursor, size));
 	}
 
 	/**
@@ -183,13 +195,36 @@ public class PermissionController {
 	 * <p>
 	 * * @author Mohan
 	 *
+	 * @param cursor - X-Next-Cursor of the previous page, the first page when it
+	 *               is not given
+	 * @param size   - page size, the configured size when it is not given
 	 * @return {@link - GenericResponseDto<List<PermissionDetailsResponseDto>>}
 	 * @Secured - Should be authorized a manager, admin
 	 */
 	@RolesAllowed({ Ems2p0Constants.MANAGER, Ems2p0Constants.ADMIN })
 	@GetMapping("/employees/reports")
-	public ResponseEntity<GenericResponseDto<List<PermissionDetailsResponseDto>>> fetchAllEmployeePermissionReports() {
-		return ResponseEntity.status(HttpStatus.OK).body(permissionService.fetchAllEmployeePermissionReports()); 
+	public ResponseEntity<GenericResponseDto<List<PermissionDetailsResponseDto>>> fetchAllEmployeePermissionReports(
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+		return KeysetPageResponse.ok(permissionService.fetchAllEmployeePermissionReports(cursor, size));
+	}
+
+	/**
+	 * Api method to export the all employee's permission reports as a stream of
+	 * csv or ndjson rows
+	 *
+	 * @param format - csv (default) or ndjson
+	 * @return {@link - StreamingResponseBody}
+	 * @Secured - Should be authorized a manager, admin
+	 */
+	@RolesAllowed({ Ems2p0Constants.MANAGER, Ems2p0Constants.ADMIN })
+	@GetMapping("/employees/reports/export")
+	public ResponseEntity<StreamingResponseBody> exportAllEmployeePermissionReports(
+			@RequestParam(defaultValue = "csv") String format) {
+		ReportFormat reportFormat = ReportFormat.of(format);
+		return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.parseMediaType(reportFormat.getMediaType()))
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						"attachment; filename=permission-reports." + reportFormat.getExtension())
+				.body(permissionService.exportAllEmployeePermissionReports(reportFormat));
 	}
 
 	/**
@@ -204,4 +239,17 @@ public class PermissionController {
 	public ResponseEntity<GenericResponseDto<List<EmployeeDetailsDto>>> fetchAllEmployeeDetail() {
 		return ResponseEntity.status(HttpStatus.OK).body(permissionService.fetchEmployeeDetail()); 
 	}
+
+	/**
+	 * Api method to rebuild the permission statistics from the permission details
+	 *
+	 * @return {@link - GenericResponseDto<Integer>} number of corrected statistics
+	 * @author Mohan
+	 * @Secured - Should be authorized as admin
+	 */
+	@RolesAllowed({ Ems2p0Constants.ADMIN })
+	@PostMapping("/stats/rebuild")
+	public ResponseEntity<GenericResponseDto<Integer>> rebuildPermissionStats() {
+		return ResponseEntity.status(HttpStatus.OK).body(permissionService.rebuildPermissionStats());
+	}
 }
@@ -2,7 +2,9 @@ package com.ems2p0.rest.controller;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.ems2p0.dto.request.UpdatePermissionStatusRequestDto;
 import com.ems2p0.dto.request.UpdateWfhStatusRequestDto;
@@ -21,6 +24,7 @@ import com.ems2p0.dto.request.WfhRequestDto;
 import com.ems2p0.dto.response.GenericResponseDto;
 import com.ems2p0.dto.response.WfhDetailsResponseDto;
 import com.ems2p0.dto.response.WfhStatsResponseDto;
+import com.ems2p0.enums.ReportFormat;
 import com.ems2p0.service.WorkFromHomeService;
 import com.ems2p0.utils.Ems2p0Constants;
 
@@ -95,6 +99,9 @@ public class WorkFromHomeController {
 	/**
 	 * Api method to fetch the work from home details of all employees
 	 *
+	 * @param cursor - X-Next-Cursor of the previous page, the first page when it
+	 *               is not given
+	 * @param size   - page size, the configured size when it is not given
 	 * @return {@link -GenericResponseDto<List<WfhDetailsResponseDto>> }
 	 * @author Mohan
 	 * @Secured - Should be authorized as employee, reporting manager and admin role
@@ -102,15 +109,16 @@ public class WorkFromHomeController {
 	
 	@RolesAllowed({ Ems2p0Constants.EMPLOYEE, Ems2p0Constants.REPORTING_MANAGER, Ems2p0Constants.ADMIN })
 	@GetMapping("/details")
-	public ResponseEntity<GenericResponseDto<List<WfhDetailsResponseDto>>> fetchWorkFromHomeDetailsByUsername() {
-		return ResponseEntity.status(HttpStatus.OK).body(workFromHomeService.fetchWorkFromHomeDetailsByUsername()); 
+	public ResponseEntity<GenericResponseDto<List<WfhDetailsResponseDto>>> fetchWorkFromHomeDetailsByUsername(
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+		return KeysetPageResponse.ok(workFromHomeService.fetchWorkFromHomeDetailsByUsername(cursor, size));
 	}
 
 	@RolesAllowed({  Ems2p0Constants.REPORTING_MANAGER, Ems2p0Constants.MANAGER, Ems2p0Constants.ADMIN })
 	@GetMapping("/employees/details")
-	public ResponseEntity<GenericResponseDto<List<WfhDetailsResponseDto>>> fetchEmployeesWorkFromHomeDetailsByUsername() {
-		return ResponseEntity.status(HttpStatus.OK) 
-				.body(workFromHomeService.fetchEmployeesWorkFromHomeDetailsByUsername());   
+	public ResponseEntity<GenericResponseDto<List<WfhDetailsResponseDto>>> fetchEmployeesWorkFromHomeDetailsByUsername(
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+		return KeysetPageResponse.ok(workFromHomeService.fetchEmployeesWorkFromHomeDetailsByUsername(cursor, size));
 	} 
 	
 	/**
@@ -145,9 +153,41 @@ public class WorkFromHomeController {
 		return ResponseEntity.status(HttpStatus.ACCEPTED).body(workFromHomeService.rejectWfh(request)); 
 	}
 	
+	/**
+	 * Api method to export the all employee's work from home reports as a stream
+	 * of csv or ndjson rows
+	 *
+	 * @param format - csv (default) or ndjson
+	 * @return {@link - StreamingResponseBody}
+	 * @Secured - Should be authorized a manager, admin
+	 */
+	@RolesAllowed({ Ems2p0Constants.MANAGER, Ems2p0Constants.ADMIN })
+	@GetMapping("/employees/reports/export")
+	public ResponseEntity<StreamingResponseBody> exportAllEmployeeWfhReports(
+			@RequestParam(defaultValue = "csv") String format) {
+		ReportFormat reportFormat = ReportFormat.of(format);
+		return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.parseMediaType(reportFormat.getMediaType()))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=wfh-reports." + reportFormat.getExtension())
+				.body(workFromHomeService.exportAllEmployeeWfhReports(reportFormat));
+	}
+
 	@DeleteMapping("/clear-details-stats")
 	public ResponseEntity<?> clearWfhData() throws Exception { 
 		workFromHomeService.clearWfhData();
 		return ResponseEntity.status(HttpStatus.NO_CONTENT).body(""); 
 	}
+
+	/**
+	 * Api method to rebuild the work from home statistics from the work from home
+	 * details
+	 *
+	 * @return {@link - GenericResponseDto<Integer>} number of corrected statistics
+	 * @author Mohan
+	 * @Secured - Should be authorized as admin
+	 */
+	@RolesAllowed({ Ems2p0Constants.ADMIN })
+	@PostMapping("/stats/rebuild")
+	public ResponseEntity<GenericResponseDto<Integer>> rebuildWfhStats() {
+		return ResponseEntity.status(HttpStatus.OK).body(workFromHomeService.rebuildWfhStats());
+	}
 }
@@ -1,8 +1,6 @@
 package com.ems2p0.security;
 
-import com.ems2p0.dao.service.EmsDaoService;
 import com.ems2p0.dto.response.GenericResponseDto;
-import com.ems2p0.model.UserDetails;
 import com.ems2p0.utils.Ems2p0Utility;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.FilterChain;
@@ -58,10 +56,10 @@ public class AppAuthenticationFilter extends OncePerRequestFilter {
 	final JwtUtils jwtUtils;
 
 	/**
-	 * Injected EmsDaoService to invoke method for checking the valid employee or
-	 * user
+	 * Injected revocation registry to reject the tokens of the signed out
+	 * employees
 	 */
-	final EmsDaoService daoService;
+	final TokenRevocationRegistry revocationRegistry;
 
 	@Value("${app.security.username}")
 	String appUsername;
@@ -92,20 +90,23 @@ public class AppAuthenticationFilter extends OncePerRequestFilter {
 		}
 		try {
 			String jwt = authorizationHeader.substring(7);
-			String userName = jwtUtils.extractUserName(jwt);
+			VerifiedToken verifiedToken = jwtUtils.verify(jwt);
+			String userName = verifiedToken.subject();
 			if (StringUtils.isNotEmpty(userName) && SecurityContextHolder.getContext().getAuthentication() == null) {
-				UserDetails userDetails = daoService.loadUserByUsername(userName);
-				if (jwtUtils.isTokenValid(jwt, userDetails)) {
-					SecurityContext context = SecurityContextHolder.createEmptyContext();
-					List<GrantedAuthority> authorities = new ArrayList<>();
-					authorities.add(new SimpleGrantedAuthority(
-							String.valueOf(userDetails.getEmployeeRoleManagement().getOfficialRole())));
-					UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
-							null, authorities);
-					authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-					context.setAuthentication(authToken);
-					SecurityContextHolder.setContext(context);
+				if (verifiedToken.isExpired() || revocationRegistry.isRevoked(verifiedToken)) {
+					log.error("Token is expired or revoked for the user : {}", userName);
+					this.writeErrorResponse(response, "Token is expired or revoked");
+					return;
 				}
+				EmsPrincipal principal = verifiedToken.principal();
+				SecurityContext context = SecurityContextHolder.createEmptyContext();
+				List<GrantedAuthority> authorities = new ArrayList<>();
+				authorities.add(new SimpleGrantedAuthority(String.valueOf(principal.role())));
+				UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(principal,
+						null, authorities);
+				authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+				context.setAuthentication(authToken);
+				SecurityContextHolder.setContext(context);
 			} else {
 				log.error("Security context ot username is empty...!");
 				this.writeErrorResponse(response, "Unauthorized entry");
@@ -37,6 +37,12 @@ public class AppSecurityConfig {
 	 */ 
 	final AppAuthenticationFilter authenticationFilter;
 
+	/**
+	 * Injected idempotency filter to answer the retried requests from the stored
+	 * responses once the employee is authorized
+	 */
+	final IdempotencyFilter idempotencyFilter;
+
 	/**
 	 * Method configure all of the API level authorization and mentioned the session
 	 * as state less as of now. All of the authorization are handled in controller
@@ -53,7 +59,8 @@ public class AppSecurityConfig {
 																 "/attendance/employee/work-type/**")
 						.permitAll().anyRequest().authenticated())
 				.sessionManagement(manager -> manager.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-				.addFilterBefore(authenticationFilter, UsernamePasswordAuthenticationFilter.class).build();
+				.addFilterBefore(authenticationFilter, UsernamePasswordAuthenticationFilter.class)
+				.addFilterAfter(idempotencyFilter, AppAuthenticationFilter.class).build();
 	}
 
 	/**
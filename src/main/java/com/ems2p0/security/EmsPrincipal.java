@@ -0,0 +1,41 @@
+package com.ems2p0.security;
+
+import java.io.Serializable;
+import java.security.Principal;
+
+import com.ems2p0.enums.OfficialRole;
+import com.ems2p0.model.UserDetails;
+
+/**
+ * EMS 2.0 - Authenticated employee built only from the signed claims of the JWT
+ * token, so the authorization of a request never needs to load the user
+ * credential entity from the database.
+ *
+ * @author Mohan
+ * @version v1.0.0
+ * @category Security principal
+ * @apiNote - empId and departmentName are null for the tokens issued before
+ *          these claims were added, such a principal is rebuilt from the user
+ *          credential by {@link #of(UserDetails)}.
+ */
+public record EmsPrincipal(String userName, Integer empId, String departmentName, OfficialRole role)
+		implements Principal, Serializable {
+
+	public static EmsPrincipal of(UserDetails userDetails) {
+		return new EmsPrincipal(userDetails.getUsername(), userDetails.getEmpId(),
+				userDetails.getEmployeeRoleManagement().getDepartmentName(),
+				userDetails.getEmployeeRoleManagement().getOfficialRole());
+	}
+
+	/**
+	 * Method to check the token carried every claim of the employee
+	 */
+	public boolean hasEmployeeClaims() {
+		return empId != null && departmentName != null && role != null;
+	}
+
+	@Override
+	public String getName() {
+		return userName;
+	}
+}
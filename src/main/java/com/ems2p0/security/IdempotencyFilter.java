@@ -0,0 +1,242 @@
+package com.ems2p0.security;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.ems2p0.dto.response.GenericResponseDto;
+import com.ems2p0.enums.ExceptionMsg;
+import com.ems2p0.security.multi_factor.MultifactorAuthenticator;
+import com.ems2p0.utils.Ems2p0Constants;
+import com.ems2p0.utils.cache.BoundedTtlCache;
+import com.ems2p0.utils.cache.CacheStats;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - Idempotency filter of the request, edit and approve endpoints. A
+ * request which carries the Idempotency-Key header is run once per employee
+ * and key, its response is kept in a bounded in memory store and the retries
+ * of the same request are answered from the store without reaching the
+ * controllers.
+ *
+ * @author Mohan
+ * @version v1.0.0
+ * @category Security filter
+ * @apiNote - The filter runs after the authorization filter so the keys are
+ *          scoped by the employee, a key reused for another request body is
+ *          rejected and only the successful responses are stored so the
+ *          failed requests can be retried with the same key.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+	/**
+	 * Injected multi factor authenticator to scope the keys by the employee
+	 */
+	private final MultifactorAuthenticator multifactorAuthenticator;
+
+	/**
+	 * Injected object mapper to write the rejected requests and to read the
+	 * status of the responses
+	 */
+	private final ObjectMapper objectMapper;
+
+	@Value("${ems.idempotency.paths}")
+	private Set<String> idempotentPaths;
+
+	@Value("${ems.idempotency.cache-size}")
+	private int cacheSize;
+
+	@Value("${ems.idempotency.ttl-ms}")
+	private long ttlMillis;
+
+	/**
+	 * Stored responses by the employee and the hashed key
+	 */
+	private BoundedTtlCache<String, StoredResponse> responses;
+
+	private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+	@PostConstruct
+	public void init() {
+		responses = new BoundedTtlCache<>(cacheSize, Duration.ofMillis(ttlMillis));
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return StringUtils.isBlank(request.getHeader(Ems2p0Constants.IDEMPOTENCY_KEY_HEADER))
+				|| !idempotentPaths.contains(request.getServletPath());
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String userName = multifactorAuthenticator.getLoggedInUserDetail();
+		if (StringUtils.isEmpty(userName)) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		String key = userName + ':' + digest((request.getMethod() + ' ' + request.getServletPath() + ' '
+				+ request.getHeader(Ems2p0Constants.IDEMPOTENCY_KEY_HEADER)).getBytes(StandardCharsets.UTF_8));
+		byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+		String fingerprint = digest(body);
+		if (!inFlight.add(key)) {
+			this.writeRejection(response, HttpStatus.CONFLICT, ExceptionMsg.IDEMPOTENT_REQUEST_IN_PROGRESS);
+			return;
+		}
+		try {
+			StoredResponse stored = responses.get(key);
+			if (stored != null) {
+				if (!stored.fingerprint().equals(fingerprint)) {
+					this.writeRejection(response, HttpStatus.UNPROCESSABLE_ENTITY, ExceptionMsg.IDEMPOTENCY_KEY_REUSED);
+					return;
+				}
+				log.info("IdempotencyFilter : replaying {} {} for the user : {}", request.getMethod(),
+						request.getServletPath(), userName);
+				response.setStatus(stored.status());
+				response.setContentType(stored.contentType());
+				response.setHeader(Ems2p0Constants.IDEMPOTENT_REPLAY_HEADER, "true");
+				response.getOutputStream().write(stored.body());
+				return;
+			}
+			ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+			filterChain.doFilter(new CachedBodyRequest(request, body), responseWrapper);
+			if (this.isSuccessful(responseWrapper)) {
+				responses.put(key, new StoredResponse(fingerprint, responseWrapper.getStatus(),
+						responseWrapper.getContentType(), responseWrapper.getContentAsByteArray()));
+			}
+			responseWrapper.copyBodyToResponse();
+		} finally {
+			inFlight.remove(key);
+		}
+	}
+
+	/**
+	 * Only the successful responses are stored, the exception handler answers the
+	 * failures with 200 and a false status so the body has to be checked
+	 */
+	private boolean isSuccessful(ContentCachingResponseWrapper responseWrapper) {
+		if (!HttpStatusCode.valueOf(responseWrapper.getStatus()).is2xxSuccessful()
+				|| !StringUtils.startsWith(responseWrapper.getContentType(), MediaType.APPLICATION_JSON_VALUE)) {
+			return false;
+		}
+		try {
+			JsonNode status = objectMapper.readTree(responseWrapper.getContentAsByteArray()).path("status");
+			return status.isBoolean() && status.booleanValue();
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	public CacheStats stats() {
+		return responses.stats();
+	}
+
+	private void writeRejection(HttpServletResponse response, HttpStatus status, ExceptionMsg exceptionMsg)
+			throws IOException {
+		response.setStatus(status.value());
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		response.getWriter()
+				.write(objectMapper.writeValueAsString(new GenericResponseDto<>(false, exceptionMsg.getMessage(), null)));
+	}
+
+	private static String digest(byte[] content) {
+		try {
+			return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(content));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Response of a completed request which is replayed for its retries
+	 */
+	private record StoredResponse(String fingerprint, int status, String contentType, byte[] body) {
+	}
+
+	/**
+	 * Request whose body was read to fingerprint it and is served again to the
+	 * controllers
+	 */
+	private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+		private final byte[] body;
+
+		CachedBodyRequest(HttpServletRequest request, byte[] body) {
+			super(request);
+			this.body = body;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			ByteArrayInputStream input = new ByteArrayInputStream(body);
+			return new ServletInputStream() {
+
+				@Override
+				public int read() {
+					return input.read();
+				}
+
+				@Override
+				public int read(byte[] buffer, int offset, int length) {
+					return input.read(buffer, offset, length);
+				}
+
+				@Override
+				public boolean isFinished() {
+					return input.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setReadListener(ReadListener readListener) {
+					// the body is already in memory, so it is available at once
+					try {
+						if (!this.isFinished()) {
+							readListener.onDataAvailable();
+						}
+						if (this.isFinished()) {
+							readListener.onAllDataRead();
+						}
+					} catch (IOException e) {
+						readListener.onError(e);
+					}
+				}
+			};
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package com.ems2p0.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -8,13 +9,23 @@ import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.ems2p0.enums.OfficialRole;
+import com.ems2p0.model.EmployeeRoleManagement;
 import com.ems2p0.model.UserDetails;
+import com.ems2p0.utils.cache.BoundedTtlCache;
+import com.ems2p0.utils.cache.CacheStats;
 
+import jakarta.annotation.PostConstruct;
+
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 /**
  * EMS 2.0 - JWT functional component to manipulate the token by using secret
@@ -31,57 +42,123 @@ import java.util.function.Function;
 @Component
 public class JwtUtils {
 
+    public static final String ROLE_CLAIM = "role";
+
+    public static final String EMP_ID_CLAIM = "empId";
+
+    public static final String DEPARTMENT_CLAIM = "dept";
+
     @Value("${app.token.sign-in.key}")
     private String jwtSigningKey;
 
+    @Value("${app.jwt.verified-cache.size}")
+    private int verifiedCacheSize;
+
+    @Value("${app.jwt.refresh.expirationMs}")
+    private long refreshTokenExpiration;
+
+    @Value("${app.jwt.access.expirationMs}")
+    private long accessTokenExpiration;
+
+    private Key signingKey;
+
+    private JwtParser jwtParser;
+
+    /**
+     * Verified tokens by the hash of the token, kept until the token expires
+     */
+    private BoundedTtlCache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSigningKey));
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        verifiedTokens = new BoundedTtlCache<>(verifiedCacheSize,
+                Duration.ofMillis(Math.max(refreshTokenExpiration, accessTokenExpiration)));
+    }
+
+    /**
+     * Method to verify the signature and the expiration of the token once and
+     * serve the repeated calls of the same token from the cache
+     *
+     * @param token
+     * @return {@link - VerifiedToken}
+     */
+    public VerifiedToken verify(String token) {
+        String tokenHash = hash(token);
+        VerifiedToken verified = verifiedTokens.get(tokenHash);
+        if (verified != null && !verified.isExpired()) {
+            return verified;
+        }
+        Claims claims = extractAllClaims(token);
+        verified = new VerifiedToken(toPrincipal(claims), claims,
+                claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L, claims.getExpiration().getTime());
+        verifiedTokens.put(tokenHash, verified,
+                Duration.ofMillis(verified.expiresAtMillis() - System.currentTimeMillis()));
+        return verified;
+    }
+
+    public CacheStats verifiedTokenStats() {
+        return verifiedTokens.stats();
+    }
+
     public String extractUserName(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     public String generateToken(UserDetails userDetails, Long expiration) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("role", userDetails.getEmployeeRoleManagement().getOfficialRole());
-        return generateToken(claims, userDetails, expiration);
+        return generateToken(principalClaims(userDetails), userDetails, expiration);
     }
     
     public String generateRefreshToken(UserDetails userDetails,Long refreshTokenExpiration) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("role", userDetails.getEmployeeRoleManagement().getOfficialRole());
-        return generateToken(claims, userDetails, refreshTokenExpiration);
+        return generateToken(principalClaims(userDetails), userDetails, refreshTokenExpiration);
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String userName = extractUserName(token);
-        return (userName.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolvers) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolvers.apply(claims);
+        VerifiedToken verified = verify(token);
+        return verified.subject().equals(userDetails.getUsername()) && !verified.isExpired();
     }
 
     private String generateToken(Map<String, Object> extraClaims, UserDetails userDetails, Long expiration) {
         return Jwts.builder().setClaims(extraClaims).setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256).compact();
+                .signWith(signingKey, SignatureAlgorithm.HS256).compact();
 
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Method to collect the claims which are enough to authorize the employee
+     * without loading the user credential on every request
+     *
+     * @param userDetails
+     * @return claims
+     */
+    private Map<String, Object> principalClaims(UserDetails userDetails) {
+        EmployeeRoleManagement roleManagement = userDetails.getEmployeeRoleManagement();
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(ROLE_CLAIM, roleManagement.getOfficialRole());
+        claims.put(EMP_ID_CLAIM, userDetails.getEmpId());
+        claims.put(DEPARTMENT_CLAIM, roleManagement.getDepartmentName());
+        return claims;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static EmsPrincipal toPrincipal(Claims claims) {
+        String role = claims.get(ROLE_CLAIM, String.class);
+        return new EmsPrincipal(claims.getSubject(), claims.get(EMP_ID_CLAIM, Integer.class),
+                claims.get(DEPARTMENT_CLAIM, String.class), role != null ? OfficialRole.valueOf(role) : null);
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSigningKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -0,0 +1,86 @@
+package com.ems2p0.security;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ems2p0.utils.cache.BoundedTtlCache;
+import com.ems2p0.utils.cache.CacheStats;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - In memory registry of the employees who signed out, every token of
+ * the employee issued before the second of the sign out is rejected by the
+ * authorization filter until it would have expired by itself. The issue time
+ * of a token has only second granularity, so a token issued in the second of
+ * the sign out stays valid rather than rejecting a login right after it.
+ *
+ * @author Mohan
+ * @version v1.0.0
+ * @category Security component
+ * @apiNote - The registry is local to the instance and it is switched off by
+ *          app.jwt.revocation.enabled=false, tokens are then valid until their
+ *          expiration.
+ */
+@Component
+@Slf4j
+public class TokenRevocationRegistry {
+
+	@Value("${app.jwt.revocation.enabled}")
+	private boolean enabled;
+
+	@Value("${app.jwt.revocation.cache-size}")
+	private int cacheSize;
+
+	@Value("${app.jwt.refresh.expirationMs}")
+	private long refreshTokenExpiration;
+
+	@Value("${app.jwt.access.expirationMs}")
+	private long accessTokenExpiration;
+
+	/**
+	 * Sign out time in epoch seconds by the userName
+	 */
+	private BoundedTtlCache<String, Long> revokedBefore;
+
+	@PostConstruct
+	public void init() {
+		revokedBefore = new BoundedTtlCache<>(cacheSize,
+				Duration.ofMillis(Math.max(refreshTokenExpiration, accessTokenExpiration)));
+	}
+
+	/**
+	 * Method to revoke all the tokens issued to the employee until now
+	 *
+	 * @param userName
+	 */
+	public void revoke(String userName) {
+		if (enabled) {
+			revokedBefore.put(userName, TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+			log.info("Tokens revoked for the user : {}", userName);
+		}
+	}
+
+	/**
+	 * Method to check the token is issued before the second of the last sign out
+	 * of the employee
+	 *
+	 * @param verifiedToken
+	 * @return true when the token must be rejected
+	 */
+	public boolean isRevoked(VerifiedToken verifiedToken) {
+		if (!enabled) {
+			return false;
+		}
+		Long revokedAt = revokedBefore.get(verifiedToken.subject());
+		return revokedAt != null && TimeUnit.MILLISECONDS.toSeconds(verifiedToken.issuedAtMillis()) < revokedAt;
+	}
+
+	public CacheStats stats() {
+		return revokedBefore.stats();
+	}
+}
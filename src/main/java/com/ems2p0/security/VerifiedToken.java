@@ -0,0 +1,19 @@
+package com.ems2p0.security;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * EMS 2.0 - Result of a single signature verification of a JWT token which is
+ * cached until the token expires, along with the principal built from its
+ * claims.
+ */
+public record VerifiedToken(EmsPrincipal principal, Claims claims, long issuedAtMillis, long expiresAtMillis) {
+
+	public String subject() {
+		return principal.userName();
+	}
+
+	public boolean isExpired() {
+		return expiresAtMillis <= System.currentTimeMillis();
+	}
+}
@@ -0,0 +1,82 @@
+package com.ems2p0.security.multi_factor;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.function.UnaryOperator;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ems2p0.dao.service.EmsDaoService;
+import com.ems2p0.model.MultiFactorAuthentication;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * EMS 2.0 - Persistent store of the one time password challenges in
+ * mfa_otp_challenge for the deployments where the code can be validated by
+ * another node than the one which issued it. The challenge row of a user is
+ * locked while a code is issued or an attempt is counted.
+ *
+ * @author Mohan
+ * @category Security module
+ * @version v1.0.0
+ * @apiNote - Developer should be responsible to enable this store only for
+ *          multi node deployments by ems.otp.store=database, the in memory store
+ *          is the default.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "ems.otp.store", havingValue = "database")
+public class DatabaseOtpStore implements OtpStore {
+
+	/**
+	 * Injected EMS Data access service
+	 */
+	private final EmsDaoService daoService;
+
+	/**
+	 * The row of the user is upserted first, so the first challenges of the user
+	 * issued concurrently by two nodes are serialized on the unique userName
+	 * instead of both inserting it
+	 */
+	@Override
+	@Transactional
+	public void update(String userName, UnaryOperator<OtpChallenge> update) {
+		daoService.createOtpIfAbsent(userName);
+		MultiFactorAuthentication authentication = daoService.fetchOtpForUpdate(userName)
+				.orElseThrow(() -> new IllegalStateException("OTP challenge row is missing for " + userName));
+		OtpChallenge updated = update.apply(this.toChallenge(authentication));
+		if (updated != null) {
+			daoService.persistOtp(this.apply(authentication, updated));
+		} else {
+			daoService.deleteOtp(userName);
+		}
+	}
+
+	@Override
+	public int purgeExpired(long nowMillis) {
+		return daoService.purgeExpiredOtps(nowMillis);
+	}
+
+	private MultiFactorAuthentication apply(MultiFactorAuthentication authentication, OtpChallenge challenge) {
+		return authentication.setOtpSalt(Base64.getEncoder().encodeToString(challenge.salt()))
+				.setOtpHash(Base64.getEncoder().encodeToString(challenge.hash()))
+				.setExpiresAtMillis(challenge.expiresAtMillis()).setAttempts(challenge.attempts())
+				.setWindowEndsAtMillis(challenge.windowEndsAtMillis()).setModifiedDateTime(LocalDateTime.now());
+	}
+
+	/**
+	 * The row created by the upsert has no code yet, it is no pending challenge
+	 */
+	private OtpChallenge toChallenge(MultiFactorAuthentication authentication) {
+		if (authentication.getOtpHash() == null) {
+			return null;
+		}
+		return new OtpChallenge(authentication.getUserName(), Base64.getDecoder().decode(authentication.getOtpSalt()),
+				Base64.getDecoder().decode(authentication.getOtpHash()), authentication.getExpiresAtMillis(),
+				authentication.getAttempts() != null ? authentication.getAttempts() : 0,
+				authentication.getWindowEndsAtMillis() != null ? authentication.getWindowEndsAtMillis() : 0L);
+	}
+}
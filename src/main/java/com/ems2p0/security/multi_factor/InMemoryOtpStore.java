@@ -0,0 +1,38 @@
+package com.ems2p0.security.multi_factor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * EMS 2.0 - In memory store of the one time password challenges, the sign-in
+ * flow never touches the database for the codes.
+ *
+ * @author Mohan
+ * @category Security module
+ * @version v1.0.0
+ * @apiNote - The challenges are local to the instance, a deployment where the
+ *          code can be validated by another node than the one which issued it
+ *          should use ems.otp.store=database.
+ */
+@Component
+@ConditionalOnProperty(name = "ems.otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+	private final Map<String, OtpChallenge> challenges = new ConcurrentHashMap<>();
+
+	@Override
+	public void update(String userName, UnaryOperator<OtpChallenge> update) {
+		challenges.compute(userName, (key, challenge) -> update.apply(challenge));
+	}
+
+	@Override
+	public int purgeExpired(long nowMillis) {
+		int size = challenges.size();
+		challenges.values().removeIf(challenge -> challenge.isStale(nowMillis));
+		return Math.max(size - challenges.size(), 0);
+	}
+}
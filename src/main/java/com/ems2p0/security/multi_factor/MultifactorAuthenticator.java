@@ -1,19 +1,25 @@
 package com.ems2p0.security.multi_factor;
 
-import java.time.LocalDateTime;
-import java.util.Random;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import com.ems2p0.dao.service.EmsDaoService;
 import com.ems2p0.dto.exception.CustomExceptionDto;
-import com.ems2p0.enums.OtpStatus;
-import com.ems2p0.model.MultiFactorAuthentication;
+import com.ems2p0.enums.ExceptionMsg;
 import com.ems2p0.model.UserDetails;
+import com.ems2p0.security.EmsPrincipal;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -35,10 +41,27 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class MultifactorAuthenticator {
 
+	private static final int OTP_ORIGIN = 1000;
+
+	private static final int OTP_BOUND = 10000;
+
+	private static final int SALT_LENGTH = 16;
+
 	/**
-	 * Injected EMS Data access service
+	 * Injected store of the pending OTP challenges
 	 */
-	private final EmsDaoService daoService;
+	private final OtpStore otpStore;
+
+	private final SecureRandom secureRandom = new SecureRandom();
+
+	@Value("${ems.otp.ttl-ms}")
+	private long ttlMillis;
+
+	@Value("${ems.otp.max-attempts}")
+	private int maxAttempts;
+
+	@Value("${ems.otp.attempt-window-ms}")
+	private long attemptWindowMillis;
 
 	/**
 	 * Method to generate the OTP for authentication
@@ -46,47 +69,102 @@ public class MultifactorAuthenticator {
 	 * @return
 	 */
 	private Integer generateOtp() {
-	Random random = new Random();
-		return random.nextInt(9000) + 1000;
+		return secureRandom.nextInt(OTP_ORIGIN, OTP_BOUND);
 	}
 
 	/**
-	 * Method to persist or save the multi factor authentication details
+	 * Method to issue a new OTP to the user, only the salted hash of the code is
+	 * stored and any pending OTP of the user is replaced. The failed attempts of
+	 * the attempt window are kept for the new code and no code is issued while
+	 * the user is locked by the failed attempts.
 	 *
-	 * @return
+	 * @return the code to be sent to the user
 	 */
-	public MultiFactorAuthentication persistMultiFactorAuthDetails(UserDetails userDetails) {
-		MultiFactorAuthentication existsOtp = daoService.fetchOtpByUserDetailsAndStatus(userDetails);
-		if (ObjectUtils.isNotEmpty(existsOtp)) {
-			MultiFactorAuthentication authentication = new MultiFactorAuthentication().setId(existsOtp.getId())
-					.setOtp(generateOtp()).setOtpStatus(OtpStatus.ACTIVE).setCreatedDateTime(LocalDateTime.now())
-					.setModifiedDateTime(LocalDateTime.now()).setUserDetails(userDetails);
-			return daoService.persistOtp(authentication);
-		} else {
-			MultiFactorAuthentication authentication = new MultiFactorAuthentication().setOtp(generateOtp())
-					.setOtpStatus(OtpStatus.ACTIVE).setCreatedDateTime(LocalDateTime.now())
-					.setModifiedDateTime(LocalDateTime.now()).setUserDetails(userDetails);
-			return daoService.persistOtp(authentication);
+	public Integer issueOtp(UserDetails userDetails) {
+		Integer otp = generateOtp();
+		byte[] salt = new byte[SALT_LENGTH];
+		secureRandom.nextBytes(salt);
+		byte[] hash = hash(salt, otp);
+		long now = System.currentTimeMillis();
+		AtomicBoolean locked = new AtomicBoolean();
+		otpStore.update(userDetails.getUsername(), challenge -> {
+			if (challenge == null || now >= challenge.windowEndsAtMillis()) {
+				return new OtpChallenge(userDetails.getUsername(), salt, hash, now + ttlMillis, 0,
+						now + attemptWindowMillis);
+			}
+			if (challenge.isLocked(maxAttempts)) {
+				locked.set(true);
+				return challenge;
+			}
+			return challenge.reissued(salt, hash, now + ttlMillis);
+		});
+		if (locked.get()) {
+			log.error("Exception occured while issuing the OTP : {}", ExceptionMsg.OTP_ATTEMPTS_EXCEEDED.getMessage());
+			throw new CustomExceptionDto(ExceptionMsg.OTP_ATTEMPTS_EXCEEDED.getMessage());
 		}
-
+		return otp;
 	}
 
 	/**
-	 * Method to validate the OTP in authentication
+	 * Method to validate the OTP in authentication, the pending OTP is consumed
+	 * when it matches. The failed attempts are kept until the attempt window ends
+	 * and the user is locked for a whole window once they reach the limit.
 	 *
 	 * @param otp
-	 * @return
 	 */
-	public MultiFactorAuthentication validateAuthenticationDetails(Integer otp, UserDetails userDetails) {
+	public void validateAuthenticationDetails(Integer otp, UserDetails userDetails) {
+		long now = System.currentTimeMillis();
+		AtomicReference<ExceptionMsg> failure = new AtomicReference<>();
+		otpStore.update(userDetails.getUsername(), challenge -> {
+			if (challenge == null) {
+				failure.set(ExceptionMsg.INVALID_OTP);
+				return null;
+			}
+			if (challenge.isLocked(maxAttempts)) {
+				failure.set(ExceptionMsg.OTP_ATTEMPTS_EXCEEDED);
+				return challenge;
+			}
+			if (challenge.isExpired(now)) {
+				failure.set(ExceptionMsg.OTP_EXPIRED);
+				return challenge;
+			}
+			if (otp != null && MessageDigest.isEqual(challenge.hash(), hash(challenge.salt(), otp))) {
+				return null;
+			}
+			OtpChallenge failed = challenge.failed();
+			if (failed.isLocked(maxAttempts)) {
+				failure.set(ExceptionMsg.OTP_ATTEMPTS_EXCEEDED);
+				return failed.lockedUntil(now + attemptWindowMillis);
+			}
+			failure.set(ExceptionMsg.INVALID_OTP);
+			return failed;
+		});
+		if (failure.get() != null) {
+			log.error("Exception occured while doing OTP validation : {}", failure.get().getMessage());
+			throw new CustomExceptionDto(failure.get().getMessage());
+		}
+		log.info("OTP authenticated successfully.....");
+	}
+
+	/**
+	 * Method to remove the OTPs which were never validated once their attempt
+	 * window is over
+	 */
+	@Scheduled(initialDelayString = "${ems.otp.purge-interval-ms}", fixedDelayString = "${ems.otp.purge-interval-ms}")
+	public void purgeExpiredOtps() {
+		int purged = otpStore.purgeExpired(System.currentTimeMillis());
+		if (purged > 0) {
+			log.info("MultifactorAuthenticator : purgeExpiredOtps() - {} expired OTPs removed", purged);
+		}
+	}
+
+	private static byte[] hash(byte[] salt, Integer otp) {
 		try {
-			MultiFactorAuthentication authentication = daoService.fetchOtp(otp, userDetails)
-					.setOtpStatus(OtpStatus.IN_ACTIVE).setModifiedDateTime(LocalDateTime.now());
-			daoService.persistOtp(authentication);
-			log.info("OTP authenticated successfully.....");
-			return authentication;
-		} catch (Exception e) {
-			log.error("Exception occured while doing OTP validation : {}", e.toString());
-			throw new CustomExceptionDto(e.getMessage());
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(salt);
+			return digest.digest(String.valueOf(otp).getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
 		}
 	}
 
@@ -102,4 +180,21 @@ public class MultifactorAuthenticator {
 				: null;
 		return StringUtils.isNotEmpty(username) ? username : "";
 	}
+
+	/**
+	 * Method to fetch the principal of current loggedIn user from the token
+	 * claims, the user credential is loaded only for the tokens issued without
+	 * the employee claims
+	 *
+	 * @param loader to load the user credential by the userName
+	 * @return
+	 */
+	public EmsPrincipal getLoggedInPrincipal(Function<String, UserDetails> loader) {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (ObjectUtils.isNotEmpty(authentication) && authentication.getPrincipal() instanceof EmsPrincipal principal
+				&& principal.hasEmployeeClaims()) {
+			return principal;
+		}
+		return EmsPrincipal.of(loader.apply(this.getLoggedInUserDetail()));
+	}
 }
@@ -0,0 +1,45 @@
+package com.ems2p0.security.multi_factor;
+
+/**
+ * EMS 2.0 - One time password challenge issued to an employee, only the salted
+ * hash of the code is kept together with its expiry and the failed attempts of
+ * the attempt window.
+ *
+ * @author Mohan
+ * @category Security module
+ * @version v1.0.0
+ * @apiNote - The challenge is immutable, a failed attempt or a new code replaces
+ *          it in the store by a copy. The failed attempts are carried over to
+ *          the new codes until the attempt window ends, so issuing a new code
+ *          never gives more attempts.
+ */
+public record OtpChallenge(String userName, byte[] salt, byte[] hash, long expiresAtMillis, int attempts,
+		long windowEndsAtMillis) {
+
+	public boolean isExpired(long nowMillis) {
+		return nowMillis >= expiresAtMillis;
+	}
+
+	public boolean isLocked(int maxAttempts) {
+		return attempts >= maxAttempts;
+	}
+
+	/**
+	 * The challenge is kept until both the code and the attempt window are over
+	 */
+	public boolean isStale(long nowMillis) {
+		return this.isExpired(nowMillis) && nowMillis >= windowEndsAtMillis;
+	}
+
+	public OtpChallenge failed() {
+		return new OtpChallenge(userName, salt, hash, expiresAtMillis, attempts + 1, windowEndsAtMillis);
+	}
+
+	public OtpChallenge lockedUntil(long untilMillis) {
+		return new OtpChallenge(userName, salt, hash, expiresAtMillis, attempts, untilMillis);
+	}
+
+	public OtpChallenge reissued(byte[] newSalt, byte[] newHash, long newExpiresAtMillis) {
+		return new OtpChallenge(userName, newSalt, newHash, newExpiresAtMillis, attempts, windowEndsAtMillis);
+	}
+}
@@ -0,0 +1,32 @@
+package com.ems2p0.security.multi_factor;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * EMS 2.0 - Store of the pending one time password challenges by the userName,
+ * a user has at most one pending challenge.
+ *
+ * @author Mohan
+ * @category Security module
+ * @version v1.0.0
+ * @apiNote - Developer should be responsible to keep the update of a challenge
+ *          atomic, concurrent attempts of the same user must never be able to
+ *          exceed the allowed attempts.
+ */
+public interface OtpStore {
+
+	/**
+	 * Method to atomically replace the pending challenge of the user by the result
+	 * of the update, the update is called with null when there is no pending
+	 * challenge and a null result removes it
+	 */
+	void update(String userName, UnaryOperator<OtpChallenge> update);
+
+	/**
+	 * Method to remove the challenges whose code and attempt window are over at
+	 * the given time
+	 *
+	 * @return number of removed challenges
+	 */
+	int purgeExpired(long nowMillis);
+}
@@ -1,5 +1,6 @@
 package com.ems2p0.service;
 
+import java.time.YearMonth;
 import java.util.List;
 
 import com.ems2p0.dto.exception.CheckInProcessingException;
@@ -7,6 +8,7 @@ import com.ems2p0.dto.exception.CheckOutProcessingException;
 import com.ems2p0.dto.request.AttendanceDto;
 import com.ems2p0.dto.response.AttendanceResponseDto;
 import com.ems2p0.dto.response.GenericResponseDto;
+import com.ems2p0.dto.response.TimesheetResponseDto;
 import com.ems2p0.projections.WorktypeProjections;
 
 import jakarta.validation.Valid;
@@ -33,4 +35,6 @@ public interface AttendanceService {
 
 	AttendanceResponseDto fetchEmployeeCheckInDetails();
 
+	GenericResponseDto<List<TimesheetResponseDto>> fetchTimesheet(YearMonth month, String departmentName);
+
 }
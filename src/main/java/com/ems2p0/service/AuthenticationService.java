@@ -1,14 +1,11 @@
 package com.ems2p0.service;
 
-import java.io.UnsupportedEncodingException;
-
 import com.ems2p0.dto.request.EmailIdRequestDto;
 import com.ems2p0.dto.request.ValidateAuthDto;
 import com.ems2p0.dto.response.LoginResponseDto;
 import com.ems2p0.dto.response.MFAResponseDto;
 import com.ems2p0.dto.response.RefreshTokenResponseDto;
 
-import jakarta.mail.MessagingException;
 
 /**
  * EMS 2.0 - Interface layer to maintain all api methods and functionalities to
@@ -26,7 +23,7 @@ public interface AuthenticationService {
 
     String welcomePage();
 
-    MFAResponseDto authenticateByMultiFactor(EmailIdRequestDto emailIdRequestDto) throws MessagingException, UnsupportedEncodingException;
+    MFAResponseDto authenticateByMultiFactor(EmailIdRequestDto emailIdRequestDto);
 
     LoginResponseDto validateMultiFactorAuthentication(ValidateAuthDto validateAuthDto);
 
@@ -2,6 +2,9 @@ package com.ems2p0.service;
 
 import java.util.List;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.ems2p0.dao.page.KeysetPage;
 import com.ems2p0.dto.exception.UpdateExceptionMsg;
 import com.ems2p0.dto.request.RequestPermissionDto;
 import com.ems2p0.dto.request.UpdatePermissionStatusRequestDto;
@@ -9,6 +12,7 @@ import com.ems2p0.dto.response.EmployeeDetailsDto;
 import com.ems2p0.dto.response.GenericResponseDto;
 import com.ems2p0.dto.response.PermissionDetailsResponseDto;
 import com.ems2p0.dto.response.PermissionStatsResponseDto;
+import com.ems2p0.enums.ReportFormat;
 
 /**
  * EMS 2.0 - Interface layer to maintain all api methods and functionalities to
@@ -38,11 +42,15 @@ public interface PermissionService {
 
 	GenericResponseDto<PermissionStatsResponseDto> fetchPermissionStatsByUsername(String month);
 
-	GenericResponseDto<List<PermissionDetailsResponseDto>> fetchPermissionDetailsByUsername();
+	KeysetPage<PermissionDetailsResponseDto> fetchPermissionDetailsByUsername(String cursor, Integer size);
+
+	KeysetPage<PermissionDetailsResponseDto> fetchEmployeePermissionDetails(String cursor, Integer size);
 
-	GenericResponseDto<List<PermissionDetailsResponseDto>> fetchEmployeePermissionDetails();
+	KeysetPage<PermissionDetailsResponseDto> fetchAllEmployeePermissionReports(String cursor, Integer size);
 
-	GenericResponseDto<List<PermissionDetailsResponseDto>> fetchAllEmployeePermissionReports();
+	StreamingResponseBody exportAllEmployeePermissionReports(ReportFormat format);
 
 	GenericResponseDto<List<EmployeeDetailsDto>> fetchEmployeeDetail();
+
+	GenericResponseDto<Integer> rebuildPermissionStats();
 }
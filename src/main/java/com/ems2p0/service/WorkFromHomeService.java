@@ -2,6 +2,9 @@ package com.ems2p0.service;
 
 import java.util.List;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.ems2p0.dao.page.KeysetPage;
 import com.ems2p0.dto.request.UpdatePermissionStatusRequestDto;
 import com.ems2p0.dto.request.UpdateWfhStatusRequestDto;
 import com.ems2p0.dto.request.WfhRequestDto;
@@ -9,8 +12,8 @@ import com.ems2p0.dto.response.GenericResponseDto;
 import com.ems2p0.dto.response.PermissionDetailsResponseDto;
 import com.ems2p0.dto.response.WfhDetailsResponseDto;
 import com.ems2p0.dto.response.WfhStatsResponseDto;
+import com.ems2p0.enums.ReportFormat;
 
-import jakarta.mail.internet.ParseException;
 import jakarta.validation.Valid;
 
 public interface WorkFromHomeService {
@@ -22,19 +25,23 @@ public interface WorkFromHomeService {
 	
 	GenericResponseDto<Integer> cancelWfh(UpdateWfhStatusRequestDto request) throws Exception;
 
-	GenericResponseDto<List<WfhDetailsResponseDto>> fetchWorkFromHomeDetailsByUsername();
+	KeysetPage<WfhDetailsResponseDto> fetchWorkFromHomeDetailsByUsername(String cursor, Integer size);
 
-	GenericResponseDto<List<WfhDetailsResponseDto>> fetchEmployeesWorkFromHomeDetailsByUsername();
+	KeysetPage<WfhDetailsResponseDto> fetchEmployeesWorkFromHomeDetailsByUsername(String cursor, Integer size);
 	
-	GenericResponseDto<WfhDetailsResponseDto> editWfhRequest(@Valid WfhRequestDto wfhRequestDto) throws ParseException, java.text.ParseException;
+	GenericResponseDto<WfhDetailsResponseDto> editWfhRequest(@Valid WfhRequestDto wfhRequestDto) throws Exception;
 	
-	GenericResponseDto<List<WfhDetailsResponseDto>> fetchAllEmployeeWfhReports();
+	KeysetPage<WfhDetailsResponseDto> fetchAllEmployeeWfhReports(String cursor, Integer size);
+
+	StreamingResponseBody exportAllEmployeeWfhReports(ReportFormat format);
 	
 	GenericResponseDto<List<Integer>> approveWfh(UpdateWfhStatusRequestDto request) throws Exception;
 	
 	GenericResponseDto<List<Integer>> rejectWfh(UpdateWfhStatusRequestDto request) throws Exception;
 
 	void clearWfhData();
+
+	GenericResponseDto<Integer> rebuildWfhStats();
 	
 	
 
@@ -2,9 +2,16 @@ package com.ems2p0.serviceImpl;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import com.ems2p0.dao.service.EmsDaoService;
@@ -14,10 +21,15 @@ import com.ems2p0.dto.exception.CustomExceptionDto;
 import com.ems2p0.dto.request.AttendanceDto;
 import com.ems2p0.dto.response.AttendanceResponseDto;
 import com.ems2p0.dto.response.GenericResponseDto;
+import com.ems2p0.dto.response.TimesheetDto;
+import com.ems2p0.dto.response.TimesheetResponseDto;
+import com.ems2p0.enums.ExceptionMsg;
 import com.ems2p0.mapper.attendance.AttendanceMapper;
 import com.ems2p0.model.EmployeeAttendance;
 import com.ems2p0.projections.EmployeeProjection;
+import com.ems2p0.projections.TimesheetProjection;
 import com.ems2p0.projections.WorktypeProjections;
+import com.ems2p0.security.EmsPrincipal;
 import com.ems2p0.security.multi_factor.MultifactorAuthenticator;
 import com.ems2p0.service.AttendanceService;
 import com.ems2p0.utils.Ems2p0Constants;
@@ -75,11 +87,11 @@ public class AttendanceServiceImpl implements AttendanceService {
 	        EmployeeProjection employee = daoService.loadEmployeeByUsername(userName); 
 	        LocalDateTime zoneDateAndTime = utility.getOriginalTimeZone();
 	        EmployeeAttendance attendance = new EmployeeAttendance().setEmpid(employee.getEmpSerialNo()).setName(userName)
-	                .setIndate(zoneDateAndTime.toLocalDate().toString()).setIntime(zoneDateAndTime.toLocalTime())
-	                .setOutdate(null).setOuttime(null).setLocationIn(attendanceDto.locationIn()).setLocationOut("")
+	                .setInDate(zoneDateAndTime.toLocalDate()).setIntime(zoneDateAndTime.toLocalTime())
+	                .setOutDate(null).setOuttime(null).setLocationIn(attendanceDto.locationIn()).setLocationOut("")
 	                .setOvertime(null).setPermission(LocalTime.of(0, 0, 0)).setWorkinghours((float) 0)
 	                .setTotalworkinghours((float) 0).setWorkingIn(attendanceDto.work_type());
-	        EmployeeAttendance savedAttendance = daoService.save(attendance); 
+	        EmployeeAttendance savedAttendance = daoService.recordCheckIn(attendance); 
 	        return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, 
 	                attendanceMapper.toDto(savedAttendance, employee.getEmpSerialNo(), employee.getEmpName()));
 	}
@@ -93,24 +105,21 @@ public class AttendanceServiceImpl implements AttendanceService {
 		
 		String userName = multifactorAuthenticator.getLoggedInUserDetail();
 		EmployeeProjection employee = daoService.loadEmployeeByUsername(userName); 
-		EmployeeAttendance fetchCheckIn = daoService.fetchCheckIn(attendanceDto, employee.getEmpSerialNo());
+		EmployeeAttendance fetchCheckIn = daoService.fetchOpenCheckIn(userName, attendanceDto.last_Id());
 		LocalDateTime zoneDateAndTime = utility.getOriginalTimeZone();
 		if (ObjectUtils.isNotEmpty(fetchCheckIn)) { 
 			double workingHours = utility.calculateWorkingHours(fetchCheckIn.getIntime(), LocalTime.now());
 			double totalWorkingHours = utility.calculateTotalWorkingHours(fetchCheckIn.getIntime(), LocalTime.now());
-			EmployeeAttendance saveCheckout = new EmployeeAttendance().setEmpid(fetchCheckIn.getEmpid())
-					.setRegisterid(fetchCheckIn.getRegisterid()).setIndate(fetchCheckIn.getIndate())
-					.setIntime(fetchCheckIn.getIntime()).setName(userName).setOvertime(fetchCheckIn.getOvertime())
-					.setPermission(fetchCheckIn.getPermission()).setOutdate(zoneDateAndTime.toLocalDate().toString())
+			EmployeeAttendance saveCheckout = fetchCheckIn.setOutDate(zoneDateAndTime.toLocalDate())
 					.setOuttime(zoneDateAndTime.toLocalTime()).setWorkinghours((float) workingHours)
-					.setTotalworkinghours((float) totalWorkingHours).setLocationIn(fetchCheckIn.getLocationIn())
-					.setLocationOut(attendanceDto.locationIn()).setWorkingIn(attendanceDto.work_type());
-			EmployeeAttendance saveCheckOut = daoService.save(saveCheckout); 
+					.setTotalworkinghours((float) totalWorkingHours).setLocationOut(attendanceDto.locationIn())
+					.setWorkingIn(attendanceDto.work_type());
+			EmployeeAttendance saveCheckOut = daoService.recordCheckOut(saveCheckout); 
 			return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS,
 					attendanceMapper.toDto(saveCheckOut, employee.getEmpSerialNo(), employee.getEmpName()));
 		}
 		else {
-			throw new CustomExceptionDto("CheckIn First to attempt the checkOut");
+			throw new CustomExceptionDto(ExceptionMsg.CHECK_IN_NOT_FOUND.getMessage());
 		}
 		}
 		
@@ -142,4 +151,55 @@ public class AttendanceServiceImpl implements AttendanceService {
 			return attendanceResponse;  
 		}
 	}
+
+	/**
+	 * Method to fetch the monthly timesheet in the scope of the logged in user,
+	 * managers and admins see every department (or the requested one), reporting
+	 * managers their own department and employees only themselves
+	 */
+	@Override
+	public GenericResponseDto<List<TimesheetResponseDto>> fetchTimesheet(YearMonth month, String departmentName) {
+		EmsPrincipal principal = multifactorAuthenticator.getLoggedInPrincipal(daoService::loadUserByUsername);
+		YearMonth timesheetMonth = month != null ? month : YearMonth.from(utility.getOriginalTimeZone());
+		List<TimesheetProjection> timesheet = switch (principal.role()) {
+		case ROLE_MANAGER, ROLE_ADMIN -> daoService.fetchTimesheet(timesheetMonth.atDay(1),
+				timesheetMonth.atEndOfMonth(), departmentName, null);
+		case ROLE_REPORTING_MANAGER -> daoService.fetchTimesheet(timesheetMonth.atDay(1),
+				timesheetMonth.atEndOfMonth(), principal.departmentName(), null);
+		default -> daoService.fetchTimesheet(timesheetMonth.atDay(1), timesheetMonth.atEndOfMonth(), null,
+				principal.userName());
+		};
+		return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, this.toTimesheets(timesheetMonth, timesheet));
+	}
+
+	/**
+	 * Method to group the daily rows of the rolled up timesheet by employee, the
+	 * row without a work date is the total of the employee and the row without a
+	 * user name is the grand total of the scope which is not returned
+	 */
+	private List<TimesheetResponseDto> toTimesheets(YearMonth month, List<TimesheetProjection> timesheet) {
+		String monthName = month.format(DateTimeFormatter.ofPattern(Ems2p0Constants.EMS_MONTH_FORMAT));
+		Map<String, List<TimesheetDto>> days = new LinkedHashMap<>();
+		List<TimesheetResponseDto> timesheets = new ArrayList<>();
+		for (TimesheetProjection row : timesheet) {
+			if (row.getUserName() == null) {
+				continue;
+			}
+			if (row.getWorkDate() != null) {
+				days.computeIfAbsent(row.getUserName(), key -> new ArrayList<>()).add(this.toTimesheetDto(row));
+			} else {
+				timesheets.add(new TimesheetResponseDto(row.getEmpId(), row.getUserName(), monthName,
+						this.toTimesheetDto(row), days.getOrDefault(row.getUserName(), List.of())));
+			}
+		}
+		return timesheets;
+	}
+
+	private TimesheetDto toTimesheetDto(TimesheetProjection row) {
+		List<String> workTypes = StringUtils.isNotBlank(row.getWorkTypes())
+				? Arrays.asList(row.getWorkTypes().split(","))
+				: List.of();
+		return new TimesheetDto(row.getWorkDate(), row.getSessions(), row.getWorkingHours(),
+				row.getTotalWorkingHours(), row.getOvertimeMinutes(), row.getPermissionMinutes(), workTypes);
+	}
 }
@@ -1,7 +1,5 @@
 package com.ems2p0.serviceImpl;
 
-import java.io.UnsupportedEncodingException;
-
 import org.apache.commons.lang3.ObjectUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -17,15 +15,14 @@ import com.ems2p0.dto.response.LoginResponseDto;
 import com.ems2p0.dto.response.MFAResponseDto;
 import com.ems2p0.dto.response.RefreshTokenResponseDto;
 import com.ems2p0.mapper.attendance.AttendanceMapper;
-import com.ems2p0.model.MultiFactorAuthentication;
 import com.ems2p0.model.UserDetails;
 import com.ems2p0.projections.EmployeeProjection;
 import com.ems2p0.security.JwtUtils;
+import com.ems2p0.security.TokenRevocationRegistry;
 import com.ems2p0.security.multi_factor.MultifactorAuthenticator;
 import com.ems2p0.service.AuthenticationService;
 import com.ems2p0.utils.Ems2p0Constants;
 
-import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -61,6 +58,12 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 	 */
 	private final JwtUtils jwtUtils;
 
+	/**
+	 * Injected revocation registry to reject the issued tokens after the sign
+	 * out
+	 */
+	private final TokenRevocationRegistry revocationRegistry;
+
 	/**
 	 * Injected Email component or bean to trigger the javax mail service
 	 */
@@ -87,14 +90,11 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 	}
 
 	@Override
-	public MFAResponseDto authenticateByMultiFactor(EmailIdRequestDto emailIdRequestDto)
-			throws MessagingException, UnsupportedEncodingException {
+	public MFAResponseDto authenticateByMultiFactor(EmailIdRequestDto emailIdRequestDto) {
 		EmployeeProjection employee = daoService.loadEmployeeByEmailId(emailIdRequestDto.emailId());
 		UserDetails userDetails = daoService.loadUserByUsername(employee.getUserName());
-		MultiFactorAuthentication authentication = multifactorAuthenticator.persistMultiFactorAuthDetails(userDetails);
-		userDetails.setMultiFactorAuthentication(authentication);
-		daoService.save(userDetails);
-		emailComponent.sendEmail(employee.getEmailId(), employee.getEmpName() ,authentication.getOtp());
+		Integer otp = multifactorAuthenticator.issueOtp(userDetails);
+		emailComponent.sendEmail(employee.getEmailId(), employee.getEmpName(), otp);
 		return new MFAResponseDto(userDetails.getUsername(), Ems2p0Constants.MFA_SUCCESS_MSG);
 	}
 
@@ -105,16 +105,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 				&& ObjectUtils.isNotEmpty(userDetails.getEmployeeRoleManagement().getOfficialRole())
 						? userDetails.getEmployeeRoleManagement().getOfficialRole().name()
 						: "";
-		MultiFactorAuthentication multiFactorAuthentication = multifactorAuthenticator
-				.validateAuthenticationDetails(validateAuthDto.otpValue(), userDetails);
-		if (ObjectUtils.notEqual(validateAuthDto.otpValue(), multiFactorAuthentication.getOtp())
-		        && ObjectUtils.isNotEmpty(userDetails.getMultiFactorAuthentication())
-		        && ObjectUtils.isNotEmpty(userDetails.getMultiFactorAuthentication().getOtp())) {
-		
-				ObjectUtils.notEqual(userDetails.getMultiFactorAuthentication().getOtp(), validateAuthDto.otpValue());
-				throw new CustomExceptionDto("Invalid OTP....!");
-			}
-		
+		multifactorAuthenticator.validateAuthenticationDetails(validateAuthDto.otpValue(), userDetails);
 		String access_token = jwtUtils.generateToken(userDetails, accessTokenExpiration);
 		String refresh_token = jwtUtils.generateToken(userDetails, refreshTokenExpiration);
 		return new LoginResponseDto(userDetails.getEmpId(), userDetails.getEmpName(), role, access_token,
@@ -160,6 +151,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
 			UserDetails userDetails = daoService.loadUserByUsername(userName);
 			userDetails.setEmpDeviceToken(null);
 			daoService.save(userDetails);
+			revocationRegistry.revoke(userName);
 			log.info("Token cleared and saved successfully");
 		} catch (Exception e) {
 			log.error("Exception occured while clearing the device token : {}", e.toString());
@@ -1,17 +1,22 @@
 package com.ems2p0.serviceImpl;
 
-import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.ems2p0.components.NotificationComponent;
+import com.ems2p0.components.report.ReportStreamWriter;
+import com.ems2p0.dao.ledger.QuotaBalance;
+import com.ems2p0.dao.ledger.QuotaDelta;
+import com.ems2p0.dao.page.KeysetCursor;
+import com.ems2p0.dao.page.KeysetPage;
 import com.ems2p0.dao.service.EmsDaoService;
+import com.ems2p0.dao.service.QuotaLedgerService;
 import com.ems2p0.dto.exception.CustomExceptionDto;
 import com.ems2p0.dto.exception.EmployeeNotFound;
 import com.ems2p0.dto.exception.PermissionExpiredException;
@@ -22,7 +27,10 @@ import com.ems2p0.dto.response.GenericResponseDto;
 import com.ems2p0.dto.response.PermissionDetailsResponseDto;
 import com.ems2p0.dto.response.PermissionStatsResponseDto;
 import com.ems2p0.enums.Ems2p0Status;
+import com.ems2p0.enums.LedgerReason;
 import com.ems2p0.enums.OfficialRole;
+import com.ems2p0.enums.QuotaType;
+import com.ems2p0.enums.ReportFormat;
 import com.ems2p0.mapper.employee.EmployeeMapper;
 import com.ems2p0.mapper.permission.PermissionMapper;
 import com.ems2p0.model.EmployeePermissionDetails;
@@ -30,10 +38,12 @@ import com.ems2p0.model.EmployeePermissionStats;
 import com.ems2p0.model.UserDetails;
 import com.ems2p0.projections.EmployeeProjection;
 import com.ems2p0.projections.PermissionProjections;
+import com.ems2p0.security.EmsPrincipal;
 import com.ems2p0.security.multi_factor.MultifactorAuthenticator;
 import com.ems2p0.service.PermissionService;
 import com.ems2p0.utils.Ems2p0Constants;
 import com.ems2p0.utils.Ems2p0Utility;
+import com.ems2p0.utils.lock.EmployeeLocks;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -86,6 +96,21 @@ public class PermissionServiceImpl implements PermissionService {
 	 */
 	private final NotificationComponent notificationComponent;
 
+	/**
+	 * Injected the quota ledger to move the monthly permission balance
+	 */
+	private final QuotaLedgerService quotaLedgerService;
+
+	/**
+	 * Injected report writer to stream the report exports
+	 */
+	private final ReportStreamWriter reportStreamWriter;
+
+	/**
+	 * Injected striped locks to serialize the request flows of the same employee
+	 */
+	private final EmployeeLocks employeeLocks;
+
 	/**
 	 * Method to implement the business logic for the requested or created
 	 * permission of the employee
@@ -100,36 +125,44 @@ public class PermissionServiceImpl implements PermissionService {
 
 		UserDetails existsEmployeeData = Optional.ofNullable(daoService.loadUserByUsername(userName))
 				.orElseThrow(() -> new EmployeeNotFound("Employee not found...."));
+		GenericResponseDto<PermissionDetailsResponseDto> response = employeeLocks.callInTransaction(
+				existsEmployeeData.getEmpId(),
+				() -> this.createPermission(userName, employee, existsEmployeeData, permissionDto));
+		this.sendNotificationForPermission(existsEmployeeData, permissionDto);
+		return response;
+	}
+
+	/**
+	 * Method to check the duplicates and create the permission while holding the
+	 * lock of the employee, the permission and its ledger entry are written in
+	 * the transaction of the lock and the approvers are notified by the caller
+	 * once it has committed
+	 */
+	private GenericResponseDto<PermissionDetailsResponseDto> createPermission(String userName,
+			EmployeeProjection employee, UserDetails existsEmployeeData, RequestPermissionDto permissionDto)
+			throws Exception {
 		Optional.ofNullable(daoService.existsByPermissionDetails(existsEmployeeData, permissionDto))
 				.ifPresent(permissionDetails -> {
 					throw new CustomExceptionDto("Permission already requested for this time and date...!");
 				});
-		EmployeePermissionStats employeePermissionStats = daoService.findByUserDetailsAndMonth(existsEmployeeData, permissionDto.month());
-		EmployeePermissionStats aggregatedPermissionStats = utility.aggregatePermissionTime(permissionDto, employeePermissionStats);
-		boolean isEmployeeStatsPresent = ObjectUtils.isNotEmpty(employeePermissionStats)
-				&& (ObjectUtils.isNotEmpty(employeePermissionStats.getMonth())
-						|| ObjectUtils.isNotEmpty(employeePermissionStats.getId()));
-		boolean isOverDue = isEmployeeStatsPresent
-				? (ObjectUtils.isNotEmpty(employeePermissionStats.getOverduePermission())
-						&& !employeePermissionStats.getOverduePermission().equals(LocalTime.of(0, 0)))
-				: (ObjectUtils.isNotEmpty(aggregatedPermissionStats)
-						&& ObjectUtils.isNotEmpty(aggregatedPermissionStats.getOverduePermission())
-						&& !aggregatedPermissionStats.getOverduePermission().equals(LocalTime.of(0, 0)));
-		EmployeePermissionDetails employeePermissionDetails = permissionMapper.toDto(permissionDto, existsEmployeeData, isOverDue);
+		double minutes = utility.hoursToMinutes(permissionDto.startTime(), permissionDto.endTime());
+		boolean isOverDue = quotaLedgerService
+				.balance(QuotaType.PERMISSION, existsEmployeeData.getEmpId(), permissionDto.month())
+				.isOverDueAfter(minutes);
+		EmployeePermissionDetails employeePermissionDetails = permissionMapper.toDto(permissionDto, existsEmployeeData,
+				isOverDue);
 		EmployeePermissionDetails saveEmployeePermissionDetails = daoService.save(employeePermissionDetails);
-		this.sendNotificationForPermission(existsEmployeeData, permissionDto);
-		List<EmployeePermissionDetails> employeePermissionDetailsList = new ArrayList<>();
-		employeePermissionDetailsList.add(saveEmployeePermissionDetails);
-		aggregatedPermissionStats.setMonth(permissionDto.month()).setUserDetails(existsEmployeeData)
-				.setPermissionDetails(employeePermissionDetailsList);
-				daoService.save(aggregatedPermissionStats);
+		QuotaBalance balance = quotaLedgerService.apply(QuotaType.PERMISSION, existsEmployeeData.getEmpId(),
+				permissionDto.month(), LedgerReason.REQUESTED, userName,
+				new QuotaDelta(saveEmployeePermissionDetails.getId(), minutes));
 		return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, permissionMapper.toRequestPermissionDto(
-				saveEmployeePermissionDetails, employee, aggregatedPermissionStats.getHoursTaken()));
+				saveEmployeePermissionDetails, employee, balance.takenAsTime()));
 	}
 
-	private  synchronized void sendNotificationForPermission(UserDetails existsEmployeeData, RequestPermissionDto permissionDto) {
+	private void sendNotificationForPermission(UserDetails existsEmployeeData, RequestPermissionDto permissionDto) {
 		notificationComponent.sendNotification(existsEmployeeData, permissionDto, "created");
 	}
+
 	/**
 	 * Method to implement the business logic for the editing the requested or
 	 * created permission of the employee
@@ -142,44 +175,71 @@ public class PermissionServiceImpl implements PermissionService {
 		EmployeeProjection employee = daoService.loadEmployeeByUsername(userName);
 
 		UserDetails existsEmployeeData = daoService.loadUserByUsername(userName);
+		GenericResponseDto<PermissionDetailsResponseDto> response = employeeLocks.callInTransaction(
+				existsEmployeeData.getEmpId(),
+				() -> this.updatePermission(userName, employee, existsEmployeeData, permissionDto));
+		this.sendNotificationForPermission(existsEmployeeData, permissionDto);
+		return response;
+	}
 
-		EmployeePermissionStats employeePermissionStats = daoService.findByUserDetailsAndMonth(existsEmployeeData, permissionDto.month());
-
+	/**
+	 * Method to update the pending permission while holding the lock of the
+	 * employee, the permission and its ledger entries are written in the
+	 * transaction of the lock and the approvers are notified by the caller once
+	 * it has committed
+	 */
+	private GenericResponseDto<PermissionDetailsResponseDto> updatePermission(String userName,
+			EmployeeProjection employee, UserDetails existsEmployeeData, RequestPermissionDto permissionDto)
+			throws Exception {
 		EmployeePermissionDetails existEmployeePermissionDetails = daoService.findPermissionDetailsByUser(existsEmployeeData,
 				permissionDto.id());
 
-		if (permissionDto.date().isEqual(LocalDate.now())) {
+		if (permissionDto.date().isEqual(utility.getOriginalTimeZone().toLocalDate())) {
 			utility.validatePermissionUpdate(existEmployeePermissionDetails.getStartTime());
 		}
 
 		if (existEmployeePermissionDetails.getStatus().getValue().equalsIgnoreCase(Ems2p0Status.PENDING.getValue())) {
-			long timeDifference = utility.calculateTimeDifference(existEmployeePermissionDetails.getStartTime(),
-					existEmployeePermissionDetails.getEndTime(), permissionDto.startTime(), permissionDto.endTime());
-			EmployeePermissionStats permissionStats = daoService.updateEditPermissionStatistics(permissionDto,
-					timeDifference, employeePermissionStats);
-			Boolean isOverDue = (ObjectUtils.isNotEmpty(permissionStats)
-					&& ObjectUtils.isNotEmpty(permissionStats.getOverduePermission())
-					&& !(permissionStats.getOverduePermission().equals(LocalTime.of(0, 0))));
-			this.sendNotificationForPermission(existsEmployeeData, permissionDto);
+			QuotaBalance balance = this.applyEditedPermission(existsEmployeeData.getEmpId(), userName,
+					existEmployeePermissionDetails, permissionDto);
+			Boolean isOverDue = balance.isOverDue();
 			EmployeePermissionDetails permissionDetails = permissionMapper.toUpdateDto(permissionDto,
 					existEmployeePermissionDetails, existsEmployeeData, isOverDue);
 			daoService.save(permissionDetails);
 			return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, permissionMapper
-					.toRequestPermissionDto(existEmployeePermissionDetails, employee, permissionStats.getHoursTaken()));
+					.toRequestPermissionDto(existEmployeePermissionDetails, employee, balance.takenAsTime()));
 		} else {
 			throw new PermissionExpiredException("Permission seems not active...");
 		}
 	}
 
+	/**
+	 * Method to move the quota by the changed duration of the edited permission,
+	 * the whole duration is moved when the permission changes its month
+	 */
+	private QuotaBalance applyEditedPermission(Integer empId, String userName,
+			EmployeePermissionDetails existEmployeePermissionDetails, RequestPermissionDto permissionDto) {
+		Integer id = existEmployeePermissionDetails.getId();
+		if (StringUtils.equals(existEmployeePermissionDetails.getMonth(), permissionDto.month())) {
+			long timeDifference = utility.calculateTimeDifference(existEmployeePermissionDetails.getStartTime(),
+					existEmployeePermissionDetails.getEndTime(), permissionDto.startTime(), permissionDto.endTime());
+			return quotaLedgerService.apply(QuotaType.PERMISSION, empId, permissionDto.month(), LedgerReason.EDITED,
+					userName, new QuotaDelta(id, timeDifference));
+		}
+		quotaLedgerService.apply(QuotaType.PERMISSION, empId, existEmployeePermissionDetails.getMonth(),
+				LedgerReason.EDITED, userName, new QuotaDelta(id, -utility.hoursToMinutes(
+						existEmployeePermissionDetails.getStartTime(), existEmployeePermissionDetails.getEndTime())));
+		return quotaLedgerService.apply(QuotaType.PERMISSION, empId, permissionDto.month(), LedgerReason.EDITED,
+				userName, new QuotaDelta(id, utility.hoursToMinutes(permissionDto.startTime(), permissionDto.endTime())));
+	}
+
 	/**
 	 * Method to implement the business logic for the to fetch the permission
 	 * statistics of the employee
 	 */
 	@Override
 	public GenericResponseDto<PermissionStatsResponseDto> fetchPermissionStatsByUsername(String month) {
-		String userName = multifactorAuthenticator.getLoggedInUserDetail();
-		UserDetails userDetails = daoService.loadUserByUsername(userName);
-		EmployeePermissionStats employeePermissionStats = daoService.findByUserDetailsAndMonth(userDetails, month);
+		EmsPrincipal principal = multifactorAuthenticator.getLoggedInPrincipal(daoService::loadUserByUsername);
+		EmployeePermissionStats employeePermissionStats = daoService.findByEmpIdAndMonth(principal.empId(), month);
 		return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS,
 				(ObjectUtils.isNotEmpty(employeePermissionStats)) ? permissionMapper.toStatsDto(employeePermissionStats)
 						: new PermissionStatsResponseDto().setMonth(month).setHoursTaken(LocalTime.of(0, 0))
@@ -192,12 +252,13 @@ public class PermissionServiceImpl implements PermissionService {
 	 * details of the employee
 	 */
 	@Override
-	public GenericResponseDto<List<PermissionDetailsResponseDto>> fetchPermissionDetailsByUsername() {
+	public KeysetPage<PermissionDetailsResponseDto> fetchPermissionDetailsByUsername(String cursor, Integer size) {
 		String userName = multifactorAuthenticator.getLoggedInUserDetail();
 		EmployeeProjection employee = daoService.loadEmployeeByUsername(userName);
-		List<EmployeePermissionDetails> employeePermissionDetails = daoService.findPermissionDetByEmployee(Integer.valueOf(employee.getEmpId()));
-		return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS,
-				permissionMapper.toListOfDetailsDto(employeePermissionDetails, employee, daoService));
+		KeysetPage<EmployeePermissionDetails> employeePermissionDetails = daoService.findPermissionDetByEmployee(
+				Integer.valueOf(employee.getEmpId()), KeysetCursor.decode(cursor), size);
+		return employeePermissionDetails
+				.map(permissionDetails -> permissionMapper.toListOfDetailsDto(permissionDetails, employee, daoService));
 	}
 
 	/**
@@ -208,7 +269,7 @@ public class PermissionServiceImpl implements PermissionService {
 	public GenericResponseDto<Long> cancelPermission(UpdatePermissionStatusRequestDto request) throws Exception {
 		String userName = multifactorAuthenticator.getLoggedInUserDetail();
 		EmployeePermissionDetails existEmployeePermissionDetails = daoService.fetchPermissionDetailsById(request.ids().get(0));
-		if (existEmployeePermissionDetails.getDate().isEqual(LocalDate.now())) {
+		if (existEmployeePermissionDetails.getDate().isEqual(utility.getOriginalTimeZone().toLocalDate())) {
 			utility.validatePermissionUpdate(existEmployeePermissionDetails.getStartTime());			
 		}
 		
@@ -224,11 +285,9 @@ public class PermissionServiceImpl implements PermissionService {
 	public GenericResponseDto<List<Long>> approvePermission(UpdatePermissionStatusRequestDto request) throws Exception {
 		String userName = multifactorAuthenticator.getLoggedInUserDetail();
 	    EmployeeProjection managementEmployee = daoService.loadEmployeeByUsername(userName);
-	    daoService.updatePermissionStatus(Ems2p0Status.APPROVED, request, userName);
-	     request.ids().forEach(id -> {
-	            EmployeePermissionDetails permissionDetails = daoService.fetchPermissionDetailsById(id);
-	            notificationComponent.sendApprovalAndRejectionNotification(permissionDetails, managementEmployee,"approved");
-	        });
+	    List<EmployeePermissionDetails> permissionDetails = daoService.updatePermissionStatus(Ems2p0Status.APPROVED,
+	            request, userName);
+	    notificationComponent.sendApprovalAndRejectionNotifications(permissionDetails, managementEmployee, "approved");
 	    return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, request.ids());
 	}
 
@@ -241,11 +300,9 @@ public class PermissionServiceImpl implements PermissionService {
 	public GenericResponseDto<List<Long>> rejectPermission(UpdatePermissionStatusRequestDto request) throws Exception {
 		String userName = multifactorAuthenticator.getLoggedInUserDetail();
 	    EmployeeProjection employee = daoService.loadEmployeeByUsername(userName);
-	    daoService.updatePermissionStatus(Ems2p0Status.REJECTED, request, userName);
-	      request.ids().forEach(id -> {
-	            EmployeePermissionDetails permissionDetails = daoService.fetchPermissionDetailsById(id);
-	            notificationComponent.sendApprovalAndRejectionNotification(permissionDetails, employee,"reject");
-	        });
+	    List<EmployeePermissionDetails> permissionDetails = daoService.updatePermissionStatus(Ems2p0Status.REJECTED,
+	            request, userName);
+	    notificationComponent.sendApprovalAndRejectionNotifications(permissionDetails, employee, "reject");
 	    return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, request.ids());
 	}
 
@@ -254,19 +311,17 @@ public class PermissionServiceImpl implements PermissionService {
 	 * permission details
 	 */
 	@Override
-	public GenericResponseDto<List<PermissionDetailsResponseDto>> fetchEmployeePermissionDetails() {
-		String userName = multifactorAuthenticator.getLoggedInUserDetail();
-		UserDetails userDetails = daoService.loadUserByUsername(userName);
-		String departmentName = userDetails.getEmployeeRoleManagement().getOfficialRole().name();
-		if (StringUtils.equalsIgnoreCase(departmentName, OfficialRole.ROLE_MANAGER.name())) {
-			return this.fetchAllEmployeePermissionReports();
+	public KeysetPage<PermissionDetailsResponseDto> fetchEmployeePermissionDetails(String cursor, Integer size) {
+		EmsPrincipal principal = multifactorAuthenticator.getLoggedInPrincipal(daoService::loadUserByUsername);
+		if (principal.role() == OfficialRole.ROLE_MANAGER) {
+			return this.fetchAllEmployeePermissionReports(cursor, size);
 		} else {
 			List<?> employeeIdsProjections = daoService.fetchByDepartmentNameAndOfficialRole(
-					userDetails.getEmployeeRoleManagement().getDepartmentName(), OfficialRole.ROLE_EMPLOYEE);
-			List<PermissionProjections> employeePermissionDetailsList = daoService
-					.findAllByEmpIds(employeeIdsProjections);
-			return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS,
-					permissionMapper.projectionToListOfDetailsDto(employeePermissionDetailsList, daoService));
+					principal.departmentName(), OfficialRole.ROLE_EMPLOYEE);
+			KeysetPage<PermissionProjections> employeePermissionDetailsList = daoService
+					.findAllByEmpIds(employeeIdsProjections, KeysetCursor.decode(cursor), size);
+			return employeePermissionDetailsList
+					.map(projections -> permissionMapper.projectionToListOfDetailsDto(projections, daoService));
 		}
 	} 
 
@@ -275,11 +330,21 @@ public class PermissionServiceImpl implements PermissionService {
 	 * permission details and reports
 	 */
 	@Override
-	public GenericResponseDto<List<PermissionDetailsResponseDto>> fetchAllEmployeePermissionReports() {
-		List<EmployeePermissionDetails> employeePermissionDetailsList = daoService
-				.findAllEmployeesByPermissionDetails();
-		return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS,
-				permissionMapper.toListOfPermissionDetailsDto(employeePermissionDetailsList, daoService));
+	public KeysetPage<PermissionDetailsResponseDto> fetchAllEmployeePermissionReports(String cursor, Integer size) {
+		KeysetPage<EmployeePermissionDetails> employeePermissionDetailsList = daoService
+				.findAllEmployeesByPermissionDetails(KeysetCursor.decode(cursor), size);
+		return employeePermissionDetailsList
+				.map(permissionDetails -> permissionMapper.toListOfPermissionDetailsDto(permissionDetails, daoService));
+	}
+
+	/**
+	 * Method to stream the all employee permission reports row by row, the rows
+	 * are read from an open cursor while the response is written
+	 */
+	@Override
+	public StreamingResponseBody exportAllEmployeePermissionReports(ReportFormat format) {
+		return outputStream -> daoService.exportAllEmployeesPermissionReports((lookup, rows) -> reportStreamWriter
+				.write(outputStream, format, rows.map(row -> permissionMapper.projectionToDetailsDto(row, lookup))));
 	}
 
 	@Override
@@ -288,4 +353,15 @@ public class PermissionServiceImpl implements PermissionService {
 				employeeMapper.tolistOfBasicDetailsDto(daoService.findAllEmpNameAndId()));
 	}
 
+	/**
+	 * Method to reconcile the permission statistics of every employee and month
+	 * against the approved and pending permissions
+	 */
+	@Override
+	public GenericResponseDto<Integer> rebuildPermissionStats() {
+		String userName = multifactorAuthenticator.getLoggedInUserDetail();
+		return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS,
+				quotaLedgerService.rebuildAll(QuotaType.PERMISSION, userName));
+	}
+
 }
@@ -1,10 +1,6 @@
 package com.ems2p0.serviceImpl;
 
-import java.time.DayOfWeek;
-import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 import org.apache.commons.lang3.ObjectUtils;
@@ -12,9 +8,16 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.ems2p0.components.NotificationComponent;
+import com.ems2p0.components.report.ReportStreamWriter;
+import com.ems2p0.dao.ledger.QuotaBalance;
+import com.ems2p0.dao.ledger.QuotaDelta;
+import com.ems2p0.dao.page.KeysetCursor;
+import com.ems2p0.dao.page.KeysetPage;
 import com.ems2p0.dao.service.EmsDaoService;
+import com.ems2p0.dao.service.QuotaLedgerService;
 import com.ems2p0.dto.exception.CustomExceptionDto;
 import com.ems2p0.dto.exception.EmployeeNotFound;
 import com.ems2p0.dto.request.UpdateWfhStatusRequestDto;
@@ -23,20 +26,23 @@ import com.ems2p0.dto.response.GenericResponseDto;
 import com.ems2p0.dto.response.WfhDetailsResponseDto;
 import com.ems2p0.dto.response.WfhStatsResponseDto;
 import com.ems2p0.enums.Ems2p0Status;
+import com.ems2p0.enums.LedgerReason;
 import com.ems2p0.enums.OfficialRole;
-import com.ems2p0.enums.WorkFromHomeSessionMsg;
+import com.ems2p0.enums.QuotaType;
+import com.ems2p0.enums.ReportFormat;
 import com.ems2p0.mapper.wfh.WfhMapper;
 import com.ems2p0.model.EmployeeWfhDetails;
 import com.ems2p0.model.EmployeeWfhStats;
 import com.ems2p0.model.UserDetails;
 import com.ems2p0.projections.EmployeeProjection;
 import com.ems2p0.projections.WfhProjection;
+import com.ems2p0.security.EmsPrincipal;
 import com.ems2p0.security.multi_factor.MultifactorAuthenticator;
 import com.ems2p0.service.WorkFromHomeService;
 import com.ems2p0.utils.Ems2p0Constants;
 import com.ems2p0.utils.Ems2p0Utility;
+import com.ems2p0.utils.lock.EmployeeLocks;
 
-import jakarta.mail.internet.ParseException;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -65,6 +71,12 @@ public class WorkFromHomeServiceImpl implements WorkFromHomeService {
 
 	private final Ems2p0Utility utility;
 
+	private final QuotaLedgerService quotaLedgerService;
+
+	private final ReportStreamWriter reportStreamWriter;
+
+	private final EmployeeLocks employeeLocks;
+
 	private static final Logger logger = LoggerFactory.getLogger(WorkFromHomeServiceImpl.class);
 
 //	private final EmployeeWfhStats employeeWfhStats;
@@ -130,65 +142,51 @@ public class WorkFromHomeServiceImpl implements WorkFromHomeService {
 		UserDetails existsEmployeeData = Optional.ofNullable(daoService.loadUserByUsername(userName))
 				.orElseThrow(() -> new EmployeeNotFound("Employee not found..."));
 
+		GenericResponseDto<WfhDetailsResponseDto> response = employeeLocks.callInTransaction(
+				existsEmployeeData.getEmpId(),
+				() -> this.createWfh(userName, employee, existsEmployeeData, wfhRequestDto));
+
+		// Notify the approvers once the request has committed
+		this.sendSynchronizeWfhNotification(existsEmployeeData, wfhRequestDto);
+		return response;
+	}
+
+	/**
+	 * Method to check the duplicates and create the work from home while holding
+	 * the lock of the employee, the request and its ledger entry are written in
+	 * the transaction of the lock and the approvers are notified by the caller
+	 * once it has committed
+	 */
+	private GenericResponseDto<WfhDetailsResponseDto> createWfh(String userName, EmployeeProjection employee,
+			UserDetails existsEmployeeData, WfhRequestDto wfhRequestDto) throws Exception {
 		// Check if WFH already requested for the given time and session
 		EmployeeWfhDetails getExsistData = daoService.existsByWfhDetails(existsEmployeeData, wfhRequestDto);
 		if(ObjectUtils.isNotEmpty(getExsistData)) {
 			throw new IllegalArgumentException("Wfh Request is already requested for this date");
 		}
 
-		// Load current WFH stats for the month
-		EmployeeWfhStats employeeWfhStats = daoService.findByUserDetailsAndMonthForWfhStats(existsEmployeeData,
-				wfhRequestDto.month());
-		
-		 
-	//	EmployeeWfhStats aggregatedWfhStatistics = utility.aggregateWfhDate(wfhRequestDto, employeeWfhStats).keySet().iterator().next();
-		
-		Map<EmployeeWfhStats, Double> aggregatedWfhStatistics = utility.aggregateWfhDate(wfhRequestDto, employeeWfhStats);
-		
-		EmployeeWfhStats getEmployeeStats = aggregatedWfhStatistics.keySet().iterator().next();
-				
-	    double noofDays	= aggregatedWfhStatistics.get(getEmployeeStats);
-
-		EmployeeWfhStats resultOfAggregatedWfhStats = ObjectUtils.isNotEmpty(employeeWfhStats)? employeeWfhStats : getEmployeeStats;
-		
-		boolean isWfhStatsPresent = ObjectUtils.isNotEmpty(employeeWfhStats)
-				&& (ObjectUtils.isNotEmpty(employeeWfhStats.getMonth())
-						|| ObjectUtils.isNotEmpty(employeeWfhStats.getId()));
-
-		double overDueDaysTaken = 0;
-
-		boolean isOverDue = isWfhStatsPresent
-				? (ObjectUtils.isNotEmpty(employeeWfhStats.getOverdueWfhDays())
-						&& employeeWfhStats.getOverdueWfhDays() != overDueDaysTaken)
-				: (ObjectUtils.isNotEmpty(getEmployeeStats)
-						&& ObjectUtils.isNotEmpty(getEmployeeStats.getOverdueWfhDays())
-						&& getEmployeeStats.getOverdueWfhDays() != overDueDaysTaken);
-         
-		//double noofDays = utility.aggregateWfhDate(wfhRequestDto, employeeWfhStats).get(resultOfAggregatedWfhStats);
-		
-		// Map WFH request to entity and save 
-		EmployeeWfhDetails employeeWfhDetails = wfhMapper.toWfhDto(wfhRequestDto, existsEmployeeData, isOverDue, noofDays);
+		// Flag the request when it exceeds the quota, map it to entity and save
+		double noOfDays = utility.countWorkFromHomeDays(wfhRequestDto);
+		boolean isOverDue = quotaLedgerService
+				.balance(QuotaType.WORK_FROM_HOME, existsEmployeeData.getEmpId(), wfhRequestDto.month())
+				.isOverDueAfter(noOfDays);
+		EmployeeWfhDetails employeeWfhDetails = wfhMapper.toWfhDto(wfhRequestDto, existsEmployeeData, isOverDue,
+				noOfDays);
 		EmployeeWfhDetails saveEmployeeWfhDetails = daoService.save(employeeWfhDetails);
-        this.sendSynchronizeWfhNotification(existsEmployeeData,wfhRequestDto);
-
-		// Update and save aggregated WFH statistics
-		List<EmployeeWfhDetails> employeeWfhDetailsList = new ArrayList<>();
-		employeeWfhDetailsList.add(saveEmployeeWfhDetails);
-		getEmployeeStats.setMonth(wfhRequestDto.month()).setUserDetails(existsEmployeeData)
-				.setWfhDetails(employeeWfhDetailsList); 
 
-		daoService.save(getEmployeeStats);
-
-		
+		// Move the monthly balance
+		QuotaBalance balance = quotaLedgerService.apply(QuotaType.WORK_FROM_HOME, existsEmployeeData.getEmpId(),
+				wfhRequestDto.month(), LedgerReason.REQUESTED, userName,
+				new QuotaDelta(saveEmployeeWfhDetails.getId(), noOfDays));
 
 		// Return response
 		return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS,
-				wfhMapper.toRequestWfhDto(saveEmployeeWfhDetails, employee, getEmployeeStats.getDaysTaken()));
+				wfhMapper.toRequestWfhDto(saveEmployeeWfhDetails, employee, balance.taken()));
 	}
 
-	private  synchronized void sendSynchronizeWfhNotification(UserDetails existsEmployeeData, WfhRequestDto wfhRequestDto) {
+	private void sendSynchronizeWfhNotification(UserDetails existsEmployeeData, WfhRequestDto wfhRequestDto) {
 		notificationComponent.sendWfhNotificationForCreateAndEdit(existsEmployeeData, wfhRequestDto, "created");
-		}
+	}
 
 	/**
 	 * Method to implement the business logic for the to fetch the work from home
@@ -196,9 +194,8 @@ public class WorkFromHomeServiceImpl implements WorkFromHomeService {
 	 */
 
 	public GenericResponseDto<WfhStatsResponseDto> fetchWorkFromStatsByUsername(String month) {
-		String userName = multifactorAuthenticator.getLoggedInUserDetail();
-		UserDetails userDetails = daoService.loadUserByUsername(userName);
-		EmployeeWfhStats employeeWfhStats = daoService.findByUserDetailsAndMonthForWfhStats(userDetails, month);
+		EmsPrincipal principal = multifactorAuthenticator.getLoggedInPrincipal(daoService::loadUserByUsername);
+		EmployeeWfhStats employeeWfhStats = daoService.findByEmpIdAndMonthForWfhStats(principal.empId(), month);
 		return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS,
 				(ObjectUtils.isNotEmpty(employeeWfhStats)) ? wfhMapper.toStatsDto(employeeWfhStats)
 						: new WfhStatsResponseDto().setMonth(month).setDaysTaken(0).setOverdueWfhDays(0)
@@ -214,11 +211,7 @@ public class WorkFromHomeServiceImpl implements WorkFromHomeService {
 	public GenericResponseDto<Integer> cancelWfh(UpdateWfhStatusRequestDto request) throws Exception {
 		String userName = multifactorAuthenticator.getLoggedInUserDetail();
 		EmployeeWfhDetails existEmployeeWfhDetails = daoService.fetchWfhDetailsById(request.ids().get(0));
-		UserDetails existsEmployeeData = daoService.loadUserByUsername(userName);
-		// getting existing record in statistics table
-		EmployeeWfhStats employeeWfhStats = daoService.findByUserDetailsAndMonthForWfhStats(existsEmployeeData,
-				existEmployeeWfhDetails.getMonth());
-		daoService.updateWfhStatus(Ems2p0Status.CANCELLED, request, userName, employeeWfhStats);
+		daoService.updateWfhStatus(Ems2p0Status.CANCELLED, request, userName);
 		utility.validateWorkFromHomeUpdate(existEmployeeWfhDetails);
 		return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, request.ids().get(0));
 	}
@@ -229,16 +222,31 @@ public class WorkFromHomeServiceImpl implements WorkFromHomeService {
 	 */
 
 	@Override
-	public GenericResponseDto<WfhDetailsResponseDto> editWfhRequest(WfhRequestDto wfhRequestDto)
-			throws ParseException, java.text.ParseException {
+	public GenericResponseDto<WfhDetailsResponseDto> editWfhRequest(WfhRequestDto wfhRequestDto) throws Exception {
 		String userName = multifactorAuthenticator.getLoggedInUserDetail();
 		EmployeeProjection employee = daoService.loadEmployeeByUsername(userName);
 		// Getting employee Data Based on the
 		UserDetails existsEmployeeData = Optional.ofNullable(daoService.loadUserByUsername(userName))
 				.orElseThrow(() -> new EmployeeNotFound("Employee not found..."));
-		// getting existing record in statistics table
-		EmployeeWfhStats employeeWfhStats = daoService.findByUserDetailsAndMonthForWfhStats(existsEmployeeData,
-				wfhRequestDto.month());
+		GenericResponseDto<WfhDetailsResponseDto> response = employeeLocks.callInTransaction(
+				existsEmployeeData.getEmpId(),
+				() -> this.updateWfh(userName, employee, existsEmployeeData, wfhRequestDto));
+
+		// Notify the approvers once the edit has committed
+		if (Boolean.TRUE.equals(response.status())) {
+			this.sendSynchronizeWfhNotification(existsEmployeeData, wfhRequestDto);
+		}
+		return response;
+	}
+
+	/**
+	 * Method to check the duplicates and update the pending work from home while
+	 * holding the lock of the employee, the request and its ledger entries are
+	 * written in the transaction of the lock and the approvers are notified by
+	 * the caller once it has committed
+	 */
+	private GenericResponseDto<WfhDetailsResponseDto> updateWfh(String userName, EmployeeProjection employee,
+			UserDetails existsEmployeeData, WfhRequestDto wfhRequestDto) throws Exception {
 		EmployeeWfhDetails existingWfhDetails = daoService.findWorkFromHomeDetailsByUser(existsEmployeeData,
 				wfhRequestDto.id());
 //	                .orElseThrow(() -> new CustomExceptionDto("WFH request not found for the given ID."));
@@ -256,87 +264,52 @@ public class WorkFromHomeServiceImpl implements WorkFromHomeService {
 
 		if (existingWfhDetails.getStatus().getValue().equalsIgnoreCase(Ems2p0Status.PENDING.getValue())) {
 
-			double dateDifference = 0.0;
-			double newUpdatedNoOfDays =0.0;
-
-			if (wfhRequestDto.requestedSession().getValue().equalsIgnoreCase(WorkFromHomeSessionMsg.HALF_DAY.getValue())
-					&& wfhRequestDto.startDate().isEqual(wfhRequestDto.endDate())) {
-				dateDifference = 0.5;
-//			dateDifference = utility.calculateDateDifferencesForHalfDay(existingWfhDetails.getStartDate(),
-//						existingWfhDetails.getEndDate(), wfhRequestDto.startDate(), wfhRequestDto.endDate());/
-
-			} else if (wfhRequestDto.requestedSession().getValue()
-					.equalsIgnoreCase(WorkFromHomeSessionMsg.FULL_DAY.getValue())) {
-				dateDifference = utility.calculateDateDifferences(existingWfhDetails.getStartDate(),
-						existingWfhDetails.getEndDate(), wfhRequestDto.startDate(), wfhRequestDto.endDate());
-			}
-			EmployeeWfhStats aggregatedWfhStatistics = utility.aggregateWfhDateForEdits(wfhRequestDto,
-					existingWfhDetails, employeeWfhStats, dateDifference);
-			if(wfhRequestDto.requestedSession().getValue()
-					.equalsIgnoreCase(WorkFromHomeSessionMsg.HALF_DAY.getValue())) {
-				dateDifference = 0.5;
-				double diff =  existingWfhDetails.getNoOfDays() - dateDifference;
-//				 newUpdatedNoOfDays = existingWfhDetails.getNoOfDays() - diff;
-				newUpdatedNoOfDays = dateDifference;
-			} 
-		
-			else if( wfhRequestDto.requestedSession().getValue()
-					.equalsIgnoreCase(WorkFromHomeSessionMsg.FULL_DAY.getValue())) {
-				
-				
-				double diff =  existingWfhDetails.getNoOfDays();
-				
-				double requestDuration = calculateWeekdaysBetween(wfhRequestDto.startDate(), wfhRequestDto.endDate());
-				//newUpdatedNoOfDays=  Math.abs(requestDuration-diff);
-				newUpdatedNoOfDays = requestDuration;
-				
-				
-//				 newUpdatedNoOfDays = (dateDifference <= 0) ? Math.abs(dateDifference) - (existingWfhDetails.getNoOfDays())
-//					 :(dateDifference - existingWfhDetails.getNoOfDays());
-			}
-			
-			boolean isWfhStatsPresent = ObjectUtils.isNotEmpty(employeeWfhStats)
-					&& (ObjectUtils.isNotEmpty(employeeWfhStats.getMonth())
-							|| ObjectUtils.isNotEmpty(employeeWfhStats.getId()));
-			double overDueDaysTaken = 0;
-			boolean isOverDue = isWfhStatsPresent
-					? (ObjectUtils.isNotEmpty(employeeWfhStats.getOverdueWfhDays())
-							&& !(employeeWfhStats.getOverdueWfhDays() == overDueDaysTaken))
-					: (ObjectUtils.isNotEmpty(aggregatedWfhStatistics)
-							&& ObjectUtils.isNotEmpty(aggregatedWfhStatistics.getOverdueWfhDays())
-							&& !(aggregatedWfhStatistics.getOverdueWfhDays() == overDueDaysTaken));
-//	          EmployeeWfhStats employeeWfhStatsUpdate = daoService.updateEditWfhStatistics(employeeWfhStats);
+			utility.validateWorkFromHomeEdit(wfhRequestDto, existingWfhDetails);
+			double newUpdatedNoOfDays = utility.countWorkFromHomeDays(wfhRequestDto);
+			QuotaBalance balance = this.applyEditedWorkFromHome(existsEmployeeData.getEmpId(), userName,
+					existingWfhDetails, wfhRequestDto, newUpdatedNoOfDays);
 			EmployeeWfhDetails updatedRequest = wfhMapper.updateWfhDto(existingWfhDetails, existsEmployeeData,
-					wfhRequestDto, isOverDue,(newUpdatedNoOfDays < 0 ? Math.abs(newUpdatedNoOfDays) : newUpdatedNoOfDays));
-			  this.sendSynchronizeWfhNotification(existsEmployeeData,wfhRequestDto);
-			EmployeeWfhDetails updatedEmployeeWfhDetails = daoService.save(updatedRequest);	
-			List<EmployeeWfhDetails> employeeWfhDetailsList = new ArrayList<>();
-			employeeWfhDetailsList.add(updatedEmployeeWfhDetails);
-			aggregatedWfhStatistics.setMonth(wfhRequestDto.month()).setUserDetails(existingWfhDetails.getUserDetails())
-					.setWfhDetails(employeeWfhDetailsList);
-			daoService.save(aggregatedWfhStatistics);
-		//	notificationComponent.sendWfhNotificationForCreateAndEdit(existsEmployeeData, wfhRequestDto, "edited");
-			
-			return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, wfhMapper
-					.toRequestWfhDto(updatedEmployeeWfhDetails, employee, aggregatedWfhStatistics.getDaysTaken()));
+					wfhRequestDto, balance.isOverDue(), newUpdatedNoOfDays);
+			EmployeeWfhDetails updatedEmployeeWfhDetails = daoService.save(updatedRequest);
+			return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS,
+					wfhMapper.toRequestWfhDto(updatedEmployeeWfhDetails, employee, balance.taken()));
 		}
 		return new GenericResponseDto<>(false, "WFH request cannot be edited because it is not in pending status.",
 				null);
 	}
 	
 
+	/**
+	 * Method to move the quota by the changed days of the edited work from home,
+	 * the whole request is moved when it changes its month
+	 */
+	private QuotaBalance applyEditedWorkFromHome(Integer empId, String userName, EmployeeWfhDetails existingWfhDetails,
+			WfhRequestDto wfhRequestDto, double newNoOfDays) {
+		Integer id = existingWfhDetails.getId();
+		double previousNoOfDays = existingWfhDetails.getNoOfDays();
+		if (StringUtils.equals(existingWfhDetails.getMonth(), wfhRequestDto.month())) {
+			return quotaLedgerService.apply(QuotaType.WORK_FROM_HOME, empId, wfhRequestDto.month(),
+					LedgerReason.EDITED, userName, new QuotaDelta(id, newNoOfDays - previousNoOfDays));
+		}
+		quotaLedgerService.apply(QuotaType.WORK_FROM_HOME, empId, existingWfhDetails.getMonth(), LedgerReason.EDITED,
+				userName, new QuotaDelta(id, -previousNoOfDays));
+		quotaLedgerService.reflagPendingWorkFromHome(empId, existingWfhDetails.getMonth());
+		return quotaLedgerService.apply(QuotaType.WORK_FROM_HOME, empId, wfhRequestDto.month(), LedgerReason.EDITED,
+				userName, new QuotaDelta(id, newNoOfDays));
+	}
+
 	/**
 	 * Method to implement the business logic for the to fetch the work from home
 	 * details of the employee
 	 */
 
 	@Override
-	public GenericResponseDto<List<WfhDetailsResponseDto>> fetchWorkFromHomeDetailsByUsername() {
+	public KeysetPage<WfhDetailsResponseDto> fetchWorkFromHomeDetailsByUsername(String cursor, Integer size) {
 		String userName = multifactorAuthenticator.getLoggedInUserDetail();
 		EmployeeProjection employee = daoService.loadEmployeeByUsername(userName);
-		List<EmployeeWfhDetails> workFromHomeDetails = daoService.fetchWorkFromHomeDetails(Integer.valueOf(employee.getEmpId()));
-		List<WfhDetailsResponseDto> responseList = wfhMapper.tolistOfDetails(workFromHomeDetails, employee, daoService);
-		return new GenericResponseDto<List<WfhDetailsResponseDto>>(true, Ems2p0Constants.SUCCESS, responseList);
+		KeysetPage<EmployeeWfhDetails> workFromHomeDetails = daoService
+				.fetchWorkFromHomeDetails(Integer.valueOf(employee.getEmpId()), KeysetCursor.decode(cursor), size);
+		return workFromHomeDetails.map(wfhDetails -> wfhMapper.tolistOfDetails(wfhDetails, employee, daoService));
 	}
 
 	/**
@@ -345,21 +318,18 @@ public class WorkFromHomeServiceImpl implements WorkFromHomeService {
 	 */
 
 	@Override
-	public GenericResponseDto<List<WfhDetailsResponseDto>> fetchEmployeesWorkFromHomeDetailsByUsername() {
-		String userName = multifactorAuthenticator.getLoggedInUserDetail();
-		UserDetails userDetails = daoService.loadUserByUsername(userName);
-		String role = userDetails.getEmployeeRoleManagement().getOfficialRole().name();
-		if (StringUtils.equalsIgnoreCase(role, OfficialRole.ROLE_MANAGER.name()) 
-				|| StringUtils.equalsIgnoreCase(role, OfficialRole.ROLE_ADMIN.name())) {
-			return this.fetchAllEmployeeWfhReports(); 
+	public KeysetPage<WfhDetailsResponseDto> fetchEmployeesWorkFromHomeDetailsByUsername(String cursor, Integer size) {
+		EmsPrincipal principal = multifactorAuthenticator.getLoggedInPrincipal(daoService::loadUserByUsername);
+		if (principal.role() == OfficialRole.ROLE_MANAGER || principal.role() == OfficialRole.ROLE_ADMIN) {
+			return this.fetchAllEmployeeWfhReports(cursor, size);
 
 		} else {
 			List<?> employeeIdsProjections = daoService.fetchByDepartmentNameAndOfficialRole(
-					userDetails.getEmployeeRoleManagement().getDepartmentName(), OfficialRole.ROLE_EMPLOYEE);
-			List<WfhProjection> employeeWorkFromHomeDetails = daoService
-					.findAllWorkFromHomeDetailsByEmpIds(employeeIdsProjections);
-			return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS,
-					wfhMapper.projectionToListOfDetailsDto(employeeWorkFromHomeDetails, daoService));
+					principal.departmentName(), OfficialRole.ROLE_EMPLOYEE);
+			KeysetPage<WfhProjection> employeeWorkFromHomeDetails = daoService
+					.findAllWorkFromHomeDetailsByEmpIds(employeeIdsProjections, KeysetCursor.decode(cursor), size);
+			return employeeWorkFromHomeDetails
+					.map(projections -> wfhMapper.projectionToListOfDetailsDto(projections, daoService));
 		}
 	}
 
@@ -369,10 +339,20 @@ public class WorkFromHomeServiceImpl implements WorkFromHomeService {
 	 */
 
 	@Override
-	public GenericResponseDto<List<WfhDetailsResponseDto>> fetchAllEmployeeWfhReports() {
-		List<EmployeeWfhDetails> employeeWfhDetailsList = daoService.findAllEmployeesByWfhDetails();
-		return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS,
-				wfhMapper.toListOfWfhDetailsDto(employeeWfhDetailsList, daoService));
+	public KeysetPage<WfhDetailsResponseDto> fetchAllEmployeeWfhReports(String cursor, Integer size) {
+		KeysetPage<EmployeeWfhDetails> employeeWfhDetailsList = daoService
+				.findAllEmployeesByWfhDetails(KeysetCursor.decode(cursor), size);
+		return employeeWfhDetailsList.map(wfhDetails -> wfhMapper.toListOfWfhDetailsDto(wfhDetails, daoService));
+	}
+
+	/**
+	 * Method to stream the all employee work from home reports row by row, the
+	 * rows are read from an open cursor while the response is written
+	 */
+	@Override
+	public StreamingResponseBody exportAllEmployeeWfhReports(ReportFormat format) {
+		return outputStream -> daoService.exportAllEmployeesWfhReports((lookup, rows) -> reportStreamWriter
+				.write(outputStream, format, rows.map(row -> wfhMapper.projectionToDetailsDto(row, lookup))));
 	}
 
 	/**
@@ -385,17 +365,8 @@ public class WorkFromHomeServiceImpl implements WorkFromHomeService {
 	public GenericResponseDto<List<Integer>> approveWfh(UpdateWfhStatusRequestDto request) throws Exception {
 		String userName = multifactorAuthenticator.getLoggedInUserDetail();
 		EmployeeProjection managementEmployee = daoService.loadEmployeeByUsername(userName);
-		UserDetails existsEmployeeData = Optional.ofNullable(daoService.loadUserByUsername(userName))
-				.orElseThrow(() -> new EmployeeNotFound("Employee not found..."));
-		EmployeeWfhDetails existEmployeeWfhDetails = daoService.fetchWfhDetailsById(request.ids().get(0));
-		EmployeeWfhStats employeeWfhStats = daoService.findByUserDetailsAndMonthForWfhStats(existsEmployeeData,
-				existEmployeeWfhDetails.getMonth());
-		daoService.updateWfhStatus(Ems2p0Status.APPROVED, request, userName, employeeWfhStats);
-		request.ids().forEach(id -> {
-			EmployeeWfhDetails employeeWfhDetails = daoService.fetchWfhDetailsById(id);
-			notificationComponent.sendApprovalAndRejectionWfhNotification(employeeWfhDetails, managementEmployee,
-					"approved");
-		});
+		List<EmployeeWfhDetails> wfhDetails = daoService.updateWfhStatus(Ems2p0Status.APPROVED, request, userName);
+		notificationComponent.sendApprovalAndRejectionWfhNotifications(wfhDetails, managementEmployee, "approved");
 		return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, request.ids());
 	}
 
@@ -422,36 +393,27 @@ public class WorkFromHomeServiceImpl implements WorkFromHomeService {
 		String userName = multifactorAuthenticator.getLoggedInUserDetail();
 //		 var existsEmployeeData = Optional.ofNullable(daoService.loadUserByUsername(userName))
 // 	             .orElseThrow(() -> new EmployeeNotFound("Employee not found..."));
-		EmployeeWfhDetails existingWfhDetails = daoService.findWfhDetailsById(request.ids().get(0));
-		// getting existing record in statistics table
-		EmployeeWfhStats employeeWfhStats = daoService.findByUserDetailsAndMonthForWfhStats(
-				existingWfhDetails.getUserDetails(), existingWfhDetails.getMonth());
 		EmployeeProjection employee = daoService.loadEmployeeByUsername(userName);
-		daoService.updateWfhStatus(Ems2p0Status.REJECTED, request, userName, employeeWfhStats);
-		request.ids().forEach(id -> {
-			EmployeeWfhDetails employeeWfhDetails = daoService.fetchWfhDetailsById(id);
-			notificationComponent.sendApprovalAndRejectionWfhNotification(employeeWfhDetails, employee, "rejected");
-		});
+		List<EmployeeWfhDetails> wfhDetails = daoService.updateWfhStatus(Ems2p0Status.REJECTED, request, userName);
+		notificationComponent.sendApprovalAndRejectionWfhNotifications(wfhDetails, employee, "rejected");
 		return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS, request.ids());
 	}
 	
-	private double calculateWeekdaysBetween(LocalDate startDate, LocalDate endDate) {
-		double weekdays = 0;
-		LocalDate date = startDate;
-		while (!date.isAfter(endDate)) {
-			DayOfWeek day = date.getDayOfWeek();
-			if (day != DayOfWeek.SATURDAY && day != DayOfWeek.SUNDAY) {
-				weekdays++;
-			}
-			date = date.plusDays(1);
-		}
-		return weekdays;
-	}
-
 	@Override
 	public void clearWfhData() {
 		String username = multifactorAuthenticator.getLoggedInUserDetail();
 		daoService.deleteAllWfhDetails(username);
 		daoService.deleteAllWfhStats(username);
 	}
+
+	/**
+	 * Method to reconcile the work from home statistics of every employee and
+	 * month against the approved and pending requests
+	 */
+	@Override
+	public GenericResponseDto<Integer> rebuildWfhStats() {
+		String userName = multifactorAuthenticator.getLoggedInUserDetail();
+		return new GenericResponseDto<>(true, Ems2p0Constants.SUCCESS,
+				quotaLedgerService.rebuildAll(QuotaType.WORK_FROM_HOME, userName));
+	}
 }
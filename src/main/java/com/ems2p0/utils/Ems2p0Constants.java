@@ -43,4 +43,18 @@ public interface Ems2p0Constants {
 	public static final String EMS_MONTH_FORMAT = "MMMM-yyyy";
 	public static final String EMP = "EMP";
 	public static final String EMPID_FORMAT = "%04d";
+
+	// Report export properties, the minimum fetch size makes the mysql driver stream the rows one by one
+	public static final String REPORT_STREAM_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+	// Pagination properties
+	public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+	// Idempotency properties
+	public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+	public static final String IDEMPOTENT_REPLAY_HEADER = "Idempotent-Replayed";
+
+	// Job properties
+	public static final String AUTO_APPROVER = "System";
 }
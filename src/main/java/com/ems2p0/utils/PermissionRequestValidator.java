@@ -2,28 +2,38 @@ package com.ems2p0.utils;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
-import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Calendar;
 import java.util.Date;
 
 import org.apache.commons.lang3.ObjectUtils;
+import org.mapstruct.BeforeMapping;
 import org.springframework.stereotype.Component;
 
+import com.ems2p0.components.calendar.BusinessCalendar;
+import com.ems2p0.components.clock.EmsClock;
 import com.ems2p0.dto.request.RequestPermissionDto;
 
 import jakarta.mail.internet.ParseException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class PermissionRequestValidator {
 
+    private final BusinessCalendar businessCalendar;
+
+    private final EmsClock emsClock;
+
     /**
-     * Method to validate the requested or created permission's date
+     * Method to validate the requested or created permission's date, invoked by
+     * the permission mapper before a permission request is mapped
      * <p>
      * * @author Aarthi Shakthivel
      *
@@ -31,52 +41,56 @@ public class PermissionRequestValidator {
      * @throws java.text.ParseException
      * @throws ParseException
      */
-    public static void request(RequestPermissionDto permissionDto) throws ParseException, java.text.ParseException {
+    @BeforeMapping
+    public void request(RequestPermissionDto permissionDto) throws ParseException, java.text.ParseException {
 
     	PermissionRequestValidator.validateMonthAndDate(permissionDto.date().toString(), permissionDto.month());
 
-        if (permissionDto.date().isBefore(LocalDate.now())) {
+        LocalDateTime now = emsClock.now();
+        LocalDate today = now.toLocalDate();
+        if (permissionDto.date().isBefore(today)) {
             log.error("Requested permission date is invalid"); 
             throw new IllegalArgumentException("Requested permission date is invalid..!!");
         }
 
-        if (ObjectUtils.notEqual(permissionDto.date().getYear(), LocalDate.now().getYear())) {
+        if (ObjectUtils.notEqual(permissionDto.date().getYear(), today.getYear())) {
             log.error("Requested permission year is invalid");
             throw new IllegalArgumentException("Requested permission year is invalid..!!");
         }
 
-        LocalDate plusDays = LocalDate.now().plusDays(7);
-        if (permissionDto.date().equals(plusDays) && !permissionDto.startTime().isBefore(LocalTime.now())) { 
+        LocalDate plusDays = today.plusDays(7);
+        if (permissionDto.date().equals(plusDays) && !permissionDto.startTime().isBefore(now.toLocalTime())) { 
                 log.error("Requested permission time is invalid : {}", permissionDto.date());
                 throw new IllegalArgumentException("Requested permission time is invalid..!!");
             }
         
 
-        if (permissionDto.date().equals(LocalDate.now())
-                || (permissionDto.date().isAfter(LocalDate.now()) && permissionDto.date().isBefore(plusDays))) {
-            if (permissionDto.date().getDayOfWeek() != DayOfWeek.SATURDAY
-                    && permissionDto.date().getDayOfWeek() != DayOfWeek.SUNDAY) {
+        if (permissionDto.date().equals(today)
+                || (permissionDto.date().isAfter(today) && permissionDto.date().isBefore(plusDays))) {
+            if (businessCalendar.isWorkingDay(permissionDto.date())) {
                 log.info("Requested permission date is valid ");
             } else {
-                log.error("Invalid Permission Date - requested for Weekends : {}", permissionDto.date());
-                throw new IllegalArgumentException("Invalid Permission Date - requested for Weekends..!!");
+                log.error("Invalid Permission Date - requested for Weekends or Holidays : {}", permissionDto.date());
+                throw new IllegalArgumentException("Invalid Permission Date - requested for Weekends or Holidays..!!");
             }
         } else {
             log.error("Requested permission date is invalid : {}", permissionDto.date());
             throw new IllegalArgumentException("Requested permission date is invalid..!!");
         }
 
-        PermissionRequestValidator.validatePermissionTime(permissionDto);
+        PermissionRequestValidator.validatePermissionTime(permissionDto, now);
     }
 
     /**
-     * Method to validate the permission time requested by the employee
+     * Method to validate the permission time requested by the employee against
+     * the current time of the application clock
      * <p>
      * * @author Aarthi Shakthivel
      *
      * @param permissionDto
+     * @param now
      */
-    public static void validatePermissionTime(RequestPermissionDto permissionDto) {
+    public static void validatePermissionTime(RequestPermissionDto permissionDto, LocalDateTime now) {
 
 
         LocalTime startTimeLimit = LocalTime.of(9, 0);
@@ -89,13 +103,13 @@ public class PermissionRequestValidator {
 
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
 
-        LocalTime currentTime = LocalTime.parse(LocalTime.now().format(formatter), formatter);
+        LocalTime currentTime = LocalTime.parse(now.toLocalTime().format(formatter), formatter);
 
         LocalTime startTime = LocalTime.parse(permissionDto.startTime().toString(), formatter);
 
         if (startTime.equals(currentTime)) {
         } else {
-        	if (permissionDto.date().isEqual(LocalDate.now()) && permissionDto.startTime().isBefore(LocalTime.now())) {
+        	if (permissionDto.date().isEqual(now.toLocalDate()) && permissionDto.startTime().isBefore(now.toLocalTime())) {
                     log.error("Requested permission time is invalid : {}", permissionDto.startTime());
                     throw new IllegalArgumentException("Requested permission time is invalid..!!");
                 }
@@ -2,42 +2,52 @@ package com.ems2p0.utils;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.time.Period;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
+import org.mapstruct.BeforeMapping;
+import org.springframework.stereotype.Component;
+
+import com.ems2p0.components.calendar.BusinessCalendar;
 import com.ems2p0.dto.request.WfhRequestDto;
 import com.ems2p0.enums.WorkFromHomeSessionMsg;
 
 import jakarta.mail.internet.ParseException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - Validator of the requested work from home dates, used by the work
+ * from home mapper before a work from home request is mapped.
+ *
+ * @author Mohan
+ * @category Utility layer
+ * @version v1.0.0
+ * @apiNote - The requested dates are validated once per mapping and the
+ *          working days are decided by the {@link BusinessCalendar}.
+ */
+@Component
 @RequiredArgsConstructor
 @Slf4j
 public class WorkFromHomeRequestValidator {
 	
-//	private final Ems2p0Utility utility;
+	private final BusinessCalendar businessCalendar;
     
-	public static void validateDateAndYear(WfhRequestDto wfhRequestDto) throws ParseException, java.text.ParseException{
+	@BeforeMapping
+	public void validateDateAndYear(WfhRequestDto wfhRequestDto) {
 		 
 			//String month = wfhRequestDto.month();
 		
 
-		Set<List<LocalDate>> finalstartDate = WorkFromHomeRequestValidator.getWeekend(wfhRequestDto).keySet();
-
-		LocalDate startDate = finalstartDate.stream().toList().get(0).get(0);
+		this.validateRequestedDates(wfhRequestDto);
 
-		Set<List<LocalDate>> finalendDate = WorkFromHomeRequestValidator.getWeekend(wfhRequestDto).keySet();
+		LocalDate startDate = wfhRequestDto.startDate();
 
-		LocalDate endDate = finalendDate.stream().toList().get(0).get(1);
+		LocalDate endDate = wfhRequestDto.endDate();
 		
 	//	WorkFromHomeRequestValidator.validateMonthAndDate(startDate.toString(), endDate.toString(), wfhRequestDto.month());
 
@@ -92,7 +102,7 @@ public class WorkFromHomeRequestValidator {
 	        }
 	    }
 	   
-	  public static Map<List<LocalDate>, Map<LocalDate, Boolean>> getWeekend (WfhRequestDto wfhRequestDto)  {
+	  private void validateRequestedDates(WfhRequestDto wfhRequestDto)  {
 		  	       LocalDate startDate1 = wfhRequestDto.startDate();
 	       
 		   LocalDate endDate1 = wfhRequestDto.endDate(); 
@@ -100,16 +110,14 @@ public class WorkFromHomeRequestValidator {
 		   LocalDate currentDate = LocalDate.now();
 		   	
 		  
-		  if (startDate1.getDayOfWeek() == DayOfWeek.SATURDAY
-                  || startDate1.getDayOfWeek() == DayOfWeek.SUNDAY) {
-			 log.error("Invalid StartDate - requested for Weekends : {}",startDate1);
-              throw new IllegalArgumentException("Invalid request Date - requested for Weekends..!!");
+		  if (!businessCalendar.isWorkingDay(startDate1)) {
+			 log.error("Invalid StartDate - requested for Weekends or Holidays : {}",startDate1);
+              throw new IllegalArgumentException("Invalid request Date - requested for Weekends or Holidays..!!");
           } 		 
 
-		 if (endDate1.getDayOfWeek() == DayOfWeek.SATURDAY
-                  || endDate1.getDayOfWeek() == DayOfWeek.SUNDAY) {
-			 log.error("Invalid Enddate - requested for Weekends : {}", endDate1);
-              throw new IllegalArgumentException("Invalid request Date - requested for Weekends..!!"); 
+		 if (!businessCalendar.isWorkingDay(endDate1)) {
+			 log.error("Invalid Enddate - requested for Weekends or Holidays : {}", endDate1);
+              throw new IllegalArgumentException("Invalid request Date - requested for Weekends or Holidays..!!"); 
           } 
 		 
 			Month requiredMonth = currentDate.getMonth().plus(1);
@@ -169,20 +177,6 @@ public class WorkFromHomeRequestValidator {
 			log.info("Requested Work From Home EndDate year is inValid : {}" +wfhRequestDto.endDate());
 			 throw new IllegalArgumentException("Requested EndDate year is invalid"); 
 		}
-       
-       
-	   Map<LocalDate, Boolean> getWeekEndDays = Ems2p0Utility.getWeekendDays(wfhRequestDto); 
-		  
-
-	   LocalDate startDate = getWeekEndDays.keySet().stream().map((date) -> date).min(LocalDate::compareTo).get();
-		
-	   LocalDate endDate = getWeekEndDays.keySet().stream().map((date) -> date).max(LocalDate::compareTo).get();
-		
-		log.info("Get StartDate: " + startDate); 
-		
-		log.info("Get End Date: " + endDate);
-		
-	   return Map.of(List.of(startDate, endDate),getWeekEndDays);
 		
 	  }
 }
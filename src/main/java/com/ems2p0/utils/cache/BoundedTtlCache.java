@@ -0,0 +1,165 @@
+package com.ems2p0.utils.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * EMS 2.0 - Small in-process cache bounded by size and time to live. The least
+ * recently used entry is evicted once the size limit is reached and expired
+ * entries are evicted when they are read.
+ *
+ * @author Mohan
+ * @category Utility layer - Cache
+ * @version v1.0.0
+ * @apiNote - Developer should be responsible to cache only immutable or
+ *          detached values, never managed entities.
+ */
+public class BoundedTtlCache<K, V> {
+
+	private final int maxSize;
+
+	private final long ttlNanos;
+
+	private final LinkedHashMap<K, Entry<V>> entries;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	public BoundedTtlCache(int maxSize, Duration ttl) {
+		this.maxSize = maxSize;
+		this.ttlNanos = ttl.toNanos();
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+				if (size() > BoundedTtlCache.this.maxSize) {
+					evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Method to fetch the cached value or null when it is absent or expired
+	 */
+	public V get(K key) {
+		lock.lock();
+		try {
+			Entry<V> entry = entries.get(key);
+			if (entry == null) {
+				misses.increment();
+				return null;
+			}
+			if (entry.isExpired(System.nanoTime())) {
+				entries.remove(key);
+				evictions.increment();
+				misses.increment();
+				return null;
+			}
+			hits.increment();
+			return entry.value();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Method to fetch the cached value or load and cache it. The loader runs
+	 * outside of the cache lock and null values are not cached.
+	 */
+	public V get(K key, Function<? super K, ? extends V> loader) {
+		V value = this.get(key);
+		if (value == null) {
+			value = loader.apply(key);
+			if (value != null) {
+				this.put(key, value);
+			}
+		}
+		return value;
+	}
+
+	public void put(K key, V value) {
+		this.put(key, value, ttlNanos);
+	}
+
+	public void put(K key, V value, Duration ttl) {
+		this.put(key, value, Math.min(ttl.toNanos(), ttlNanos));
+	}
+
+	private void put(K key, V value, long entryTtlNanos) {
+		if (entryTtlNanos <= 0) {
+			return;
+		}
+		lock.lock();
+		try {
+			entries.put(key, new Entry<>(value, System.nanoTime() + entryTtlNanos));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public V invalidate(K key) {
+		lock.lock();
+		try {
+			Entry<V> entry = entries.remove(key);
+			return entry == null ? null : entry.value();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Method to invalidate every entry which matches the predicate
+	 */
+	public void invalidateIf(BiPredicate<? super K, ? super V> predicate) {
+		lock.lock();
+		try {
+			entries.entrySet().removeIf(entry -> predicate.test(entry.getKey(), entry.getValue().value()));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void clear() {
+		lock.lock();
+		try {
+			entries.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int size() {
+		lock.lock();
+		try {
+			return entries.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public CacheStats stats() {
+		return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), this.size(), maxSize);
+	}
+
+	private record Entry<V>(V value, long expiresAtNanos) {
+
+		boolean isExpired(long nowNanos) {
+			return nowNanos - expiresAtNanos >= 0;
+		}
+	}
+}
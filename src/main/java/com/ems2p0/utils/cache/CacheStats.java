@@ -0,0 +1,13 @@
+package com.ems2p0.utils.cache;
+
+/**
+ * EMS 2.0 - Snapshot of the hit, miss and eviction metrics of a
+ * {@link BoundedTtlCache}
+ */
+public record CacheStats(long hits, long misses, long evictions, int size, int maxSize) {
+
+	public double hitRatio() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+}
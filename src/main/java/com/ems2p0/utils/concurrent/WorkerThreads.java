@@ -0,0 +1,75 @@
+package com.ems2p0.utils.concurrent;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * EMS 2.0 - Factory of the background worker threads of the in-process queues
+ * and the batch jobs, the workers run on virtual threads whenever the
+ * application runs with spring.threads.virtual.enabled=true on a JDK which
+ * supports them and on named platform threads otherwise.
+ *
+ * @author Mohan
+ * @category Utility layer - Concurrency
+ * @version v1.0.0
+ * @apiNote - Developer should be responsible to create every background thread
+ *          through this factory and to guard the code run by the workers with
+ *          java.util.concurrent locks instead of synchronized, which pins a
+ *          virtual thread to its carrier while it blocks.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WorkerThreads {
+
+	private final Environment environment;
+
+	private boolean virtual;
+
+	@PostConstruct
+	public void init() {
+		virtual = Threading.VIRTUAL.isActive(environment);
+		log.info("WorkerThreads : init() - background workers run on {} threads", virtual ? "virtual" : "platform");
+	}
+
+	/**
+	 * Method to fetch the thread factory of the long running workers
+	 */
+	public ThreadFactory threadFactory(String threadNamePrefix) {
+		return virtual ? new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory()
+				: new CustomizableThreadFactory(threadNamePrefix);
+	}
+
+	/**
+	 * Method to create a task executor which starts a thread per task
+	 */
+	public SimpleAsyncTaskExecutor taskExecutor(String threadNamePrefix) {
+		SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+		taskExecutor.setVirtualThreads(virtual);
+		return taskExecutor;
+	}
+
+	/**
+	 * Method to create a task executor which starts a thread per task and runs at
+	 * most the given number of tasks at a time
+	 */
+	public SimpleAsyncTaskExecutor taskExecutor(String threadNamePrefix, int concurrencyLimit) {
+		SimpleAsyncTaskExecutor taskExecutor = this.taskExecutor(threadNamePrefix);
+		taskExecutor.setConcurrencyLimit(concurrencyLimit);
+		return taskExecutor;
+	}
+
+	public boolean isVirtual() {
+		return virtual;
+	}
+}
@@ -0,0 +1,120 @@
+package com.ems2p0.utils.lock;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ems2p0.dto.exception.CustomExceptionDto;
+import com.ems2p0.enums.ExceptionMsg;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * EMS 2.0 - Striped locks by the employee id to serialize the request flows of
+ * the same employee, a fixed number of stripes is shared by all employees so
+ * the flows of different employees only wait for each other when their ids
+ * fall into the same stripe.
+ *
+ * @author Mohan
+ * @category Utility layer - Lock
+ * @version v1.0.0
+ * @apiNote - The locks are local to the instance and the guarded flow should
+ *          commit its writes before it returns, a flow which runs inside an
+ *          outer transaction would release the lock before its commit. The
+ *          flows which write several tables run by
+ *          {@link #callInTransaction(Integer, Callable)} so they commit as a
+ *          whole before the lock is released.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmployeeLocks {
+
+	/**
+	 * Injected transaction template to run the guarded flows in one transaction
+	 */
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${ems.employee-locks.stripes}")
+	private int stripeCount;
+
+	@Value("${ems.employee-locks.wait-ms}")
+	private long waitMillis;
+
+	private ReentrantLock[] stripes;
+
+	@PostConstruct
+	public void init() {
+		int size = Integer.highestOneBit(Math.max(stripeCount - 1, 1)) << 1;
+		stripes = new ReentrantLock[size];
+		for (int stripe = 0; stripe < size; stripe++) {
+			stripes[stripe] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Method to run the flow while holding the lock of the employee, a flow which
+	 * can not get the lock in time is rejected instead of piling up the request
+	 * threads
+	 */
+	public <T> T callWithLock(Integer empId, Callable<T> flow) throws Exception {
+		ReentrantLock lock = this.stripeOf(empId);
+		if (!lock.tryLock(waitMillis, TimeUnit.MILLISECONDS)) {
+			throw new CustomExceptionDto(ExceptionMsg.REQUEST_IN_PROGRESS.getMessage());
+		}
+		try {
+			return flow.call();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Method to run the flow in a single transaction while holding the lock of
+	 * the employee, the transaction commits before the lock is released and any
+	 * exception of the flow rolls back all of its writes
+	 */
+	public <T> T callInTransaction(Integer empId, Callable<T> flow) throws Exception {
+		return this.callWithLock(empId, () -> {
+			try {
+				return transactionTemplate.execute(status -> {
+					try {
+						return flow.call();
+					} catch (RuntimeException e) {
+						throw e;
+					} catch (Exception e) {
+						throw new FlowException(e);
+					}
+				});
+			} catch (FlowException e) {
+				throw e.getCause();
+			}
+		});
+	}
+
+	private ReentrantLock stripeOf(Integer empId) {
+		int hash = empId != null ? empId.hashCode() : 0;
+		return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+	}
+
+	/**
+	 * Carries the checked exception of a flow out of the transaction callback
+	 */
+	private static final class FlowException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		FlowException(Exception cause) {
+			super(cause);
+		}
+
+		@Override
+		public synchronized Exception getCause() {
+			return (Exception) super.getCause();
+		}
+	}
+}
@@ -0,0 +1,18 @@
+-- EMS 2.0 - The permission and work from home histories are paged by
+-- (created_date_time, id), a row without a created date time is never reached
+-- by the keyset predicate. The legacy rows are dated from their last
+-- modification or their requested day, then the column is made NOT NULL.
+-- ddl-auto=update never tightens an existing column, run this once before
+-- deploying the keyset pagination.
+
+UPDATE emp_permission_details
+SET created_date_time = COALESCE(modified_date_time, TIMESTAMP(date), TIMESTAMP '1970-01-01 00:00:00')
+WHERE created_date_time IS NULL;
+
+ALTER TABLE emp_permission_details MODIFY created_date_time DATETIME(6) NOT NULL;
+
+UPDATE emp_wfh_details
+SET created_date_time = COALESCE(modified_date_time, TIMESTAMP(start_date), TIMESTAMP '1970-01-01 00:00:00')
+WHERE created_date_time IS NULL;
+
+ALTER TABLE emp_wfh_details MODIFY created_date_time DATETIME(6) NOT NULL;
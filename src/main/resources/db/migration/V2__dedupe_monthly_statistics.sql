@@ -0,0 +1,69 @@
+-- EMS 2.0 - The monthly permission and work from home balances are unique by
+-- employee and month. Racing first requests of the legacy code could create
+-- several balances of the same month, each holding a part of the taken quota,
+-- and the unique keys can not be created while they exist. The duplicates are
+-- merged into the balance with the lowest id: the taken quota is summed, the
+-- remaining and overdue quota are derived from it and the requests are moved
+-- over before the other balances are deleted. Run this once before deploying
+-- the unique keys. ddl-auto=update can not create them over duplicates, on a
+-- database where it already created a key leave out its ALTER TABLE statement.
+
+CREATE TEMPORARY TABLE emp_permission_statistics_merge AS
+SELECT empId, month, MIN(id) AS keep_id, SUM(COALESCE(TIME_TO_SEC(hoursTaken), 0)) AS taken_seconds
+FROM emp_permission_statistics
+WHERE empId IS NOT NULL
+GROUP BY empId, month
+HAVING COUNT(*) > 1;
+
+UPDATE emp_permission_statistics eps
+JOIN emp_permission_statistics_merge merged ON merged.keep_id = eps.id
+SET eps.hoursTaken = SEC_TO_TIME(merged.taken_seconds),
+    eps.remainingPermission = SEC_TO_TIME(GREATEST(0, COALESCE(TIME_TO_SEC(eps.totalPermission), 10800)
+        - merged.taken_seconds)),
+    eps.overduePermission = SEC_TO_TIME(GREATEST(0, merged.taken_seconds
+        - COALESCE(TIME_TO_SEC(eps.totalPermission), 10800)));
+
+UPDATE emp_permission_details epd
+JOIN emp_permission_statistics eps ON eps.id = epd.empPermissionStatistics_id
+JOIN emp_permission_statistics_merge merged ON merged.empId = eps.empId AND merged.month = eps.month
+SET epd.empPermissionStatistics_id = merged.keep_id
+WHERE eps.id <> merged.keep_id;
+
+DELETE eps FROM emp_permission_statistics eps
+JOIN emp_permission_statistics_merge merged ON merged.empId = eps.empId AND merged.month = eps.month
+WHERE eps.id <> merged.keep_id;
+
+DROP TEMPORARY TABLE emp_permission_statistics_merge;
+
+ALTER TABLE emp_permission_statistics
+ADD CONSTRAINT uk_emp_permission_statistics_emp_month UNIQUE (empId, month);
+
+CREATE TEMPORARY TABLE emp_wfh_statistics_merge AS
+SELECT userCredentialEmp_id, month, MIN(id) AS keep_id, SUM(daysTaken) AS taken_days
+FROM emp_wfh_statistics
+WHERE userCredentialEmp_id IS NOT NULL
+GROUP BY userCredentialEmp_id, month
+HAVING COUNT(*) > 1;
+
+UPDATE emp_wfh_statistics ews
+JOIN emp_wfh_statistics_merge merged ON merged.keep_id = ews.id
+SET ews.daysTaken = merged.taken_days,
+    ews.remainingWfhDays = GREATEST(0, COALESCE(ews.totalWfhDays, 4) - merged.taken_days),
+    ews.overdueWfhDays = GREATEST(0, merged.taken_days - COALESCE(ews.totalWfhDays, 4));
+
+UPDATE emp_wfh_details ewd
+JOIN emp_wfh_statistics ews ON ews.id = ewd.empWfhStatistics_id
+JOIN emp_wfh_statistics_merge merged
+    ON merged.userCredentialEmp_id = ews.userCredentialEmp_id AND merged.month = ews.month
+SET ewd.empWfhStatistics_id = merged.keep_id
+WHERE ews.id <> merged.keep_id;
+
+DELETE ews FROM emp_wfh_statistics ews
+JOIN emp_wfh_statistics_merge merged
+    ON merged.userCredentialEmp_id = ews.userCredentialEmp_id AND merged.month = ews.month
+WHERE ews.id <> merged.keep_id;
+
+DROP TEMPORARY TABLE emp_wfh_statistics_merge;
+
+ALTER TABLE emp_wfh_statistics
+ADD CONSTRAINT uk_emp_wfh_statistics_emp_month UNIQUE (userCredentialEmp_id, month);
@@ -0,0 +1,141 @@
+package com.ems2p0.components.calendar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ems2p0.components.clock.EmsClock;
+import com.ems2p0.repo.CompanyHolidayRepo;
+
+/**
+ * EMS 2.0 - Tests of the business calendar over a window of the year 2026 with
+ * a weekday holiday, a holiday on a saturday and a holiday out of the window.
+ *
+ * @author Mohan
+ * @category Calendar module
+ * @version v1.0.0
+ */
+class BusinessCalendarTest {
+
+	private static final Set<DayOfWeek> WEEKEND = Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+
+	private static final LocalDate REPUBLIC_DAY = LocalDate.of(2026, 1, 26);
+
+	private static final LocalDate INDEPENDENCE_DAY = LocalDate.of(2026, 8, 15);
+
+	private static final LocalDate CHRISTMAS = LocalDate.of(2026, 12, 25);
+
+	private static final LocalDate OUT_OF_WINDOW_HOLIDAY = LocalDate.of(2027, 1, 26);
+
+	private CompanyHolidayRepo companyHolidayRepo;
+
+	private BusinessCalendar businessCalendar;
+
+	@BeforeEach
+	void setUp() {
+		companyHolidayRepo = mock(CompanyHolidayRepo.class);
+		EmsClock emsClock = mock(EmsClock.class);
+		when(emsClock.now()).thenReturn(LocalDateTime.of(2026, 6, 15, 10, 0));
+		when(companyHolidayRepo.findHolidayDatesBetween(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31)))
+				.thenReturn(List.of(REPUBLIC_DAY, INDEPENDENCE_DAY, CHRISTMAS, CHRISTMAS, OUT_OF_WINDOW_HOLIDAY));
+
+		businessCalendar = new BusinessCalendar(companyHolidayRepo, emsClock);
+		ReflectionTestUtils.setField(businessCalendar, "weekendDays", WEEKEND);
+		ReflectionTestUtils.setField(businessCalendar, "yearsBack", 0);
+		ReflectionTestUtils.setField(businessCalendar, "yearsAhead", 0);
+		businessCalendar.rebuild();
+	}
+
+	@Test
+	void loadsTheHolidaysOfTheWindowOnce() {
+		verify(companyHolidayRepo).findHolidayDatesBetween(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31));
+		BusinessCalendarStats stats = businessCalendar.stats();
+		assertEquals(2026, stats.firstYear());
+		assertEquals(2026, stats.lastYear());
+		assertEquals(3, stats.holidays());
+	}
+
+	@Test
+	void checksTheWorkingDays() {
+		assertTrue(businessCalendar.isWorkingDay(LocalDate.of(2026, 6, 15)));
+		assertFalse(businessCalendar.isWorkingDay(LocalDate.of(2026, 6, 13)));
+		assertFalse(businessCalendar.isWorkingDay(REPUBLIC_DAY));
+		assertFalse(businessCalendar.isWorkingDay(INDEPENDENCE_DAY));
+		assertTrue(businessCalendar.isWorkingDay(LocalDate.of(2026, 1, 1)));
+		assertTrue(businessCalendar.isWorkingDay(LocalDate.of(2026, 12, 31)));
+	}
+
+	@Test
+	void fallsBackToTheWeekendsOutOfTheWindow() {
+		assertTrue(businessCalendar.isWorkingDay(OUT_OF_WINDOW_HOLIDAY));
+		assertTrue(businessCalendar.isWorkingDay(LocalDate.of(2028, 3, 1)));
+		assertFalse(businessCalendar.isWorkingDay(LocalDate.of(2025, 12, 27)));
+		assertEquals(3, businessCalendar.stats().fallbacks());
+	}
+
+	@Test
+	void countsNoDaysWhenTheEndIsBeforeTheStart() {
+		assertEquals(0, businessCalendar.businessDaysBetween(LocalDate.of(2026, 6, 19), LocalDate.of(2026, 6, 15)));
+		assertEquals(0, businessCalendar.businessDaysBetween(LocalDate.of(2027, 6, 19), LocalDate.of(2025, 6, 15)));
+	}
+
+	@Test
+	void countsAHolidayOnAWeekendOnce() {
+		assertEquals(5, businessCalendar.businessDaysBetween(LocalDate.of(2026, 8, 10), LocalDate.of(2026, 8, 16)));
+		assertEquals(4, businessCalendar.businessDaysBetween(LocalDate.of(2026, 1, 26), LocalDate.of(2026, 1, 30)));
+	}
+
+	@Test
+	void countsTheRangesAcrossTheWindowEdges() {
+		assertEquals(24, businessCalendar.businessDaysBetween(LocalDate.of(2025, 12, 29), LocalDate.of(2026, 1, 30)));
+		assertEquals(14, businessCalendar.businessDaysBetween(LocalDate.of(2026, 12, 21), LocalDate.of(2027, 1, 8)));
+		assertEquals(2, businessCalendar.businessDaysBetween(LocalDate.of(2026, 12, 31), LocalDate.of(2027, 1, 1)));
+		assertEquals(303, businessCalendar.businessDaysBetween(LocalDate.of(2025, 12, 1), LocalDate.of(2027, 1, 31)));
+	}
+
+	@Test
+	void countsTheRangesOutOfTheWindow() {
+		assertEquals(21, businessCalendar.businessDaysBetween(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)));
+		assertEquals(23, businessCalendar.businessDaysBetween(LocalDate.of(2027, 3, 1), LocalDate.of(2027, 3, 31)));
+	}
+
+	@Test
+	void matchesADayByDayCountAroundTheWindowEdges() {
+		for (LocalDate edge : List.of(LocalDate.of(2026, 1, 1), LocalDate.of(2027, 1, 1))) {
+			for (LocalDate from = edge.minusDays(10); from.isBefore(edge.plusDays(10)); from = from.plusDays(1)) {
+				for (LocalDate to = from; to.isBefore(from.plusDays(21)); to = to.plusDays(1)) {
+					assertEquals(this.countDayByDay(from, to), businessCalendar.businessDaysBetween(from, to),
+							from + " to " + to);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reference count which checks every day, the holidays count only inside the
+	 * window
+	 */
+	private int countDayByDay(LocalDate from, LocalDate to) {
+		Set<LocalDate> holidays = Set.of(REPUBLIC_DAY, INDEPENDENCE_DAY, CHRISTMAS);
+		int count = 0;
+		for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+			if (!WEEKEND.contains(day.getDayOfWeek()) && !holidays.contains(day)) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,166 @@
+package com.ems2p0.components.mail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ems2p0.components.mail.SmtpTransportPool.PooledTransport;
+import com.ems2p0.enums.MailTemplate;
+import com.ems2p0.enums.SecurityRoleProperties;
+import com.ems2p0.utils.concurrent.WorkerThreads;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * EMS 2.0 - Tests of the mail outbox against an embedded SMTP server, the
+ * outbox and the transport pool are wired by hand without the application
+ * context.
+ *
+ * @author Mohan
+ * @category Mail module
+ * @version v1.0.0
+ */
+class MailOutboxTest {
+
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	private static final String TO = "employee@localhost";
+
+	private SmtpTransportPool transportPool;
+
+	private MailOutbox mailOutbox;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+		mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+		mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+		transportPool = spy(new SmtpTransportPool(mailSender));
+		ReflectionTestUtils.setField(transportPool, "poolSize", 1);
+		ReflectionTestUtils.setField(transportPool, "maxIdleMillis", 60000L);
+		transportPool.init();
+
+		MailTemplateRegistry templateRegistry = new MailTemplateRegistry();
+		templateRegistry.init();
+		WorkerThreads workerThreads = new WorkerThreads(new MockEnvironment());
+		workerThreads.init();
+
+		mailOutbox = new MailOutbox(mailSender, transportPool, templateRegistry, workerThreads);
+		ReflectionTestUtils.setField(mailOutbox, "fromEmail", "ems2p0@localhost");
+		ReflectionTestUtils.setField(mailOutbox, "capacity", 10);
+		ReflectionTestUtils.setField(mailOutbox, "workerCount", 1);
+		ReflectionTestUtils.setField(mailOutbox, "maxAttempts", 3);
+		ReflectionTestUtils.setField(mailOutbox, "backoffMillis", 10L);
+		mailOutbox.start();
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		mailOutbox.shutdown();
+		transportPool.shutdown();
+	}
+
+	@Test
+	void sendsTheRenderedMail() throws Exception {
+		assertTrue(mailOutbox.enqueue(TO, MailTemplate.OTP, Map.of("employeeName", "Mohan", "otp", 123456)));
+
+		assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+		MimeMessage received = greenMail.getReceivedMessages()[0];
+		assertEquals(TO, received.getAllRecipients()[0].toString());
+		assertEquals(SecurityRoleProperties.MAIL_SUBJECT.getMessage().trim(), received.getSubject().trim());
+		assertTrue(GreenMailUtil.getBody(received).contains("123456"));
+
+		MailOutboxStats stats = this.awaitProcessed(1);
+		assertEquals(1, stats.sent());
+		assertEquals(0, stats.retried());
+		assertEquals(0, stats.failed());
+	}
+
+	@Test
+	void retriesATransientFailure() throws Exception {
+		doThrow(new MessagingException("Connection reset")).doCallRealMethod().when(transportPool).borrow();
+
+		assertTrue(mailOutbox.enqueue(TO, MailTemplate.OTP, Map.of("employeeName", "Mohan", "otp", 654321)));
+
+		assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+		MailOutboxStats stats = this.awaitProcessed(1);
+		assertEquals(1, stats.sent());
+		assertEquals(1, stats.retried());
+		assertEquals(0, stats.failed());
+		verify(transportPool, times(2)).borrow();
+	}
+
+	@Test
+	void retriesWithoutHoldingTheOtherMails() throws Exception {
+		ReflectionTestUtils.setField(mailOutbox, "backoffMillis", 500L);
+		doThrow(new MessagingException("Connection reset")).doCallRealMethod().when(transportPool).borrow();
+
+		assertTrue(mailOutbox.enqueue("first@localhost", MailTemplate.OTP,
+				Map.of("employeeName", "Mohan", "otp", 222222)));
+		assertTrue(mailOutbox.enqueue("second@localhost", MailTemplate.OTP,
+				Map.of("employeeName", "Aarthi", "otp", 333333)));
+
+		assertTrue(greenMail.waitForIncomingEmail(5000, 2));
+		MimeMessage[] received = greenMail.getReceivedMessages();
+		assertEquals("second@localhost", received[0].getAllRecipients()[0].toString());
+		assertEquals("first@localhost", received[1].getAllRecipients()[0].toString());
+		MailOutboxStats stats = this.awaitProcessed(2);
+		assertEquals(2, stats.sent());
+		assertEquals(1, stats.retried());
+		assertEquals(0, stats.retryDepth());
+	}
+
+	@Test
+	void doesNotRetryARejectedMail() throws Exception {
+		Transport transport = mock(Transport.class);
+		doThrow(new SendFailedException("550 Mailbox unavailable")).when(transport).sendMessage(any(), any());
+		doReturn(new PooledTransport(transport, System.currentTimeMillis())).when(transportPool).borrow();
+
+		assertTrue(mailOutbox.enqueue(TO, MailTemplate.OTP, Map.of("employeeName", "Mohan", "otp", 111111)));
+
+		MailOutboxStats stats = this.awaitProcessed(1);
+		assertEquals(0, stats.sent());
+		assertEquals(0, stats.retried());
+		assertEquals(1, stats.failed());
+		verify(transport, times(1)).sendMessage(any(), any());
+		verify(transportPool, times(1)).borrow();
+		assertEquals(0, greenMail.getReceivedMessages().length);
+	}
+
+	/**
+	 * Waits until the workers either sent or gave up on the given number of mails
+	 */
+	private MailOutboxStats awaitProcessed(long count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		MailOutboxStats stats = mailOutbox.stats();
+		while (stats.sent() + stats.failed() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			stats = mailOutbox.stats();
+		}
+		return stats;
+	}
+}
@@ -0,0 +1,193 @@
+package com.ems2p0.pushnotification.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ems2p0.pushnotification.model.DispatchStats;
+import com.ems2p0.pushnotification.model.NotificationRequest;
+import com.ems2p0.pushnotification.model.PendingPushNotification;
+import com.ems2p0.pushnotification.repository.PendingPushNotificationRepository;
+import com.ems2p0.utils.concurrent.WorkerThreads;
+
+/**
+ * EMS 2.0 - Offline tests of the push notification dispatch queue against the
+ * fake firebase messaging service, the outbox repository is stubbed.
+ *
+ * @author Mohan
+ * @category Push notification module
+ * @version v1.0.0
+ */
+class NotificationDispatcherTest {
+
+	private static final String TOPIC = "all";
+
+	private FakeFirebaseMessagingService firebaseMessagingService;
+
+	private PendingPushNotificationRepository outboxRepository;
+
+	private NotificationDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp() {
+		firebaseMessagingService = new FakeFirebaseMessagingService();
+		outboxRepository = mock(PendingPushNotificationRepository.class);
+		AtomicLong outboxIds = new AtomicLong();
+		when(outboxRepository.save(any(PendingPushNotification.class)))
+				.thenAnswer(invocation -> invocation.<PendingPushNotification>getArgument(0)
+						.setId(outboxIds.incrementAndGet()));
+		WorkerThreads workerThreads = new WorkerThreads(new MockEnvironment());
+		workerThreads.init();
+
+		dispatcher = new NotificationDispatcher(firebaseMessagingService, outboxRepository, workerThreads);
+		ReflectionTestUtils.setField(dispatcher, "capacity", 100);
+		ReflectionTestUtils.setField(dispatcher, "workerCount", 1);
+		ReflectionTestUtils.setField(dispatcher, "drainSize", 100);
+		ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+		ReflectionTestUtils.setField(dispatcher, "backoffMillis", 10L);
+		ReflectionTestUtils.setField(dispatcher, "coalesce", true);
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		firebaseMessagingService.release();
+		dispatcher.shutdown();
+	}
+
+	@Test
+	void coalescesOnlyIdenticalNotifications() throws InterruptedException {
+		dispatcher.start();
+		firebaseMessagingService.hold();
+		assertTrue(dispatcher.dispatch(request("Mohan Permission Request", "Requested permission", "t0")));
+		this.awaitSentRequests(1);
+
+		dispatcher.dispatch(request("Mohan Permission Request", "Requested permission", "t1"));
+		dispatcher.dispatch(request("Mohan Permission Request", "Requested permission", "t2", "t1"));
+		dispatcher.dispatch(request("Aarthi WFH Request", "Requested work from home", "t1"));
+		firebaseMessagingService.release();
+
+		DispatchStats stats = this.awaitStats(current -> current.sent() == 3);
+		assertEquals(4, stats.enqueued());
+		assertEquals(1, stats.coalesced());
+		List<NotificationRequest> sentRequests = firebaseMessagingService.getSentRequests();
+		assertEquals(3, sentRequests.size());
+		assertEquals("Mohan Permission Request", sentRequests.get(1).getTitle());
+		assertEquals(List.of("t1", "t2"), sentRequests.get(1).getToken());
+		assertEquals("Aarthi WFH Request", sentRequests.get(2).getTitle());
+		assertEquals(List.of("t1"), sentRequests.get(2).getToken());
+	}
+
+	@Test
+	void retriesAFailedMulticastWithoutHoldingTheQueue() throws InterruptedException {
+		ReflectionTestUtils.setField(dispatcher, "backoffMillis", 500L);
+		dispatcher.start();
+		firebaseMessagingService.failNextSends(1);
+		dispatcher.dispatch(request("Failing", "first", "t1"));
+		this.awaitStats(current -> current.retried() == 1);
+		dispatcher.dispatch(request("Healthy", "second", "t2"));
+
+		DispatchStats stats = this.awaitStats(current -> current.sent() == 2);
+		assertEquals(1, stats.retried());
+		assertEquals(0, stats.failed());
+		List<String> titles = firebaseMessagingService.getSentRequests().stream().map(NotificationRequest::getTitle)
+				.toList();
+		assertEquals(List.of("Failing", "Healthy", "Failing"), titles);
+	}
+
+	@Test
+	void retriesOnlyTheDevicesWhichFailedInTheMulticast() throws InterruptedException {
+		dispatcher.start();
+		firebaseMessagingService.failTokensOnce(List.of("t2"));
+		firebaseMessagingService.rejectTokens(List.of("t3"));
+		dispatcher.dispatch(request("Partial", "message", "t1", "t2", "t3"));
+
+		DispatchStats stats = this.awaitStats(current -> current.sent() == 1);
+		assertEquals(1, stats.retried());
+		assertEquals(1, stats.rejectedTokens());
+		List<NotificationRequest> sentRequests = firebaseMessagingService.getSentRequests();
+		assertEquals(2, sentRequests.size());
+		assertEquals(List.of("t2"), sentRequests.get(1).getToken());
+	}
+
+	@Test
+	void givesUpAfterTheLastAttempt() throws InterruptedException {
+		dispatcher.start();
+		firebaseMessagingService.failNextSends(3);
+		dispatcher.dispatch(request("Failing", "message", "t1"));
+
+		DispatchStats stats = this.awaitStats(current -> current.failed() == 1);
+		assertEquals(2, stats.retried());
+		assertEquals(0, stats.sent());
+		assertEquals(0, stats.retryDepth());
+		assertEquals(3, firebaseMessagingService.getSentRequests().size());
+	}
+
+	@Test
+	void splitsTheDevicesByTheMulticastLimit() throws InterruptedException {
+		dispatcher.start();
+		String[] tokens = IntStream.range(0, 1203).mapToObj(index -> "t" + index).toArray(String[]::new);
+		dispatcher.dispatch(request("Broadcast", "message", tokens));
+
+		this.awaitStats(current -> current.sent() == 1);
+		List<Integer> chunkSizes = firebaseMessagingService.getSentRequests().stream()
+				.map(request -> request.getToken().size()).toList();
+		assertEquals(List.of(500, 500, 203), chunkSizes);
+	}
+
+	@Test
+	void resumesTheOutboxOnStart() throws InterruptedException {
+		PendingPushNotification pending = new PendingPushNotification().setId(41L).setTitle("Left over")
+				.setMessage("message").setTopic(TOPIC).setTokens("t1,t2").setAttempt(2)
+				.setNextAttemptAtMillis(System.currentTimeMillis());
+		when(outboxRepository.findAll()).thenReturn(List.of(pending));
+		dispatcher.start();
+
+		DispatchStats stats = this.awaitStats(current -> current.sent() == 1);
+		assertEquals(1, stats.resumed());
+		assertEquals(List.of("t1", "t2"), firebaseMessagingService.getSentRequests().get(0).getToken());
+		verify(outboxRepository).deleteAllByIdInBatch(List.of(41L));
+	}
+
+	private static NotificationRequest request(String title, String message, String... tokens) {
+		return new NotificationRequest().setTitle(title).setMessage(message).setTopic(TOPIC)
+				.setToken(List.of(tokens));
+	}
+
+	/**
+	 * Waits until the fake firebase service recorded the given number of
+	 * multicasts
+	 */
+	private void awaitSentRequests(int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (firebaseMessagingService.getSentRequests().size() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * Waits until the dispatch metrics match the condition
+	 */
+	private DispatchStats awaitStats(Predicate<DispatchStats> condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		DispatchStats stats = dispatcher.stats();
+		while (!condition.test(stats) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+			stats = dispatcher.stats();
+		}
+		return stats;
+	}
+}
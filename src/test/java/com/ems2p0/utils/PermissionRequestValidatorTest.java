@@ -0,0 +1,90 @@
+package com.ems2p0.utils;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ems2p0.components.calendar.BusinessCalendar;
+import com.ems2p0.components.clock.EmsClock;
+import com.ems2p0.components.clock.LocalTimeSource;
+import com.ems2p0.dto.request.RequestPermissionDto;
+
+/**
+ * EMS 2.0 - Tests of the permission date validation against the application
+ * clock, which is pinned to Monday 15 June 2026 10:00 by skewing the local time
+ * source.
+ *
+ * @author Mohan
+ * @category Utility layer
+ * @version v1.0.0
+ */
+class PermissionRequestValidatorTest {
+
+	private static final LocalDateTime PINNED_TIME = LocalDateTime.of(2026, 6, 15, 10, 0);
+
+	private static final String MONTH = "June-2026";
+
+	private EmsClock emsClock;
+
+	private PermissionRequestValidator validator;
+
+	@BeforeEach
+	void setUp() {
+		long pinnedMillis = PINNED_TIME.atZone(ZoneId.of(Ems2p0Constants.ZONE_ID)).toInstant().toEpochMilli();
+		LocalTimeSource timeSource = new LocalTimeSource();
+		ReflectionTestUtils.setField(timeSource, "skewMillis", pinnedMillis - System.currentTimeMillis());
+		emsClock = new EmsClock(timeSource);
+		emsClock.synchronize();
+
+		BusinessCalendar businessCalendar = mock(BusinessCalendar.class);
+		when(businessCalendar.isWorkingDay(any(LocalDate.class))).thenReturn(true);
+		validator = new PermissionRequestValidator(businessCalendar, emsClock);
+	}
+
+	@Test
+	void servesThePinnedTime() {
+		assertEquals(PINNED_TIME.toLocalDate(), emsClock.now().toLocalDate());
+		assertEquals(PINNED_TIME.getHour(), emsClock.now().getHour());
+	}
+
+	@Test
+	void acceptsAWorkingDayWithinTheWeek() {
+		assertDoesNotThrow(() -> validator.request(request(LocalDate.of(2026, 6, 17), 11, 12)));
+	}
+
+	@Test
+	void rejectsADayBeforeTheClock() {
+		assertThrows(IllegalArgumentException.class,
+				() -> validator.request(request(LocalDate.of(2026, 6, 12), 11, 12)));
+	}
+
+	@Test
+	void rejectsADayBeyondTheWeek() {
+		assertThrows(IllegalArgumentException.class,
+				() -> validator.request(request(LocalDate.of(2026, 6, 23), 11, 12)));
+	}
+
+	@Test
+	void acceptsTodayOnlyFromTheCurrentTime() {
+		assertDoesNotThrow(() -> validator.request(request(PINNED_TIME.toLocalDate(), 11, 12)));
+		assertThrows(IllegalArgumentException.class,
+				() -> validator.request(request(PINNED_TIME.toLocalDate(), 9, 11)));
+	}
+
+	private static RequestPermissionDto request(LocalDate date, int startHour, int endHour) {
+		return new RequestPermissionDto(null, MONTH, date, LocalTime.of(startHour, 0), LocalTime.of(endHour, 0),
+				"Personal work");
+	}
+}